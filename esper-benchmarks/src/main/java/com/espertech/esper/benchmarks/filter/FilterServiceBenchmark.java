@@ -0,0 +1,126 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.filter;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching an event against a large number of filters in {@link FilterServiceLockFine}.
+ * <p>
+ * Equals-filters each match a distinct int value so that an event matches exactly one filter,
+ * range-filters each cover ten consecutive double values so that an event matches about ten filters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterServiceBenchmark
+{
+    private static final int NUM_EVENTS = 1024;
+
+    public enum FilterKind {
+        EQUAL, RANGE
+    }
+
+    @Param({"EQUAL", "RANGE"})
+    public FilterKind filterKind;
+
+    @Param({"10000", "100000", "1000000"})
+    public int numFilters;
+
+    private EPServiceProvider engine;
+    private FilterServiceLockFine filterService;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngine.getEngine(FilterServiceBenchmark.class.getSimpleName());
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) engine;
+        EventType eventType = spi.getEventAdapterService().getExistsTypeByName(BenchmarkEngine.TYPE_POJO);
+
+        filterService = new FilterServiceLockFine(false);
+        FilterSpecLookupable lookupable = filterKind == FilterKind.EQUAL ? makeLookupable(eventType, "intPrimitive") : makeLookupable(eventType, "doublePrimitive");
+        for (int i = 0; i < numFilters; i++) {
+            FilterValueSetParam param;
+            if (filterKind == FilterKind.EQUAL) {
+                param = new FilterValueSetParamImpl(lookupable, FilterOperator.EQUAL, i);
+            }
+            else {
+                param = new FilterValueSetParamImpl(lookupable, FilterOperator.RANGE_CLOSED, new DoubleRange((double) i, (double) i + 9));
+            }
+            FilterValueSet valueSet = new FilterValueSetImpl(eventType, new FilterValueSetParam[][] {{param}});
+            filterService.add(valueSet, new BenchmarkFilterHandle(i));
+        }
+
+        Random random = new Random(1);
+        events = new EventBean[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            int value = random.nextInt(numFilters);
+            events[i] = spi.getEventAdapterService().adapterForBean(new BenchmarkBean("E" + i, value, value, value));
+        }
+        matches = new ArrayList<FilterHandle>();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        filterService.destroy();
+        engine.destroy();
+    }
+
+    /**
+     * Evaluates one event.
+     * @return number of matching filters
+     */
+    @Benchmark
+    public int evaluate()
+    {
+        EventBean event = events[next];
+        next = (next + 1) & (NUM_EVENTS - 1);
+        filterService.evaluate(event, matches);
+        int count = matches.size();
+        matches.clear();
+        return count;
+    }
+
+    private static FilterSpecLookupable makeLookupable(EventType eventType, String propertyName)
+    {
+        return new FilterSpecLookupable(propertyName, eventType.getGetter(propertyName), eventType.getPropertyType(propertyName), false);
+    }
+
+    private static class BenchmarkFilterHandle implements FilterHandle
+    {
+        private final int statementId;
+
+        private BenchmarkFilterHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+    }
+}
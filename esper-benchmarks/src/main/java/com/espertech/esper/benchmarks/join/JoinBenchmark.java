@@ -0,0 +1,93 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.join;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures 2-way and 3-way equi-joins: the first stream retains the last event and
+ * joins against unique-windows that each hold one event per key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark
+{
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"2", "3"})
+    public int numStreams;
+
+    @Param({"1000", "100000"})
+    public int numKeys;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private Object[][] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Configuration configuration = BenchmarkEngine.getConfiguration();
+        for (int i = 0; i < numStreams; i++) {
+            configuration.addEventType("S" + i, BenchmarkBean.PROPERTY_NAMES, BenchmarkBean.PROPERTY_TYPES);
+        }
+        engine = BenchmarkEngine.getEngine(JoinBenchmark.class.getSimpleName(), configuration);
+        runtime = engine.getEPRuntime();
+
+        StringBuilder epl = new StringBuilder("select s0.longPrimitive, s1.longPrimitive from S0#lastevent as s0");
+        for (int i = 1; i < numStreams; i++) {
+            epl.append(", S").append(i).append("#unique(intPrimitive) as s").append(i);
+        }
+        epl.append(" where ");
+        for (int i = 1; i < numStreams; i++) {
+            if (i > 1) {
+                epl.append(" and ");
+            }
+            epl.append("s").append(i - 1).append(".intPrimitive = s").append(i).append(".intPrimitive");
+        }
+        BenchmarkEngine.createStatement(engine, epl.toString());
+
+        for (int stream = 1; stream < numStreams; stream++) {
+            for (int key = 0; key < numKeys; key++) {
+                runtime.sendEvent(new BenchmarkBean("S" + stream, key, key, key).toObjectArray(), "S" + stream);
+            }
+        }
+
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            int key = (int) ((i * 2654435761L) % numKeys);
+            events[i] = new BenchmarkBean("S0", key, i, i).toObjectArray();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[next], "S0");
+        next = (next + 1) & (NUM_EVENTS - 1);
+    }
+}
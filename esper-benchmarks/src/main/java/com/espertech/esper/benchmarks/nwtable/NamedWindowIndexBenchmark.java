@@ -0,0 +1,81 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.nwtable;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures subquery lookups against a named window with an explicit hash index on a long column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamedWindowIndexBenchmark
+{
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"100000", "1000000"})
+    public int numRows;
+
+    @Param({"true", "false"})
+    public boolean unique;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private Object[][] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Configuration configuration = BenchmarkEngine.getConfiguration();
+        configuration.addEventType("Row", BenchmarkBean.PROPERTY_NAMES, BenchmarkBean.PROPERTY_TYPES);
+        configuration.addEventType("Query", BenchmarkBean.PROPERTY_NAMES, BenchmarkBean.PROPERTY_TYPES);
+        engine = BenchmarkEngine.getEngine(NamedWindowIndexBenchmark.class.getSimpleName(), configuration);
+        runtime = engine.getEPRuntime();
+
+        engine.getEPAdministrator().createEPL("create window RowWindow#keepall as Row");
+        engine.getEPAdministrator().createEPL("insert into RowWindow select * from Row");
+        engine.getEPAdministrator().createEPL("create " + (unique ? "unique " : "") + "index RowIndex on RowWindow(longPrimitive)");
+        BenchmarkEngine.createStatement(engine, "select (select doublePrimitive from RowWindow as w where w.longPrimitive = q.longPrimitive) as value from Query as q");
+
+        for (int i = 0; i < numRows; i++) {
+            runtime.sendEvent(new BenchmarkBean("R" + i, i, i * 31L, i).toObjectArray(), "Row");
+        }
+
+        events = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            long key = ((i * 2654435761L) % numRows) * 31L;
+            events[i] = new BenchmarkBean("Q", i, key, i).toObjectArray();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void lookup()
+    {
+        runtime.sendEvent(events[next], "Query");
+        next = (next + 1) & (NUM_EVENTS - 1);
+    }
+}
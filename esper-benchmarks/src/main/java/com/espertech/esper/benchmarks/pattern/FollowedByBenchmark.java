@@ -0,0 +1,72 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.pattern;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a correlated followed-by pattern with a constant number of active pattern instances.
+ * <p>
+ * Each invocation completes the instance waiting for one key and starts a new instance for the same key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FollowedByBenchmark
+{
+    @Param({"10", "10000"})
+    public int numActive;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkBean[] startEvents;
+    private BenchmarkBean[] endEvents;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngine.getEngine(FollowedByBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        BenchmarkEngine.createStatement(engine, "select a.longPrimitive, b.longPrimitive from pattern [" +
+                "every a=" + BenchmarkEngine.TYPE_POJO + "(theString='A') -> " +
+                "b=" + BenchmarkEngine.TYPE_POJO + "(theString='B', intPrimitive=a.intPrimitive)]");
+
+        startEvents = new BenchmarkBean[numActive];
+        endEvents = new BenchmarkBean[numActive];
+        for (int i = 0; i < numActive; i++) {
+            startEvents[i] = new BenchmarkBean("A", i, i, i);
+            endEvents[i] = new BenchmarkBean("B", i, i, i);
+            runtime.sendEvent(startEvents[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void sendEvents()
+    {
+        runtime.sendEvent(endEvents[next]);
+        runtime.sendEvent(startEvents[next]);
+        next = next + 1 == numActive ? 0 : next + 1;
+    }
+}
@@ -0,0 +1,74 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.resultset;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures grouped aggregation of a fully-aggregated, grouped query (row-per-group result set processor),
+ * with and without a length window that removes events from groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupByBenchmark
+{
+    private static final int NUM_EVENTS = 16384;
+
+    @Param({"10", "10000"})
+    public int numGroups;
+
+    @Param({"", "#length(1000)"})
+    public String window;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkBean[] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngine.getEngine(GroupByBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        BenchmarkEngine.createStatement(engine, "select theString, count(*), sum(longPrimitive), avg(doublePrimitive) " +
+                "from " + BenchmarkEngine.TYPE_POJO + window + " group by theString");
+
+        String[] groups = new String[numGroups];
+        for (int i = 0; i < numGroups; i++) {
+            groups[i] = "G" + i;
+        }
+        events = new BenchmarkBean[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new BenchmarkBean(groups[i % numGroups], i, i, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[next]);
+        next = (next + 1) & (NUM_EVENTS - 1);
+    }
+}
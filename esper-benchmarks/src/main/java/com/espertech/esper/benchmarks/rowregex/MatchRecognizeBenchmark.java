@@ -0,0 +1,71 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.rowregex;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a partitioned match-recognize looking for a rising value followed by a drop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark
+{
+    private static final int NUM_EVENTS = 16384;
+
+    @Param({"1", "1000"})
+    public int numPartitions;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkBean[] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngine.getEngine(MatchRecognizeBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        BenchmarkEngine.createStatement(engine, "select * from " + BenchmarkEngine.TYPE_POJO + " match_recognize (" +
+                "partition by theString " +
+                "measures A.intPrimitive as a, last(B.intPrimitive) as b, C.intPrimitive as c " +
+                "pattern (A B+ C) " +
+                "define B as B.intPrimitive > prev(B.intPrimitive), C as C.intPrimitive < prev(C.intPrimitive))");
+
+        Random random = new Random(1);
+        events = new BenchmarkBean[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new BenchmarkBean("P" + (i % numPartitions), random.nextInt(100), i, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[next]);
+        next = (next + 1) & (NUM_EVENTS - 1);
+    }
+}
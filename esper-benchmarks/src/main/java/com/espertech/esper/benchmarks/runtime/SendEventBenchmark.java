@@ -0,0 +1,148 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.runtime;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeSPI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of sending an event into the runtime, for each event representation,
+ * with a number of statements each filtering on a different value.
+ * The batch benchmark sends the same events through the batch API, scored per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendEventBenchmark
+{
+    private static final int NUM_EVENTS = 1024;
+    private static final int BATCH_SIZE = 64;
+
+    public enum Representation {
+        POJO, MAP, OBJECTARRAY
+    }
+
+    @Param({"POJO", "MAP", "OBJECTARRAY"})
+    public Representation representation;
+
+    @Param({"1", "100"})
+    public int numStatements;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkBean[] beans;
+    private Map<String, Object>[] maps;
+    private Object[][] objectArrays;
+    private List<Object>[] batchesObject;
+    private Object[][][] batchesObjectArray;
+    private int next;
+    private int nextBatch;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngine.getEngine(SendEventBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        String typeName = getTypeName();
+        for (int i = 0; i < numStatements; i++) {
+            BenchmarkEngine.createStatement(engine, "select theString, longPrimitive from " + typeName + "(intPrimitive = " + i + ")");
+        }
+
+        beans = new BenchmarkBean[NUM_EVENTS];
+        maps = new Map[NUM_EVENTS];
+        objectArrays = new Object[NUM_EVENTS][];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            beans[i] = new BenchmarkBean("E" + i, i % numStatements, i, i);
+            maps[i] = beans[i].toMap();
+            objectArrays[i] = beans[i].toObjectArray();
+        }
+
+        int numBatches = NUM_EVENTS / BATCH_SIZE;
+        batchesObject = new List[numBatches];
+        batchesObjectArray = new Object[numBatches][][];
+        for (int i = 0; i < numBatches; i++) {
+            batchesObject[i] = new ArrayList<Object>(BATCH_SIZE);
+            batchesObjectArray[i] = new Object[BATCH_SIZE][];
+            for (int j = 0; j < BATCH_SIZE; j++) {
+                int index = i * BATCH_SIZE + j;
+                if (representation == Representation.MAP) {
+                    // the list batch takes POJO or EventBean events, map events are wrapped ahead
+                    EventBean wrapped = ((EPRuntimeSPI) runtime).wrapEvent(maps[index], BenchmarkEngine.TYPE_MAP);
+                    batchesObject[i].add(wrapped);
+                }
+                else {
+                    batchesObject[i].add(beans[index]);
+                }
+                batchesObjectArray[i][j] = objectArrays[index];
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        int index = next;
+        next = (next + 1) & (NUM_EVENTS - 1);
+        switch (representation) {
+            case POJO:
+                runtime.sendEvent(beans[index]);
+                break;
+            case MAP:
+                runtime.sendEvent(maps[index], BenchmarkEngine.TYPE_MAP);
+                break;
+            default:
+                runtime.sendEvent(objectArrays[index], BenchmarkEngine.TYPE_OBJECTARRAY);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sendEventsBatch()
+    {
+        int index = nextBatch;
+        nextBatch = (nextBatch + 1) % batchesObject.length;
+        if (representation == Representation.OBJECTARRAY) {
+            runtime.sendEvents(batchesObjectArray[index], BenchmarkEngine.TYPE_OBJECTARRAY);
+        }
+        else {
+            runtime.sendEvents(batchesObject[index]);
+        }
+    }
+
+    private String getTypeName()
+    {
+        switch (representation) {
+            case POJO:
+                return BenchmarkEngine.TYPE_POJO;
+            case MAP:
+                return BenchmarkEngine.TYPE_MAP;
+            default:
+                return BenchmarkEngine.TYPE_OBJECTARRAY;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.schedule;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.schedule.ScheduleHandle;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
+import com.espertech.esper.schedule.SchedulingServiceSPI;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scheduling service profiles for a large number of outstanding schedules.
+ * <p>
+ * Each benchmark keeps the number of outstanding schedules constant: rescheduling replaces the time
+ * of an existing handle, and advancing the time re-adds any handles that triggered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingServiceBenchmark
+{
+    private static final int MAX_DELAY_MSEC = 60 * 60 * 1000;
+
+    @Param({"SORTED", "TIMINGWHEEL"})
+    public ConfigurationEngineDefaults.SchedulingServiceProfile profile;
+
+    @Param({"10000", "1000000"})
+    public int numHandles;
+
+    private SchedulingServiceSPI service;
+    private SupportHandle[] handles;
+    private Random random;
+    private List<ScheduleHandle> triggered;
+    private long time;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        service = SchedulingServiceProvider.newService(profile, new TimeSourceServiceImpl());
+        random = new Random(1);
+        triggered = new ArrayList<ScheduleHandle>();
+        time = 0;
+        service.setTime(time);
+        handles = new SupportHandle[numHandles];
+        for (int i = 0; i < numHandles; i++) {
+            handles[i] = new SupportHandle(i);
+            service.add(1 + random.nextInt(MAX_DELAY_MSEC), handles[i], i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        service.destroy();
+    }
+
+    /**
+     * Reschedules a handle, such as a pattern timer:within guard that restarts.
+     */
+    @Benchmark
+    public void reschedule()
+    {
+        SupportHandle handle = nextHandle();
+        service.add(1 + random.nextInt(MAX_DELAY_MSEC), handle, handle.slot);
+    }
+
+    /**
+     * Removes and adds a handle, such as a pattern subexpression that ends before its timer fires.
+     */
+    @Benchmark
+    public void removeAdd()
+    {
+        SupportHandle handle = nextHandle();
+        service.remove(handle, handle.slot);
+        service.add(1 + random.nextInt(MAX_DELAY_MSEC), handle, handle.slot);
+    }
+
+    /**
+     * Advances time by one millisecond and evaluates, re-adding triggered handles.
+     * @return number of triggered handles
+     */
+    @Benchmark
+    public int advance()
+    {
+        time++;
+        service.setTime(time);
+        service.evaluate(triggered);
+        int count = triggered.size();
+        for (ScheduleHandle handle : triggered) {
+            SupportHandle supportHandle = (SupportHandle) handle;
+            service.add(1 + random.nextInt(MAX_DELAY_MSEC), supportHandle, supportHandle.slot);
+        }
+        triggered.clear();
+        return count;
+    }
+
+    private SupportHandle nextHandle()
+    {
+        SupportHandle handle = handles[next];
+        next = next + 1 == handles.length ? 0 : next + 1;
+        return handle;
+    }
+
+    private static class SupportHandle implements ScheduleHandle
+    {
+        private final long slot;
+
+        private SupportHandle(long slot) {
+            this.slot = slot;
+        }
+
+        public int getStatementId() {
+            return 1;
+        }
+
+        public int getAgentInstanceId() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.support;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event used by the benchmarks, available as POJO, Map and object-array event.
+ */
+public class BenchmarkBean
+{
+    public final static String[] PROPERTY_NAMES = new String[] {"theString", "intPrimitive", "longPrimitive", "doublePrimitive"};
+    public final static Object[] PROPERTY_TYPES = new Object[] {String.class, int.class, long.class, double.class};
+
+    private final String theString;
+    private final int intPrimitive;
+    private final long longPrimitive;
+    private final double doublePrimitive;
+
+    public BenchmarkBean(String theString, int intPrimitive, long longPrimitive, double doublePrimitive) {
+        this.theString = theString;
+        this.intPrimitive = intPrimitive;
+        this.longPrimitive = longPrimitive;
+        this.doublePrimitive = doublePrimitive;
+    }
+
+    public String getTheString() {
+        return theString;
+    }
+
+    public int getIntPrimitive() {
+        return intPrimitive;
+    }
+
+    public long getLongPrimitive() {
+        return longPrimitive;
+    }
+
+    public double getDoublePrimitive() {
+        return doublePrimitive;
+    }
+
+    public static Map<String, Object> getPropertyTypesMap() {
+        Map<String, Object> types = new HashMap<String, Object>();
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            types.put(PROPERTY_NAMES[i], PROPERTY_TYPES[i]);
+        }
+        return types;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("theString", theString);
+        values.put("intPrimitive", intPrimitive);
+        values.put("longPrimitive", longPrimitive);
+        values.put("doublePrimitive", doublePrimitive);
+        return values;
+    }
+
+    public Object[] toObjectArray() {
+        return new Object[] {theString, intPrimitive, longPrimitive, doublePrimitive};
+    }
+}
@@ -0,0 +1,52 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.support;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+
+/**
+ * Creates engine instances for benchmarks: external timer, no metrics, and the benchmark event types registered.
+ */
+public class BenchmarkEngine
+{
+    public final static String TYPE_POJO = "BenchmarkBean";
+    public final static String TYPE_MAP = "BenchmarkMap";
+    public final static String TYPE_OBJECTARRAY = "BenchmarkObjectArray";
+
+    public static Configuration getConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType(TYPE_POJO, BenchmarkBean.class);
+        configuration.addEventType(TYPE_MAP, BenchmarkBean.getPropertyTypesMap());
+        configuration.addEventType(TYPE_OBJECTARRAY, BenchmarkBean.PROPERTY_NAMES, BenchmarkBean.PROPERTY_TYPES);
+        return configuration;
+    }
+
+    public static EPServiceProvider getEngine(String benchmarkName) {
+        return getEngine(benchmarkName, getConfiguration());
+    }
+
+    public static EPServiceProvider getEngine(String benchmarkName, Configuration configuration) {
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(benchmarkName, configuration);
+        engine.initialize();
+        engine.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        return engine;
+    }
+
+    public static BenchmarkListener createStatement(EPServiceProvider engine, String epl) {
+        EPStatement statement = engine.getEPAdministrator().createEPL(epl);
+        BenchmarkListener listener = new BenchmarkListener();
+        statement.addListener(listener);
+        return listener;
+    }
+}
@@ -0,0 +1,38 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.support;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+
+/**
+ * Listener that counts delivered events so that statement output cannot be optimized away.
+ */
+public class BenchmarkListener implements UpdateListener
+{
+    private long newEventCount;
+    private long oldEventCount;
+
+    public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+        if (newEvents != null) {
+            newEventCount += newEvents.length;
+        }
+        if (oldEvents != null) {
+            oldEventCount += oldEvents.length;
+        }
+    }
+
+    public long getNewEventCount() {
+        return newEventCount;
+    }
+
+    public long getOldEventCount() {
+        return oldEventCount;
+    }
+}
@@ -0,0 +1,85 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks.view;
+
+import com.espertech.esper.benchmarks.support.BenchmarkBean;
+import com.espertech.esper.benchmarks.support.BenchmarkEngine;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of the time window and length window views with a full window,
+ * so that each event that arrives also expires an event.
+ * <p>
+ * For the time window, time advances by one millisecond per event so that both windows hold the same number of events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataWindowBenchmark
+{
+    private static final int NUM_EVENTS = 1024;
+
+    public enum WindowKind {
+        TIME, LENGTH
+    }
+
+    @Param({"TIME", "LENGTH"})
+    public WindowKind windowKind;
+
+    @Param({"1000", "100000"})
+    public int windowSize;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkBean[] events;
+    private long time;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngine.getEngine(DataWindowBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        String window = windowKind == WindowKind.TIME ? "#time(" + windowSize + " msec)" : "#length(" + windowSize + ")";
+        BenchmarkEngine.createStatement(engine, "select irstream theString, longPrimitive from " + BenchmarkEngine.TYPE_POJO + window);
+
+        events = new BenchmarkBean[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            events[i] = new BenchmarkBean("E" + i, i, i, i);
+        }
+        for (int i = 0; i < windowSize; i++) {
+            sendEvent();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        if (windowKind == WindowKind.TIME) {
+            time++;
+            runtime.sendEvent(new CurrentTimeEvent(time));
+        }
+        runtime.sendEvent(events[next]);
+        next = (next + 1) & (NUM_EVENTS - 1);
+    }
+}
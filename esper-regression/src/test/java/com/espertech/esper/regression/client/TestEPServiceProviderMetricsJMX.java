@@ -29,7 +29,8 @@ public class TestEPServiceProviderMetricsJMX extends TestCase {
     private final static String FILTER_NAME = "\"com.espertech.esper-default\":type=\"filter\"";
     private final static String RUNTIME_NAME = "\"com.espertech.esper-default\":type=\"runtime\"";
     private final static String SCHEDULE_NAME = "\"com.espertech.esper-default\":type=\"schedule\"";
-    private final static String[] ALL = new String[] {FILTER_NAME, RUNTIME_NAME, SCHEDULE_NAME};
+    private final static String LATENCY_NAME = "\"com.espertech.esper-default\":type=\"latency\"";
+    private final static String[] ALL = new String[] {FILTER_NAME, RUNTIME_NAME, SCHEDULE_NAME, LATENCY_NAME};
 
     public void testMetricsJMX() throws Exception {
 
@@ -46,6 +47,10 @@ public class TestEPServiceProviderMetricsJMX extends TestCase {
         epService.getEPRuntime().sendEvent(new SupportBean("A2", 60));
 
         assertEngineJMX();
+        Object topStatements = ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(LATENCY_NAME), "getTopStatementsByLatency",
+                new Object[] {99d, 10}, new String[] {double.class.getName(), int.class.getName()});
+        assertTrue(topStatements instanceof String[]);
+        assertNotNull(ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(LATENCY_NAME), "FilterLatency"));
 
         epService.destroy();
 
@@ -0,0 +1,245 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.journal.EventJournalSegments;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestEventJournal extends TestCase
+{
+    private final static String[] EPL = new String[] {
+            "create window MyWindow#keepall as SupportBean",
+            "insert into MyWindow select * from SupportBean",
+            "create map schema MyMapEvent(id string, amount double)",
+            "create table MyTotals(id string primary key, total sum(double), cnt count(*))",
+            "into table MyTotals select sum(amount) as total, count(*) as cnt from MyMapEvent group by id",
+    };
+
+    private File directory;
+    private EPServiceProvider engine;
+
+    public void setUp() throws IOException
+    {
+        directory = File.createTempFile("esperjournal", "");
+        assertTrue(directory.delete());
+        assertTrue(directory.mkdir());
+    }
+
+    public void tearDown() {
+        if (engine != null) {
+            engine.destroy();
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testSnapshotAndReplay() {
+        engine = startEngine("journalSource", true);
+        sendEvents(0, 10);
+        byte[] snapshot = snapshot(engine);
+        sendEvents(10, 25);
+        String expected = render(engine);
+        long expectedTime = engine.getEPRuntime().getCurrentTime();
+        engine.destroy();
+
+        engine = startEngine("journalTarget", true);
+        restore(engine, snapshot);
+        assertEquals(30, engine.getEPAdministrator().getDataSnapshotAdmin().replayJournal());
+        assertEquals(expected, render(engine));
+        assertEquals(expectedTime, engine.getEPRuntime().getCurrentTime());
+
+        // replayed events are not journaled again, a new snapshot allows older segments to be purged
+        snapshot(engine);
+        int numSegments = EventJournalSegments.list(directory).length;
+        assertTrue(numSegments > 3);
+        assertEquals(numSegments - 1, engine.getEPAdministrator().getDataSnapshotAdmin().purgeJournal());
+        assertEquals(1, EventJournalSegments.list(directory).length);
+        assertEquals(0, engine.getEPAdministrator().getDataSnapshotAdmin().replayJournal());
+    }
+
+    public void testReplayWithoutSnapshot() {
+        engine = startEngine("journalSource", true);
+        sendEvents(0, 5);
+        String expected = render(engine);
+        engine.destroy();
+
+        engine = startEngine("journalTarget", true);
+        assertEquals(10, engine.getEPAdministrator().getDataSnapshotAdmin().replayJournal());
+        assertEquals(expected, render(engine));
+        assertEquals(0, engine.getEPAdministrator().getDataSnapshotAdmin().purgeJournal());
+    }
+
+    public void testSnapshotBetweenEventAndInsertInto() throws Exception {
+        engine = startEngine("journalSource", true);
+        sendEvents(0, 2);
+
+        // the listener runs after the event was journaled but before its insert-into reaches the named window
+        final byte[][] snapshot = new byte[1][];
+        final Exception[] failure = new Exception[1];
+        final Thread[] snapshotThread = new Thread[1];
+        EPStatement stmt = engine.getEPAdministrator().createEPL("select * from SupportBean(theString = 'E2')");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                try {
+                    snapshot(engine);
+                    fail();
+                }
+                catch (EPException ex) {
+                    failure[0] = ex;
+                }
+                snapshotThread[0] = new Thread(new Runnable() {
+                    public void run() {
+                        snapshot[0] = snapshot(engine);
+                    }
+                });
+                snapshotThread[0].start();
+                try {
+                    snapshotThread[0].join(500);
+                }
+                catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+        engine.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        snapshotThread[0].join();
+        assertEquals("A snapshot cannot be taken or restored by a thread that is processing an event, such as by a listener or subscriber, when the event journal is enabled", failure[0].getMessage());
+        stmt.destroy();
+        String expected = render(engine);
+        assertTrue(expected.contains("E2/2"));
+        engine.destroy();
+
+        engine = startEngine("journalTarget", true);
+        restore(engine, snapshot[0]);
+        assertEquals(0, engine.getEPAdministrator().getDataSnapshotAdmin().replayJournal());
+        assertEquals(expected, render(engine));
+    }
+
+    public void testSnapshotFromListenerWithoutJournal() {
+        engine = startEngine("journalNone", false);
+        sendEvents(0, 2);
+
+        // without the journal a listener may take a snapshot, it holds the rows of the events processed so far
+        final byte[][] snapshot = new byte[1][];
+        EPStatement stmt = engine.getEPAdministrator().createEPL("select * from SupportBean(theString = 'E2')");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                snapshot[0] = snapshot(engine);
+            }
+        });
+        String expected = render(engine);
+        engine.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        assertNotNull(snapshot[0]);
+        engine.destroy();
+
+        engine = startEngine("journalNoneTarget", false);
+        restore(engine, snapshot[0]);
+        assertEquals(expected, render(engine));
+    }
+
+    public void testInvalid() {
+        engine = startEngine("journalSource", true);
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        engine.destroy();
+
+        Configuration configuration = makeConfig(true);
+        configuration.removeEventType("SupportBean", false);
+        engine = EPServiceProviderManager.getProvider("journalTarget", configuration);
+        engine.initialize();
+        try {
+            engine.getEPAdministrator().getDataSnapshotAdmin().replayJournal();
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Event journal holds events of type 'SupportBean' but an event type by that name does not exist", ex.getMessage());
+        }
+        engine.destroy();
+
+        engine = EPServiceProviderManager.getProvider("journalNone", makeConfig(false));
+        engine.initialize();
+        try {
+            engine.getEPAdministrator().getDataSnapshotAdmin().replayJournal();
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Event journal is not enabled, enable the event journal by configuration", ex.getMessage());
+        }
+    }
+
+    private void sendEvents(int from, int to) {
+        for (int i = from; i < to; i++) {
+            engine.getEPRuntime().sendEvent(new CurrentTimeEvent(1000 + i * 100));
+            engine.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+            Map<String, Object> event = new HashMap<String, Object>();
+            event.put("id", "G" + (i % 3));
+            event.put("amount", i * 1.5d);
+            engine.getEPRuntime().sendEvent(event, "MyMapEvent");
+        }
+    }
+
+    private EPServiceProvider startEngine(String uri, boolean journal) {
+        EPServiceProvider provider = EPServiceProviderManager.getProvider(uri, makeConfig(journal));
+        provider.initialize();
+        provider.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        for (String epl : EPL) {
+            provider.getEPAdministrator().createEPL(epl);
+        }
+        return provider;
+    }
+
+    private Configuration makeConfig(boolean journal) {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.getEngineDefaults().getJournal().setEnabled(journal);
+        configuration.getEngineDefaults().getJournal().setDirectory(directory.getAbsolutePath());
+        configuration.getEngineDefaults().getJournal().setSegmentSizeBytes(65536);
+        return configuration;
+    }
+
+    private static byte[] snapshot(EPServiceProvider engine) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.getEPAdministrator().getDataSnapshotAdmin().snapshot(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static void restore(EPServiceProvider engine, byte[] snapshot) {
+        engine.getEPAdministrator().getDataSnapshotAdmin().restore(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+    }
+
+    private static String render(EPServiceProvider engine) {
+        StringBuilder builder = new StringBuilder();
+        for (EventBean row : engine.getEPRuntime().executeQuery("select * from MyWindow").getArray()) {
+            builder.append(row.get("theString")).append('/').append(row.get("intPrimitive")).append(' ');
+        }
+        for (EventBean row : engine.getEPRuntime().executeQuery("select * from MyTotals order by id").getArray()) {
+            builder.append(row.get("id")).append('=').append(row.get("total")).append('/').append(row.get("cnt")).append(' ');
+        }
+        return builder.toString();
+    }
+}
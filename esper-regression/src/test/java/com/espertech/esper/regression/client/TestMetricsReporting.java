@@ -18,6 +18,8 @@ import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.client.scopetest.SupportSubscriber;
 import com.espertech.esper.client.scopetest.SupportUpdateListener;
 import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.metric.LatencyMetricRepository;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.client.SupportConfigFactory;
@@ -26,6 +28,7 @@ import junit.framework.TestCase;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
 
 public class TestMetricsReporting extends TestCase
 {
@@ -425,6 +428,110 @@ public class TestMetricsReporting extends TestCase
         listener.reset();
     }
 
+    public void testLatencyHistograms()
+    {
+        epService = EPServiceProviderManager.getProvider("MyURI", getConfig(10000, 10000, true));
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        sendTimer(1000);
+
+        epService.getEPAdministrator().createEPL("select * from " + StatementMetric.class.getName(), "stmt_metrics").addListener(listenerStmtMetric);
+        epService.getEPAdministrator().createEPL("select * from " + EngineMetric.class.getName(), "engine_metrics").addListener(listenerEngineMetric);
+        epService.getEPAdministrator().createEPL("select * from SupportBean(intPrimitive=3)#lastevent where MyMetricFunctions.takeWallTime(longPrimitive)", "wallStmt");
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString from SupportBean(intPrimitive=5)", "insertStmt");
+        epService.getEPAdministrator().createEPL("select * from MyStream", "consumerStmt").addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                MyMetricFunctions.takeWallTime(50);
+            }
+        });
+
+        sendEvent("E1", 3, 100);
+        for (int i = 0; i < 9; i++) {
+            sendEvent("E2", 3, 0);
+        }
+        sendEvent("E3", 5, 0);
+
+        sendTimer(11000);
+        StatementMetric wallMetric = getStatementMetric(listenerStmtMetric.getNewDataListFlattened(), "wallStmt");
+        assertEquals(10L, wallMetric.getNumInput());
+        assertTrue(wallMetric.getWallTimeP50() < 100 * 1000 * 1000);
+        assertTrue(wallMetric.getWallTimeP99() >= 100 * 1000 * 1000);
+        assertTrue(wallMetric.getWallTimeMax() >= 100 * 1000 * 1000);
+        StatementMetric consumerMetric = getStatementMetric(listenerStmtMetric.getNewDataListFlattened(), "consumerStmt");
+        assertTrue(consumerMetric.getDispatchTimeP99() >= 50 * 1000 * 1000);
+        assertTrue(consumerMetric.getDispatchTimeMax() >= 50 * 1000 * 1000);
+        EngineMetric engineMetric = (EngineMetric) listenerEngineMetric.assertOneGetNewAndReset().getUnderlying();
+        assertTrue(engineMetric.getFilterTimeMax() > 0);
+        assertTrue(engineMetric.getFilterTimeP50() <= engineMetric.getFilterTimeP99());
+        listenerStmtMetric.reset();
+
+        // the histograms report the last interval
+        sendEvent("E4", 3, 0);
+        sendTimer(21000);
+        wallMetric = getStatementMetric(listenerStmtMetric.getNewDataListFlattened(), "wallStmt");
+        assertEquals(1L, wallMetric.getNumInput());
+        assertTrue(wallMetric.getWallTimeMax() < 100 * 1000 * 1000);
+
+        // the latency histograms are cumulative
+        LatencyMetricRepository latency = ((EPServiceProviderSPI) epService).getServicesContext().getMetricsReportingService().getLatencyMetricRepository();
+        assertTrue(latency.getTopStatementsByLatency(99, 1)[0].startsWith("wallStmt: count=11 "));
+        assertTrue(latency.getStatementLatency("wallStmt").startsWith("count=11 "));
+        assertTrue(latency.getStatementDispatchLatency("consumerStmt").startsWith("count=1 "));
+        assertNull(latency.getStatementLatency("dummy"));
+        String[] routes = latency.getRouteLatencyPerEventType();
+        assertEquals(1, routes.length);
+        assertTrue(routes[0], routes[0].startsWith("MyStream: count=1 "));
+        assertTrue(Arrays.asList(latency.getFilterLatencyPerEventType()).toString().contains("SupportBean: count=12 "));
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testDispatchQueueMetrics()
+    {
+        epService = EPServiceProviderManager.getProvider("MyURI", getConfig(-1, 10000, true));
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        sendTimer(1000);
+
+        epService.getEPAdministrator().createEPL("select * from " + StatementMetric.class.getName(), "stmt_metrics").addListener(listenerStmtMetric);
+        epService.getEPAdministrator().createEPL("@Hint('listener_dispatch_queue=10') select * from SupportBean", "queuedStmt").addListener(listener);
+        epService.getEPAdministrator().createEPL("select * from SupportBean", "directStmt");
+
+        for (int i = 0; i < 5; i++) {
+            sendEvent("E" + i, i, 0);
+        }
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getNewDataListFlattened().length < 5 && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        assertEquals(5, listener.getNewDataListFlattened().length);
+        sleep(100);
+
+        sendTimer(11000);
+        StatementMetric queuedMetric = getStatementMetric(listenerStmtMetric.getNewDataListFlattened(), "queuedStmt");
+        assertEquals(0, queuedMetric.getDispatchQueueDepth());
+        assertTrue(queuedMetric.getDispatchQueueLatencyMax() > 0);
+        assertTrue(queuedMetric.getDispatchQueueLatencyMax() >= queuedMetric.getDispatchQueueLatencyP99());
+        StatementMetric directMetric = getStatementMetric(listenerStmtMetric.getNewDataListFlattened(), "directStmt");
+        assertEquals(0, directMetric.getDispatchQueueLatencyMax());
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    private StatementMetric getStatementMetric(EventBean[] events, String statementName)
+    {
+        for (EventBean event : events)
+        {
+            StatementMetric metric = (StatementMetric) event.getUnderlying();
+            if (metric.getStatementName().equals(statementName))
+            {
+                return metric;
+            }
+        }
+        fail("No metric for statement " + statementName);
+        return null;
+    }
+
     public void testTakeCPUTime()
     {
         ThreadMXBean mbean = ManagementFactory.getThreadMXBean();
@@ -0,0 +1,126 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+/**
+ * Compares the output of an engine using the timing-wheel scheduling service profile against an engine
+ * using the sorted scheduling service profile.
+ */
+public class TestSchedulingServiceProfile extends TestCase
+{
+    private static final String[] STATEMENTS = new String[] {
+        "select irstream theString, intPrimitive from SupportBean#time(10 sec)",
+        "select theString, sum(intPrimitive) as c0 from SupportBean#time_batch(7 sec) group by theString",
+        "select theString, count(*) as c0 from SupportBean group by theString output snapshot every 3 sec order by theString",
+        "select a.theString as c0 from pattern [every a=SupportBean -> (timer:interval(intPrimitive sec) and not SupportBean_S0(id=a.intPrimitive))]",
+        "create context PerString partition by theString from SupportBean;" +
+            "context PerString select context.key1 as c0 from pattern [every SupportBean -> SupportBean_S0 where timer:within(5 sec)]",
+    };
+
+    private EPServiceProvider[] engines;
+
+    public void setUp()
+    {
+        engines = new EPServiceProvider[2];
+        for (int i = 0; i < engines.length; i++) {
+            Configuration config = SupportConfigFactory.getConfiguration();
+            config.getEngineDefaults().getExecution().setSchedulingServiceProfile(i == 0 ? ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED : ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL);
+            config.addEventType("SupportBean", SupportBean.class);
+            config.addEventType("SupportBean_S0", SupportBean_S0.class);
+            engines[i] = EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "_" + i, config);
+            engines[i].initialize();
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(engines[0], this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        for (EPServiceProvider engine : engines) {
+            engine.destroy();
+        }
+        engines = null;
+    }
+
+    public void testCompareProfiles()
+    {
+        for (String epl : STATEMENTS) {
+            runAssertion(epl);
+        }
+    }
+
+    private void runAssertion(String epl)
+    {
+        SupportUpdateListener[] listeners = new SupportUpdateListener[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            engines[i].getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+            EPStatement stmt = null;
+            for (String part : epl.split(";")) {
+                stmt = engines[i].getEPAdministrator().createEPL(part);
+            }
+            listeners[i] = new SupportUpdateListener();
+            stmt.addListener(listeners[i]);
+        }
+
+        Random random = new Random(1);
+        long time = 0;
+        for (int i = 0; i < 500; i++) {
+            Object event;
+            int type = random.nextInt(4);
+            if (type == 0) {
+                time += random.nextInt(2000);
+                event = new CurrentTimeEvent(time);
+            }
+            else if (type == 1) {
+                time += random.nextInt(20000);
+                event = new CurrentTimeSpanEvent(time);
+            }
+            else if (type == 2) {
+                event = new SupportBean("E" + random.nextInt(10), random.nextInt(10));
+            }
+            else {
+                event = new SupportBean_S0(random.nextInt(10));
+            }
+
+            for (EPServiceProvider engine : engines) {
+                engine.getEPRuntime().sendEvent(event);
+            }
+            assertEquals(epl, listeners[0].getNewDataListFlattened().length, listeners[1].getNewDataListFlattened().length);
+            assertEquals(epl, listeners[0].getOldDataListFlattened().length, listeners[1].getOldDataListFlattened().length);
+            assertEquals(epl, listeners[0].getNewDataList().size(), listeners[1].getNewDataList().size());
+            for (int j = 0; j < listeners[0].getNewDataListFlattened().length; j++) {
+                assertEquals(epl, listeners[0].getNewDataListFlattened()[j].getUnderlying(), listeners[1].getNewDataListFlattened()[j].getUnderlying());
+            }
+            listeners[0].reset();
+            listeners[1].reset();
+        }
+
+        for (EPServiceProvider engine : engines) {
+            engine.getEPAdministrator().destroyAllStatements();
+        }
+    }
+}
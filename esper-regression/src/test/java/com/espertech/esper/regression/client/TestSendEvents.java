@@ -0,0 +1,190 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestSendEvents extends TestCase
+{
+    private static final String[] EPL = new String[] {
+            "@Name('filter') select theString, intPrimitive from SupportBean(intPrimitive > 5)",
+            "@Name('pattern') select a.theString as a, b.theString as b from pattern [every a=SupportBean(intPrimitive = 1) -> b=SupportBean(intPrimitive = 2)]",
+            "@Name('insert') insert into MyStream select theString, intPrimitive * 10 as val from SupportBean",
+            "@Name('consume') select theString, sum(val) as total from MyStream#length(3)",
+            "create context PerString partition by theString from SupportBean",
+            "@Name('context') context PerString select context.key1 as k, count(*) as cnt from SupportBean output every 2 events",
+            "@Name('quiet') select sum(intPrimitive) as total from SupportBean#time(10 sec) output snapshot when terminated",
+            "create window MyWindow#keepall as SupportBean",
+            "insert into MyWindow select * from SupportBean(intPrimitive < 3)",
+            "@Name('window') select w.theString as ws, s0.id as id from SupportBean_S0 as s0 unidirectional, MyWindow as w where w.theString = s0.p00",
+            "@Name('objectarray') select p0, p1 from MyOA(p1 >= 2)",
+            "@Name('timed') select theString, count(*) as cnt from SupportBean#time(1 sec)",
+    };
+
+    private EPServiceProvider epServiceSequential;
+    private EPServiceProvider epServiceBatch;
+
+    public void setUp()
+    {
+        epServiceSequential = EPServiceProviderManager.getProvider("sequential", makeConfig());
+        epServiceSequential.initialize();
+        epServiceBatch = EPServiceProviderManager.getProvider("batch", makeConfig());
+        epServiceBatch.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epServiceBatch, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        epServiceSequential.destroy();
+        epServiceBatch.destroy();
+    }
+
+    public void testSameResultAsSequential()
+    {
+        MyCollectingListener listenerSequential = setupStatements(epServiceSequential);
+        MyCollectingListener listenerBatch = setupStatements(epServiceBatch);
+
+        List<Object> events = new ArrayList<Object>();
+        for (int i = 0; i < 200; i++) {
+            if (i % 50 == 0) {
+                events.add(new CurrentTimeEvent(i * 100));
+            }
+            events.add(new SupportBean("E" + (i % 7), i % 9));
+            if (i % 5 == 0) {
+                events.add(new SupportBean_S0(i, "E" + (i % 3)));
+            }
+        }
+
+        for (Object theEvent : events) {
+            epServiceSequential.getEPRuntime().sendEvent(theEvent);
+        }
+        epServiceBatch.getEPRuntime().sendEvents(events);
+
+        assertFalse(listenerSequential.getReceived().isEmpty());
+        assertEquals(listenerSequential.getReceived(), listenerBatch.getReceived());
+
+        // object-array batch
+        Object[][] rows = new Object[20][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] {"O" + i, i % 4};
+        }
+        for (Object[] row : rows) {
+            epServiceSequential.getEPRuntime().sendEvent(row, "MyOA");
+        }
+        epServiceBatch.getEPRuntime().sendEvents(rows, "MyOA");
+        assertEquals(listenerSequential.getReceived(), listenerBatch.getReceived());
+
+        // statement-level results after the batch
+        for (String name : new String[] {"quiet", "consume", "timed"}) {
+            assertEquals(render(epServiceSequential.getEPAdministrator().getStatement(name).iterator().next()),
+                    render(epServiceBatch.getEPAdministrator().getStatement(name).iterator().next()));
+        }
+    }
+
+    public void testListenerOrder()
+    {
+        epServiceBatch.getEPAdministrator().createEPL("select theString from SupportBean");
+        final List<String> received = new ArrayList<String>();
+        epServiceBatch.getEPAdministrator().getStatement(epServiceBatch.getEPAdministrator().getStatementNames()[0]).addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                for (EventBean theEvent : newEvents) {
+                    received.add((String) theEvent.get("theString"));
+                }
+            }
+        });
+
+        epServiceBatch.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("A", 1), null, new SupportBean("B", 2), new SupportBean("C", 3)));
+        assertEquals(Arrays.asList("A", "B", "C"), received);
+
+        epServiceBatch.getEPRuntime().sendEvents(new ArrayList<Object>());
+        assertEquals(3, received.size());
+    }
+
+    public void testInvalid()
+    {
+        try {
+            epServiceBatch.getEPRuntime().sendEvents(new Object[][] {{"a", 1}}, "SupportBean");
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Event type named 'SupportBean' has not been defined or is not a Object-array event type, the name 'SupportBean' refers to a " + SupportBean.class.getName() + " event type", ex.getMessage());
+        }
+
+        try {
+            epServiceBatch.getEPRuntime().sendEvents(null);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event list", ex.getMessage());
+        }
+    }
+
+    private MyCollectingListener setupStatements(EPServiceProvider epService)
+    {
+        MyCollectingListener listener = new MyCollectingListener();
+        for (String epl : EPL) {
+            EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+            if (!stmt.getName().equals("quiet")) {
+                stmt.addListener(listener);
+            }
+        }
+        return listener;
+    }
+
+    private static Configuration makeConfig()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+        configuration.addEventType("MyOA", new String[] {"p0", "p1"}, new Object[] {String.class, int.class});
+        return configuration;
+    }
+
+    private static String render(EventBean theEvent)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (String property : theEvent.getEventType().getPropertyNames()) {
+            builder.append(property).append('=').append(theEvent.get(property)).append(' ');
+        }
+        return builder.toString();
+    }
+
+    private static class MyCollectingListener implements StatementAwareUpdateListener
+    {
+        private final List<String> received = new ArrayList<String>();
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents, EPStatement statement, EPServiceProvider epServiceProvider)
+        {
+            if (newEvents == null) {
+                return;
+            }
+            for (EventBean theEvent : newEvents) {
+                received.add(statement.getName() + ": " + render(theEvent));
+            }
+        }
+
+        public List<String> getReceived()
+        {
+            return received;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.deploy.DeploymentActionException;
+import com.espertech.esper.client.deploy.Module;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.compilecache.StatementCompileCache;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.util.Version;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class TestStatementCompileCache extends TestCase
+{
+    private final static String[] EPL = new String[] {
+            "select theString, sum(intPrimitive) as total from SupportBean#length(3) group by theString",
+            "select * from pattern [every a=SupportBean(intPrimitive=1) -> b=SupportBean(theString=a.theString)]",
+            "select theString from SupportBean(intPrimitive > 10) output every 2 events",
+    };
+
+    private File directory;
+    private EPServiceProvider engine;
+
+    public void setUp() throws IOException
+    {
+        directory = File.createTempFile("espercompiled", "");
+        assertTrue(directory.delete());
+        assertTrue(directory.mkdir());
+    }
+
+    public void tearDown() {
+        if (engine != null) {
+            engine.destroy();
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testMemory() {
+        engine = startEngine("compileCacheMemory", null, 0);
+        StatementCompileCache cache = getCache(engine);
+
+        for (String epl : EPL) {
+            engine.getEPAdministrator().createEPL(epl).destroy();
+        }
+        assertEquals(0, cache.getNumHits());
+        assertEquals(EPL.length, cache.getNumMisses());
+
+        // validating a statement does not change the cached statement
+        for (int i = 0; i < 2; i++) {
+            SupportUpdateListener listener = new SupportUpdateListener();
+            EPStatement stmt = engine.getEPAdministrator().createEPL(EPL[0]);
+            stmt.addListener(listener);
+            engine.getEPRuntime().sendEvent(new SupportBean("E1", 5));
+            engine.getEPRuntime().sendEvent(new SupportBean("E1", 6));
+            assertEquals(11, listener.getLastNewData()[0].get("total"));
+            stmt.destroy();
+        }
+        assertEquals(2, cache.getNumHits());
+
+        // a variable may change how the same statement text parses
+        String epl = "select theString from SupportBean(intPrimitive > myvar)";
+        try {
+            engine.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            // expected
+        }
+        engine.getEPAdministrator().createEPL("create variable int myvar = 10");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        engine.getEPAdministrator().createEPL(epl).addListener(listener);
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 11));
+        assertEquals("E1", listener.assertOneGetNewAndReset().get("theString"));
+        long hits = cache.getNumHits();
+        engine.getEPAdministrator().createEPL("select * from SupportBean");
+        engine.getEPAdministrator().createEPL("create variable int othervar = 0");
+        engine.getEPAdministrator().createEPL("select * from SupportBean");
+        assertEquals(hits, cache.getNumHits());
+
+        // statements of a context are not cached
+        engine.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        String contextEPL = "context SegmentedByString select count(*) as cnt from SupportBean";
+        engine.getEPAdministrator().createEPL(contextEPL).destroy();
+        hits = cache.getNumHits();
+        engine.getEPAdministrator().createEPL(contextEPL).destroy();
+        assertEquals(hits, cache.getNumHits());
+    }
+
+    public void testDirectory() {
+        engine = startEngine("compileCacheDirectoryOne", directory.getAbsolutePath(), 0);
+        for (String epl : EPL) {
+            engine.getEPAdministrator().createEPL(epl);
+        }
+        assertEquals(EPL.length, directory.listFiles().length);
+        engine.destroy();
+
+        engine = startEngine("compileCacheDirectoryTwo", directory.getAbsolutePath(), 0);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        for (String epl : EPL) {
+            engine.getEPAdministrator().createEPL(epl).addListener(listener);
+        }
+        assertEquals(EPL.length, getCache(engine).getNumHits());
+        assertEquals(0, getCache(engine).getNumMisses());
+
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertEquals(1, listener.getNewDataListFlattened().length);
+        listener.reset();
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 20));
+        assertEquals(2, listener.getNewDataListFlattened().length);
+        listener.reset();
+        engine.getEPRuntime().sendEvent(new SupportBean("E2", 30));
+        assertEquals(3, listener.getNewDataListFlattened().length);
+        engine.destroy();
+
+        // a different configuration does not use the compiled statements
+        Configuration config = makeConfig(directory.getAbsolutePath(), 0);
+        config.addEventType("MyOtherType", SupportBean.class);
+        engine = EPServiceProviderManager.getProvider("compileCacheDirectoryThree", config);
+        engine.initialize();
+        for (String epl : EPL) {
+            engine.getEPAdministrator().createEPL(epl);
+        }
+        assertEquals(0, getCache(engine).getNumHits());
+    }
+
+    public void testDirectoryOtherBuild() throws Exception {
+        engine = startEngine("compileCacheBuildOne", directory.getAbsolutePath(), 0);
+        engine.getEPAdministrator().createEPL(EPL[0]);
+        engine.destroy();
+
+        // the build version follows magic number, format version and the length of the build version
+        File file = directory.listFiles()[0];
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long lastVersionChar = 10 + Version.getBuildVersion().length() - 1;
+            raf.seek(lastVersionChar);
+            int last = raf.read();
+            raf.seek(lastVersionChar);
+            raf.write(last == '9' ? '8' : '9');
+        }
+        finally {
+            raf.close();
+        }
+
+        engine = startEngine("compileCacheBuildTwo", directory.getAbsolutePath(), 0);
+        engine.getEPAdministrator().createEPL(EPL[0]);
+        assertEquals(0, getCache(engine).getNumHits());
+        assertEquals(1, getCache(engine).getNumMisses());
+    }
+
+    public void testDeployParallel() throws Exception {
+        engine = startEngine("compileCacheDeploy", null, 4);
+        StringBuilder text = new StringBuilder();
+        for (String epl : EPL) {
+            text.append(epl).append(";\n");
+        }
+        text.append("create variable int deployvar = 10;\n");
+        text.append("@Name('filtered') select theString from SupportBean(intPrimitive > deployvar);\n");
+        text.append("select syntax error from;\n");
+        Module module = engine.getEPAdministrator().getDeploymentAdmin().parse(text.toString());
+
+        try {
+            engine.getEPAdministrator().getDeploymentAdmin().deploy(module, null);
+            fail();
+        }
+        catch (DeploymentActionException ex) {
+            assertEquals(1, ex.getExceptions().size());
+        }
+        // the compile step of the deployment finds the statements that compiled in parallel
+        StatementCompileCache cache = getCache(engine);
+        assertEquals(EPL.length + 2, cache.getNumHits());
+
+        module.getItems().remove(module.getItems().size() - 1);
+        engine.getEPAdministrator().getDeploymentAdmin().deploy(module, null);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        engine.getEPAdministrator().getStatement("filtered").addListener(listener);
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        assertFalse(listener.isInvoked());
+        engine.getEPRuntime().sendEvent(new SupportBean("E2", 11));
+        assertEquals("E2", listener.assertOneGetNewAndReset().get("theString"));
+    }
+
+    private static StatementCompileCache getCache(EPServiceProvider engine) {
+        return ((EPServiceProviderSPI) engine).getServicesContext().getStatementCompileCache();
+    }
+
+    private static EPServiceProvider startEngine(String uri, String directory, int deployThreads) {
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(uri, makeConfig(directory, deployThreads));
+        engine.initialize();
+        return engine;
+    }
+
+    private static Configuration makeConfig(String directory, int deployThreads) {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.getEngineDefaults().getCompileCache().setEnabled(true);
+        configuration.getEngineDefaults().getCompileCache().setDirectory(directory);
+        configuration.getEngineDefaults().getCompileCache().setDeployThreads(deployThreads);
+        return configuration;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.thread.RingBufferQueue;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.epl.SupportStaticMethodLib;
+import junit.framework.TestCase;
+
+public class TestThreadedConfigRingBuffer extends TestCase
+{
+    public void testOp() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.WaitStrategy strategy : ConfigurationEngineDefaults.Threading.WaitStrategy.values())
+        {
+            tryOp(strategy);
+        }
+    }
+
+    public void testFastShutdown()
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setThreadPoolQueue(ConfigurationEngineDefaults.Threading.ThreadPoolQueue.RINGBUFFER);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+        config.addEventType(TestThreadedConfigInbound.MyEvent.class);
+        config.addPlugInSingleRowFunction("sleepaLittle", TestThreadedConfigInbound.class.getName(), "sleepaLittle");
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getName(), config);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select sleepaLittle(100) from MyEvent");
+        stmt.setSubscriber(new TestThreadedConfigInbound.MySubscriber());
+        for (int i = 0; i < 1000; i++)
+        {
+            epService.getEPRuntime().sendEvent(new TestThreadedConfigInbound.MyEvent());
+        }
+
+        long start = System.currentTimeMillis();
+        epService.destroy();
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    private void tryOp(ConfigurationEngineDefaults.Threading.WaitStrategy strategy) throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolQueue(ConfigurationEngineDefaults.Threading.ThreadPoolQueue.RINGBUFFER);
+        config.getEngineDefaults().getThreading().setThreadPoolRingBufferWaitStrategy(strategy);
+        config.getEngineDefaults().getThreading().setThreadPoolRingBufferBatchSize(8);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(100);
+        config.getEngineDefaults().getThreading().setThreadPoolRouteExec(true);
+        config.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(2);
+        config.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(2);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addImport(SupportStaticMethodLib.class.getName());
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getName() + "-" + strategy, config);
+        epService.initialize();
+
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString, intPrimitive from SupportBean");
+        SupportListenerTimerHRes listener = new SupportListenerTimerHRes();
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from MyStream");
+        stmt.addListener(listener);
+
+        int numEvents = 10000;
+        for (int i = 0; i < numEvents; i++)
+        {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getNewEvents().size() < numEvents && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(numEvents, listener.getNewEvents().size());
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().getInboundQueue() instanceof RingBufferQueue);
+        assertEquals(128, ((RingBufferQueue) spi.getThreadingService().getInboundQueue()).getCapacity());
+        assertEquals(0, spi.getThreadingService().getInboundQueue().size());
+        assertEquals(0, spi.getThreadingService().getRouteQueue().size());
+        assertEquals(0, spi.getThreadingService().getOutboundQueue().size());
+        assertNull(spi.getThreadingService().getInboundThreadPool());
+
+        epService.destroy();
+    }
+}
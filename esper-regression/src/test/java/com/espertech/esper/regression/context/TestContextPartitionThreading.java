@@ -0,0 +1,162 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.context;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestContextPartitionThreading extends TestCase
+{
+    private final static int NUM_KEYS = 20;
+    private final static int NUM_EVENTS_PER_KEY = 200;
+
+    public void testHashSegmented() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.ThreadPoolQueue queue : ConfigurationEngineDefaults.Threading.ThreadPoolQueue.values())
+        {
+            runAssertion(queue, "create context MyContext coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16 preallocate");
+            runAssertion(queue, "create context MyContext coalesce by consistent_hash_crc32(theString) from SupportBean granularity 64");
+        }
+    }
+
+    public void testKeySegmented() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.ThreadPoolQueue queue : ConfigurationEngineDefaults.Threading.ThreadPoolQueue.values())
+        {
+            runAssertion(queue, "create context MyContext partition by theString from SupportBean");
+        }
+    }
+
+    public void testNotSegmented() throws Exception
+    {
+        Configuration config = makeConfig(ConfigurationEngineDefaults.Threading.ThreadPoolQueue.BLOCKINGQUEUE);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getName() + "-category", config);
+        epService.initialize();
+
+        epService.getEPAdministrator().createEPL("create context MyContext group by intPrimitive < 0 as negative, group by intPrimitive >= 0 as positive from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context MyContext select theString from SupportBean");
+        MyThreadListener listener = new MyThreadListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), listener.getThreadNames());
+
+        epService.destroy();
+    }
+
+    private void runAssertion(ConfigurationEngineDefaults.Threading.ThreadPoolQueue queue, String eplContext) throws Exception
+    {
+        Configuration config = makeConfig(queue);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getName() + "-" + queue, config);
+        epService.initialize();
+
+        epService.getEPAdministrator().createEPL(eplContext);
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context MyContext select theString, intPrimitive, count(*) as cnt from SupportBean group by theString");
+        MyThreadListener listener = new MyThreadListener();
+        stmt.addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++)
+        {
+            for (int key = 0; key < NUM_KEYS; key++)
+            {
+                epService.getEPRuntime().sendEvent(new SupportBean("K" + key, i));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 20000;
+        while (listener.getNumReceived() < NUM_KEYS * NUM_EVENTS_PER_KEY && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(NUM_KEYS * NUM_EVENTS_PER_KEY, listener.getNumReceived());
+
+        // each partition processes its events in order
+        for (int key = 0; key < NUM_KEYS; key++)
+        {
+            List<Object[]> received = listener.getReceived().get("K" + key);
+            assertEquals(NUM_EVENTS_PER_KEY, received.size());
+            for (int i = 0; i < NUM_EVENTS_PER_KEY; i++)
+            {
+                assertEquals(i, received.get(i)[0]);
+                assertEquals((long) i + 1, received.get(i)[1]);
+            }
+        }
+
+        // events are processed by the context partition threads
+        boolean found = false;
+        for (String name : listener.getThreadNames())
+        {
+            found |= name.contains("ContextPartition-");
+        }
+        assertTrue(found);
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertEquals(4, spi.getThreadingService().getContextPartitionQueues().size());
+
+        epService.destroy();
+    }
+
+    private Configuration makeConfig(ConfigurationEngineDefaults.Threading.ThreadPoolQueue queue)
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolContextPartition(true);
+        config.getEngineDefaults().getThreading().setThreadPoolContextPartitionNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolQueue(queue);
+        return config;
+    }
+
+    private static class MyThreadListener implements UpdateListener
+    {
+        private final Map<String, List<Object[]>> received = new HashMap<String, List<Object[]>>();
+        private final Set<String> threadNames = new HashSet<String>();
+        private int numReceived;
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            threadNames.add(Thread.currentThread().getName());
+            for (EventBean event : newEvents)
+            {
+                String key = (String) event.get("theString");
+                List<Object[]> values = received.get(key);
+                if (values == null)
+                {
+                    values = new ArrayList<Object[]>();
+                    received.put(key, values);
+                }
+                values.add(new Object[] {event.get("intPrimitive"), event.get("cnt")});
+                numReceived++;
+            }
+        }
+
+        public synchronized Map<String, List<Object[]>> getReceived()
+        {
+            return received;
+        }
+
+        public synchronized Set<String> getThreadNames()
+        {
+            return threadNames;
+        }
+
+        public synchronized int getNumReceived()
+        {
+            return numReceived;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.enummethod;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.util.SerializableObjectCopier;
+import com.espertech.esper.util.StructuralObjectCopier;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TestExpressionDefPerformance extends TestCase {
+    private static final Logger log = LoggerFactory.getLogger(TestExpressionDefPerformance.class);
+
+    private final static int NUM_EXPRESSIONS = 200;
+    private final static int NUM_STATEMENTS = 1000;
+
+    private EPServiceProvider epService;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+    }
+
+    public void testPerfCreateStatements() throws Exception {
+        for (int i = 0; i < NUM_EXPRESSIONS; i++) {
+            epService.getEPAdministrator().createEPL("create expression expr" + i + " {v => " +
+                    "case when (v.intPrimitive * " + i + " + v.longPrimitive) / (v.doublePrimitive + " + (i + 1) + ") > " + i + " " +
+                    "then coalesce(v.theString, 'E" + i + "') || 'x' else v.theString end }");
+        }
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < NUM_STATEMENTS; i++) {
+            StringBuilder epl = new StringBuilder("select ");
+            for (int j = 0; j < 5; j++) {
+                epl.append("expr").append((i + j * 37) % NUM_EXPRESSIONS).append("(s) as c").append(j).append(", ");
+            }
+            epl.append("intPrimitive from SupportBean as s where expr").append(i % NUM_EXPRESSIONS).append("(s) is not null");
+            epService.getEPAdministrator().createEPL(epl.toString());
+        }
+        long delta = System.currentTimeMillis() - start;
+        log.info("Created " + NUM_STATEMENTS + " statements using declared expressions in " + delta + " msec");
+        assertTrue("delta=" + delta, delta < 30000);
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select expr1(s) as c0 from SupportBean as s").addListener(listener);
+        SupportBean bean = new SupportBean("E", 10);
+        bean.setDoublePrimitive(1);
+        epService.getEPRuntime().sendEvent(bean);
+        assertEquals("Ex", listener.assertOneGetNewAndReset().get("c0"));
+
+        // compare copying an expression body field-by-field and through serialization
+        ExprNode body = ((EPServiceProviderSPI) epService).getServicesContext().getExprDeclaredService().getExpression("expr1").getInner();
+        long startStructural = System.nanoTime();
+        for (int i = 0; i < 10000; i++) {
+            StructuralObjectCopier.copy(body);
+        }
+        long deltaStructural = (System.nanoTime() - startStructural) / 1000000;
+        long startSerialized = System.nanoTime();
+        for (int i = 0; i < 10000; i++) {
+            SerializableObjectCopier.copy(body);
+        }
+        long deltaSerialized = (System.nanoTime() - startSerialized) / 1000000;
+        log.info("Copied expression body 10000 times field-by-field in " + deltaStructural + " msec and through serialization in " + deltaSerialized + " msec");
+        assertEquals(ExprNodeUtility.toExpressionStringMinPrecedenceSafe(body),
+                ExprNodeUtility.toExpressionStringMinPrecedenceSafe((ExprNode) StructuralObjectCopier.copy(body)));
+    }
+}
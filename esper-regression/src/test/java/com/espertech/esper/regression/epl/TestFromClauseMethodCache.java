@@ -18,6 +18,7 @@ import junit.framework.TestCase;
 import com.espertech.esper.client.*;
 import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
 import com.espertech.esper.supportregression.client.SupportConfigFactory;
 import com.espertech.esper.supportregression.epl.SupportStaticMethodInvocations;
 
@@ -147,6 +148,140 @@ public class TestFromClauseMethodCache extends TestCase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
     }
 
+    public void testBatchSameKeys()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addImport(SupportStaticMethodInvocations.class.getPackage().getName() + ".*");
+
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+
+        String joinStatement = "select id, p00, theString from " +
+                SupportBean.class.getName() + "()#length_batch(4) as s1, " +
+                " method:SupportStaticMethodInvocations.fetchObjectLog(theString, intPrimitive)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(joinStatement);
+        stmt.addListener(listener);
+
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+
+        // rows of the same batch with the same keys invoke the method once
+        String[] fields = new String[] {"id", "p00", "theString"};
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E2", 2);
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E1", 2);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getAndResetLastNewData(), fields,
+                new Object[][]{{1, "|E1|", "E1"}, {2, "|E2|", "E2"}, {1, "|E1|", "E1"}, {2, "|E1|", "E1"}});
+        assertEquals(3, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // without a cache the next batch invokes the method again, once for the new rows and once per distinct key of the old rows
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E1", 1);
+        assertEquals(4, listener.getAndResetLastNewData().length);
+        assertEquals(4, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testRefreshAhead()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        ConfigurationMethodRef methodConfig = new ConfigurationMethodRef();
+        methodConfig.setExpiryTimeCache(10, 10, ConfigurationCacheReferenceType.HARD, 5);
+        config.addMethodRef(SupportStaticMethodInvocations.class.getName(), methodConfig);
+        config.addImport(SupportStaticMethodInvocations.class.getPackage().getName() + ".*");
+
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+
+        sendTimer(0);
+        String joinStatement = "select id, p00, theString from " +
+                SupportBean.class.getName() + "()#length(100) as s1, " +
+                " method:SupportStaticMethodInvocations.fetchObjectLog(theString, intPrimitive)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(joinStatement);
+        stmt.addListener(listener);
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+
+        String[] fields = new String[] {"id", "p00", "theString"};
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E2", 2);
+        assertEquals(2, SupportStaticMethodInvocations.getInvocationSizeReset());
+        listener.reset();
+
+        sendTimer(4000);
+        sendBeanEvent("E1", 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // E1 was looked up and is within 5 seconds of expiry, it is reloaded while E2 is not
+        sendTimer(5000);
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // the reloaded E1 is still cached after the original entry would have expired
+        sendTimer(12000);
+        sendBeanEvent("E1", 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+        sendBeanEvent("E2", 2);
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testBatchMethod()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addImport(SupportStaticMethodInvocations.class.getPackage().getName() + ".*");
+
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+
+        String joinStatement = "select id, p00, theString from " +
+                SupportBean.class.getName() + "()#length_batch(4) as s1, " +
+                " method:SupportStaticMethodInvocations.fetchObjectBatched(theString, intPrimitive)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(joinStatement);
+        stmt.addListener(listener);
+
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+        SupportStaticMethodInvocations.getBatchInvocationsReset();
+
+        // the distinct keys of the batch are passed to a single invocation of the batch method
+        String[] fields = new String[] {"id", "p00", "theString"};
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E2", 2);
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E3", 3);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getAndResetLastNewData(), fields,
+                new Object[][]{{1, "|E1|", "E1"}, {2, "|E2|", "E2"}, {1, "|E1|", "E1"}, {3, "|E3|", "E3"}});
+        assertEquals("[3]", SupportStaticMethodInvocations.getBatchInvocationsReset().toString());
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // a single key invokes the method
+        EPStatement stmtSingle = epService.getEPAdministrator().createEPL("select * from method:SupportStaticMethodInvocations.fetchObjectBatched('E5', 5)");
+        SupportBean_S0 single = (SupportBean_S0) stmtSingle.iterator().next().getUnderlying();
+        assertEquals("|E5|", single.getP00());
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+        assertTrue(SupportStaticMethodInvocations.getBatchInvocationsReset().isEmpty());
+
+        try {
+            epService.getEPAdministrator().createEPL("select * from " + SupportBean.class.getName() + ", method:SupportStaticMethodInvocations.fetchObjectInvalid(theString)");
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("Batch method 'fetchObjectInvalidBatch' does not return an array holding a result for each lookup key"));
+        }
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
     private void sendTimer(long timeInMSec)
     {
         CurrentTimeEvent theEvent = new CurrentTimeEvent(timeInMSec);
@@ -0,0 +1,253 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+
+package com.espertech.esper.regression.expr;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares results of an engine with expression code generation enabled against an engine
+ * that evaluates interpreted, for where-clauses moved into the stream filter as well as where-clauses of
+ * statements with a data window.
+ */
+public class TestExprCodeGeneration extends TestCase
+{
+    private static final String[] BEAN_EXPRESSIONS = new String[] {
+        "intPrimitive > 5",
+        "intPrimitive >= 5 and intPrimitive <= 10",
+        "intPrimitive < 5 or longPrimitive > 100",
+        "not (intPrimitive = 5)",
+        "intPrimitive != 5",
+        "intBoxed = 5",
+        "intBoxed > 5 or intPrimitive > 5",
+        "intBoxed > 5 and intPrimitive > 5",
+        "not (intBoxed > 5)",
+        "boolPrimitive",
+        "boolBoxed",
+        "not boolBoxed",
+        "boolBoxed = true",
+        "boolPrimitive and boolBoxed",
+        "boolPrimitive or boolBoxed",
+        "theString = 'E1'",
+        "theString != 'E1'",
+        "theString > 'E3'",
+        "intPrimitive + longPrimitive > 20",
+        "intPrimitive - intBoxed < 0",
+        "intPrimitive * doublePrimitive >= 10.5",
+        "intPrimitive / intBoxed > 1",
+        "intPrimitive / doublePrimitive > 1",
+        "longPrimitive % 3 = 0",
+        "doublePrimitive / doubleBoxed < 2",
+        "doublePrimitive = doubleBoxed",
+        "doubleBoxed > 1.5",
+        "doubleBoxed < 1.5",
+        "floatPrimitive * 2 > doublePrimitive",
+        "floatBoxed != floatPrimitive",
+        "longBoxed = longPrimitive",
+        "intPrimitive = longPrimitive",
+        "shortPrimitive + bytePrimitive > 2",
+        "intPrimitive > 1 and (theString = 'E2' or doubleBoxed > 0) and not boolPrimitive",
+        "(intPrimitive + 1) * 2 = intBoxed or (intBoxed is null)",
+    };
+
+    private static final String[] STREAMS = new String[] {"", "#keepall"};
+
+    private static final String[] MAP_EXPRESSIONS = new String[] {
+        "p0 > 5",
+        "p0 = p1",
+        "p0 * p1 < 20 or p2 = 'x'",
+        "p2 != 'x' and p0 >= 1",
+        "not (p1 > 2)",
+    };
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testBeanDefault()
+    {
+        runAssertionBean(false, false);
+    }
+
+    public void testBeanIntegerDivision()
+    {
+        runAssertionBean(true, true);
+    }
+
+    public void testMapAndObjectArray()
+    {
+        EPServiceProvider[] engines = makeEngines(false, false);
+        Map<String, Object> types = new HashMap<String, Object>();
+        types.put("p0", Integer.class);
+        types.put("p1", Long.class);
+        types.put("p2", String.class);
+        for (EPServiceProvider engine : engines) {
+            engine.getEPAdministrator().getConfiguration().addEventType("MyMapEvent", types);
+            engine.getEPAdministrator().getConfiguration().addEventType("MyOAEvent", new String[] {"p0", "p1", "p2"}, new Object[] {Integer.class, Long.class, String.class});
+        }
+
+        List<Object[]> rows = new ArrayList<Object[]>();
+        rows.add(new Object[] {1, 1L, "x"});
+        rows.add(new Object[] {6, 2L, "y"});
+        rows.add(new Object[] {null, 3L, null});
+        rows.add(new Object[] {10, null, "x"});
+        rows.add(new Object[] {3, 3L, "z"});
+
+        for (String expression : MAP_EXPRESSIONS) {
+            for (String stream : STREAMS) {
+                SupportUpdateListener[] mapListeners = createStatements(engines, "select * from MyMapEvent" + stream + " where " + expression);
+                SupportUpdateListener[] oaListeners = createStatements(engines, "select * from MyOAEvent" + stream + " where " + expression);
+                for (Object[] row : rows) {
+                    Map<String, Object> map = new HashMap<String, Object>();
+                    map.put("p0", row[0]);
+                    map.put("p1", row[1]);
+                    map.put("p2", row[2]);
+                    for (EPServiceProvider engine : engines) {
+                        engine.getEPRuntime().sendEvent(map, "MyMapEvent");
+                        engine.getEPRuntime().sendEvent(row, "MyOAEvent");
+                    }
+                    assertSame(expression, mapListeners);
+                    assertSame(expression, oaListeners);
+                }
+                destroyStatements(engines);
+            }
+        }
+        destroyEngines(engines);
+    }
+
+    public void testPatternFilter()
+    {
+        // pattern filters that refer to tagged events stay interpreted
+        EPServiceProvider[] engines = makeEngines(false, false);
+        String expression = "every a=SupportBean -> b=SupportBean(intPrimitive > a.intPrimitive and theString != a.theString)";
+        SupportUpdateListener[] listeners = createStatements(engines, "select * from pattern [" + expression + "]");
+        for (SupportBean event : makeBeans()) {
+            for (EPServiceProvider engine : engines) {
+                engine.getEPRuntime().sendEvent(event);
+            }
+            assertSame(expression, listeners);
+        }
+        destroyEngines(engines);
+    }
+
+    private void runAssertionBean(boolean integerDivision, boolean divisionByZeroNull)
+    {
+        EPServiceProvider[] engines = makeEngines(integerDivision, divisionByZeroNull);
+        List<SupportBean> events = makeBeans();
+
+        for (String expression : BEAN_EXPRESSIONS) {
+            for (String stream : STREAMS) {
+                SupportUpdateListener[] listeners = createStatements(engines, "select * from SupportBean" + stream + " where " + expression);
+                for (SupportBean event : events) {
+                    for (EPServiceProvider engine : engines) {
+                        engine.getEPRuntime().sendEvent(event);
+                    }
+                    assertSame(expression, listeners);
+                }
+                destroyStatements(engines);
+            }
+        }
+        destroyEngines(engines);
+    }
+
+    private EPServiceProvider[] makeEngines(boolean integerDivision, boolean divisionByZeroNull)
+    {
+        EPServiceProvider[] engines = new EPServiceProvider[2];
+        for (int i = 0; i < engines.length; i++) {
+            Configuration config = SupportConfigFactory.getConfiguration();
+            config.getEngineDefaults().getExpression().setCodeGeneration(i == 1);
+            config.getEngineDefaults().getExpression().setIntegerDivision(integerDivision);
+            config.getEngineDefaults().getExpression().setDivisionByZeroReturnsNull(divisionByZeroNull);
+            config.addEventType("SupportBean", SupportBean.class);
+            engines[i] = EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "_" + i, config);
+            engines[i].initialize();
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(engines[0], this.getClass(), getName());}
+        return engines;
+    }
+
+    private SupportUpdateListener[] createStatements(EPServiceProvider[] engines, String epl)
+    {
+        SupportUpdateListener[] listeners = new SupportUpdateListener[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            EPStatement stmt = engines[i].getEPAdministrator().createEPL(epl);
+            listeners[i] = new SupportUpdateListener();
+            stmt.addListener(listeners[i]);
+        }
+        return listeners;
+    }
+
+    private void destroyStatements(EPServiceProvider[] engines)
+    {
+        for (EPServiceProvider engine : engines) {
+            engine.getEPAdministrator().destroyAllStatements();
+        }
+    }
+
+    private void destroyEngines(EPServiceProvider[] engines)
+    {
+        for (EPServiceProvider engine : engines) {
+            engine.destroy();
+        }
+    }
+
+    private static void assertSame(String expression, SupportUpdateListener[] listeners)
+    {
+        boolean interpreted = listeners[0].getAndClearIsInvoked();
+        boolean compiled = listeners[1].getAndClearIsInvoked();
+        assertEquals("Mismatch for expression '" + expression + "'", interpreted, compiled);
+        listeners[0].reset();
+        listeners[1].reset();
+    }
+
+    private static List<SupportBean> makeBeans()
+    {
+        List<SupportBean> events = new ArrayList<SupportBean>();
+        events.add(makeBean("E1", 5, 5, 100L, null, 1.5d, 1.5d, 1f, null, true, null));
+        events.add(makeBean("E2", 6, null, 0L, 0L, 0d, 0d, 0f, 0f, false, true));
+        events.add(makeBean("E3", 10, 0, 200L, 200L, 2.5d, null, 2f, 2f, true, false));
+        events.add(makeBean("E4", 0, 3, 9L, 9L, Double.NaN, Double.NaN, Float.NaN, Float.NaN, false, false));
+        events.add(makeBean("E5", -4, 12, -3L, 5L, -2d, 4d, -1f, 3f, true, true));
+        events.add(makeBean("E6", 7, -7, 21L, 21L, 3.5d, 0d, 3.5f, 7f, false, null));
+        events.add(makeBean(null, 2, 6, 18L, null, 10d, 5d, 6f, null, false, true));
+        return events;
+    }
+
+    private static SupportBean makeBean(String theString, int intPrimitive, Integer intBoxed, long longPrimitive, Long longBoxed,
+                                        double doublePrimitive, Double doubleBoxed, float floatPrimitive, Float floatBoxed,
+                                        boolean boolPrimitive, Boolean boolBoxed)
+    {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setIntBoxed(intBoxed);
+        bean.setLongPrimitive(longPrimitive);
+        bean.setLongBoxed(longBoxed);
+        bean.setDoublePrimitive(doublePrimitive);
+        bean.setDoubleBoxed(doubleBoxed);
+        bean.setFloatPrimitive(floatPrimitive);
+        bean.setFloatBoxed(floatBoxed);
+        bean.setBoolPrimitive(boolPrimitive);
+        bean.setBoolBoxed(boolBoxed);
+        bean.setShortPrimitive((short) (intPrimitive % 3));
+        bean.setBytePrimitive((byte) (intPrimitive % 2));
+        return bean;
+    }
+}
@@ -14,12 +14,17 @@ package com.espertech.esper.regression.multithread;
 import junit.framework.TestCase;
 import com.espertech.esper.client.*;
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPStatementImpl;
+import com.espertech.esper.core.service.UpdateDispatchViewQueued;
 import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.client.SupportConfigFactory;
 import com.espertech.esper.supportregression.util.SupportMTUpdateListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -40,12 +45,86 @@ public class TestMTDeterminismListener extends TestCase
 
     public void testOrderedDeliverySuspend() throws Exception
     {
-        trySend(4, 10000, true, ConfigurationEngineDefaults.Threading.Locking.SUSPEND);
+        trySend(4, 10000, true, ConfigurationEngineDefaults.Threading.Locking.SUSPEND, null);
     }
 
     public void testOrderedDeliverySpin() throws Exception
     {
-        trySend(4, 10000, true, ConfigurationEngineDefaults.Threading.Locking.SPIN);
+        trySend(4, 10000, true, ConfigurationEngineDefaults.Threading.Locking.SPIN, null);
+    }
+
+    public void testOrderedDeliveryQueue() throws Exception
+    {
+        // a small queue makes processing threads wait for the delivery thread to catch up
+        trySend(4, 10000, false, null, "@Hint('listener_dispatch_queue=100') ");
+
+        UpdateDispatchViewQueued view = (UpdateDispatchViewQueued) ((EPStatementImpl) engine.getEPAdministrator().getStatement("s0")).getDispatchChildView();
+        assertEquals(100, view.getQueueCapacity());
+        assertEquals(0, view.getQueueDepth());
+        assertTrue(view.getNumDelivered() > 0);
+        assertTrue(view.getDeliveryLatencyNanosMax() > 0);
+        assertTrue(view.getDeliveryLatencyNanosTotal() >= view.getDeliveryLatencyNanosMax());
+    }
+
+    public void testDispatchQueueFull() throws Exception
+    {
+        engine = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        engine.initialize();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Object> received = new CopyOnWriteArrayList<Object>();
+        EPStatement stmt = engine.getEPAdministrator().createEPL("@Hint('listener_dispatch_queue=1') select theString from " + SupportBean.class.getName(), "s0");
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                if (Thread.currentThread().getName().contains("Dispatch-s0")) {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                received.add(newEvents[0].get("theString"));
+            }
+        });
+
+        // the delivery thread blocks delivering E1, E2 occupies the queue and E3 exceeds the capacity
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        Thread.sleep(100);
+        engine.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        Thread sender = new Thread(new Runnable() {
+            public void run() {
+                engine.getEPRuntime().sendEvent(new SupportBean("E3", 3));
+            }
+        });
+        sender.start();
+
+        // the processing thread waits for capacity instead of delivering ahead of queued results
+        sender.join(300);
+        assertTrue(sender.isAlive());
+        assertEquals("[]", received.toString());
+
+        release.countDown();
+        sender.join(10000);
+        assertFalse(sender.isAlive());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (received.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("[E1, E2, E3]", received.toString());
+    }
+
+    public void testInvalidDispatchQueueHint() throws Exception
+    {
+        engine = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        engine.initialize();
+        try {
+            engine.getEPAdministrator().createEPL("@Hint('listener_dispatch_queue=0') select * from " + SupportBean.class.getName());
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Hint 'LISTENER_DISPATCH_QUEUE' requires a positive integer queue capacity but received '0'", ex.getMessage());
+        }
     }
 
     public void manualTestOrderedDeliveryFail() throws Exception
@@ -53,10 +132,10 @@ public class TestMTDeterminismListener extends TestCase
         /**
          * Commented out as this is a manual test -- it should fail since the disable preserve order. 
          */
-        trySend(3, 1000, false, null);
+        trySend(3, 1000, false, null, null);
     }
 
-    private void trySend(int numThreads, int numEvents, boolean isPreserveOrder, ConfigurationEngineDefaults.Threading.Locking locking) throws Exception
+    private void trySend(int numThreads, int numEvents, boolean isPreserveOrder, ConfigurationEngineDefaults.Threading.Locking locking, String hint) throws Exception
     {
         Configuration config = SupportConfigFactory.getConfiguration();
         config.getEngineDefaults().getThreading().setListenerDispatchPreserveOrder(isPreserveOrder);
@@ -66,7 +145,7 @@ public class TestMTDeterminismListener extends TestCase
         engine.initialize();
 
         // setup statements
-        EPStatement stmtInsert = engine.getEPAdministrator().createEPL("select count(*) as cnt from " + SupportBean.class.getName());
+        EPStatement stmtInsert = engine.getEPAdministrator().createEPL((hint == null ? "" : hint) + "select count(*) as cnt from " + SupportBean.class.getName(), "s0");
         SupportMTUpdateListener listener = new SupportMTUpdateListener();       
         stmtInsert.addListener(listener);
 
@@ -86,6 +165,12 @@ public class TestMTDeterminismListener extends TestCase
             assertTrue((Boolean) future[i].get());
         }
 
+        // queued delivery completes on the statement's delivery thread
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getNewDataListCopy().size() < numEvents * numThreads && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
         EventBean events[] = listener.getNewDataListFlattened();
         long[] result = new long[events.length];
         for (int i = 0; i < events.length; i++)
@@ -0,0 +1,160 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPOnDemandPreparedQuery;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestInfraExecuteQueryParallel extends TestCase
+{
+    private static final Set<String> THREAD_NAMES = Collections.synchronizedSet(new HashSet<String>());
+
+    private EPServiceProvider sequential;
+    private EPServiceProvider parallel;
+
+    public void setUp()
+    {
+        sequential = EPServiceProviderManager.getProvider("sequential", makeConfig(false));
+        sequential.initialize();
+        parallel = EPServiceProviderManager.getProvider("parallel", makeConfig(true));
+        parallel.initialize();
+        THREAD_NAMES.clear();
+    }
+
+    public void tearDown() {
+        sequential.destroy();
+        parallel.destroy();
+    }
+
+    public void testNamedWindow() {
+        for (EPServiceProvider engine : new EPServiceProvider[] {sequential, parallel}) {
+            engine.getEPAdministrator().createEPL("create window MyInfra#keepall as SupportBean");
+            engine.getEPAdministrator().createEPL("insert into MyInfra select * from SupportBean");
+            sendEvents(engine);
+        }
+
+        assertSame("select * from MyInfra", true);
+        assertSame("select theString, intPrimitive from MyInfra where intPrimitive % 3 = 0", true);
+        assertSame("select * from MyInfra where intPrimitive > 900", true);
+        assertSame("select * from MyInfra where intPrimitive < 0", true);
+        assertSame("select theString, sum(intPrimitive) as total, count(*) as cnt from MyInfra group by theString", false);
+        assertSame("select theString, intBoxed, sum(intPrimitive) as total from MyInfra group by theString, intBoxed", false);
+        assertSame("select theString, count(*) as cnt from MyInfra where intPrimitive > 100 group by theString having count(*) > 80", false);
+        assertSame("select theString, intPrimitive, sum(longPrimitive) as total from MyInfra where intPrimitive > 990 group by theString", false);
+        assertSame("select count(*) as cnt, sum(intPrimitive) as total, avg(longPrimitive) as average from MyInfra where intPrimitive > 10", true);
+        assertSame("select min(intPrimitive) as minInt, max(theString) as maxString, sum(longPrimitive) as total, avg(intBoxed) as average from MyInfra", true);
+        assertSame("select count(*, intPrimitive > 500) as cnt, sum(intPrimitive, intBoxed = 3) as total, min(intBoxed) as minBoxed from MyInfra where intPrimitive > 5", true);
+        assertSame("select count(intBoxed) as cnt, sum(intBoxed) as total from MyInfra where intPrimitive < 0", true);
+        assertSame("select count(*) as cnt from MyInfra having sum(intPrimitive) > 100", true);
+        assertSame("select count(distinct theString) as cnt, sum(intPrimitive) as total from MyInfra", true);
+        assertSame("select * from MyInfra where intPrimitive > 100 order by intPrimitive desc limit 5", true);
+        assertSame("select distinct theString from MyInfra where intPrimitive > 10", false);
+
+        // prepared query executes repeatedly
+        EPOnDemandPreparedQuery prepared = parallel.getEPRuntime().prepareQuery("select theString, count(*) as cnt from MyInfra group by theString");
+        EventBean[] first = prepared.execute().getArray();
+        EventBean[] second = prepared.execute().getArray();
+        EPAssertionUtil.assertPropsPerRowAnyOrder(second, "theString,cnt".split(","), EPAssertionUtil.eventsToObjectArr(first, "theString,cnt".split(",")));
+
+        // parallel execution takes place on the fork-join pool
+        parallel.getEPAdministrator().getConfiguration().addPlugInSingleRowFunction("recordThread", this.getClass().getName(), "recordThread");
+        parallel.getEPRuntime().executeQuery("select * from MyInfra where recordThread(intPrimitive)");
+        boolean found = false;
+        for (String name : new HashSet<String>(THREAD_NAMES)) {
+            found |= name.startsWith("com.espertech.esper.FireAndForget-parallel-");
+        }
+        assertTrue(THREAD_NAMES.toString(), found);
+
+        // ungrouped aggregation takes place on the fork-join pool
+        THREAD_NAMES.clear();
+        parallel.getEPAdministrator().getConfiguration().addPlugInSingleRowFunction("recordThreadValue", this.getClass().getName(), "recordThreadValue");
+        EventBean result = parallel.getEPRuntime().executeQuery("select count(*) as cnt, sum(recordThreadValue(intPrimitive)) as total from MyInfra").getArray()[0];
+        EPAssertionUtil.assertProps(result, "cnt,total".split(","), new Object[] {1000L, 499500});
+        for (String name : new HashSet<String>(THREAD_NAMES)) {
+            assertTrue(THREAD_NAMES.toString(), name.startsWith("com.espertech.esper.FireAndForget-parallel-"));
+        }
+    }
+
+    public void testTable() {
+        for (EPServiceProvider engine : new EPServiceProvider[] {sequential, parallel}) {
+            engine.getEPAdministrator().createEPL("create table MyInfra (theString string primary key, intPrimitive int)");
+            engine.getEPAdministrator().createEPL("on SupportBean as sb merge MyInfra as mi where mi.theString = sb.theString " +
+                    "when not matched then insert select theString, intPrimitive " +
+                    "when matched then update set intPrimitive = sb.intPrimitive");
+            sendEvents(engine);
+        }
+
+        assertSame("select * from MyInfra", false);
+        assertSame("select theString, intPrimitive from MyInfra where intPrimitive > 500", false);
+        assertSame("select count(*) as cnt, sum(intPrimitive) as total from MyInfra", true);
+    }
+
+    public static boolean recordThread(int value) {
+        THREAD_NAMES.add(Thread.currentThread().getName());
+        return true;
+    }
+
+    public static int recordThreadValue(int value) {
+        THREAD_NAMES.add(Thread.currentThread().getName());
+        return value;
+    }
+
+    private void assertSame(String epl, boolean ordered) {
+        EventBean[] expected = sequential.getEPRuntime().executeQuery(epl).getArray();
+        EventBean[] received = parallel.getEPRuntime().executeQuery(epl).getArray();
+        if (expected == null || expected.length == 0) {
+            assertTrue(received == null || received.length == 0);
+            return;
+        }
+        List<String> names = new ArrayList<String>(Arrays.asList(expected[0].getEventType().getPropertyNames()));
+        names.remove("this");
+        String[] fields = names.toArray(new String[names.size()]);
+        Object[][] expectedValues = EPAssertionUtil.eventsToObjectArr(expected, fields);
+        if (ordered) {
+            EPAssertionUtil.assertPropsPerRow(received, fields, expectedValues);
+        }
+        else {
+            EPAssertionUtil.assertPropsPerRowAnyOrder(received, fields, expectedValues);
+        }
+    }
+
+    private void sendEvents(EPServiceProvider engine) {
+        for (int i = 0; i < 1000; i++) {
+            SupportBean bean = new SupportBean("E" + (i % 10), i);
+            bean.setIntBoxed(i % 7);
+            bean.setLongPrimitive(i * 2);
+            engine.getEPRuntime().sendEvent(bean);
+        }
+    }
+
+    private static Configuration makeConfig(boolean parallel) {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getThreading().setThreadPoolFireAndForget(parallel);
+        config.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolFireAndForgetMinRows(10);
+        return config;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.util.Version;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.*;
+
+public class TestInfraSnapshotRestore extends TestCase
+{
+    private final static String[] EPL = new String[] {
+            "create window MyWindow#keepall as SupportBean",
+            "insert into MyWindow select * from SupportBean",
+            "create objectarray schema MyOA(k string, v int)",
+            "create window MyOAWindow#unique(k) as MyOA",
+            "insert into MyOAWindow select theString as k, intPrimitive as v from SupportBean",
+            "create table MyTable(k string primary key, total sum(int), cnt count(*), mx max(int), avgLong avg(long), " +
+                    "win window(*) @type(SupportBean), srt sorted(intPrimitive) @type(SupportBean))",
+            "into table MyTable select sum(intPrimitive) as total, count(*) as cnt, max(intPrimitive) as mx, avg(longPrimitive) as avgLong, " +
+                    "window(*) as win, sorted(*) as srt from SupportBean#keepall group by theString",
+            "create table MyTotals(total sum(long), lastId lastever(string), distinctCnt approxCountDistinct(int))",
+            "into table MyTotals select sum(longPrimitive) as total, lastever(theString) as lastId, approxCountDistinct(intPrimitive) as distinctCnt from SupportBean",
+    };
+
+    private EPServiceProvider source;
+    private EPServiceProvider target;
+
+    public void setUp()
+    {
+        source = EPServiceProviderManager.getProvider("snapshotSource", makeConfig());
+        source.initialize();
+        target = EPServiceProviderManager.getProvider("snapshotTarget", makeConfig());
+        target.initialize();
+    }
+
+    public void tearDown() {
+        source.destroy();
+        target.destroy();
+    }
+
+    public void testSnapshotRestore() {
+        for (EPServiceProvider engine : new EPServiceProvider[] {source, target}) {
+            for (String epl : EPL) {
+                engine.getEPAdministrator().createEPL(epl);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            SupportBean bean = new SupportBean("E" + (i % 7), i % 13);
+            bean.setLongPrimitive(i);
+            source.getEPRuntime().sendEvent(bean);
+        }
+
+        byte[] snapshot = snapshot(source);
+        restore(target, snapshot);
+        assertSameState();
+
+        // continue processing on both engines
+        for (int i = 0; i < 20; i++) {
+            for (EPServiceProvider engine : new EPServiceProvider[] {source, target}) {
+                SupportBean bean = new SupportBean("E" + (i % 5), 100 - i);
+                bean.setLongPrimitive(1000 + i);
+                engine.getEPRuntime().sendEvent(bean);
+            }
+        }
+        assertSameState();
+
+        // restore replaces existing table rows
+        restore(target, snapshot(source));
+        assertEquals(render(source, "select * from MyTable order by k"), render(target, "select * from MyTable order by k"));
+        assertEquals(render(source, "select * from MyTotals"), render(target, "select * from MyTotals"));
+    }
+
+    public void testNamedWindowConsumerReceivesRestored() {
+        for (String epl : EPL) {
+            source.getEPAdministrator().createEPL(epl);
+        }
+        source.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        source.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+
+        target.getEPAdministrator().createEPL("create window MyWindow#keepall as SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        target.getEPAdministrator().createEPL("select theString from MyWindow").addListener(listener);
+        target.getEPAdministrator().createEPL("create objectarray schema MyOA(k string, v int)");
+        target.getEPAdministrator().createEPL("create window MyOAWindow#unique(k) as MyOA");
+        target.getEPAdministrator().createEPL("create table MyTable(k string primary key, total sum(int), cnt count(*), mx max(int), avgLong avg(long), " +
+                "win window(*) @type(SupportBean), srt sorted(intPrimitive) @type(SupportBean))");
+        target.getEPAdministrator().createEPL("create table MyTotals(total sum(long), lastId lastever(string), distinctCnt approxCountDistinct(int))");
+
+        restore(target, snapshot(source));
+        assertEquals(2, listener.getNewDataListFlattened().length);
+        assertEquals("E1", listener.getNewDataListFlattened()[0].get("theString"));
+    }
+
+    public void testInvalid() {
+        source.getEPAdministrator().createEPL("create table MyTotals(total sum(long))");
+        source.getEPAdministrator().createEPL("into table MyTotals select sum(longPrimitive) as total from SupportBean");
+        source.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        byte[] snapshot = snapshot(source);
+
+        try {
+            restore(target, snapshot);
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Snapshot holds table 'MyTotals' but a table by that name does not exist", ex.getMessage());
+        }
+
+        try {
+            restore(target, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Input is not a snapshot", ex.getMessage());
+        }
+
+        // the build version follows magic number, format version and the length of the build version
+        byte[] otherBuild = snapshot.clone();
+        int lastVersionChar = 12 + Version.getBuildVersion().length() - 1;
+        otherBuild[lastVersionChar] = (byte) (otherBuild[lastVersionChar] == '9' ? '8' : '9');
+        try {
+            restore(target, otherBuild);
+            fail();
+        }
+        catch (EPException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Snapshot was written by engine version '"));
+            assertTrue(ex.getMessage(), ex.getMessage().endsWith("' and cannot be restored by engine version '" + Version.getBuildVersion() + "'"));
+        }
+
+        target.getEPAdministrator().createEPL("create table MyTotals(total count(*))");
+        try {
+            restore(target, snapshot);
+            fail();
+        }
+        catch (EPException ex) {
+            assertTrue(ex.getMessage().startsWith("Snapshot holds state of class "));
+        }
+    }
+
+    public void testUnsupportedValue() {
+        source.getEPAdministrator().createEPL("create schema MyObjectType(p0 java.lang.Object)");
+        source.getEPAdministrator().createEPL("create window MyObjectWindow#keepall as MyObjectType");
+        source.getEPAdministrator().createEPL("insert into MyObjectWindow select * from MyObjectType");
+        source.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("p0", new Object()), "MyObjectType");
+
+        try {
+            snapshot(source);
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Snapshot cannot capture a value of class 'java.lang.Object'", ex.getMessage());
+        }
+    }
+
+    private void assertSameState() {
+        assertEquals(render(source, "select * from MyWindow"), render(target, "select * from MyWindow"));
+        assertEquals(render(source, "select * from MyOAWindow order by k"), render(target, "select * from MyOAWindow order by k"));
+        assertEquals(render(source, "select * from MyTable order by k"), render(target, "select * from MyTable order by k"));
+        assertEquals(render(source, "select * from MyTotals"), render(target, "select * from MyTotals"));
+    }
+
+    private static byte[] snapshot(EPServiceProvider engine) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.getEPAdministrator().getDataSnapshotAdmin().snapshot(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static void restore(EPServiceProvider engine, byte[] snapshot) {
+        engine.getEPAdministrator().getDataSnapshotAdmin().restore(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+    }
+
+    private static String render(EPServiceProvider engine, String query) {
+        EPOnDemandQueryResult result = engine.getEPRuntime().executeQuery(query);
+        StringBuilder builder = new StringBuilder();
+        for (EventBean row : result.getArray()) {
+            List<String> names = new ArrayList<String>(Arrays.asList(row.getEventType().getPropertyNames()));
+            Collections.sort(names);
+            for (String name : names) {
+                builder.append(name).append('=').append(renderValue(row.get(name))).append(' ');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static String renderValue(Object value) {
+        if (value instanceof SupportBean) {
+            SupportBean bean = (SupportBean) value;
+            return bean.getTheString() + "/" + bean.getIntPrimitive() + "/" + bean.getLongPrimitive();
+        }
+        if (value instanceof Object[]) {
+            StringBuilder builder = new StringBuilder("[");
+            for (Object item : (Object[]) value) {
+                builder.append(renderValue(item)).append(',');
+            }
+            return builder.append(']').toString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static Configuration makeConfig() {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        return configuration;
+    }
+}
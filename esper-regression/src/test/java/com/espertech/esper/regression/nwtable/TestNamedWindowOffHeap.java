@@ -0,0 +1,134 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EPStatementException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapEventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestNamedWindowOffHeap extends TestCase
+{
+    private EPServiceProviderSPI epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        config.addEventType("OAType", new String[] {"key", "value", "amount", "flag"}, new Object[] {String.class, int.class, Double.class, boolean.class});
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testInsertDeleteQuery() {
+        String[] fields = "key,value,amount,flag".split(",");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("create window MyWindow#keepall_offheap() as OAType");
+        stmtWindow.addListener(listener);
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from OAType");
+        epService.getEPAdministrator().createEPL("create index MyIndex on MyWindow(value)");
+
+        sendOA("E1", 10, 1.5d, true);
+        EventBean received = listener.assertOneGetNewAndReset();
+        assertTrue(received instanceof ObjectArrayOffHeapEventBean);
+        EPAssertionUtil.assertProps(received, fields, new Object[]{"E1", 10, 1.5d, true});
+
+        sendOA("E2", 20, null, false);
+        sendOA("E3", 30, 3.5d, true);
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10, 1.5d, true}, {"E2", 20, null, false}, {"E3", 30, 3.5d, true}});
+
+        // on-demand query using the index
+        EventBean[] result = epService.getEPRuntime().executeQuery("select * from MyWindow where value = 20").getArray();
+        EPAssertionUtil.assertPropsPerRow(result, fields, new Object[][]{{"E2", 20, null, false}});
+
+        // on-delete: the removed event stays readable after its slot is reused
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 delete from MyWindow where key = p00");
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E2"));
+        EventBean removed = listener.assertOneGetOldAndReset();
+        sendOA("E4", 40, 4.5d, false);
+        EPAssertionUtil.assertProps(removed, fields, new Object[]{"E2", 20, null, false});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10, 1.5d, true}, {"E3", 30, 3.5d, true}, {"E4", 40, 4.5d, false}});
+
+        result = epService.getEPRuntime().executeQuery("select * from MyWindow where value = 20").getArray();
+        assertEquals(0, result.length);
+        result = epService.getEPRuntime().executeQuery("select * from MyWindow where value = 40").getArray();
+        EPAssertionUtil.assertPropsPerRow(result, fields, new Object[][]{{"E4", 40, 4.5d, false}});
+    }
+
+    public void testMergeAndSubquery() {
+        String[] fields = "key,value,amount,flag".split(",");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("create window MyWindow#keepall_offheap() as OAType");
+        epService.getEPAdministrator().createEPL("on SupportBean as sb merge MyWindow as mw where mw.key = sb.theString " +
+                "when matched then update set value = sb.intPrimitive, amount = sb.doublePrimitive " +
+                "when not matched then insert select theString as key, intPrimitive as value, doublePrimitive as amount, false as flag");
+
+        sendSupportBean("E1", 1, 10d);
+        sendSupportBean("E2", 2, 20d);
+        sendSupportBean("E1", 3, 30d);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 3, 30d, false}, {"E2", 2, 20d, false}});
+
+        EPStatement stmtSubquery = epService.getEPAdministrator().createEPL("select (select value from MyWindow where key = s0.p00) as val from SupportBean_S0 as s0");
+        stmtSubquery.addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E1"));
+        assertEquals(3, listener.assertOneGetNewAndReset().get("val"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2, "E2"));
+        assertEquals(2, listener.assertOneGetNewAndReset().get("val"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(3, "E3"));
+        assertNull(listener.assertOneGetNewAndReset().get("val"));
+    }
+
+    public void testInvalid() {
+        tryInvalid("create window MyWindow#keepall_offheap() as SupportBean",
+                "Error starting statement: Error attaching view to event stream: Keep-All-Off-Heap view requires an object-array event type [create window MyWindow#keepall_offheap() as SupportBean]");
+        epService.getEPAdministrator().getConfiguration().addEventType("OATypeNested", new String[] {"key", "bean"}, new Object[] {String.class, SupportBean.class});
+        tryInvalid("create window MyWindowNested#keepall_offheap() as OATypeNested",
+                "Error starting statement: Error attaching view to event stream: Keep-All-Off-Heap view cannot store the event type: Property 'bean' of type '" + SupportBean.class.getName() + "' is not supported for off-heap storage, supported are primitive, boxed and string property types [create window MyWindowNested#keepall_offheap() as OATypeNested]");
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+
+    private void sendOA(String key, int value, Double amount, boolean flag) {
+        epService.getEPRuntime().sendEvent(new Object[] {key, value, amount, flag}, "OAType");
+    }
+
+    private void sendSupportBean(String theString, int intPrimitive, double doublePrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+import com.espertech.esper.supportregression.util.SupportModelHelper;
+import junit.framework.TestCase;
+
+public class TestTableApproxAggregations extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        epService = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testGroupBy() {
+        runAssertionGroupBy(false);
+        runAssertionGroupBy(true);
+    }
+
+    private void runAssertionGroupBy(boolean soda) {
+        EPStatement stmt = SupportModelHelper.createByCompileOrParse(epService, soda, "select theString, approxCountDistinct(intPrimitive) as cnt, " +
+                "approxCountDistinct(intPrimitive,10) as cntTen, approxPercentile(intPrimitive,0.5d) as pmedian, approxPercentile(intPrimitive,0.9d,200) as p90 " +
+                "from SupportBean group by theString");
+        stmt.addListener(listener);
+        assertEquals(Long.class, stmt.getEventType().getPropertyType("cnt"));
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p90"));
+
+        sendAssert("E1", 10, 1L, 10d);
+        sendAssert("E1", 10, 1L, 10d);
+        sendAssert("E2", 20, 1L, 20d);
+        sendAssert("E1", 30, 2L, 10d);
+        sendAssert("E1", 20, 3L, 15d);
+
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E3", i % 1000));
+        }
+        EventBean event = listener.getLastNewData()[0];
+        assertEquals(1000, (Long) event.get("cnt"), 25);
+        assertEquals(1000, (Long) event.get("cntTen"), 150);
+        assertEquals(500, (Double) event.get("pmedian"), 15);
+        assertEquals(900, (Double) event.get("p90"), 15);
+
+        stmt.destroy();
+        listener.reset();
+    }
+
+    public void testTable() {
+        epService.getEPAdministrator().createEPL("create table UserStats(user string primary key, ips approxCountDistinct(int), latency approxPercentile(double, 0.99, 50))");
+        epService.getEPAdministrator().createEPL("into table UserStats select approxCountDistinct(intPrimitive) as ips, approxPercentile(doublePrimitive, 0.99, 50) as latency from SupportBean group by theString");
+        epService.getEPAdministrator().createEPL("select UserStats[p00].ips as ips, UserStats[p00].latency as latency from SupportBean_S0").addListener(listener);
+
+        for (int i = 0; i < 1000; i++) {
+            SupportBean bean = new SupportBean("U1", i % 10);
+            bean.setDoublePrimitive(i);
+            epService.getEPRuntime().sendEvent(bean);
+            epService.getEPRuntime().sendEvent(new SupportBean("U2", i));
+        }
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "U1"));
+        EventBean event = listener.assertOneGetNewAndReset();
+        assertEquals(10L, event.get("ips"));
+        assertEquals(990, (Double) event.get("latency"), 5);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "U2"));
+        event = listener.assertOneGetNewAndReset();
+        assertEquals(1000, (Long) event.get("ips"), 25);
+        assertEquals(0d, event.get("latency"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "U3"));
+        event = listener.assertOneGetNewAndReset();
+        assertNull(event.get("ips"));
+
+        SupportMessageAssertUtil.tryInvalid(epService, "into table UserStats select approxCountDistinct(intPrimitive, 12) as ips from SupportBean group by theString",
+                "Error starting statement: Incompatible aggregation function for table 'UserStats' column 'ips', expecting 'approxCountDistinct(int)' and received 'approxCountDistinct(intPrimitive,12)': The precision is 14 and provided is 12");
+    }
+
+    public void testInvalid() {
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct(intPrimitive) from SupportBean#length(10)",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive)': The approxCountDistinct aggregation function cannot remove values and does not support data windows");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxPercentile(intPrimitive, 0.5) from SupportBean#time(10)",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,0.5)': The approxPercentile aggregation function cannot remove values and does not support data windows");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct(intPrimitive, 30) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive,30)': The approxCountDistinct aggregation function requires an expression returning the values to count and an optional precision constant between 4 and 18");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct(distinct intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(distinct intPri...(42 chars)': The approxCountDistinct aggregation function does not support distinct");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxPercentile(theString, 0.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(theString,0.5)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'approxPercentile'");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxPercentile(intPrimitive, 1.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,1.5)': The approxPercentile aggregation function requires a numeric expression returning the values, a percentile constant between zero and one and an optional compression constant of at least 10");
+    }
+
+    private void sendAssert(String theString, int intPrimitive, Long expectedCount, Double expectedMedian) {
+        epService.getEPRuntime().sendEvent(new SupportBean(theString, intPrimitive));
+        EventBean event = listener.assertOneGetNewAndReset();
+        assertEquals(expectedCount, event.get("cnt"));
+        assertEquals(expectedMedian, event.get("pmedian"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.pattern.pool.PatternStatePoolEngineSvc;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.bean.SupportBean_B;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestPatternStatePool extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+    private PatternStatePoolEngineSvc poolSvc;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.addEventType(SupportBean_A.class);
+        config.addEventType(SupportBean_B.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        listener = new SupportUpdateListener();
+        poolSvc = ((EPServiceProviderSPI) epService).getServicesContext().getPatternStatePoolEngineSvc();
+    }
+
+    protected void tearDown() throws Exception {
+        listener = null;
+        poolSvc = null;
+    }
+
+    public void testFollowedByWithinReuse()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("select a.id as aid, b.id as bid from pattern [every a=SupportBean_A -> b=SupportBean_B(id=a.id) where timer:within(5 sec)]").addListener(listener);
+        assertEquals(1, poolSvc.getLiveCount());
+
+        long time = 0;
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean_A("R" + round + "_" + i));
+            }
+            assertEquals(11, poolSvc.getLiveCount());
+
+            for (int i = 0; i < 10; i += 2) {
+                epService.getEPRuntime().sendEvent(new SupportBean_B("R" + round + "_" + i));
+                EventBean received = listener.assertOneGetNewAndReset();
+                assertEquals("R" + round + "_" + i, received.get("aid"));
+                assertEquals("R" + round + "_" + i, received.get("bid"));
+            }
+            assertEquals(6, poolSvc.getLiveCount());
+
+            time += 6000;
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(time));
+            assertEquals(1, poolSvc.getLiveCount());
+
+            // expired subexpressions do not match
+            epService.getEPRuntime().sendEvent(new SupportBean_B("R" + round + "_1"));
+            assertFalse(listener.isInvoked());
+        }
+        assertTrue(poolSvc.getRecycledCount() > 0);
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, poolSvc.getLiveCount());
+    }
+
+    public void testSameEventQuitsAndRestarts()
+    {
+        // the same event matches the filter that quits and the filter that starts a new subexpression
+        epService.getEPAdministrator().createEPL("select a.theString as a, b.theString as b from pattern [every a=SupportBean(intPrimitive=1) -> b=SupportBean(intPrimitive=1)]").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E0", 1));
+        assertFalse(listener.isInvoked());
+        for (int i = 1; i < 20; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, 1));
+            EventBean received = listener.assertOneGetNewAndReset();
+            assertEquals("E" + (i - 1), received.get("a"));
+            assertEquals("E" + i, received.get("b"));
+        }
+        assertEquals(2, poolSvc.getLiveCount());
+        assertTrue(poolSvc.getRecycledCount() > 0);
+    }
+}
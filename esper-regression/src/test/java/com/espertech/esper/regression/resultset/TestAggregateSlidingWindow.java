@@ -0,0 +1,132 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestAggregateSlidingWindow extends TestCase
+{
+    private static final String AGGREGATIONS = "theString as c0, min(intPrimitive) as c1, max(intPrimitive) as c2, median(intPrimitive) as c3, " +
+            "fmax(intBoxed, intPrimitive > 50) as c4, median(doubleBoxed, intPrimitive < 50) as c5, min(theString) as c6";
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerSliding;
+    private SupportUpdateListener listenerReference;
+
+    public void setUp()
+    {
+        listenerSliding = new SupportUpdateListener();
+        listenerReference = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerSliding = null;
+        listenerReference = null;
+    }
+
+    public void testLengthWindow() {
+        // a chain of two views is not a first-in-first-out data window and uses the general-purpose aggregators
+        runAssertion("#length(20)", "#length(20)#length(20)", "", false);
+        runAssertion("#length(20)", "#length(20)#length(20)", "where intPrimitive % 3 != 0", false);
+        runAssertion("#length(20)", "#length(20)#length(20)", "group by intPrimitive % 4", false);
+    }
+
+    public void testTimeWindow() {
+        runAssertion("#time(10 sec)", "#time(10 sec)#time(10 sec)", "", true);
+        runAssertion("#time(10 sec)", "#time(10 sec)#time(10 sec)", "group by intPrimitive % 4", true);
+    }
+
+    public void testValues() {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select min(intPrimitive) as c0, max(intPrimitive) as c1, median(intPrimitive) as c2 from SupportBean#length(3)");
+        stmt.addListener(listenerSliding);
+
+        sendAssert(5, 5, 5, 5d);
+        sendAssert(1, 1, 5, 3d);
+        sendAssert(3, 1, 5, 3d);
+        sendAssert(4, 1, 4, 3d);
+        sendAssert(9, 3, 9, 4d);
+        sendAssert(2, 2, 9, 4d);
+        sendAssert(2, 2, 9, 2d);
+        sendAssert(2, 2, 2, 2d);
+        stmt.destroy();
+    }
+
+    private void sendAssert(int intPrimitive, int min, int max, double median) {
+        epService.getEPRuntime().sendEvent(new SupportBean("E", intPrimitive));
+        EventBean event = listenerSliding.assertOneGetNewAndReset();
+        assertEquals(min, event.get("c0"));
+        assertEquals(max, event.get("c1"));
+        assertEquals(median, event.get("c2"));
+    }
+
+    private void runAssertion(String window, String referenceWindow, String clauses, boolean advanceTime) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmtSliding = epService.getEPAdministrator().createEPL("select irstream " + AGGREGATIONS + " from SupportBean" + window + " " + clauses);
+        stmtSliding.addListener(listenerSliding);
+        EPStatement stmtReference = epService.getEPAdministrator().createEPL("select irstream " + AGGREGATIONS + " from SupportBean" + referenceWindow + " " + clauses);
+        stmtReference.addListener(listenerReference);
+
+        Random random = new Random(1);
+        long time = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (advanceTime) {
+                time += random.nextInt(500);
+                epService.getEPRuntime().sendEvent(new CurrentTimeEvent(time));
+                assertSame();
+            }
+            SupportBean bean = new SupportBean("E" + random.nextInt(20), random.nextInt(100));
+            bean.setIntBoxed(random.nextInt(5) == 0 ? null : random.nextInt(100));
+            bean.setDoubleBoxed(random.nextInt(5) == 0 ? null : random.nextDouble());
+            epService.getEPRuntime().sendEvent(bean);
+            assertSame();
+        }
+
+        stmtSliding.destroy();
+        stmtReference.destroy();
+    }
+
+    private void assertSame() {
+        assertSame(listenerReference.getNewDataListFlattened(), listenerSliding.getNewDataListFlattened());
+        assertSame(listenerReference.getOldDataListFlattened(), listenerSliding.getOldDataListFlattened());
+        listenerSliding.reset();
+        listenerReference.reset();
+    }
+
+    private void assertSame(EventBean[] expected, EventBean[] received) {
+        assertEquals(expected.length, received.length);
+        for (int i = 0; i < expected.length; i++) {
+            for (int column = 0; column < 7; column++) {
+                assertEquals(expected[i].get("c" + column), received[i].get("c" + column));
+            }
+        }
+    }
+}
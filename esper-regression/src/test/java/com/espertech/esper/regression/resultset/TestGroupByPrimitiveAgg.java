@@ -0,0 +1,132 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+/**
+ * Compares aggregation results of an engine that aggregates into primitive columns and primitive
+ * aggregation inputs, against an engine that uses aggregator objects and interpreted evaluation.
+ */
+public class TestGroupByPrimitiveAgg extends TestCase
+{
+    private static final String[] SELECT_CLAUSES = new String[] {
+        "sum(intPrimitive) as c0, sum(longPrimitive) as c1, sum(doublePrimitive) as c2, count(*) as c3",
+        "sum(intBoxed) as c0, avg(intBoxed) as c1, count(intBoxed) as c2, avg(doubleBoxed) as c3",
+        "sum(intPrimitive * intBoxed) as c0, avg(doublePrimitive / 2) as c1, sum(longBoxed + 1) as c2, count(doubleBoxed) as c3",
+        "sum(intPrimitive) as c0, avg(longPrimitive) as c1, count(distinct intPrimitive) as c2, sum(doubleBoxed) as c3",
+        "sum(intPrimitive) as c0, stddev(intPrimitive) as c1, max(intPrimitive) as c2, count(*) as c3",
+    };
+    private static final String[] FIELDS = new String[] {"theString", "c0", "c1", "c2", "c3"};
+
+    private EPServiceProvider[] engines;
+
+    public void setUp()
+    {
+        engines = new EPServiceProvider[2];
+        for (int i = 0; i < engines.length; i++) {
+            Configuration config = SupportConfigFactory.getConfiguration();
+            config.getEngineDefaults().getExpression().setCodeGeneration(i == 1);
+            config.addEventType("SupportBean", SupportBean.class);
+            engines[i] = EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "_" + i, config);
+            engines[i].initialize();
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(engines[0], this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        for (EPServiceProvider engine : engines) {
+            engine.destroy();
+        }
+        engines = null;
+    }
+
+    public void testGroupBy()
+    {
+        for (String selectClause : SELECT_CLAUSES) {
+            runAssertion("select theString, " + selectClause + " from SupportBean#length(4) group by theString",
+                         "@Hint('disable_reclaim_group') select theString, " + selectClause + " from SupportBean#length(4) group by theString");
+        }
+    }
+
+    public void testGroupAll()
+    {
+        for (String selectClause : SELECT_CLAUSES) {
+            runAssertion("select irstream 'x' as theString, " + selectClause + " from SupportBean#length(3)",
+                         "select irstream 'x' as theString, " + selectClause + " from SupportBean#length(3)");
+        }
+    }
+
+    private void runAssertion(String eplInterpreted, String eplPrimitive)
+    {
+        EPStatement[] statements = new EPStatement[] {
+                engines[0].getEPAdministrator().createEPL(eplInterpreted),
+                engines[1].getEPAdministrator().createEPL(eplPrimitive)
+        };
+        SupportUpdateListener[] listeners = new SupportUpdateListener[2];
+        for (int i = 0; i < statements.length; i++) {
+            listeners[i] = new SupportUpdateListener();
+            statements[i].addListener(listeners[i]);
+        }
+
+        String[] groups = new String[] {"E1", "E2", "E1", "E3", "E1", "E2", "E1", "E3", "E2", "E1"};
+        for (int i = 0; i < groups.length; i++) {
+            SupportBean bean = new SupportBean(groups[i], i * 3 - 7);
+            bean.setIntBoxed(i % 3 == 0 ? null : i);
+            bean.setLongPrimitive(i * 100L);
+            bean.setLongBoxed(i % 4 == 0 ? null : (long) -i);
+            bean.setDoublePrimitive(i * 1.25d);
+            bean.setDoubleBoxed(i % 2 == 0 ? null : i / 4d);
+            for (EPServiceProvider engine : engines) {
+                engine.getEPRuntime().sendEvent(bean);
+            }
+
+            assertEquals(listeners[0].isInvoked(), listeners[1].isInvoked());
+            EventBean[] expectedNew = listeners[0].getLastNewData();
+            EventBean[] expectedOld = listeners[0].getLastOldData();
+            EPAssertionUtil.assertPropsPerRow(listeners[1].getLastNewData(), FIELDS, toRows(expectedNew));
+            EPAssertionUtil.assertPropsPerRow(listeners[1].getLastOldData(), FIELDS, toRows(expectedOld));
+            listeners[0].reset();
+            listeners[1].reset();
+        }
+
+        EPAssertionUtil.assertPropsPerRowAnyOrder(statements[1].iterator(), FIELDS, toRows(EPAssertionUtil.iteratorToArray(statements[0].iterator())));
+
+        for (EPStatement statement : statements) {
+            statement.destroy();
+        }
+    }
+
+    private static Object[][] toRows(EventBean[] events)
+    {
+        if (events == null) {
+            return null;
+        }
+        Object[][] rows = new Object[events.length][];
+        for (int i = 0; i < events.length; i++) {
+            rows[i] = new Object[FIELDS.length];
+            for (int j = 0; j < FIELDS.length; j++) {
+                rows[i][j] = events[i].get(FIELDS[j]);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestOutputLimitEventPerGroupParallel extends TestCase
+{
+    private static final String[] FIELDS = "theString,total,cnt".split(",");
+
+    private EPServiceProvider sequential;
+    private EPServiceProvider parallel;
+
+    public void setUp()
+    {
+        sequential = EPServiceProviderManager.getProvider("sequential", makeConfig(false));
+        sequential.initialize();
+        parallel = EPServiceProviderManager.getProvider("parallel", makeConfig(true));
+        parallel.initialize();
+    }
+
+    public void tearDown() {
+        sequential.destroy();
+        parallel.destroy();
+    }
+
+    public void testOutputLast() {
+        // the sequential engine disables both parallel and incremental generation by means of the variable
+        String epl = "@Hint('enable_outputlimit_opt') select theString, sum(intPrimitive) as total, count(*) as cnt " +
+                "from SupportBean#length(1000) group by theString having count(*) > 1 %s output last every 1 second";
+        runAssertion(epl);
+    }
+
+    public void testOutputAll() {
+        String epl = "@Hint('enable_outputlimit_opt') select theString, sum(intPrimitive) as total, count(*) as cnt " +
+                "from SupportBean#length(1000) group by theString having count(*) > 1 %s output all every 1 second";
+        runAssertion(epl);
+    }
+
+    public void testOutputAllIncremental() {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        sendTime(parallel, 0);
+        parallel.getEPAdministrator().createEPL("@Hint('enable_outputlimit_opt') select theString, sum(intPrimitive) as total, count(*) as cnt " +
+                "from SupportBean group by theString having sum(intPrimitive) < 100 output all every 1 second").addListener(listener);
+
+        for (int i = 0; i < 50; i++) {
+            parallel.getEPRuntime().sendEvent(new SupportBean("G" + i, i));
+        }
+        sendTime(parallel, 1000);
+        EventBean[] first = listener.getAndResetLastNewData();
+        assertEquals(50, first.length);
+
+        // only G1 and G2 changed, G2 no longer passes the having-clause, rows of other groups are retained
+        parallel.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        parallel.getEPRuntime().sendEvent(new SupportBean("G2", 200));
+        sendTime(parallel, 2000);
+        EventBean[] second = listener.getAndResetLastNewData();
+        assertEquals(49, second.length);
+        EPAssertionUtil.assertProps(second[0], FIELDS, new Object[] {"G0", 0, 1L});
+        EPAssertionUtil.assertProps(second[1], FIELDS, new Object[] {"G1", 11, 2L});
+        EPAssertionUtil.assertProps(second[2], FIELDS, new Object[] {"G3", 3, 1L});
+        assertSame(first[0], second[0]);
+        assertNotSame(first[1], second[1]);
+        for (int i = 2; i < second.length; i++) {
+            assertSame(first[i + 1], second[i]);
+        }
+    }
+
+    public void testDispatchChunk() {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        sendTime(parallel, 0);
+        parallel.getEPAdministrator().createEPL("@Hint('listener_dispatch_chunk=100') @Hint('enable_outputlimit_opt') " +
+                "select theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean group by theString output last every 1 second").addListener(listener);
+
+        for (int i = 0; i < 250; i++) {
+            parallel.getEPRuntime().sendEvent(new SupportBean("G" + i, i));
+        }
+        sendTime(parallel, 1000);
+        assertEquals(3, listener.getNewDataList().size());
+        assertEquals(100, listener.getNewDataList().get(0).length);
+        assertEquals(100, listener.getNewDataList().get(1).length);
+        assertEquals(50, listener.getNewDataList().get(2).length);
+        EPAssertionUtil.assertProps(listener.getNewDataList().get(1)[0], FIELDS, new Object[] {"G100", 100, 1L});
+        EPAssertionUtil.assertProps(listener.getNewDataList().get(2)[49], FIELDS, new Object[] {"G249", 249, 1L});
+
+        try {
+            parallel.getEPAdministrator().createEPL("@Hint('listener_dispatch_chunk=0') select * from SupportBean");
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Hint 'LISTENER_DISPATCH_CHUNK' requires a positive integer chunk size but received '0'", ex.getMessage());
+        }
+    }
+
+    private void runAssertion(String epl) {
+        SupportUpdateListener listenerSequential = new SupportUpdateListener();
+        SupportUpdateListener listenerParallel = new SupportUpdateListener();
+        sendTime(sequential, 0);
+        sendTime(parallel, 0);
+        sequential.getEPAdministrator().createEPL("create variable boolean enabled = true");
+        sequential.getEPAdministrator().createEPL(String.format(epl, "and enabled")).addListener(listenerSequential);
+        parallel.getEPAdministrator().createEPL(String.format(epl, "")).addListener(listenerParallel);
+
+        for (int tick = 1; tick <= 5; tick++) {
+            for (int i = 0; i < 600; i++) {
+                // later ticks only touch a subset of groups
+                int group = tick == 1 ? i % 300 : (i * 7 + tick) % (300 / tick);
+                SupportBean bean = new SupportBean("G" + group, i * tick);
+                sequential.getEPRuntime().sendEvent(bean);
+                parallel.getEPRuntime().sendEvent(bean);
+            }
+            sendTime(sequential, tick * 1000);
+            sendTime(parallel, tick * 1000);
+
+            EventBean[] expected = listenerSequential.getAndResetLastNewData();
+            EventBean[] received = listenerParallel.getAndResetLastNewData();
+            assertTrue(expected.length >= 50);
+            EPAssertionUtil.assertPropsPerRow(received, FIELDS, EPAssertionUtil.eventsToObjectArr(expected, FIELDS));
+        }
+
+        // generation took place on the pool
+        assertTrue(((EPServiceProviderSPI) parallel).getThreadingService().getOutputLimitThreadPool().getPoolSize() > 0);
+        assertNull(((EPServiceProviderSPI) sequential).getThreadingService().getOutputLimitThreadPool());
+    }
+
+    private void sendTime(EPServiceProvider engine, long msec) {
+        engine.getEPRuntime().sendEvent(new CurrentTimeEvent(msec));
+    }
+
+    private Configuration makeConfig(boolean parallel) {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getThreading().setThreadPoolOutputLimit(parallel);
+        config.getEngineDefaults().getThreading().setThreadPoolOutputLimitNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolOutputLimitMinGroups(50);
+        return config;
+    }
+}
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 public class SupportStaticMethodInvocations
 {
     private static List<String> invocations = new ArrayList<String>();
+    private static List<Integer> batchInvocations = new ArrayList<Integer>();
 
     public static int getInvocationSizeReset()
     {
@@ -32,4 +33,38 @@ public class SupportStaticMethodInvocations
         invocations.add(fetchId);
         return new SupportBean_S0(passThroughNumber, "|" + fetchId + "|");
     }
+
+    public static List<Integer> getBatchInvocationsReset()
+    {
+        List<Integer> sizes = new ArrayList<Integer>(batchInvocations);
+        batchInvocations.clear();
+        return sizes;
+    }
+
+    public static SupportBean_S0 fetchObjectBatched(String fetchId, int passThroughNumber)
+    {
+        return fetchObjectLog(fetchId, passThroughNumber);
+    }
+
+    public static SupportBean_S0[] fetchObjectBatchedBatch(Object[][] lookupValues)
+    {
+        batchInvocations.add(lookupValues.length);
+        SupportBean_S0[] result = new SupportBean_S0[lookupValues.length];
+        for (int i = 0; i < lookupValues.length; i++)
+        {
+            String fetchId = (String) lookupValues[i][0];
+            result[i] = new SupportBean_S0((Integer) lookupValues[i][1], "|" + fetchId + "|");
+        }
+        return result;
+    }
+
+    public static SupportBean_S0 fetchObjectInvalid(String fetchId)
+    {
+        return new SupportBean_S0(0, fetchId);
+    }
+
+    public static int fetchObjectInvalidBatch(Object[][] lookupValues)
+    {
+        return 0;
+    }
 }
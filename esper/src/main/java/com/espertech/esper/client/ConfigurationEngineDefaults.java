@@ -41,6 +41,8 @@ public class ConfigurationEngineDefaults implements Serializable
     private Patterns patterns;
     private MatchRecognize matchRecognize;
     private Scripts scripts;
+    private Journal journal;
+    private CompileCache compileCache;
 
     /**
      * Ctor.
@@ -65,6 +67,8 @@ public class ConfigurationEngineDefaults implements Serializable
         patterns = new Patterns();
         matchRecognize = new MatchRecognize();
         scripts = new Scripts();
+        journal = new Journal();
+        compileCache = new CompileCache();
     }
 
     /**
@@ -281,6 +285,38 @@ public class ConfigurationEngineDefaults implements Serializable
         this.scripts = scripts;
     }
 
+    /**
+     * Returns event journal settings.
+     * @return event journal settings
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets event journal settings.
+     * @param journal event journal settings
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns compiled statement cache settings.
+     * @return compiled statement cache settings
+     */
+    public CompileCache getCompileCache() {
+        return compileCache;
+    }
+
+    /**
+     * Sets compiled statement cache settings.
+     * @param compileCache compiled statement cache settings
+     */
+    public void setCompileCache(CompileCache compileCache) {
+        this.compileCache = compileCache;
+    }
+
     /**
      * Holds threading settings.
      */
@@ -315,6 +351,18 @@ public class ConfigurationEngineDefaults implements Serializable
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private boolean isThreadPoolFireAndForget;
+        private int threadPoolFireAndForgetNumThreads;
+        private int threadPoolFireAndForgetMinRows;
+        private boolean isThreadPoolOutputLimit;
+        private int threadPoolOutputLimitNumThreads;
+        private int threadPoolOutputLimitMinGroups;
+        private boolean isThreadPoolContextPartition;
+        private int threadPoolContextPartitionNumThreads;
+        private Integer threadPoolContextPartitionCapacity;
+        private ThreadPoolQueue threadPoolQueue;
+        private WaitStrategy threadPoolRingBufferWaitStrategy;
+        private int threadPoolRingBufferBatchSize;
 
         private boolean engineFairlock;
 
@@ -347,6 +395,18 @@ public class ConfigurationEngineDefaults implements Serializable
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+
+            isThreadPoolFireAndForget = false;
+            threadPoolFireAndForgetNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolFireAndForgetMinRows = 10000;
+            isThreadPoolOutputLimit = false;
+            threadPoolOutputLimitNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolOutputLimitMinGroups = 10000;
+            isThreadPoolContextPartition = false;
+            threadPoolContextPartitionNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolQueue = ThreadPoolQueue.BLOCKINGQUEUE;
+            threadPoolRingBufferWaitStrategy = WaitStrategy.PARK;
+            threadPoolRingBufferBatchSize = 64;
         }
 
         /**
@@ -732,6 +792,232 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns true for parallel execution of fire-and-forget queries enabled, the default is false for not enabled.
+         * @return indicator whether parallel fire-and-forget query execution is enabled
+         */
+        public boolean isThreadPoolFireAndForget()
+        {
+            return isThreadPoolFireAndForget;
+        }
+
+        /**
+         * Set to true for parallel execution of fire-and-forget queries enabled, the default is false for not enabled.
+         * @param threadPoolFireAndForget indicator whether parallel fire-and-forget query execution is enabled
+         */
+        public void setThreadPoolFireAndForget(boolean threadPoolFireAndForget)
+        {
+            isThreadPoolFireAndForget = threadPoolFireAndForget;
+        }
+
+        /**
+         * Returns the number of threads in the fork-join pool for fire-and-forget query execution,
+         * which is also the number of segments a snapshot is split into. The default is the number of available processors.
+         * @return number of threads
+         */
+        public int getThreadPoolFireAndForgetNumThreads()
+        {
+            return threadPoolFireAndForgetNumThreads;
+        }
+
+        /**
+         * Sets the number of threads in the fork-join pool for fire-and-forget query execution.
+         * @param num number of threads
+         */
+        public void setThreadPoolFireAndForgetNumThreads(int num)
+        {
+            this.threadPoolFireAndForgetNumThreads = num;
+        }
+
+        /**
+         * Returns the minimum number of rows in a snapshot for a fire-and-forget query to execute in parallel, the default is 10000.
+         * @return minimum number of rows
+         */
+        public int getThreadPoolFireAndForgetMinRows()
+        {
+            return threadPoolFireAndForgetMinRows;
+        }
+
+        /**
+         * Sets the minimum number of rows in a snapshot for a fire-and-forget query to execute in parallel.
+         * @param minRows minimum number of rows
+         */
+        public void setThreadPoolFireAndForgetMinRows(int minRows)
+        {
+            this.threadPoolFireAndForgetMinRows = minRows;
+        }
+
+        /**
+         * Returns true for parallel generation of output-rate-limited group rows enabled, the default is false for not enabled.
+         * <p>
+         * Applies to fully-aggregated grouped statements that output last or all with the output limit optimization hint.
+         * @return indicator whether parallel output generation is enabled
+         */
+        public boolean isThreadPoolOutputLimit()
+        {
+            return isThreadPoolOutputLimit;
+        }
+
+        /**
+         * Set to true for parallel generation of output-rate-limited group rows enabled, the default is false for not enabled.
+         * @param threadPoolOutputLimit indicator whether parallel output generation is enabled
+         */
+        public void setThreadPoolOutputLimit(boolean threadPoolOutputLimit)
+        {
+            isThreadPoolOutputLimit = threadPoolOutputLimit;
+        }
+
+        /**
+         * Returns the number of threads in the fork-join pool for output generation,
+         * which is also the number of partitions groups are split into by group key hash. The default is the number of available processors.
+         * @return number of threads
+         */
+        public int getThreadPoolOutputLimitNumThreads()
+        {
+            return threadPoolOutputLimitNumThreads;
+        }
+
+        /**
+         * Sets the number of threads in the fork-join pool for output generation.
+         * @param num number of threads
+         */
+        public void setThreadPoolOutputLimitNumThreads(int num)
+        {
+            this.threadPoolOutputLimitNumThreads = num;
+        }
+
+        /**
+         * Returns the minimum number of groups to output for output generation to execute in parallel, the default is 10000.
+         * @return minimum number of groups
+         */
+        public int getThreadPoolOutputLimitMinGroups()
+        {
+            return threadPoolOutputLimitMinGroups;
+        }
+
+        /**
+         * Sets the minimum number of groups to output for output generation to execute in parallel.
+         * @param minGroups minimum number of groups
+         */
+        public void setThreadPoolOutputLimitMinGroups(int minGroups)
+        {
+            this.threadPoolOutputLimitMinGroups = minGroups;
+        }
+
+        /**
+         * Returns true for context partition threading enabled, the default is false for not enabled.
+         * <p>
+         * With context partition threading the engine assigns each context partition of a hash-segmented
+         * or keyed-segmented context to one thread of a fixed thread pool and processes the events
+         * that match the context partition on that thread, in the order received.
+         * @return indicator whether context partition threading is enabled
+         */
+        public boolean isThreadPoolContextPartition()
+        {
+            return isThreadPoolContextPartition;
+        }
+
+        /**
+         * Set to true for context partition threading enabled, the default is false for not enabled.
+         * @param threadPoolContextPartition indicator whether context partition threading is enabled
+         */
+        public void setThreadPoolContextPartition(boolean threadPoolContextPartition)
+        {
+            isThreadPoolContextPartition = threadPoolContextPartition;
+        }
+
+        /**
+         * Returns the number of threads that context partitions are assigned to, defaults to the number of available processors.
+         * @return number of threads
+         */
+        public int getThreadPoolContextPartitionNumThreads()
+        {
+            return threadPoolContextPartitionNumThreads;
+        }
+
+        /**
+         * Sets the number of threads that context partitions are assigned to.
+         * @param num number of threads
+         */
+        public void setThreadPoolContextPartitionNumThreads(int num)
+        {
+            this.threadPoolContextPartitionNumThreads = num;
+        }
+
+        /**
+         * Returns the capacity of the queue of each context partition thread, or null if none defined (the unbounded case, default).
+         * @return capacity or null if none defined
+         */
+        public Integer getThreadPoolContextPartitionCapacity()
+        {
+            return threadPoolContextPartitionCapacity;
+        }
+
+        /**
+         * Sets the capacity of the queue of each context partition thread, or null if none defined (the unbounded case, default).
+         * @param capacity capacity or null if none defined
+         */
+        public void setThreadPoolContextPartitionCapacity(Integer capacity)
+        {
+            this.threadPoolContextPartitionCapacity = capacity;
+        }
+
+        /**
+         * Returns the queue implementation for the inbound, outbound, timer-execution and route-execution thread pools.
+         * @return queue implementation, default is blocking queue
+         */
+        public ThreadPoolQueue getThreadPoolQueue()
+        {
+            return threadPoolQueue;
+        }
+
+        /**
+         * Sets the queue implementation for the inbound, outbound, timer-execution and route-execution thread pools.
+         * @param threadPoolQueue queue implementation
+         */
+        public void setThreadPoolQueue(ThreadPoolQueue threadPoolQueue)
+        {
+            this.threadPoolQueue = threadPoolQueue;
+        }
+
+        /**
+         * Returns the strategy by which producers and consumers of a ring buffer queue wait, applicable
+         * only when the thread pool queue is a ring buffer.
+         * @return wait strategy, default is park
+         */
+        public WaitStrategy getThreadPoolRingBufferWaitStrategy()
+        {
+            return threadPoolRingBufferWaitStrategy;
+        }
+
+        /**
+         * Sets the strategy by which producers and consumers of a ring buffer queue wait, applicable
+         * only when the thread pool queue is a ring buffer.
+         * @param waitStrategy wait strategy
+         */
+        public void setThreadPoolRingBufferWaitStrategy(WaitStrategy waitStrategy)
+        {
+            this.threadPoolRingBufferWaitStrategy = waitStrategy;
+        }
+
+        /**
+         * Returns the maximum number of units a ring buffer consumer thread takes from the queue at a time.
+         * @return batch size
+         */
+        public int getThreadPoolRingBufferBatchSize()
+        {
+            return threadPoolRingBufferBatchSize;
+        }
+
+        /**
+         * Sets the maximum number of units a ring buffer consumer thread takes from the queue at a time.
+         * @param batchSize batch size
+         */
+        public void setThreadPoolRingBufferBatchSize(int batchSize)
+        {
+            this.threadPoolRingBufferBatchSize = batchSize;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -825,6 +1111,43 @@ public class ConfigurationEngineDefaults implements Serializable
              */
             SUSPEND
         }
+
+        /**
+         * Enumeration of queue implementations for engine thread pools.
+         */
+        public enum ThreadPoolQueue
+        {
+            /**
+             * Lock-based blocking queue consumed by a thread pool executor, the default.
+             */
+            BLOCKINGQUEUE,
+
+            /**
+             * Bounded lock-free ring buffer with pre-allocated slots consumed in batches by dedicated threads.
+             */
+            RINGBUFFER
+        }
+
+        /**
+         * Enumeration of wait strategies for ring buffer queues.
+         */
+        public enum WaitStrategy
+        {
+            /**
+             * Spin without yielding, for lowest latency at the cost of one fully-used core per waiting thread.
+             */
+            BUSYSPIN,
+
+            /**
+             * Spin shortly and then yield the thread.
+             */
+            YIELD,
+
+            /**
+             * Spin shortly, then yield and then park the thread briefly; the default.
+             */
+            PARK
+        }
     }
 
     /**
@@ -1199,6 +1522,182 @@ public class ConfigurationEngineDefaults implements Serializable
         }
     }
 
+    /**
+     * Holder for event journal settings.
+     * <p>
+     * When enabled, the engine appends each event sent into the engine to memory-mapped segment files in the journal directory,
+     * before processing the event. Events can be replayed from the journal after a restart.
+     */
+    public static class Journal implements Serializable
+    {
+        private static final long serialVersionUID = 5893025732985187610L;
+        private boolean enabled;
+        private String directory;
+        private int segmentSizeBytes = 64 * 1024 * 1024;
+        private int syncEvents = 1024;
+        private long syncIntervalMsec = 100;
+
+        /**
+         * Returns indicator whether the event journal is enabled.
+         * @return enabled flag, false by default
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets indicator whether the event journal is enabled.
+         * @param enabled enabled flag
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the directory holding journal segment files.
+         * @return directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets the directory holding journal segment files.
+         * @param directory directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Returns the size of a journal segment file in bytes.
+         * @return segment size
+         */
+        public int getSegmentSizeBytes() {
+            return segmentSizeBytes;
+        }
+
+        /**
+         * Sets the size of a journal segment file in bytes, upon reaching the size the journal continues with a new segment file.
+         * @param segmentSizeBytes segment size
+         */
+        public void setSegmentSizeBytes(int segmentSizeBytes) {
+            this.segmentSizeBytes = segmentSizeBytes;
+        }
+
+        /**
+         * Returns the number of appended events after which the journal forces its changes to storage.
+         * @return event count
+         */
+        public int getSyncEvents() {
+            return syncEvents;
+        }
+
+        /**
+         * Sets the number of appended events after which the journal forces its changes to storage.
+         * @param syncEvents event count
+         */
+        public void setSyncEvents(int syncEvents) {
+            this.syncEvents = syncEvents;
+        }
+
+        /**
+         * Returns the interval at which the journal forces changes to storage that were not yet forced.
+         * @return interval in milliseconds
+         */
+        public long getSyncIntervalMsec() {
+            return syncIntervalMsec;
+        }
+
+        /**
+         * Sets the interval at which the journal forces changes to storage that were not yet forced.
+         * @param syncIntervalMsec interval in milliseconds
+         */
+        public void setSyncIntervalMsec(long syncIntervalMsec) {
+            this.syncIntervalMsec = syncIntervalMsec;
+        }
+    }
+
+    /**
+     * Holder for compiled statement cache settings.
+     * <p>
+     * When enabled, the engine keeps the result of parsing each EPL statement text and reuses it when the same text is compiled again
+     * with the same configuration and the same variables, tables, declared expressions and plug-in functions.
+     * When a directory is provided, compiled statements are also kept in files in the directory for use by later engine runs.
+     */
+    public static class CompileCache implements Serializable
+    {
+        private static final long serialVersionUID = -2416380927316052441L;
+        private boolean enabled;
+        private String directory;
+        private int maxEntries = 10000;
+        private int deployThreads;
+
+        /**
+         * Returns indicator whether the compiled statement cache is enabled.
+         * @return enabled flag, false by default
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets indicator whether the compiled statement cache is enabled.
+         * @param enabled enabled flag
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the directory holding compiled statement files, or null when compiled statements are kept in memory only.
+         * @return directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets the directory holding compiled statement files, or null to keep compiled statements in memory only.
+         * @param directory directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Returns the maximum number of compiled statements kept in memory, the least recently used compiled statements are discarded first.
+         * @return maximum number of compiled statements
+         */
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        /**
+         * Sets the maximum number of compiled statements kept in memory, the least recently used compiled statements are discarded first.
+         * @param maxEntries maximum number of compiled statements
+         */
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * Returns the number of threads that compile the statements of a module in parallel before the module deploys.
+         * @return number of threads, zero by default for compiling as part of deploying each statement
+         */
+        public int getDeployThreads() {
+            return deployThreads;
+        }
+
+        /**
+         * Sets the number of threads that compile the statements of a module in parallel before the module deploys.
+         * @param deployThreads number of threads, zero or one for compiling as part of deploying each statement
+         */
+        public void setDeployThreads(int deployThreads) {
+            this.deployThreads = deployThreads;
+        }
+    }
+
     /**
      * Holds pattern settings.
      */
@@ -1426,6 +1925,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private boolean selfSubselectPreeval;
         private boolean extendedAggregation;
         private boolean duckTyping;
+        private boolean codeGeneration;
         private MathContext mathContext;
         private TimeZone timeZone;
 
@@ -1569,6 +2069,28 @@ public class ConfigurationEngineDefaults implements Serializable
             this.duckTyping = duckTyping;
         }
 
+        /**
+         * Returns true to indicate that the engine generates a class per validated expression tree
+         * (where-clause and filter expressions), false (the default) to use the interpreted evaluator tree only.
+         * @return indicator
+         */
+        public boolean isCodeGeneration()
+        {
+            return codeGeneration;
+        }
+
+        /**
+         * Set to true to indicate that the engine generates a class per validated expression tree
+         * (where-clause and filter expressions) at statement start, evaluating with primitive-typed locals and inlined
+         * property getters. Sub-expressions that cannot be compiled are evaluated by the interpreted evaluator tree.
+         * Set to false (the default) to use the interpreted evaluator tree only.
+         * @param codeGeneration indicator
+         */
+        public void setCodeGeneration(boolean codeGeneration)
+        {
+            this.codeGeneration = codeGeneration;
+        }
+
         /**
          * Returns the math context for big decimal operations, or null to leave the math context undefined.
          * @return math context or null
@@ -1614,6 +2136,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int declaredExprValueCacheSize = 1;
 
         private static final long serialVersionUID = 0L;
@@ -1748,6 +2271,22 @@ public class ConfigurationEngineDefaults implements Serializable
             this.filterServiceMaxFilterWidth = filterServiceMaxFilterWidth;
         }
 
+        /**
+         * Returns the scheduling service profile for tuning the scheduling of time-based callbacks.
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning the scheduling of time-based callbacks.
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the cache size for declared expression values
          * @return value
@@ -1794,7 +2333,28 @@ public class ConfigurationEngineDefaults implements Serializable
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For filters that rarely change, evaluating events without locking and copying indexes upon change.
+         */
+        COPYONWRITE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile
+    {
+        /**
+         * Keeps schedules sorted by time, the default.
+         */
+        SORTED,
+
+        /**
+         * Keeps schedules in a hierarchical timing wheel, for a very large number of outstanding schedules.
+         */
+        TIMINGWHEEL
     }
 
     /**
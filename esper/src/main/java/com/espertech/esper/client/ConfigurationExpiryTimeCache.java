@@ -18,6 +18,7 @@ public class ConfigurationExpiryTimeCache implements ConfigurationDataCache, Ser
     private ConfigurationCacheReferenceType cacheReferenceType;
     private double maxAgeSeconds;
     private double purgeIntervalSeconds;
+    private double refreshAheadSeconds;
     private static final long serialVersionUID = 1213687721462970573L;
 
     /**
@@ -34,6 +35,20 @@ public class ConfigurationExpiryTimeCache implements ConfigurationDataCache, Ser
         this.cacheReferenceType = cacheReferenceType;
     }
 
+    /**
+     * Ctor.
+     * @param maxAgeSeconds is the maximum age in seconds
+     * @param purgeIntervalSeconds is the purge interval
+     * @param cacheReferenceType the reference type may allow garbage collection to remove entries from
+     * cache unless HARD reference type indicates otherwise
+     * @param refreshAheadSeconds is the number of seconds before expiry at which looked-up entries are reloaded, or zero for no refresh-ahead
+     */
+    public ConfigurationExpiryTimeCache(double maxAgeSeconds, double purgeIntervalSeconds, ConfigurationCacheReferenceType cacheReferenceType, double refreshAheadSeconds)
+    {
+        this(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
+        this.refreshAheadSeconds = refreshAheadSeconds;
+    }
+
     /**
      * Returns the maximum age in seconds.
      * @return number of seconds
@@ -62,9 +77,19 @@ public class ConfigurationExpiryTimeCache implements ConfigurationDataCache, Ser
         return cacheReferenceType;
     }
 
+    /**
+     * Returns the number of seconds before expiry at which cache entries that were looked up since they were loaded
+     * are reloaded, or zero when entries are not refreshed ahead of expiry.
+     * @return refresh-ahead seconds
+     */
+    public double getRefreshAheadSeconds()
+    {
+        return refreshAheadSeconds;
+    }
+
     public String toString()
     {
-        return "ExpiryTimeCacheDesc maxAgeSeconds=" + maxAgeSeconds + " purgeIntervalSeconds=" + purgeIntervalSeconds;
+        return "ExpiryTimeCacheDesc maxAgeSeconds=" + maxAgeSeconds + " purgeIntervalSeconds=" + purgeIntervalSeconds + " refreshAheadSeconds=" + refreshAheadSeconds;
     }
 }
 
@@ -52,6 +52,20 @@ public class ConfigurationMethodRef implements Serializable
         dataCacheDesc = new ConfigurationExpiryTimeCache(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures an expiry-time cache of the given maximum age in seconds and purge interval in seconds that
+     * refreshes entries ahead of expiry. Entries that were looked up since they were loaded are reloaded
+     * when they are within the given number of seconds of expiry, so that lookups keep finding them in the cache.
+     * @param maxAgeSeconds is the maximum number of seconds before a method invocation result is considered stale (also known as time-to-live)
+     * @param purgeIntervalSeconds is the interval at which the engine purges stale data from the cache
+     * @param cacheReferenceType specifies the reference type to use
+     * @param refreshAheadSeconds is the number of seconds before expiry at which looked-up entries are reloaded
+     */
+    public void setExpiryTimeCache(double maxAgeSeconds, double purgeIntervalSeconds, ConfigurationCacheReferenceType cacheReferenceType, double refreshAheadSeconds)
+    {
+        dataCacheDesc = new ConfigurationExpiryTimeCache(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType, refreshAheadSeconds);
+    }
+
     /**
      * Return a method invocation result data cache descriptor.
      * @return cache descriptor
@@ -588,7 +588,12 @@ class ConfigurationParser {
                     String refType = subElement.getAttributes().getNamedItem("ref-type").getTextContent();
                     refTypeEnum = ConfigurationCacheReferenceType.valueOf(refType.toUpperCase());
                 }
-                configDBRef.setExpiryTimeCache(Double.parseDouble(maxAge), Double.parseDouble(purgeInterval), refTypeEnum);
+                double refreshAhead = 0;
+                if (subElement.getAttributes().getNamedItem("refresh-ahead-seconds") != null)
+                {
+                    refreshAhead = Double.parseDouble(subElement.getAttributes().getNamedItem("refresh-ahead-seconds").getTextContent());
+                }
+                configDBRef.setExpiryTimeCache(Double.parseDouble(maxAge), Double.parseDouble(purgeInterval), refTypeEnum, refreshAhead);
             }
             else if (subElement.getNodeName().equals("lru-cache"))
             {
@@ -618,7 +623,12 @@ class ConfigurationParser {
                     String refType = subElement.getAttributes().getNamedItem("ref-type").getTextContent();
                     refTypeEnum = ConfigurationCacheReferenceType.valueOf(refType.toUpperCase());
                 }
-                configMethodRef.setExpiryTimeCache(Double.parseDouble(maxAge), Double.parseDouble(purgeInterval), refTypeEnum);
+                double refreshAhead = 0;
+                if (subElement.getAttributes().getNamedItem("refresh-ahead-seconds") != null)
+                {
+                    refreshAhead = Double.parseDouble(subElement.getAttributes().getNamedItem("refresh-ahead-seconds").getTextContent());
+                }
+                configMethodRef.setExpiryTimeCache(Double.parseDouble(maxAge), Double.parseDouble(purgeInterval), refTypeEnum, refreshAhead);
             }
             else if (subElement.getNodeName().equals("lru-cache"))
             {
@@ -1066,6 +1076,14 @@ class ConfigurationParser {
             {
                 handleDefaultScriptConfig(configuration, subElement);
             }
+            if (subElement.getNodeName().equals("journal"))
+            {
+                handleDefaultsJournal(configuration, subElement);
+            }
+            if (subElement.getNodeName().equals("compile-cache"))
+            {
+                handleDefaultsCompileCache(configuration, subElement);
+            }
         }
     }
 
@@ -1179,6 +1197,58 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-fireandforget"))
+            {
+                String enabled = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForget(Boolean.parseBoolean(enabled));
+                String numThreadsStr = getOptionalAttribute(subElement, "num-threads");
+                if (numThreadsStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(Integer.parseInt(numThreadsStr));
+                }
+                String minRowsStr = getOptionalAttribute(subElement, "min-rows");
+                if (minRowsStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetMinRows(Integer.parseInt(minRowsStr));
+                }
+            }
+            if (subElement.getNodeName().equals("threadpool-outputlimit"))
+            {
+                String enabled = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getThreading().setThreadPoolOutputLimit(Boolean.parseBoolean(enabled));
+                String numThreadsStr = getOptionalAttribute(subElement, "num-threads");
+                if (numThreadsStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolOutputLimitNumThreads(Integer.parseInt(numThreadsStr));
+                }
+                String minGroupsStr = getOptionalAttribute(subElement, "min-groups");
+                if (minGroupsStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolOutputLimitMinGroups(Integer.parseInt(minGroupsStr));
+                }
+            }
+            if (subElement.getNodeName().equals("threadpool-contextpartition"))
+            {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolContextPartition(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolContextPartitionNumThreads(result.getNumThreads());
+                configuration.getEngineDefaults().getThreading().setThreadPoolContextPartitionCapacity(result.getCapacity());
+            }
+            if (subElement.getNodeName().equals("threadpool-queue"))
+            {
+                String type = getRequiredAttribute(subElement, "type");
+                configuration.getEngineDefaults().getThreading().setThreadPoolQueue(ConfigurationEngineDefaults.Threading.ThreadPoolQueue.valueOf(type.toUpperCase()));
+                String waitStrategyStr = getOptionalAttribute(subElement, "wait-strategy");
+                if (waitStrategyStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolRingBufferWaitStrategy(ConfigurationEngineDefaults.Threading.WaitStrategy.valueOf(waitStrategyStr.toUpperCase()));
+                }
+                String batchSizeStr = getOptionalAttribute(subElement, "batch-size");
+                if (batchSizeStr != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolRingBufferBatchSize(Integer.parseInt(batchSizeStr));
+                }
+            }
         }
     }
 
@@ -1279,6 +1349,61 @@ class ConfigurationParser {
         }
     }
 
+    private static void handleDefaultsJournal(Configuration configuration, Element parentElement)
+    {
+        ConfigurationEngineDefaults.Journal journal = configuration.getEngineDefaults().getJournal();
+        String enabledStr = getOptionalAttribute(parentElement, "enabled");
+        if (enabledStr != null)
+        {
+            journal.setEnabled(Boolean.parseBoolean(enabledStr));
+        }
+        String directory = getOptionalAttribute(parentElement, "directory");
+        if (directory != null)
+        {
+            journal.setDirectory(directory);
+        }
+        String segmentSizeStr = getOptionalAttribute(parentElement, "segment-size-bytes");
+        if (segmentSizeStr != null)
+        {
+            journal.setSegmentSizeBytes(Integer.parseInt(segmentSizeStr));
+        }
+        String syncEventsStr = getOptionalAttribute(parentElement, "sync-events");
+        if (syncEventsStr != null)
+        {
+            journal.setSyncEvents(Integer.parseInt(syncEventsStr));
+        }
+        String syncIntervalStr = getOptionalAttribute(parentElement, "sync-interval-msec");
+        if (syncIntervalStr != null)
+        {
+            journal.setSyncIntervalMsec(Long.parseLong(syncIntervalStr));
+        }
+    }
+
+    private static void handleDefaultsCompileCache(Configuration configuration, Element parentElement)
+    {
+        ConfigurationEngineDefaults.CompileCache compileCache = configuration.getEngineDefaults().getCompileCache();
+        String enabledStr = getOptionalAttribute(parentElement, "enabled");
+        if (enabledStr != null)
+        {
+            compileCache.setEnabled(Boolean.parseBoolean(enabledStr));
+        }
+        String directory = getOptionalAttribute(parentElement, "directory");
+        if (directory != null)
+        {
+            compileCache.setDirectory(directory);
+        }
+        String maxEntriesStr = getOptionalAttribute(parentElement, "max-entries");
+        if (maxEntriesStr != null)
+        {
+            compileCache.setMaxEntries(Integer.parseInt(maxEntriesStr));
+        }
+        String deployThreadsStr = getOptionalAttribute(parentElement, "deploy-threads");
+        if (deployThreadsStr != null)
+        {
+            compileCache.setDeployThreads(Integer.parseInt(deployThreadsStr));
+        }
+    }
+
     private static void handleDefaultsPatterns(Configuration configuration, Element parentElement)
     {
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
@@ -1501,6 +1626,12 @@ class ConfigurationParser {
             boolean duckTyping = Boolean.parseBoolean(duckTypingStr);
             configuration.getEngineDefaults().getExpression().setDuckTyping(duckTyping);
         }
+        String codeGenerationStr = getOptionalAttribute(parentElement, "code-generation");
+        if (codeGenerationStr != null)
+        {
+            boolean codeGeneration = Boolean.parseBoolean(codeGenerationStr);
+            configuration.getEngineDefaults().getExpression().setCodeGeneration(codeGeneration);
+        }
         String mathContextStr = getOptionalAttribute(parentElement, "math-context");
         if (mathContextStr != null)
         {
@@ -1558,6 +1689,12 @@ class ConfigurationParser {
         {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null)
+        {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String allowIsolatedServiceStr = getOptionalAttribute(parentElement, "allow-isolated-service");
         if (allowIsolatedServiceStr != null)
         {
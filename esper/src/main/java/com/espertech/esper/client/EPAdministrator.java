@@ -271,4 +271,10 @@ public interface EPAdministrator
      * @return context partition administrative interface
      */
     public EPContextPartitionAdmin getContextPartitionAdmin();
+
+    /**
+     * Returns the administrative interface for snapshot and restore of named window and table data.
+     * @return snapshot administrative interface
+     */
+    public EPDataSnapshotAdmin getDataSnapshotAdmin();
 }
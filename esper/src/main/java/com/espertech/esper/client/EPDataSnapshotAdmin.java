@@ -0,0 +1,73 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.client;
+
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Service interface for taking a binary snapshot of the rows of named windows and tables and for restoring from a snapshot.
+ * <p>
+ * A snapshot holds, for each named window and each context partition, the events held by the named window and,
+ * for each table and each context partition, the table rows including the aggregation state of aggregation columns.
+ * </p>
+ * <p>
+ * The engine does not process events while a snapshot is taken or restored. When the event journal is enabled, a snapshot
+ * waits for events that are being processed to complete, including the events they insert into streams or route, and cannot
+ * be taken or restored by a thread that is processing an event, such as from a listener or subscriber. Restore requires that the
+ * same named windows and tables, and the same context partitions, exist as when the snapshot was taken.
+ * </p>
+ * <p>
+ * A snapshot can only be restored by the engine version that wrote it. Restore loads classes named by the snapshot and
+ * deserializes values written using Java serialization, therefore only restore snapshots from a trusted source.
+ * </p>
+ */
+public interface EPDataSnapshotAdmin
+{
+    /**
+     * Writes a snapshot of all named windows and tables to the channel provided.
+     * <p>
+     *     The channel is not closed.
+     * </p>
+     * @param channel to write to
+     * @throws EPException if called by a thread that is processing an event while the event journal is enabled, a named window holds events of a type that cannot be written, an event or aggregation state holds a value that cannot be written, or the write fails
+     */
+    public void snapshot(WritableByteChannel channel) throws EPException;
+
+    /**
+     * Restores named windows and tables from a snapshot read from the channel provided.
+     * <p>
+     *     Events are inserted into named windows as if inserted by a fire-and-forget insert,
+     *     and table rows replace existing rows with the same primary key.
+     *     The channel is not closed.
+     * </p>
+     * @param channel to read from
+     * @throws EPException if called by a thread that is processing an event while the event journal is enabled, the snapshot was written by a different engine version, is not compatible with the named windows and tables of the engine, or the read fails
+     */
+    public void restore(ReadableByteChannel channel) throws EPException;
+
+    /**
+     * Sends the events of the event journal into the engine, starting with the events journaled after the most recent snapshot
+     * that was taken or restored, and ending with the events journaled before the engine started.
+     * <p>
+     *     Requires that the event journal is enabled. When no snapshot was taken or restored the events of all journal segments are sent.
+     *     Events sent by the application while the journal is replayed are not journaled.
+     * </p>
+     * @return number of events sent
+     * @throws EPException if the event journal is not enabled, or the journal holds events of an event type that does not exist
+     */
+    public long replayJournal() throws EPException;
+
+    /**
+     * Deletes the event journal segments that hold events journaled before the most recent snapshot that was taken or restored.
+     * @return number of deleted segments
+     * @throws EPException if the event journal is not enabled
+     */
+    public int purgeJournal() throws EPException;
+}
@@ -76,6 +76,40 @@ public interface EPRuntime
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of event objects to the event stream processing runtime.
+     * <p>
+     * The events are processed in list order and the results are the same as sending each event
+     * through {@link #sendEvent(Object)}. The runtime amortizes per-event overhead
+     * over the batch: it matches events against filters ahead of processing, acquires the engine
+     * processing lock once per batch and, for consecutive events that match the same single statement,
+     * keeps the statement lock instead of releasing and re-acquiring it for each event.
+     * <p>
+     * The list may contain POJO events, {@link EventBean} instances and time events such as
+     * {@link com.espertech.esper.client.time.CurrentTimeEvent}. Null elements are logged and ignored.
+     * When inbound or route threading, prioritized execution, event preprocessing (update istream)
+     * or statement metrics are enabled the runtime sends the events one by one.
+     * <p>
+     * Use the route method for sending events into the runtime from within UpdateListener code.
+     *
+     * @param events is the events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(List<?> events) throws EPException;
+
+    /**
+     * Send a batch of object arrays containing event property values to the event stream processing runtime,
+     * all of the same Object-array event type.
+     * <p>
+     * The event type is resolved once for the batch. Processing follows the same rules as {@link #sendEvents(java.util.List)}.
+     *
+     * @param rows - arrays that each contain event property values, in the order that the property names and types
+     * have been declared
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(Object[][] rows, String objectArrayEventTypeName) throws EPException;
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
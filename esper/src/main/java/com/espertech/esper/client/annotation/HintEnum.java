@@ -107,7 +107,17 @@ public enum HintEnum
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with listeners and subscribers to deliver results in order through a bounded per-statement queue and delivery thread.
+     */
+    LISTENER_DISPATCH_QUEUE("LISTENER_DISPATCH_QUEUE", true, true, false),
+
+    /**
+     * For use with listeners and subscribers to deliver large results in chunks of at most the given number of events per stream.
+     */
+    LISTENER_DISPATCH_CHUNK("LISTENER_DISPATCH_CHUNK", true, true, false);
 
     private final String value;
     private final boolean acceptsParameters;
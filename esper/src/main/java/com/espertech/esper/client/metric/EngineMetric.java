@@ -17,6 +17,10 @@ public class EngineMetric extends MetricEvent
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final long patternFilterStateCount;
+    private final long filterTimeP50;
+    private final long filterTimeP99;
+    private final long filterTimeMax;
 
     /**
      * Ctor.
@@ -27,12 +31,48 @@ public class EngineMetric extends MetricEvent
      * @param scheduleDepth schedule depth
      */
     public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth)
+    {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param timestamp engine timestamp
+     * @param inputCount number of input events
+     * @param inputCountDelta number of input events since last
+     * @param scheduleDepth schedule depth
+     * @param patternFilterStateCount number of active pattern filter states
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long patternFilterStateCount)
+    {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, patternFilterStateCount, 0, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param timestamp engine timestamp
+     * @param inputCount number of input events
+     * @param inputCountDelta number of input events since last
+     * @param scheduleDepth schedule depth
+     * @param patternFilterStateCount number of active pattern filter states
+     * @param filterTimeP50 median filter evaluation time since last
+     * @param filterTimeP99 99th percentile filter evaluation time since last
+     * @param filterTimeMax maximum filter evaluation time since last
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long patternFilterStateCount,
+                        long filterTimeP50, long filterTimeP99, long filterTimeMax)
     {
         super(engineURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.patternFilterStateCount = patternFilterStateCount;
+        this.filterTimeP50 = filterTimeP50;
+        this.filterTimeP99 = filterTimeP99;
+        this.filterTimeMax = filterTimeMax;
     }
 
     /**
@@ -69,4 +109,37 @@ public class EngineMetric extends MetricEvent
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the number of pattern filter states that are active, i.e. the number of pattern filter expressions that are active.
+     * Other pattern states, such as those of followed-by, every and guard subexpressions, are not counted.
+     * @return pattern filter state count
+     */
+    public long getPatternFilterStateCount() {
+        return patternFilterStateCount;
+    }
+
+    /**
+     * Returns the median wall time of filter evaluation of an input event in nanoseconds, since last reporting period.
+     * @return latency
+     */
+    public long getFilterTimeP50() {
+        return filterTimeP50;
+    }
+
+    /**
+     * Returns the 99th percentile wall time of filter evaluation of an input event in nanoseconds, since last reporting period.
+     * @return latency
+     */
+    public long getFilterTimeP99() {
+        return filterTimeP99;
+    }
+
+    /**
+     * Returns the maximum wall time of filter evaluation of an input event in nanoseconds, since last reporting period.
+     * @return latency
+     */
+    public long getFilterTimeMax() {
+        return filterTimeMax;
+    }
 }
@@ -22,6 +22,14 @@ public class StatementMetric extends MetricEvent
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private long wallTimeP50;
+    private long wallTimeP99;
+    private long wallTimeMax;
+    private long dispatchTimeP99;
+    private long dispatchTimeMax;
+    private int dispatchQueueDepth;
+    private long dispatchQueueLatencyP99;
+    private long dispatchQueueLatencyMax;
 
     /**
      * Ctor.
@@ -154,4 +162,151 @@ public class StatementMetric extends MetricEvent
     {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Returns the median wall time of processing an input in nanoseconds, for the reporting interval.
+     * @return latency
+     */
+    public long getWallTimeP50()
+    {
+        return wallTimeP50;
+    }
+
+    /**
+     * Sets the median wall time of processing an input in nanoseconds, for the reporting interval.
+     * @param wallTimeP50 to set
+     */
+    public void setWallTimeP50(long wallTimeP50)
+    {
+        this.wallTimeP50 = wallTimeP50;
+    }
+
+    /**
+     * Returns the 99th percentile wall time of processing an input in nanoseconds, for the reporting interval.
+     * @return latency
+     */
+    public long getWallTimeP99()
+    {
+        return wallTimeP99;
+    }
+
+    /**
+     * Sets the 99th percentile wall time of processing an input in nanoseconds, for the reporting interval.
+     * @param wallTimeP99 to set
+     */
+    public void setWallTimeP99(long wallTimeP99)
+    {
+        this.wallTimeP99 = wallTimeP99;
+    }
+
+    /**
+     * Returns the maximum wall time of processing an input in nanoseconds, for the reporting interval.
+     * @return latency
+     */
+    public long getWallTimeMax()
+    {
+        return wallTimeMax;
+    }
+
+    /**
+     * Sets the maximum wall time of processing an input in nanoseconds, for the reporting interval.
+     * @param wallTimeMax to set
+     */
+    public void setWallTimeMax(long wallTimeMax)
+    {
+        this.wallTimeMax = wallTimeMax;
+    }
+
+    /**
+     * Returns the 99th percentile wall time of delivering output to listeners and subscribers in nanoseconds, for the reporting interval.
+     * @return latency
+     */
+    public long getDispatchTimeP99()
+    {
+        return dispatchTimeP99;
+    }
+
+    /**
+     * Sets the 99th percentile wall time of delivering output to listeners and subscribers in nanoseconds, for the reporting interval.
+     * @param dispatchTimeP99 to set
+     */
+    public void setDispatchTimeP99(long dispatchTimeP99)
+    {
+        this.dispatchTimeP99 = dispatchTimeP99;
+    }
+
+    /**
+     * Returns the maximum wall time of delivering output to listeners and subscribers in nanoseconds, for the reporting interval.
+     * @return latency
+     */
+    public long getDispatchTimeMax()
+    {
+        return dispatchTimeMax;
+    }
+
+    /**
+     * Sets the maximum wall time of delivering output to listeners and subscribers in nanoseconds, for the reporting interval.
+     * @param dispatchTimeMax to set
+     */
+    public void setDispatchTimeMax(long dispatchTimeMax)
+    {
+        this.dispatchTimeMax = dispatchTimeMax;
+    }
+
+    /**
+     * Returns the number of results queued for delivery at the time of reporting,
+     * for statements that deliver through a dispatch queue (the listener_dispatch_queue hint), or zero.
+     * @return queue depth
+     */
+    public int getDispatchQueueDepth()
+    {
+        return dispatchQueueDepth;
+    }
+
+    /**
+     * Sets the number of results queued for delivery at the time of reporting.
+     * @param dispatchQueueDepth to set
+     */
+    public void setDispatchQueueDepth(int dispatchQueueDepth)
+    {
+        this.dispatchQueueDepth = dispatchQueueDepth;
+    }
+
+    /**
+     * Returns the 99th percentile time in nanoseconds between the statement indicating a result and the dispatch queue delivering it,
+     * for the reporting interval, or zero for statements without dispatch queue.
+     * @return latency
+     */
+    public long getDispatchQueueLatencyP99()
+    {
+        return dispatchQueueLatencyP99;
+    }
+
+    /**
+     * Sets the 99th percentile time in nanoseconds between the statement indicating a result and the dispatch queue delivering it.
+     * @param dispatchQueueLatencyP99 to set
+     */
+    public void setDispatchQueueLatencyP99(long dispatchQueueLatencyP99)
+    {
+        this.dispatchQueueLatencyP99 = dispatchQueueLatencyP99;
+    }
+
+    /**
+     * Returns the maximum time in nanoseconds between the statement indicating a result and the dispatch queue delivering it,
+     * for the reporting interval, or zero for statements without dispatch queue.
+     * @return latency
+     */
+    public long getDispatchQueueLatencyMax()
+    {
+        return dispatchQueueLatencyMax;
+    }
+
+    /**
+     * Sets the maximum time in nanoseconds between the statement indicating a result and the dispatch queue delivering it.
+     * @param dispatchQueueLatencyMax to set
+     */
+    public void setDispatchQueueLatencyMax(long dispatchQueueLatencyMax)
+    {
+        this.dispatchQueueLatencyMax = dispatchQueueLatencyMax;
+    }
 }
@@ -0,0 +1,238 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map with primitive long keys based on open addressing with linear probing.
+ * <p>
+ * Keys and values are kept in two parallel arrays, so the map does not allocate a boxed key or an entry object per key.
+ * Null values are not allowed, a null value marks a free slot.
+ * Removal shifts back subsequent entries of the probe sequence and does not leave tombstones.
+ * Not thread-safe.
+ */
+public class LongKeyHashMap<V>
+{
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Ctor.
+     */
+    public LongKeyHashMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the key.
+     * @param key to look up
+     * @return value or null if the key is not in the map
+     */
+    public V get(long key)
+    {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return valueAt(values, slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Puts a key and value, replacing the value if the key exists.
+     * @param key key
+     * @param value value, not null
+     * @return prior value or null if the key was not in the map
+     */
+    public V put(long key, V value)
+    {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V existing = valueAt(values, slot);
+                values[slot] = value;
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > resizeAt) {
+            resize(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the key.
+     * @param key to remove
+     * @return removed value or null if the key was not in the map
+     */
+    public V remove(long key)
+    {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V existing = valueAt(values, slot);
+                shiftBack(slot);
+                size--;
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true for no keys.
+     * @return empty indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys and shrinks the map.
+     */
+    public void clear()
+    {
+        size = 0;
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns an iterator over the values, in no particular order. The iterator does not support removal.
+     * @return values iterator
+     */
+    public Iterator<V> valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    private int slot(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(Object[] array, int slot)
+    {
+        // only values of the map's value type are placed in the value arrays
+        return (V) array[slot];
+    }
+
+    private void shiftBack(int free)
+    {
+        // move subsequent entries of the probe sequence into the freed slot unless they already sit at or after their home slot
+        int current = free;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == null) {
+                break;
+            }
+            int home = slot(keys[current]);
+            boolean stays = free <= current ? (free < home && home <= current) : (free < home || home <= current);
+            if (!stays) {
+                keys[free] = keys[current];
+                values[free] = values[current];
+                free = current;
+            }
+        }
+        values[free] = null;
+    }
+
+    private void resize(int capacity)
+    {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (capacity * 3) >>> 2;
+    }
+
+    private class ValueIterator implements Iterator<V>
+    {
+        private final Object[] iterated = values;
+        private int position = -1;
+
+        private ValueIterator()
+        {
+            advance();
+        }
+
+        public boolean hasNext()
+        {
+            return position < iterated.length;
+        }
+
+        public V next()
+        {
+            if (position >= iterated.length) {
+                throw new NoSuchElementException();
+            }
+            V value = valueAt(iterated, position);
+            advance();
+            return value;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance()
+        {
+            position++;
+            while (position < iterated.length && iterated[position] == null) {
+                position++;
+            }
+        }
+    }
+}
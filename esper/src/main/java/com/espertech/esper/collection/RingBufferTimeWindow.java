@@ -0,0 +1,308 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.view.DataWindowViewFactory;
+import com.espertech.esper.view.ViewDataVisitor;
+
+import java.util.*;
+
+/**
+ * Time window that keeps timestamps and events in two parallel arrays used as a ring buffer.
+ * <p>
+ * Adding an event writes the timestamp and event into the next slot and does not allocate unless the
+ * ring must grow. Expiry advances the head of the ring and returns the expired events in a single array.
+ * It is assumed that the timestamp passed to the add method is ascending.
+ * <p>
+ * When remove stream handling is enabled, the window accepts removal of events in the window.
+ * The window builds the reverse index from event to slot only when the first event is removed
+ * and maintains it from then on, so windows that never receive a remove stream do not pay for the index.
+ */
+public final class RingBufferTimeWindow implements Iterable<EventBean>
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean isSupportRemoveStream;
+    private long[] timestamps;
+    private EventBean[] events;
+    private int mask;
+    private int head;
+    private int count;
+    private int size;
+    private long headSequence;
+    private Map<EventBean, Long> reverseIndex;
+
+    /**
+     * Ctor.
+     * @param isSupportRemoveStream true to indicate the time window should support removal of events
+     * in the window based on the remove stream events received, or false to not accomodate removal at all
+     */
+    public RingBufferTimeWindow(boolean isSupportRemoveStream)
+    {
+        this.isSupportRemoveStream = isSupportRemoveStream;
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.events = new EventBean[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * Adjust expiry dates.
+     * @param delta delta to adjust for
+     */
+    public void adjust(long delta)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            timestamps[(head + i) & mask] += delta;
+        }
+    }
+
+    /**
+     * Adds event to the time window for the specified timestamp.
+     * @param timestamp - the time slot for the event
+     * @param bean - event to add
+     */
+    public void add(long timestamp, EventBean bean)
+    {
+        if (count == events.length)
+        {
+            grow();
+        }
+        int slot = (head + count) & mask;
+        timestamps[slot] = timestamp;
+        events[slot] = bean;
+        if (reverseIndex != null)
+        {
+            reverseIndex.put(bean, headSequence + count);
+        }
+        count++;
+        size++;
+    }
+
+    /**
+     * Removes the event from the window, if remove stream handling is enabled.
+     * @param theEvent to remove
+     */
+    public void remove(EventBean theEvent)
+    {
+        if (!isSupportRemoveStream)
+        {
+            throw new UnsupportedOperationException("Time window does not accept event removal");
+        }
+        if (size == 0)
+        {
+            return;
+        }
+        if (reverseIndex == null)
+        {
+            reverseIndex = new HashMap<EventBean, Long>();
+            for (int i = 0; i < count; i++)
+            {
+                EventBean event = events[(head + i) & mask];
+                if (event != null)
+                {
+                    reverseIndex.put(event, headSequence + i);
+                }
+            }
+        }
+
+        Long sequence = reverseIndex.remove(theEvent);
+        if (sequence == null)
+        {
+            return;
+        }
+        int slot = (int) ((head + (sequence - headSequence)) & mask);
+        events[slot] = null;
+        size--;
+        dropRemovedAtHead();
+    }
+
+    /**
+     * Return and remove events with timestamps earlier (less) then the timestamp passed in.
+     * @param expireBefore is the timestamp from which on to keep events in the window
+     * @return array of events expired and removed from the window, or null if none expired
+     */
+    public EventBean[] expireEvents(long expireBefore)
+    {
+        int numSlots = 0;
+        int numEvents = 0;
+        while (numSlots < count)
+        {
+            int slot = (head + numSlots) & mask;
+            if (timestamps[slot] >= expireBefore)
+            {
+                break;
+            }
+            if (events[slot] != null)
+            {
+                numEvents++;
+            }
+            numSlots++;
+        }
+        if (numSlots == 0)
+        {
+            return null;
+        }
+
+        EventBean[] expired = numEvents == 0 ? null : new EventBean[numEvents];
+        int index = 0;
+        for (int i = 0; i < numSlots; i++)
+        {
+            int slot = (head + i) & mask;
+            EventBean event = events[slot];
+            if (event != null)
+            {
+                expired[index++] = event;
+                events[slot] = null;
+                if (reverseIndex != null)
+                {
+                    reverseIndex.remove(event);
+                }
+            }
+        }
+
+        head = (head + numSlots) & mask;
+        count -= numSlots;
+        headSequence += numSlots;
+        size -= numEvents;
+        dropRemovedAtHead();
+        return expired;
+    }
+
+    /**
+     * Returns event iterator.
+     * @return iterator over events currently in window
+     */
+    public Iterator<EventBean> iterator()
+    {
+        return new RingIterator();
+    }
+
+    /**
+     * Returns the oldest timestamp in the window, for use only when the window is not empty.
+     * @return oldest timestamp
+     */
+    public long getOldestTimestamp()
+    {
+        return timestamps[head];
+    }
+
+    /**
+     * Returns true if the window is currently empty.
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     * @return number of events
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the reverse index, for testing purposes.
+     * @return reverse index or null if not built
+     */
+    public Map<EventBean, Long> getReverseIndex()
+    {
+        return reverseIndex;
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory)
+    {
+        Collection<EventBean> contents = new AbstractCollection<EventBean>()
+        {
+            public Iterator<EventBean> iterator()
+            {
+                return RingBufferTimeWindow.this.iterator();
+            }
+
+            public int size()
+            {
+                return size;
+            }
+        };
+        viewDataVisitor.visitPrimary(contents, true, viewFactory.getViewName(), size);
+    }
+
+    // drop removed entries at the head so that the head always holds the oldest event
+    private void dropRemovedAtHead()
+    {
+        while (count > 0 && events[head] == null)
+        {
+            head = (head + 1) & mask;
+            count--;
+            headSequence++;
+        }
+    }
+
+    private void grow()
+    {
+        int capacity = events.length * 2;
+        long[] grownTimestamps = new long[capacity];
+        EventBean[] grownEvents = new EventBean[capacity];
+        for (int i = 0; i < count; i++)
+        {
+            int slot = (head + i) & mask;
+            grownTimestamps[i] = timestamps[slot];
+            grownEvents[i] = events[slot];
+        }
+        timestamps = grownTimestamps;
+        events = grownEvents;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    private class RingIterator implements Iterator<EventBean>
+    {
+        private int position;
+
+        private RingIterator()
+        {
+            skipRemoved();
+        }
+
+        public boolean hasNext()
+        {
+            return position < count;
+        }
+
+        public EventBean next()
+        {
+            if (position >= count)
+            {
+                throw new NoSuchElementException();
+            }
+            EventBean event = events[(head + position) & mask];
+            position++;
+            skipRemoved();
+            return event;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private void skipRemoved()
+        {
+            while (position < count && events[(head + position) & mask] == null)
+            {
+                position++;
+            }
+        }
+    }
+}
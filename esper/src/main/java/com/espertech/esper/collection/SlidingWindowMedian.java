@@ -0,0 +1,338 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * Median of the values in a first-in-first-out window, maintained by two heaps.
+ * <p>
+ * Values are added at the tail of the window and removed from its head, in insertion order, as is the case for
+ * length and time windows. The lower half of the values is kept in a max-heap and the upper half in a min-heap.
+ * Removed values are deleted lazily: each heap entry carries the sequence number of its value and entries older
+ * than the window head are discarded when they reach the top of a heap, or when stale entries outnumber live ones.
+ * Adding and removing are logarithmic in the window size and the median is available in constant time.
+ * <p>
+ * Removal is verified against the oldest value: {@link #removeOldest(double)} returns false, and leaves the
+ * window unchanged, when the value does not equal the oldest value.
+ */
+public class SlidingWindowMedian
+{
+    private static final byte SIDE_LOW = 0;
+    private static final byte SIDE_HIGH = 1;
+
+    // all values in the window and the heap holding them, oldest first
+    private double[] values = new double[16];
+    private byte[] sides = new byte[16];
+    private long headSequence;
+    private long tailSequence;
+
+    private final Heap low = new Heap(true);
+    private final Heap high = new Heap(false);
+    private int lowSize;
+    private int highSize;
+
+    /**
+     * Adds a value at the tail of the window.
+     * @param value to add
+     */
+    public void add(double value)
+    {
+        if (tailSequence - headSequence == values.length)
+        {
+            growValues();
+        }
+        long sequence = tailSequence++;
+        int index = (int) (sequence & (values.length - 1));
+        values[index] = value;
+
+        low.prune(headSequence);
+        if (lowSize == 0 || value <= low.topValue())
+        {
+            low.push(value, sequence);
+            sides[index] = SIDE_LOW;
+            lowSize++;
+        }
+        else
+        {
+            high.push(value, sequence);
+            sides[index] = SIDE_HIGH;
+            highSize++;
+        }
+        rebalance();
+    }
+
+    /**
+     * Removes the oldest value from the head of the window.
+     * @param value the value expected to be the oldest
+     * @return true if removed, false if the window is empty or the oldest value does not equal the value provided
+     */
+    public boolean removeOldest(double value)
+    {
+        if (tailSequence == headSequence)
+        {
+            return false;
+        }
+        int index = (int) (headSequence & (values.length - 1));
+        if (Double.compare(values[index], value) != 0)
+        {
+            return false;
+        }
+        headSequence++;
+        if (sides[index] == SIDE_LOW)
+        {
+            lowSize--;
+            low.compact(headSequence, lowSize);
+        }
+        else
+        {
+            highSize--;
+            high.compact(headSequence, highSize);
+        }
+        rebalance();
+        return true;
+    }
+
+    /**
+     * Returns the median, or null if the window is empty.
+     * @return median
+     */
+    public Double getMedian()
+    {
+        if (lowSize == 0)
+        {
+            return null;
+        }
+        low.prune(headSequence);
+        if (lowSize > highSize)
+        {
+            return low.topValue();
+        }
+        high.prune(headSequence);
+        return (low.topValue() + high.topValue()) / 2;
+    }
+
+    /**
+     * Returns the number of values in the window.
+     * @return size
+     */
+    public int size()
+    {
+        return (int) (tailSequence - headSequence);
+    }
+
+    /**
+     * Returns the values in the window, oldest first.
+     * @return values
+     */
+    public double[] toArray()
+    {
+        double[] result = new double[size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = values[(int) ((headSequence + i) & (values.length - 1))];
+        }
+        return result;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear()
+    {
+        values = new double[16];
+        sides = new byte[16];
+        headSequence = 0;
+        tailSequence = 0;
+        low.clear();
+        high.clear();
+        lowSize = 0;
+        highSize = 0;
+    }
+
+    // keeps the low heap the same size as the high heap or one larger
+    private void rebalance()
+    {
+        while (lowSize > highSize + 1)
+        {
+            low.prune(headSequence);
+            move(low, high, SIDE_HIGH);
+            lowSize--;
+            highSize++;
+        }
+        while (highSize > lowSize)
+        {
+            high.prune(headSequence);
+            move(high, low, SIDE_LOW);
+            highSize--;
+            lowSize++;
+        }
+    }
+
+    private void move(Heap from, Heap to, byte side)
+    {
+        double value = from.topValue();
+        long sequence = from.topSequence();
+        from.pop();
+        to.push(value, sequence);
+        sides[(int) (sequence & (values.length - 1))] = side;
+    }
+
+    private void growValues()
+    {
+        int size = values.length * 2;
+        double[] grownValues = new double[size];
+        byte[] grownSides = new byte[size];
+        for (long sequence = headSequence; sequence < tailSequence; sequence++)
+        {
+            int from = (int) (sequence & (values.length - 1));
+            int to = (int) (sequence & (size - 1));
+            grownValues[to] = values[from];
+            grownSides[to] = sides[from];
+        }
+        values = grownValues;
+        sides = grownSides;
+    }
+
+    private static class Heap
+    {
+        private final boolean isMax;
+        private double[] heapValues = new double[16];
+        private long[] heapSequences = new long[16];
+        private int count;
+
+        private Heap(boolean isMax)
+        {
+            this.isMax = isMax;
+        }
+
+        private double topValue()
+        {
+            return heapValues[0];
+        }
+
+        private long topSequence()
+        {
+            return heapSequences[0];
+        }
+
+        private void push(double value, long sequence)
+        {
+            if (count == heapValues.length)
+            {
+                double[] grownValues = new double[count * 2];
+                long[] grownSequences = new long[count * 2];
+                System.arraycopy(heapValues, 0, grownValues, 0, count);
+                System.arraycopy(heapSequences, 0, grownSequences, 0, count);
+                heapValues = grownValues;
+                heapSequences = grownSequences;
+            }
+            heapValues[count] = value;
+            heapSequences[count] = sequence;
+            siftUp(count++);
+        }
+
+        private void pop()
+        {
+            count--;
+            heapValues[0] = heapValues[count];
+            heapSequences[0] = heapSequences[count];
+            siftDown(0);
+        }
+
+        // removes stale entries from the top
+        private void prune(long headSequence)
+        {
+            while (count > 0 && heapSequences[0] < headSequence)
+            {
+                pop();
+            }
+        }
+
+        // removes all stale entries when they outnumber live entries
+        private void compact(long headSequence, int liveCount)
+        {
+            if (count - liveCount <= liveCount + 16)
+            {
+                return;
+            }
+            int kept = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (heapSequences[i] >= headSequence)
+                {
+                    heapValues[kept] = heapValues[i];
+                    heapSequences[kept] = heapSequences[i];
+                    kept++;
+                }
+            }
+            count = kept;
+            for (int i = (count >> 1) - 1; i >= 0; i--)
+            {
+                siftDown(i);
+            }
+        }
+
+        private void clear()
+        {
+            heapValues = new double[16];
+            heapSequences = new long[16];
+            count = 0;
+        }
+
+        private boolean before(int first, int second)
+        {
+            return isMax ? heapValues[first] > heapValues[second] : heapValues[first] < heapValues[second];
+        }
+
+        private void siftUp(int index)
+        {
+            while (index > 0)
+            {
+                int parent = (index - 1) >> 1;
+                if (!before(index, parent))
+                {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index)
+        {
+            while (true)
+            {
+                int child = (index << 1) + 1;
+                if (child >= count)
+                {
+                    break;
+                }
+                if (child + 1 < count && before(child + 1, child))
+                {
+                    child++;
+                }
+                if (!before(child, index))
+                {
+                    break;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void swap(int first, int second)
+        {
+            double value = heapValues[first];
+            heapValues[first] = heapValues[second];
+            heapValues[second] = value;
+            long sequence = heapSequences[first];
+            heapSequences[first] = heapSequences[second];
+            heapSequences[second] = sequence;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * Minimum or maximum of the values in a first-in-first-out window, maintained by a monotonic deque.
+ * <p>
+ * Values are added at the tail of the window and removed from its head, in insertion order, as is the case for
+ * length and time windows. The deque keeps only those values that can still become the minimum or maximum,
+ * so that adding and removing are amortized constant-time and the current value is available in constant time.
+ * <p>
+ * Removal is verified against the oldest value: {@link #removeOldest(Object)} returns false, and leaves the
+ * window unchanged, when the value does not compare equal to the oldest value.
+ * Values must implement {@link Comparable}.
+ */
+public class SlidingWindowMinMax
+{
+    private final boolean isMax;
+
+    // all values in the window, oldest first
+    private Object[] values = new Object[16];
+    private int valuesHead;
+    private int valuesCount;
+
+    // candidate values and their sequence numbers, oldest first
+    private Object[] dequeValues = new Object[16];
+    private long[] dequeSequences = new long[16];
+    private int dequeHead;
+    private int dequeCount;
+
+    private long addSequence;
+    private long removeSequence;
+
+    /**
+     * Ctor.
+     * @param isMax true to maintain the maximum value, false for the minimum value
+     */
+    public SlidingWindowMinMax(boolean isMax)
+    {
+        this.isMax = isMax;
+    }
+
+    /**
+     * Adds a value at the tail of the window.
+     * @param value to add, not null
+     */
+    public void add(Object value)
+    {
+        if (valuesCount == values.length)
+        {
+            values = grow(values, valuesHead, valuesCount);
+            valuesHead = 0;
+        }
+        values[(valuesHead + valuesCount) & (values.length - 1)] = value;
+        valuesCount++;
+
+        // drop candidates that the new value supersedes
+        while (dequeCount > 0)
+        {
+            int last = (dequeHead + dequeCount - 1) & (dequeValues.length - 1);
+            int compared = compare(dequeValues[last], value);
+            if ((isMax && compared > 0) || (!isMax && compared < 0))
+            {
+                break;
+            }
+            dequeValues[last] = null;
+            dequeCount--;
+        }
+        if (dequeCount == dequeValues.length)
+        {
+            long[] sequences = new long[dequeSequences.length * 2];
+            for (int i = 0; i < dequeCount; i++)
+            {
+                sequences[i] = dequeSequences[(dequeHead + i) & (dequeSequences.length - 1)];
+            }
+            dequeSequences = sequences;
+            dequeValues = grow(dequeValues, dequeHead, dequeCount);
+            dequeHead = 0;
+        }
+        int index = (dequeHead + dequeCount) & (dequeValues.length - 1);
+        dequeValues[index] = value;
+        dequeSequences[index] = addSequence++;
+        dequeCount++;
+    }
+
+    /**
+     * Removes the oldest value from the head of the window.
+     * @param value the value expected to be the oldest
+     * @return true if removed, false if the window is empty or the oldest value does not equal the value provided
+     */
+    public boolean removeOldest(Object value)
+    {
+        if (valuesCount == 0 || compare(values[valuesHead], value) != 0)
+        {
+            return false;
+        }
+        values[valuesHead] = null;
+        valuesHead = (valuesHead + 1) & (values.length - 1);
+        valuesCount--;
+
+        removeSequence++;
+        if (dequeCount > 0 && dequeSequences[dequeHead] < removeSequence)
+        {
+            dequeValues[dequeHead] = null;
+            dequeHead = (dequeHead + 1) & (dequeValues.length - 1);
+            dequeCount--;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the minimum or maximum value, or null if the window is empty.
+     * @return value
+     */
+    public Object getValue()
+    {
+        if (dequeCount == 0)
+        {
+            return null;
+        }
+        return dequeValues[dequeHead];
+    }
+
+    /**
+     * Returns the number of values in the window.
+     * @return size
+     */
+    public int size()
+    {
+        return valuesCount;
+    }
+
+    /**
+     * Returns the values in the window, oldest first.
+     * @return values
+     */
+    public Object[] toArray()
+    {
+        Object[] result = new Object[valuesCount];
+        for (int i = 0; i < valuesCount; i++)
+        {
+            result[i] = values[(valuesHead + i) & (values.length - 1)];
+        }
+        return result;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear()
+    {
+        values = new Object[16];
+        valuesHead = 0;
+        valuesCount = 0;
+        dequeValues = new Object[16];
+        dequeSequences = new long[16];
+        dequeHead = 0;
+        dequeCount = 0;
+        addSequence = 0;
+        removeSequence = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object first, Object second)
+    {
+        return ((Comparable) first).compareTo(second);
+    }
+
+    private static Object[] grow(Object[] ring, int head, int count)
+    {
+        Object[] grown = new Object[ring.length * 2];
+        for (int i = 0; i < count; i++)
+        {
+            grown[i] = ring[(head + i) & (ring.length - 1)];
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,459 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.compilecache;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.ConfigurationInformation;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.epl.declexpr.ExprDeclaredService;
+import com.espertech.esper.epl.spec.ExpressionDeclItem;
+import com.espertech.esper.epl.spec.ExpressionScriptProvided;
+import com.espertech.esper.epl.spec.SelectClauseStreamSelectorEnum;
+import com.espertech.esper.epl.spec.StatementSpecRaw;
+import com.espertech.esper.util.ObjectInputStreamWithTCCL;
+import com.espertech.esper.util.SerializerUtil;
+import com.espertech.esper.util.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of compiled statements, keyed by the digest of the statement text, the engine build version, the engine configuration and the engine definitions
+ * that parsing consults.
+ * <p>
+ * A compiled statement is kept in serialized form and each use de-serializes a new statement specification, since validating
+ * a statement changes its specification. References to declared expressions and scripts that the engine holds are kept by name, so that
+ * statements continue to share them. Statements that are associated to a context are not cached, as parsing them
+ * consults the context.
+ * <p>
+ * When a directory is provided, compiled statements are also kept in one file per statement for use by later engine runs. A file starts with
+ * a magic number, the format version and the engine build version, followed by the statement text and the serialized statement specification.
+ * Files written by a different engine build are ignored, since the serialized form of the statement specification is specific to the engine classes.
+ */
+public class StatementCompileCache
+{
+    private static final Logger log = LoggerFactory.getLogger(StatementCompileCache.class);
+
+    /**
+     * Magic number that starts a compiled statement file.
+     */
+    public final static int MAGIC = 0x45435343;
+
+    /**
+     * Current format version. Version 2 adds the engine build version.
+     */
+    public final static int VERSION = 2;
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+    private final static String SUFFIX = ".stmt";
+
+    private final String engineURI;
+    private final File directory;
+    private final String configurationDigest;
+    private final int deployThreads;
+    private final Map<String, Entry> entries;
+    private final AtomicLong numHits = new AtomicLong();
+    private final AtomicLong numMisses = new AtomicLong();
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI for naming threads
+     * @param configSnapshot engine configuration
+     * @param config cache settings
+     * @throws EPException if the cache directory cannot be used
+     */
+    public StatementCompileCache(String engineURI, ConfigurationInformation configSnapshot, ConfigurationEngineDefaults.CompileCache config)
+    {
+        this.engineURI = engineURI;
+        this.deployThreads = config.getDeployThreads();
+        final int maxEntries = config.getMaxEntries();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        String digest = null;
+        try
+        {
+            digest = StatementCompileFingerprint.digest(SerializerUtil.objectToByteArr(configSnapshot));
+        }
+        catch (RuntimeException ex)
+        {
+            log.warn("Compiled statements are not kept in files as the configuration cannot be serialized: " + ex.getMessage(), ex);
+        }
+        this.configurationDigest = digest;
+
+        if (config.getDirectory() == null || digest == null)
+        {
+            directory = null;
+            return;
+        }
+        directory = new File(config.getDirectory());
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new EPException("Failed to create compiled statement directory '" + directory + "'");
+        }
+    }
+
+    /**
+     * Returns the key of a statement text for the current engine definitions.
+     * @param epl statement text
+     * @param defaultStreamSelector stream selector
+     * @param services engine services
+     * @return key
+     */
+    public String getKey(String epl, SelectClauseStreamSelectorEnum defaultStreamSelector, EPServicesContext services)
+    {
+        return StatementCompileFingerprint.digest(Integer.toString(VERSION), Version.getBuildVersion(), configurationDigest, defaultStreamSelector.name(),
+                StatementCompileFingerprint.getDefinitions(services), epl);
+    }
+
+    /**
+     * Returns a new statement specification for the key, or null when the statement is not cached.
+     * @param key key
+     * @param epl statement text
+     * @param services engine services
+     * @return statement specification or null
+     */
+    public StatementSpecRaw get(String key, String epl, EPServicesContext services)
+    {
+        Entry entry;
+        synchronized (entries)
+        {
+            entry = entries.get(key);
+        }
+        if (entry == null && directory != null)
+        {
+            entry = read(key);
+            if (entry != null)
+            {
+                synchronized (entries)
+                {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        if (entry == null || !entry.epl.equals(epl))
+        {
+            numMisses.incrementAndGet();
+            return null;
+        }
+
+        try
+        {
+            ObjectInputStream in = new DefinitionsInputStream(new ByteArrayInputStream(entry.spec), services.getExprDeclaredService());
+            StatementSpecRaw spec = (StatementSpecRaw) in.readObject();
+            numHits.incrementAndGet();
+            return spec;
+        }
+        catch (Exception ex)
+        {
+            log.debug("Failed to read compiled statement, compiling statement: " + ex.getMessage(), ex);
+            synchronized (entries)
+            {
+                entries.remove(key);
+            }
+            numMisses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Adds a statement specification that was just compiled and is not yet validated.
+     * @param key key
+     * @param epl statement text
+     * @param spec statement specification
+     * @param services engine services
+     */
+    public void put(String key, String epl, StatementSpecRaw spec, EPServicesContext services)
+    {
+        if (spec.getOptionalContextName() != null)
+        {
+            return;
+        }
+        byte[] bytes;
+        try
+        {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            ObjectOutputStream out = new DefinitionsOutputStream(buffer, services.getExprDeclaredService());
+            out.writeObject(spec);
+            out.close();
+            bytes = buffer.toByteArray();
+        }
+        catch (IOException ex)
+        {
+            log.debug("Statement specification cannot be serialized and is not cached: " + ex.getMessage(), ex);
+            return;
+        }
+
+        Entry entry = new Entry(epl, bytes);
+        synchronized (entries)
+        {
+            entries.put(key, entry);
+        }
+        if (directory != null)
+        {
+            write(key, entry);
+        }
+    }
+
+    /**
+     * Returns the engine URI.
+     * @return engine URI
+     */
+    public String getEngineURI()
+    {
+        return engineURI;
+    }
+
+    /**
+     * Returns the number of threads that compile the statements of a module in parallel before the module deploys.
+     * @return number of threads
+     */
+    public int getDeployThreads()
+    {
+        return deployThreads;
+    }
+
+    /**
+     * Returns the directory holding compiled statement files, or null when compiled statements are kept in memory only.
+     * @return directory
+     */
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Returns the number of statements that were compiled from the cache.
+     * @return count
+     */
+    public long getNumHits()
+    {
+        return numHits.get();
+    }
+
+    /**
+     * Returns the number of statements that were not found in the cache.
+     * @return count
+     */
+    public long getNumMisses()
+    {
+        return numMisses.get();
+    }
+
+    private Entry read(String key)
+    {
+        File file = new File(directory, key + SUFFIX);
+        if (!file.isFile())
+        {
+            return null;
+        }
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                log.debug("Ignoring compiled statement file '" + file + "' of a different format");
+                return null;
+            }
+            String buildVersion = in.readUTF();
+            if (!buildVersion.equals(Version.getBuildVersion()))
+            {
+                log.debug("Ignoring compiled statement file '" + file + "' written by engine version '" + buildVersion + "'");
+                return null;
+            }
+            byte[] eplBytes = new byte[in.readInt()];
+            in.readFully(eplBytes);
+            byte[] spec = new byte[in.readInt()];
+            in.readFully(spec);
+            return new Entry(new String(eplBytes, UTF_8), spec);
+        }
+        catch (IOException ex)
+        {
+            log.debug("Failed to read compiled statement file '" + file + "': " + ex.getMessage(), ex);
+            return null;
+        }
+        finally
+        {
+            close(in);
+        }
+    }
+
+    private void write(String key, Entry entry)
+    {
+        File temp = new File(directory, key + "." + Thread.currentThread().getId() + ".tmp");
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(Version.getBuildVersion());
+            byte[] eplBytes = entry.epl.getBytes(UTF_8);
+            out.writeInt(eplBytes.length);
+            out.write(eplBytes);
+            out.writeInt(entry.spec.length);
+            out.write(entry.spec);
+            out.close();
+            out = null;
+            File file = new File(directory, key + SUFFIX);
+            if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file)))
+            {
+                log.warn("Failed to write compiled statement file '" + file + "'");
+            }
+        }
+        catch (IOException ex)
+        {
+            log.warn("Failed to write compiled statement file in directory '" + directory + "': " + ex.getMessage(), ex);
+        }
+        finally
+        {
+            close(out);
+            if (temp.exists() && !temp.delete())
+            {
+                log.debug("Failed to delete temporary file '" + temp + "'");
+            }
+        }
+    }
+
+    private static void close(Closeable closeable)
+    {
+        if (closeable == null)
+        {
+            return;
+        }
+        try
+        {
+            closeable.close();
+        }
+        catch (IOException ex)
+        {
+            log.debug("Failed to close: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Writes declared expressions and scripts that the engine holds as references by name.
+     */
+    private static class DefinitionsOutputStream extends ObjectOutputStream
+    {
+        private final ExprDeclaredService exprDeclaredService;
+
+        private DefinitionsOutputStream(OutputStream out, ExprDeclaredService exprDeclaredService) throws IOException
+        {
+            super(out);
+            this.exprDeclaredService = exprDeclaredService;
+            enableReplaceObject(true);
+        }
+
+        protected Object replaceObject(Object obj) throws IOException
+        {
+            if (obj instanceof ExpressionDeclItem)
+            {
+                ExpressionDeclItem item = (ExpressionDeclItem) obj;
+                if (exprDeclaredService.getExpression(item.getName()) == item)
+                {
+                    return new DeclaredReference(item.getName(), -1);
+                }
+            }
+            else if (obj instanceof ExpressionScriptProvided)
+            {
+                ExpressionScriptProvided script = (ExpressionScriptProvided) obj;
+                List<ExpressionScriptProvided> scripts = exprDeclaredService.getScriptsByName(script.getName());
+                if (scripts != null && scripts.contains(script))
+                {
+                    return new DeclaredReference(script.getName(), script.getParameterNames().size());
+                }
+            }
+            return obj;
+        }
+    }
+
+    /**
+     * Resolves references by name to the declared expressions and scripts that the engine holds.
+     */
+    private static class DefinitionsInputStream extends ObjectInputStreamWithTCCL
+    {
+        private final ExprDeclaredService exprDeclaredService;
+
+        private DefinitionsInputStream(InputStream in, ExprDeclaredService exprDeclaredService) throws IOException
+        {
+            super(in);
+            this.exprDeclaredService = exprDeclaredService;
+            enableResolveObject(true);
+        }
+
+        protected Object resolveObject(Object obj) throws IOException
+        {
+            if (!(obj instanceof DeclaredReference))
+            {
+                return obj;
+            }
+            DeclaredReference reference = (DeclaredReference) obj;
+            if (reference.numParameters == -1)
+            {
+                ExpressionDeclItem item = exprDeclaredService.getExpression(reference.name);
+                if (item != null)
+                {
+                    return item;
+                }
+            }
+            else
+            {
+                List<ExpressionScriptProvided> scripts = exprDeclaredService.getScriptsByName(reference.name);
+                if (scripts != null)
+                {
+                    for (ExpressionScriptProvided script : scripts)
+                    {
+                        if (script.getParameterNames().size() == reference.numParameters)
+                        {
+                            return script;
+                        }
+                    }
+                }
+            }
+            throw new InvalidObjectException("Declared expression or script '" + reference.name + "' is not found");
+        }
+    }
+
+    private static class DeclaredReference implements Serializable
+    {
+        private static final long serialVersionUID = -3542175416029337421L;
+        private final String name;
+        private final int numParameters;
+
+        private DeclaredReference(String name, int numParameters)
+        {
+            this.name = name;
+            this.numParameters = numParameters;
+        }
+    }
+
+    private static class Entry
+    {
+        private final String epl;
+        private final byte[] spec;
+
+        private Entry(String epl, byte[] spec)
+        {
+            this.epl = epl;
+            this.spec = spec;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.compilecache;
+
+import com.espertech.esper.client.ConfigurationPlugInAggregationFunction;
+import com.espertech.esper.client.ConfigurationPlugInAggregationMultiFunction;
+import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.core.EngineImportSingleRowDesc;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.spec.ExpressionDeclItem;
+import com.espertech.esper.epl.spec.ExpressionScriptProvided;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.variable.VariableMetaData;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes the text and digests that identify a compiled statement.
+ * <p>
+ * Parsing an EPL statement consults the variables, tables, declared expressions and scripts, imports and plug-in functions
+ * of the engine, which can change after the engine initializes. The definitions text describes these, such that a compiled statement
+ * is reused only when the definitions are the same as when it was compiled.
+ */
+public class StatementCompileFingerprint
+{
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+    private final static char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Returns the text describing the engine definitions that parsing a statement consults.
+     * @param services engine services
+     * @return definitions text
+     */
+    public static String getDefinitions(EPServicesContext services)
+    {
+        StringBuilder builder = new StringBuilder();
+
+        List<String> variables = new ArrayList<String>();
+        for (VariableMetaData variable : services.getVariableService().getVariableMetaDataAll())
+        {
+            StringBuilder desc = new StringBuilder();
+            desc.append(variable.getVariableName()).append('|').append(variable.getContextPartitionName()).append('|');
+            desc.append(variable.getType() != null ? variable.getType().getName() : variable.getEventType().getName());
+            if (variable.isConstant())
+            {
+                desc.append("|constant=").append(variable.getVariableStateFactory().getInitialState());
+            }
+            variables.add(desc.toString());
+        }
+        append(builder, 'V', variables);
+
+        List<String> tables = new ArrayList<String>();
+        for (String tableName : services.getTableService().getTables())
+        {
+            TableMetadata metadata = services.getTableService().getTableMetadata(tableName);
+            if (metadata == null)
+            {
+                continue;
+            }
+            StringBuilder desc = new StringBuilder(tableName);
+            for (Map.Entry<String, TableMetadataColumn> column : new TreeMap<String, TableMetadataColumn>(metadata.getTableColumns()).entrySet())
+            {
+                desc.append('|').append(column.getKey()).append(':').append(column.getValue().getClass().getSimpleName()).append(':').append(column.getValue().isKey());
+            }
+            tables.add(desc.toString());
+        }
+        append(builder, 'T', tables);
+
+        List<String> expressions = new ArrayList<String>();
+        for (ExpressionDeclItem expression : services.getExprDeclaredService().getExpressions())
+        {
+            expressions.add(expression.getName() + expression.getParametersNames() + expression.isAlias() + "=" + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(expression.getInner()));
+        }
+        for (ExpressionScriptProvided script : services.getExprDeclaredService().getScripts())
+        {
+            expressions.add(script.getName() + script.getParameterNames() + "|" + script.getOptionalDialect() + "|" + script.getOptionalReturnTypeName() + "|" + script.isOptionalReturnTypeIsArray() + "=" + script.getExpression());
+        }
+        append(builder, 'E', expressions);
+
+        EngineImportService imports = services.getEngineImportService();
+        append(builder, 'I', new ArrayList<String>(imports.getImportNames()));
+        append(builder, 'A', new ArrayList<String>(imports.getAnnotationImportNames()));
+        List<String> functions = new ArrayList<String>();
+        for (Map.Entry<String, ConfigurationPlugInAggregationFunction> entry : imports.getAggregationFunctions().entrySet())
+        {
+            functions.add("aggregation " + entry.getKey() + "=" + entry.getValue().getFactoryClassName());
+        }
+        for (ConfigurationPlugInAggregationMultiFunction multiFunction : imports.getAggregationMultiFunctions())
+        {
+            functions.add("multi " + Arrays.toString(multiFunction.getFunctionNames()) + "=" + multiFunction.getMultiFunctionFactoryClassName());
+        }
+        for (Map.Entry<String, EngineImportSingleRowDesc> entry : imports.getSingleRowFunctions().entrySet())
+        {
+            EngineImportSingleRowDesc desc = entry.getValue();
+            functions.add("single-row " + entry.getKey() + "=" + desc.getClassName() + "." + desc.getMethodName() + "|" + desc.getValueCache() + "|" + desc.getFilterOptimizable() + "|" + desc.isRethrowExceptions());
+        }
+        append(builder, 'F', functions);
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns the hexadecimal SHA-256 digest of the values.
+     * @param values to digest, in order
+     * @return digest
+     */
+    public static String digest(String... values)
+    {
+        MessageDigest digest = newDigest();
+        for (String value : values)
+        {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(UTF_8);
+            digest.update((byte) (bytes.length >>> 24));
+            digest.update((byte) (bytes.length >>> 16));
+            digest.update((byte) (bytes.length >>> 8));
+            digest.update((byte) bytes.length);
+            digest.update(bytes);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Returns the hexadecimal SHA-256 digest of the bytes.
+     * @param bytes to digest
+     * @return digest
+     */
+    public static String digest(byte[] bytes)
+    {
+        return toHex(newDigest().digest(bytes));
+    }
+
+    private static void append(StringBuilder builder, char section, List<String> items)
+    {
+        Collections.sort(items);
+        builder.append(section).append(items.size()).append('\n');
+        for (String item : items)
+        {
+            builder.append(item).append('\n');
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 message digest is not available: " + e.getMessage(), e);
+        }
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -30,6 +30,8 @@ import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.core.start.*;
 import com.espertech.esper.epl.agg.service.AggregationService;
 import com.espertech.esper.epl.core.*;
+import com.espertech.esper.epl.expression.codegen.CodegenExprCompiler;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.prev.ExprPreviousEvalStrategy;
@@ -87,6 +89,7 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
     protected final SubSelectStrategyCollection subSelectStrategyCollection;
     protected final ViewResourceDelegateVerified viewResourceDelegate;
     protected final OutputProcessViewFactory outputProcessViewFactory;
+    protected final ExprEvaluator filterRootCompiledEvaluator;
 
     public StatementAgentInstanceFactorySelect(int numStreams, ViewableActivator[] eventStreamParentViewableActivators, StatementContext statementContext, StatementSpecCompiled statementSpec, EPServicesContext services, StreamTypeService typeService, ViewFactoryChain[] unmaterializedViewChain, ResultSetProcessorFactoryDesc resultSetProcessorFactoryDesc, StreamJoinAnalysisResult joinAnalysisResult, boolean recoveringResilient, JoinSetComposerPrototype joinSetComposerPrototype, SubSelectStrategyCollection subSelectStrategyCollection, ViewResourceDelegateVerified viewResourceDelegate, OutputProcessViewFactory outputProcessViewFactory) {
         super(statementSpec.getAnnotations());
@@ -103,6 +106,7 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         this.subSelectStrategyCollection = subSelectStrategyCollection;
         this.viewResourceDelegate = viewResourceDelegate;
         this.outputProcessViewFactory = outputProcessViewFactory;
+        this.filterRootCompiledEvaluator = getFilterRootCompiledEvaluator(numStreams, statementSpec, statementContext);
     }
 
     public ViewResourceDelegateVerified getViewResourceDelegate() {
@@ -470,7 +474,8 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         // Add filter view that evaluates the filter expression
         if (statementSpec.getFilterRootNode() != null)
         {
-            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode(), statementSpec.getFilterRootNode().getExprEvaluator(), agentInstanceContext);
+            ExprEvaluator filterEvaluator = filterRootCompiledEvaluator != null ? filterRootCompiledEvaluator : statementSpec.getFilterRootNode().getExprEvaluator();
+            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode(), filterEvaluator, agentInstanceContext);
             finalView.addView(filterView);
             finalView = filterView;
         }
@@ -599,4 +604,13 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
             return joinSetComposerDesc;
         }
     }
+
+    private static ExprEvaluator getFilterRootCompiledEvaluator(int numStreams, StatementSpecCompiled statementSpec, StatementContext statementContext) {
+        ExprNode filterRootNode = statementSpec.getFilterRootNode();
+        // joins evaluate the where-clause as part of join processing
+        if (filterRootNode == null || numStreams != 1 || !statementContext.getConfigSnapshot().getEngineDefaults().getExpression().isCodeGeneration()) {
+            return null;
+        }
+        return CodegenExprCompiler.compile(filterRootNode, statementContext.getStatementName());
+    }
 }
@@ -421,8 +421,15 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
         contextProperties.put(ContextPropertyEventType.PROP_CTX_ID, contextId);
         MappedEventBean contextBean = (MappedEventBean) servicesContext.getEventAdapterService().adapterForTypedMap(contextProperties, contextDescriptor.getContextPropertyRegistry().getContextEventType());
 
+        // pin partitions of hash-segmented and keyed-segmented contexts to a context partition thread, if configured
+        int contextPartitionThreadIndex = -1;
+        if (servicesContext.getThreadingService().isContextPartitionThreading() &&
+            (originator instanceof ContextControllerHash || originator instanceof ContextControllerPartitioned)) {
+            contextPartitionThreadIndex = servicesContext.getThreadingService().getContextPartitionThreadIndex(partitionKey);
+        }
+
         // activate
-        StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient);
+        StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient, contextPartitionThreadIndex);
 
         // save only instance data
         return new AgentInstance(result.getStopCallback(), result.getAgentInstanceContext(), result.getFinalView());
@@ -22,7 +22,9 @@ public class EPStatementAgentInstanceHandle {
     private final int agentInstanceId;
     private final StatementAgentInstanceFilterVersion statementFilterVersion;
     private EPStatementDispatch optionalDispatchable;
+    private EPStatementDispatch optionalPostDispatchable;
     private boolean destroyed;
+    private int contextPartitionThreadIndex = -1;
 
     private final int hashCode;
     private FilterFaultHandler filterFaultHandler;
@@ -130,6 +132,22 @@ public class EPStatementAgentInstanceHandle {
         if (optionalDispatchable != null) {
             optionalDispatchable.execute();
         }
+        if (optionalPostDispatchable != null) {
+            optionalPostDispatchable.execute();
+        }
+    }
+
+    /**
+     * Sets the instance for calling onto after statement callback processing and internal dispatch,
+     * for releasing state that callbacks collected for the same event or time may still reference.
+     * @param optionalPostDispatchable instance to call
+     */
+    public void setOptionalPostDispatchable(EPStatementDispatch optionalPostDispatchable) {
+        this.optionalPostDispatchable = optionalPostDispatchable;
+    }
+
+    public EPStatementDispatch getOptionalPostDispatchable() {
+        return optionalPostDispatchable;
     }
 
     public boolean isDestroyed() {
@@ -146,6 +164,19 @@ public class EPStatementAgentInstanceHandle {
                 '}';
     }
 
+    /**
+     * Returns the index of the context partition thread that processes filter matches for this agent instance,
+     * or -1 when filter matches are processed by the thread that evaluates filters.
+     * @return thread index or -1
+     */
+    public int getContextPartitionThreadIndex() {
+        return contextPartitionThreadIndex;
+    }
+
+    public void setContextPartitionThreadIndex(int contextPartitionThreadIndex) {
+        this.contextPartitionThreadIndex = contextPartitionThreadIndex;
+    }
+
     public FilterFaultHandler getFilterFaultHandler() {
         return filterFaultHandler;
     }
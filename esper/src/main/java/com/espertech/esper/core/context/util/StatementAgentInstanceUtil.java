@@ -144,7 +144,8 @@ public class StatementAgentInstanceUtil {
                                                      int agentInstanceId,
                                                      MappedEventBean agentInstanceProperties,
                                                      AgentInstanceFilterProxy agentInstanceFilterProxy,
-                                                     boolean isRecoveringResilient)
+                                                     boolean isRecoveringResilient,
+                                                     int contextPartitionThreadIndex)
     {
         StatementContext statementContext = statement.getStatementContext();
 
@@ -179,6 +180,7 @@ public class StatementAgentInstanceUtil {
 
         // create handle that comtains lock for use in scheduling and filter callbacks
         EPStatementAgentInstanceHandle agentInstanceHandle = new EPStatementAgentInstanceHandle(statementContext.getEpStatementHandle(), agentInstanceLock, agentInstanceId, filterVersion, statementContext.getFilterFaultHandlerFactory());
+        agentInstanceHandle.setContextPartitionThreadIndex(contextPartitionThreadIndex);
 
         // create agent instance context
         AgentInstanceScriptContext agentInstanceScriptContext = null;
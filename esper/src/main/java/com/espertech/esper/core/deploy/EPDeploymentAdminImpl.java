@@ -13,9 +13,11 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPServiceProviderIsolated;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.deploy.*;
+import com.espertech.esper.core.compilecache.StatementCompileCache;
 import com.espertech.esper.core.service.EPAdministratorSPI;
 import com.espertech.esper.core.service.StatementEventTypeRef;
 import com.espertech.esper.core.service.StatementIsolationService;
+import com.espertech.esper.core.thread.EngineThreadFactory;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.util.DependencyGraph;
@@ -27,6 +29,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Deployment administrative implementation.
@@ -43,8 +49,9 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI
     private final FilterService filterService;
     private final TimeZone timeZone;
     private final ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy undeployRethrowPolicy;
+    private final StatementCompileCache compileCache;
 
-    public EPDeploymentAdminImpl(EPAdministratorSPI epService, DeploymentStateService deploymentStateService, StatementEventTypeRef statementEventTypeRef, EventAdapterService eventAdapterService, StatementIsolationService statementIsolationService, FilterService filterService, TimeZone timeZone, ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy undeployRethrowPolicy) {
+    public EPDeploymentAdminImpl(EPAdministratorSPI epService, DeploymentStateService deploymentStateService, StatementEventTypeRef statementEventTypeRef, EventAdapterService eventAdapterService, StatementIsolationService statementIsolationService, FilterService filterService, TimeZone timeZone, ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy undeployRethrowPolicy, StatementCompileCache compileCache) {
         this.epService = epService;
         this.deploymentStateService = deploymentStateService;
         this.statementEventTypeRef = statementEventTypeRef;
@@ -53,6 +60,7 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI
         this.filterService = filterService;
         this.timeZone = timeZone;
         this.undeployRethrowPolicy = undeployRethrowPolicy;
+        this.compileCache = compileCache;
     }
 
     public Module read(InputStream stream, String uri) throws IOException, ParseException
@@ -122,6 +130,10 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI
              imports = Collections.emptyList();
         }
 
+        if (compileCache != null && compileCache.getDeployThreads() > 1) {
+            precompile(module);
+        }
+
         if (options.isCompile()) {
             List<DeploymentItemException> exceptions = new ArrayList<DeploymentItemException>();
             for (ModuleItem item : module.getItems()) {
@@ -233,6 +245,58 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI
         return new DeploymentResult(desc.getDeploymentId(), Collections.unmodifiableList(statements), imports);
     }
 
+    /**
+     * Compiles the statements of the module in parallel into the compiled statement cache, so that deploying each statement
+     * finds the compiled statement. A statement that depends on variables, tables, expressions or functions created by a preceding
+     * statement of the module finds changed engine definitions when it deploys, and is compiled again as part of deploying.
+     * Compile errors are reported when the statement deploys.
+     * @param module to compile
+     */
+    private void precompile(Module module) {
+        List<String> expressions = new ArrayList<String>();
+        for (ModuleItem item : module.getItems()) {
+            if (!item.isCommentOnly()) {
+                expressions.add(item.getExpression());
+            }
+        }
+        if (expressions.size() < 2) {
+            return;
+        }
+
+        int numThreads = Math.min(compileCache.getDeployThreads(), expressions.size());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads, new EngineThreadFactory(compileCache.getEngineURI(), "Deploy", null, Thread.NORM_PRIORITY));
+        try {
+            List<Future> futures = new ArrayList<Future>(expressions.size());
+            for (final String expression : expressions) {
+                futures.add(executor.submit(new Runnable() {
+                    public void run() {
+                        try {
+                            epService.compileEPLToRaw(expression);
+                        }
+                        catch (RuntimeException ex) {
+                            log.debug("Failed to compile statement before deployment: " + ex.getMessage(), ex);
+                        }
+                    }
+                }));
+            }
+            for (Future future : futures) {
+                try {
+                    future.get();
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch (ExecutionException ex) {
+                    log.debug("Failed to compile statement before deployment: " + ex.getMessage(), ex);
+                }
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
     private DeploymentActionException buildException(String msg, Module module, List<DeploymentItemException> exceptions)
     {
         String message = msg;
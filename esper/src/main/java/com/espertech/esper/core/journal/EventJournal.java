@@ -0,0 +1,451 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.journal;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.snapshot.SnapshotWriter;
+import com.espertech.esper.core.thread.EngineThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only journal of the events sent into the engine, kept in memory-mapped segment files.
+ * <p>
+ * Each segment file starts with a header followed by entries. An entry is a length followed by the entry bytes, and the length
+ * is written after the entry bytes so that a partially written entry reads as the end of the segment. The first event of
+ * an event type within a segment is preceded by an entry that associates the event type id to the event type name,
+ * so that entries can be read when event type ids differ between engine runs.
+ * <p>
+ * Events are encoded by the sending thread and appended under a lock. Changes are forced to storage after a configured number of
+ * appended events, or at a configured interval by a background thread, so that multiple appends share a force.
+ */
+public class EventJournal
+{
+    private static final Logger log = LoggerFactory.getLogger(EventJournal.class);
+
+    private final File directory;
+    private final int segmentSizeBytes;
+    private final int syncEvents;
+    private final Object lock = new Object();
+    private final ThreadLocal<Encoder> encoders = new ThreadLocal<Encoder>() {
+        protected Encoder initialValue() {
+            return new Encoder();
+        }
+    };
+    private final Set<Integer> typesInSegment = new HashSet<Integer>();
+    private final Set<Integer> typesWarned = new HashSet<Integer>();
+    private final Thread syncThread;
+
+    private long segment;
+    private RandomAccessFile file;
+    private MappedByteBuffer buffer;
+    private int unsynced;
+    private long numAppended;
+    private long numSyncs;
+    private long snapshotSegment = -1;
+    private volatile boolean suspended;
+    private volatile boolean destroyed;
+
+    /**
+     * Ctor, starts a new segment following any existing segments in the directory.
+     * @param engineURI engine URI for naming the sync thread
+     * @param config journal settings
+     * @throws EPException if the journal directory cannot be used
+     */
+    public EventJournal(String engineURI, ConfigurationEngineDefaults.Journal config)
+    {
+        if (config.getDirectory() == null)
+        {
+            throw new EPException("Event journal requires a directory");
+        }
+        this.directory = new File(config.getDirectory());
+        this.segmentSizeBytes = config.getSegmentSizeBytes();
+        this.syncEvents = config.getSyncEvents();
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new EPException("Failed to create event journal directory '" + directory + "'");
+        }
+
+        long[] existing = EventJournalSegments.list(directory);
+        try
+        {
+            openSegment(existing.length == 0 ? 1 : existing[existing.length - 1] + 1, 0);
+        }
+        catch (IOException e)
+        {
+            throw new EPException("Failed to open event journal segment in directory '" + directory + "': " + e.getMessage(), e);
+        }
+
+        if (config.getSyncIntervalMsec() > 0)
+        {
+            final long interval = config.getSyncIntervalMsec();
+            EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, "Journal", null, Thread.NORM_PRIORITY);
+            syncThread = threadFactory.newThread(new Runnable() {
+                public void run() {
+                    while (!destroyed)
+                    {
+                        try
+                        {
+                            Thread.sleep(interval);
+                        }
+                        catch (InterruptedException e)
+                        {
+                            return;
+                        }
+                        synchronized (lock)
+                        {
+                            if (unsynced > 0 && !destroyed)
+                            {
+                                force();
+                            }
+                        }
+                    }
+                }
+            });
+            syncThread.start();
+        }
+        else
+        {
+            syncThread = null;
+        }
+    }
+
+    /**
+     * Appends an event.
+     * @param theEvent event
+     * @param time engine time when the event arrived
+     */
+    public void append(EventBean theEvent, long time)
+    {
+        if (suspended)
+        {
+            return;
+        }
+        EventType eventType = theEvent.getEventType();
+        if (!isJournaled(eventType))
+        {
+            return;
+        }
+
+        Encoder encoder = encoders.get();
+        byte[] payload;
+        int length;
+        try
+        {
+            payload = encoder.encode(eventType.getEventTypeId(), time, theEvent.getUnderlying());
+            length = encoder.size();
+        }
+        catch (IOException e)
+        {
+            throw new EPException("Failed to encode event for event journal: " + e.getMessage(), e);
+        }
+
+        synchronized (lock)
+        {
+            if (destroyed)
+            {
+                return;
+            }
+            try
+            {
+                int typeId = eventType.getEventTypeId();
+                byte[] typeEntry = null;
+                if (!typesInSegment.contains(typeId))
+                {
+                    typeEntry = EventJournalSegments.encodeType(typeId, eventType.getName());
+                }
+                int required = 4 + length + (typeEntry == null ? 0 : 4 + typeEntry.length);
+                if (buffer.remaining() < required + 4)
+                {
+                    // a new segment repeats the type entry
+                    if (typeEntry == null)
+                    {
+                        typeEntry = EventJournalSegments.encodeType(typeId, eventType.getName());
+                    }
+                    openSegment(segment + 1, 8 + length + typeEntry.length);
+                }
+                if (typeEntry != null)
+                {
+                    put(typeEntry, typeEntry.length);
+                    typesInSegment.add(typeId);
+                }
+                put(payload, length);
+            }
+            catch (IOException e)
+            {
+                throw new EPException("Failed to append to event journal: " + e.getMessage(), e);
+            }
+
+            numAppended++;
+            if (++unsynced >= syncEvents)
+            {
+                force();
+            }
+        }
+    }
+
+    /**
+     * Continues the journal with a new segment, such as when a snapshot is taken.
+     * @param forSnapshot true to remember the new segment as the segment following the most recent snapshot
+     * @return number of the new segment
+     */
+    public long roll(boolean forSnapshot)
+    {
+        synchronized (lock)
+        {
+            try
+            {
+                openSegment(segment + 1, 0);
+            }
+            catch (IOException e)
+            {
+                throw new EPException("Failed to roll event journal: " + e.getMessage(), e);
+            }
+            if (forSnapshot)
+            {
+                snapshotSegment = segment;
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Deletes the segments preceding the segment that follows the most recent snapshot.
+     * @return number of deleted segments
+     */
+    public int purge()
+    {
+        long before;
+        synchronized (lock)
+        {
+            before = snapshotSegment;
+        }
+        int count = 0;
+        for (long existing : EventJournalSegments.list(directory))
+        {
+            if (existing < before && EventJournalSegments.file(directory, existing).delete())
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the segment that follows the most recent snapshot, or -1 when no snapshot was taken or restored.
+     * @return segment number
+     */
+    public long getSnapshotSegment()
+    {
+        synchronized (lock)
+        {
+            return snapshotSegment;
+        }
+    }
+
+    /**
+     * Sets the segment that follows the most recent snapshot, such as when a snapshot is restored.
+     * @param snapshotSegment segment number
+     */
+    public void setSnapshotSegment(long snapshotSegment)
+    {
+        synchronized (lock)
+        {
+            this.snapshotSegment = snapshotSegment;
+        }
+    }
+
+    /**
+     * Sets indicator whether appends are ignored, such as while events are replayed from the journal.
+     * @param suspended indicator
+     */
+    public void setSuspended(boolean suspended)
+    {
+        this.suspended = suspended;
+    }
+
+    /**
+     * Returns the number of the segment that events are currently appended to.
+     * @return segment number
+     */
+    public long getCurrentSegment()
+    {
+        synchronized (lock)
+        {
+            return segment;
+        }
+    }
+
+    /**
+     * Returns the journal directory.
+     * @return directory
+     */
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Returns the number of appended events.
+     * @return count
+     */
+    public long getNumAppended()
+    {
+        synchronized (lock)
+        {
+            return numAppended;
+        }
+    }
+
+    /**
+     * Returns the number of times changes were forced to storage.
+     * @return count
+     */
+    public long getNumSyncs()
+    {
+        synchronized (lock)
+        {
+            return numSyncs;
+        }
+    }
+
+    /**
+     * Forces changes to storage and closes the current segment.
+     */
+    public void destroy()
+    {
+        synchronized (lock)
+        {
+            if (destroyed)
+            {
+                return;
+            }
+            destroyed = true;
+            closeSegment();
+        }
+        if (syncThread != null)
+        {
+            syncThread.interrupt();
+        }
+    }
+
+    private boolean isJournaled(EventType eventType)
+    {
+        if (eventType.getName() != null && SnapshotWriter.isSupportedType(eventType))
+        {
+            return true;
+        }
+        synchronized (lock)
+        {
+            if (typesWarned.add(eventType.getEventTypeId()))
+            {
+                log.warn("Events of event type '" + eventType.getName() + "' are not journaled, the event journal supports Map, Object-array and JavaBean event types");
+            }
+        }
+        return false;
+    }
+
+    private void put(byte[] bytes, int length)
+    {
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.put(bytes, 0, length);
+        buffer.putInt(start, length);
+    }
+
+    private void force()
+    {
+        buffer.force();
+        unsynced = 0;
+        numSyncs++;
+    }
+
+    private void openSegment(long number, int minimumSize) throws IOException
+    {
+        closeSegment();
+        int size = Math.max(segmentSizeBytes, EventJournalSegments.HEADER_SIZE + minimumSize + 8);
+        File segmentFile = EventJournalSegments.file(directory, number);
+        file = new RandomAccessFile(segmentFile, "rw");
+        file.setLength(size);
+        buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(EventJournalSegments.MAGIC);
+        buffer.putInt(EventJournalSegments.VERSION);
+        buffer.putLong(number);
+        segment = number;
+        typesInSegment.clear();
+    }
+
+    private void closeSegment()
+    {
+        if (file == null)
+        {
+            return;
+        }
+        force();
+        try
+        {
+            file.close();
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to close event journal segment: " + e.getMessage(), e);
+        }
+        file = null;
+        buffer = null;
+    }
+
+    private static class Encoder
+    {
+        private final ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final SnapshotWriter values = new SnapshotWriter(out);
+
+        private byte[] encode(int typeId, long time, Object underlying) throws IOException
+        {
+            bytes.reset();
+            out.writeByte(EventJournalSegments.ENTRY_EVENT);
+            out.writeInt(typeId);
+            out.writeLong(time);
+            values.writeUnderlying(underlying);
+            out.flush();
+            return bytes.array();
+        }
+
+        private int size()
+        {
+            return bytes.size();
+        }
+    }
+
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream
+    {
+        private ExposedByteArrayOutputStream()
+        {
+            super(256);
+        }
+
+        private byte[] array()
+        {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.journal;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.core.snapshot.SnapshotReader;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads event journal segments and sends the journaled events into a runtime.
+ */
+public class EventJournalReader
+{
+    private static final Logger log = LoggerFactory.getLogger(EventJournalReader.class);
+
+    private final File directory;
+    private final EventAdapterService eventAdapterService;
+
+    /**
+     * Ctor.
+     * @param directory journal directory
+     * @param eventAdapterService for resolving event types by name
+     */
+    public EventJournalReader(File directory, EventAdapterService eventAdapterService)
+    {
+        this.directory = directory;
+        this.eventAdapterService = eventAdapterService;
+    }
+
+    /**
+     * Sends the events journaled in a range of segments into the runtime, in journal order.
+     * When the runtime uses external timer events, the time is advanced to the time of each journaled event before it is sent.
+     * @param fromSegment first segment number, inclusive
+     * @param toSegment last segment number, exclusive
+     * @param runtime to send events into
+     * @return number of events sent
+     * @throws EPException if a segment cannot be read or holds an event type that does not exist
+     */
+    public long replay(long fromSegment, long toSegment, EPRuntime runtime) throws EPException
+    {
+        long count = 0;
+        for (long number : EventJournalSegments.list(directory))
+        {
+            if (number < fromSegment || number >= toSegment)
+            {
+                continue;
+            }
+            try
+            {
+                count += replaySegment(number, runtime);
+            }
+            catch (IOException e)
+            {
+                throw new EPException("Failed to read event journal segment " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return count;
+    }
+
+    private long replaySegment(long number, EPRuntime runtime) throws IOException
+    {
+        MappedByteBuffer buffer;
+        RandomAccessFile file = new RandomAccessFile(EventJournalSegments.file(directory, number), "r");
+        try
+        {
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        }
+        finally
+        {
+            file.close();
+        }
+
+        if (buffer.limit() < EventJournalSegments.HEADER_SIZE || buffer.getInt() != EventJournalSegments.MAGIC)
+        {
+            throw new EPException("File for event journal segment " + number + " is not a journal segment");
+        }
+        int version = buffer.getInt();
+        if (version != EventJournalSegments.VERSION)
+        {
+            throw new EPException("Event journal segment " + number + " has unsupported version " + version);
+        }
+        buffer.getLong();
+
+        Map<Integer, EventType> types = new HashMap<Integer, EventType>();
+        long count = 0;
+        while (buffer.remaining() >= 4)
+        {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining())
+            {
+                if (length != 0)
+                {
+                    log.warn("Event journal segment " + number + " ends with an incomplete entry");
+                }
+                break;
+            }
+            byte[] entry = new byte[length];
+            buffer.get(entry);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+            byte kind = in.readByte();
+            int typeId = in.readInt();
+            if (kind == EventJournalSegments.ENTRY_TYPE)
+            {
+                String name = in.readUTF();
+                EventType type = eventAdapterService.getExistsTypeByName(name);
+                if (type == null)
+                {
+                    throw new EPException("Event journal holds events of type '" + name + "' but an event type by that name does not exist");
+                }
+                types.put(typeId, type);
+                continue;
+            }
+
+            EventType type = types.get(typeId);
+            if (type == null)
+            {
+                throw new EPException("Event journal segment " + number + " holds an event without a preceding type entry");
+            }
+            long time = in.readLong();
+            Object underlying = new SnapshotReader(in, eventAdapterService).readUnderlying(type);
+            if (runtime.isExternalClockingEnabled() && time > runtime.getCurrentTime())
+            {
+                runtime.sendEvent(new CurrentTimeSpanEvent(time));
+            }
+            send(runtime, type, underlying);
+            count++;
+        }
+        return count;
+    }
+
+    private static void send(EPRuntime runtime, EventType type, Object underlying)
+    {
+        if (type instanceof MapEventType)
+        {
+            runtime.sendEvent((Map) underlying, type.getName());
+        }
+        else if (type instanceof ObjectArrayEventType)
+        {
+            runtime.sendEvent((Object[]) underlying, type.getName());
+        }
+        else
+        {
+            runtime.sendEvent(underlying);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Constants and file naming shared by event journal writer and reader.
+ * <p>
+ * A segment starts with a magic number, a format version and the segment number followed by entries.
+ */
+public class EventJournalSegments
+{
+    /**
+     * Magic number that starts a segment.
+     */
+    public final static int MAGIC = 0x454A4E4C;
+
+    /**
+     * Current format version.
+     */
+    public final static int VERSION = 1;
+
+    /**
+     * Size of the segment header in bytes.
+     */
+    public final static int HEADER_SIZE = 16;
+
+    final static byte ENTRY_TYPE = 1;
+    final static byte ENTRY_EVENT = 2;
+
+    private final static String PREFIX = "segment-";
+    private final static String SUFFIX = ".journal";
+
+    /**
+     * Returns the numbers of the segments in a directory, in ascending order.
+     * @param directory journal directory
+     * @return segment numbers
+     */
+    public static long[] list(File directory)
+    {
+        String[] names = directory.list();
+        if (names == null)
+        {
+            return new long[0];
+        }
+        List<Long> numbers = new ArrayList<Long>();
+        for (String name : names)
+        {
+            if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX))
+            {
+                continue;
+            }
+            try
+            {
+                numbers.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            }
+            catch (NumberFormatException ex)
+            {
+                // not a segment file
+            }
+        }
+        long[] result = new long[numbers.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = numbers.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Returns the file of a segment.
+     * @param directory journal directory
+     * @param number segment number
+     * @return file
+     */
+    public static File file(File directory, long number)
+    {
+        return new File(directory, PREFIX + String.format("%020d", number) + SUFFIX);
+    }
+
+    static byte[] encodeType(int typeId, String name)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try
+        {
+            out.writeByte(ENTRY_TYPE);
+            out.writeInt(typeId);
+            out.writeUTF(name);
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Failed to encode type entry: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+}
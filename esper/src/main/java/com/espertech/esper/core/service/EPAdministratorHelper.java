@@ -13,6 +13,7 @@ import com.espertech.esper.epl.parse.ASTUtil;
 import com.espertech.esper.client.ConfigurationInformation;
 import com.espertech.esper.client.EPStatementException;
 import com.espertech.esper.client.EPStatementSyntaxException;
+import com.espertech.esper.core.compilecache.StatementCompileCache;
 import com.espertech.esper.core.context.mgr.ContextManagementService;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.declexpr.ExprDeclaredService;
@@ -59,7 +60,7 @@ public class EPAdministratorHelper
     }
 
     /**
-     * Compile an EPL statement.
+     * Compile an EPL statement, using the compiled statement cache when enabled.
      * @param eplStatement to compile
      * @param eplStatementForErrorMsg the statement to use for indicating error messages
      * @param addPleaseCheck true to add please-check message text
@@ -69,8 +70,23 @@ public class EPAdministratorHelper
      * @return compiled statement
      */
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector) {
-        return compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector,
+        StatementCompileCache cache = services.getStatementCompileCache();
+        String key = null;
+        if (cache != null) {
+            key = cache.getKey(eplStatement, defaultStreamSelector, services);
+            StatementSpecRaw cached = cache.get(key, eplStatement, services);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        StatementSpecRaw raw = compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector,
                 services.getEngineImportService(), services.getVariableService(), services.getSchedulingService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService());
+
+        if (cache != null) {
+            cache.put(key, eplStatement, raw, services);
+        }
+        return raw;
     }
 
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, SelectClauseStreamSelectorEnum defaultStreamSelector,
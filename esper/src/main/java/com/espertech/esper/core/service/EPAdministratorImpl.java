@@ -10,6 +10,7 @@ package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.ConfigurationOperations;
 import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPDataSnapshotAdmin;
 import com.espertech.esper.client.EPPreparedStatement;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.context.EPContextPartitionAdmin;
@@ -33,6 +34,7 @@ public class EPAdministratorImpl implements EPAdministratorSPI
     private ConfigurationOperations configurationOperations;
     private SelectClauseStreamSelectorEnum defaultStreamSelector;
     private EPDeploymentAdmin deploymentAdminService;
+    private EPRuntimeSPI runtimeSPI;
 
     /**
      * Constructor - takes the services context as argument.
@@ -43,9 +45,10 @@ public class EPAdministratorImpl implements EPAdministratorSPI
         this.services = adminContext.getServices();
         this.configurationOperations = adminContext.getConfigurationOperations();
         this.defaultStreamSelector = adminContext.getDefaultStreamSelector();
+        this.runtimeSPI = adminContext.getRuntimeSPI();
 
         this.deploymentAdminService = new EPDeploymentAdminImpl(this, adminContext.getServices().getDeploymentStateService(), adminContext.getServices().getStatementEventTypeRefService(), adminContext.getServices().getEventAdapterService(), adminContext.getServices().getStatementIsolationService(), adminContext.getServices().getFilterService(),
-                services.getConfigSnapshot().getEngineDefaults().getExpression().getTimeZone(), services.getConfigSnapshot().getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy());
+                services.getConfigSnapshot().getEngineDefaults().getExpression().getTimeZone(), services.getConfigSnapshot().getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy(), services.getStatementCompileCache());
     }
 
     public EPDeploymentAdmin getDeploymentAdmin()
@@ -326,5 +329,9 @@ public class EPAdministratorImpl implements EPAdministratorSPI
         return new EPContextPartitionAdminImpl(services);
     }
 
+    public EPDataSnapshotAdmin getDataSnapshotAdmin() {
+        return new EPDataSnapshotAdminImpl(services, runtimeSPI);
+    }
+
     private static Logger log = LoggerFactory.getLogger(EPAdministratorImpl.class);
 }
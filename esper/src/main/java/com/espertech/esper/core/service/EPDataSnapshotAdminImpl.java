@@ -0,0 +1,422 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EPDataSnapshotAdmin;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.journal.EventJournal;
+import com.espertech.esper.core.journal.EventJournalReader;
+import com.espertech.esper.core.journal.EventJournalSegments;
+import com.espertech.esper.core.snapshot.SnapshotReader;
+import com.espertech.esper.core.snapshot.SnapshotWriter;
+import com.espertech.esper.epl.agg.access.AggregationState;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.service.AggregationRowPair;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
+import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
+import com.espertech.esper.epl.table.mgmt.TableStateInstanceUngrouped;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.util.ManagedReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for snapshot and restore of named window and table data, and for replay of the event journal.
+ */
+public class EPDataSnapshotAdminImpl implements EPDataSnapshotAdmin
+{
+    private static final Logger log = LoggerFactory.getLogger(EPDataSnapshotAdminImpl.class);
+
+    private final EPServicesContext services;
+    private final EPRuntimeSPI runtime;
+
+    /**
+     * Ctor.
+     * @param services engine services
+     * @param runtime runtime for replay of the event journal
+     */
+    public EPDataSnapshotAdminImpl(EPServicesContext services, EPRuntimeSPI runtime)
+    {
+        this.services = services;
+        this.runtime = runtime;
+    }
+
+    public void snapshot(WritableByteChannel channel) throws EPException
+    {
+        long start = System.nanoTime();
+        ManagedReadWriteLock unitLock = acquireUnitLock();
+        try
+        {
+            snapshotInternal(channel);
+        }
+        finally
+        {
+            if (unitLock != null)
+            {
+                unitLock.releaseWriteLock();
+            }
+        }
+        if (log.isDebugEnabled())
+        {
+            log.debug("Snapshot written in " + (System.nanoTime() - start) / 1000000 + " msec");
+        }
+    }
+
+    private void snapshotInternal(WritableByteChannel channel) throws EPException
+    {
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try
+        {
+            // events arriving after the snapshot go to a new journal segment
+            EventJournal journal = services.getEventJournal();
+            long journalSegment = journal == null ? -1 : journal.roll(true);
+            SnapshotWriter writer = new SnapshotWriter(channel, journalSegment);
+            for (String namedWindowName : services.getNamedWindowMgmtService().getNamedWindows())
+            {
+                NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(namedWindowName);
+                if (processor == null || processor.isVirtualDataWindow())
+                {
+                    continue;
+                }
+                if (!SnapshotWriter.isSupportedType(processor.getNamedWindowType()))
+                {
+                    throw new EPException("Named window '" + namedWindowName + "' holds events of type '" + processor.getNamedWindowType().getName() + "' which is not supported for snapshot, supported are Map, Object-array and JavaBean event types");
+                }
+                if (processor.getContextName() == null)
+                {
+                    snapshotNamedWindow(writer, namedWindowName, -1, processor.getProcessorInstanceNoContext());
+                }
+                else
+                {
+                    for (Integer agentInstanceId : new ArrayList<Integer>(processor.getProcessorInstancesAll()))
+                    {
+                        snapshotNamedWindow(writer, namedWindowName, agentInstanceId, processor.getProcessorInstance(agentInstanceId));
+                    }
+                }
+            }
+
+            for (String tableName : services.getTableService().getTables())
+            {
+                TableMetadata metadata = services.getTableService().getTableMetadata(tableName);
+                if (metadata == null)
+                {
+                    continue;
+                }
+                for (Integer agentInstanceId : new ArrayList<Integer>(metadata.getAgentInstanceIds()))
+                {
+                    snapshotTable(writer, metadata, agentInstanceId);
+                }
+            }
+            writer.finish();
+        }
+        catch (IOException e)
+        {
+            throw new EPException("Failed to write snapshot: " + e.getMessage(), e);
+        }
+        finally
+        {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+    }
+
+    public void restore(ReadableByteChannel channel) throws EPException
+    {
+        long start = System.nanoTime();
+        ManagedReadWriteLock unitLock = acquireUnitLock();
+        try
+        {
+            restoreInternal(channel);
+        }
+        finally
+        {
+            if (unitLock != null)
+            {
+                unitLock.releaseWriteLock();
+            }
+        }
+        if (log.isDebugEnabled())
+        {
+            log.debug("Snapshot restored in " + (System.nanoTime() - start) / 1000000 + " msec");
+        }
+    }
+
+    private void restoreInternal(ReadableByteChannel channel) throws EPException
+    {
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try
+        {
+            SnapshotReader reader = new SnapshotReader(channel, services.getEventAdapterService());
+            while (reader.next())
+            {
+                if (reader.isNamedWindow())
+                {
+                    restoreNamedWindow(reader);
+                }
+                else
+                {
+                    restoreTable(reader);
+                }
+            }
+            if (services.getEventJournal() != null && reader.getJournalSegment() != -1)
+            {
+                services.getEventJournal().setSnapshotSegment(reader.getJournalSegment());
+            }
+        }
+        catch (IOException e)
+        {
+            throw new EPException("Failed to read snapshot: " + e.getMessage(), e);
+        }
+        finally
+        {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+
+        // deliver restored named window events to consumers
+        services.getInternalEventEngineRouteDest().processThreadWorkQueue();
+    }
+
+    public long replayJournal() throws EPException
+    {
+        EventJournal journal = getJournal();
+        long from = journal.getSnapshotSegment();
+        if (from == -1)
+        {
+            long[] segments = EventJournalSegments.list(journal.getDirectory());
+            from = segments.length == 0 ? 0 : segments[0];
+        }
+
+        long start = System.nanoTime();
+        EventJournalReader reader = new EventJournalReader(journal.getDirectory(), services.getEventAdapterService());
+        long count;
+        journal.setSuspended(true);
+        try
+        {
+            count = reader.replay(from, journal.getCurrentSegment(), runtime);
+        }
+        finally
+        {
+            journal.setSuspended(false);
+        }
+        if (log.isDebugEnabled())
+        {
+            log.debug("Replayed " + count + " journaled events in " + (System.nanoTime() - start) / 1000000 + " msec");
+        }
+        return count;
+    }
+
+    public int purgeJournal() throws EPException
+    {
+        return getJournal().purge();
+    }
+
+    private ManagedReadWriteLock acquireUnitLock()
+    {
+        ManagedReadWriteLock unitLock = services.getEventUnitRWLock();
+        if (unitLock == null)
+        {
+            return null;
+        }
+        // waiting for the events in process to complete would wait for this thread
+        if (unitLock.getLock().getReadHoldCount() > 0)
+        {
+            throw new EPException("A snapshot cannot be taken or restored by a thread that is processing an event, such as by a listener or subscriber, when the event journal is enabled");
+        }
+        unitLock.acquireWriteLock();
+        return unitLock;
+    }
+
+    private EventJournal getJournal()
+    {
+        EventJournal journal = services.getEventJournal();
+        if (journal == null)
+        {
+            throw new EPException("Event journal is not enabled, enable the event journal by configuration");
+        }
+        return journal;
+    }
+
+    private void snapshotNamedWindow(SnapshotWriter writer, String namedWindowName, int agentInstanceId, NamedWindowProcessorInstance instance) throws IOException
+    {
+        if (instance == null)
+        {
+            return;
+        }
+        List<EventBean> events = new ArrayList<EventBean>();
+        for (EventBean event : instance.getTailViewInstance())
+        {
+            events.add(event);
+        }
+        writer.beginNamedWindow(namedWindowName, agentInstanceId, events.size());
+        for (EventBean event : events)
+        {
+            writer.writeUnderlying(event.getUnderlying());
+        }
+    }
+
+    private void snapshotTable(SnapshotWriter writer, TableMetadata metadata, int agentInstanceId) throws IOException
+    {
+        TableStateInstance state = metadata.getState(agentInstanceId);
+        if (state == null)
+        {
+            return;
+        }
+        state.getTableLevelRWLock().readLock().lock();
+        try
+        {
+            Collection<EventBean> rows = state.getEventCollection();
+            int numColumns = metadata.getInternalEventType().getPropertyDescriptors().length;
+            writer.beginTable(metadata.getTableName(), agentInstanceId, rows.size());
+            writer.writeInt(numColumns);
+            for (EventBean row : rows)
+            {
+                Object[] data = ((ObjectArrayBackedEventBean) row).getProperties();
+                for (int i = 1; i < numColumns; i++)
+                {
+                    writer.writeValue(data[i]);
+                }
+                AggregationRowPair aggs = (AggregationRowPair) data[0];
+                writer.writeInt(aggs.getMethods().length);
+                for (AggregationMethod method : aggs.getMethods())
+                {
+                    writer.writeObject(method);
+                }
+                writer.writeInt(aggs.getStates().length);
+                for (AggregationState aggState : aggs.getStates())
+                {
+                    writer.writeObject(aggState);
+                }
+            }
+        }
+        finally
+        {
+            state.getTableLevelRWLock().readLock().unlock();
+        }
+    }
+
+    private void restoreNamedWindow(SnapshotReader reader) throws IOException
+    {
+        String namedWindowName = reader.getSectionName();
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(namedWindowName);
+        if (processor == null)
+        {
+            throw new EPException("Snapshot holds named window '" + namedWindowName + "' but a named window by that name does not exist");
+        }
+        NamedWindowProcessorInstance instance = processor.getContextName() == null ?
+                processor.getProcessorInstanceNoContext() :
+                processor.getProcessorInstance(reader.getAgentInstanceId());
+        if (instance == null)
+        {
+            throw new EPException("Snapshot holds context partition " + reader.getAgentInstanceId() + " of named window '" + namedWindowName + "' but the context partition does not exist");
+        }
+
+        EventType eventType = processor.getNamedWindowType();
+        EventBean[] events = new EventBean[reader.getNumRows()];
+        for (int i = 0; i < events.length; i++)
+        {
+            events[i] = services.getEventAdapterService().adapterForType(reader.readUnderlying(eventType), eventType);
+        }
+        if (events.length == 0)
+        {
+            return;
+        }
+
+        StatementAgentInstanceLock lock = instance.getTailViewInstance().getAgentInstanceContext().getAgentInstanceLock();
+        lock.acquireWriteLock();
+        try
+        {
+            instance.getRootViewInstance().update(events, null);
+        }
+        finally
+        {
+            lock.releaseWriteLock();
+        }
+    }
+
+    private void restoreTable(SnapshotReader reader) throws IOException
+    {
+        String tableName = reader.getSectionName();
+        TableMetadata metadata = services.getTableService().getTableMetadata(tableName);
+        if (metadata == null)
+        {
+            throw new EPException("Snapshot holds table '" + tableName + "' but a table by that name does not exist");
+        }
+        TableStateInstance state = metadata.getState(reader.getAgentInstanceId());
+        if (state == null)
+        {
+            throw new EPException("Snapshot holds context partition " + reader.getAgentInstanceId() + " of table '" + tableName + "' but the context partition does not exist");
+        }
+        int numColumns = metadata.getInternalEventType().getPropertyDescriptors().length;
+        if (reader.readInt() != numColumns)
+        {
+            throw new EPException("Snapshot holds a different number of columns for table '" + tableName + "' than the table declares");
+        }
+
+        state.getTableLevelRWLock().writeLock().lock();
+        try
+        {
+            for (int row = 0; row < reader.getNumRows(); row++)
+            {
+                Object[] data = new Object[numColumns];
+                for (int i = 1; i < numColumns; i++)
+                {
+                    data[i] = reader.readValue();
+                }
+
+                ObjectArrayBackedEventBean existing;
+                if (metadata.getTableRowKeyFactory() == null)
+                {
+                    existing = ((TableStateInstanceUngrouped) state).getEventUngrouped();
+                }
+                else
+                {
+                    existing = ((TableStateInstanceGrouped) state).getRowForGroupKey(metadata.getTableRowKeyFactory().getTableRowKey(data));
+                }
+                if (existing != null)
+                {
+                    state.deleteEvent(existing);
+                }
+
+                EventBean event = services.getEventAdapterService().adapterForTypedObjectArray(data, metadata.getInternalEventType());
+                state.addEventUnadorned(event);
+
+                AggregationRowPair aggs = (AggregationRowPair) data[0];
+                restoreAggregations(reader, tableName, aggs.getMethods());
+                restoreAggregations(reader, tableName, aggs.getStates());
+            }
+        }
+        finally
+        {
+            state.getTableLevelRWLock().writeLock().unlock();
+        }
+    }
+
+    private void restoreAggregations(SnapshotReader reader, String tableName, Object[] aggregations) throws IOException
+    {
+        if (reader.readInt() != aggregations.length)
+        {
+            throw new EPException("Snapshot holds a different number of aggregations for table '" + tableName + "' than the table declares");
+        }
+        for (Object aggregation : aggregations)
+        {
+            reader.readObjectInto(aggregation);
+        }
+    }
+}
@@ -26,8 +26,10 @@ import com.espertech.esper.collection.ThreadWorkQueue;
 import com.espertech.esper.core.context.mgr.ContextManager;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandleComparator;
+import com.espertech.esper.core.journal.EventJournal;
 import com.espertech.esper.core.start.*;
 import com.espertech.esper.core.thread.*;
+import com.espertech.esper.dispatch.DispatchService;
 import com.espertech.esper.epl.annotation.AnnotationUtil;
 import com.espertech.esper.epl.declexpr.ExprDeclaredNode;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -35,6 +37,7 @@ import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
 import com.espertech.esper.epl.expression.visitor.ExprNodeSubselectDeclaredDotVisitor;
 import com.espertech.esper.epl.metric.MetricReportingPath;
+import com.espertech.esper.epl.named.NamedWindowDispatchService;
 import com.espertech.esper.epl.script.AgentInstanceScriptContext;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.epl.spec.util.StatementSpecRawAnalyzer;
@@ -42,6 +45,8 @@ import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.variable.VariableMetaData;
 import com.espertech.esper.epl.variable.VariableReader;
 import com.espertech.esper.epl.variable.VariableService;
+import com.espertech.esper.event.EventAdapterServiceHelper;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
 import com.espertech.esper.event.util.EventRendererImpl;
 import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
@@ -50,6 +55,7 @@ import com.espertech.esper.metrics.jmx.JmxGetter;
 import com.espertech.esper.schedule.*;
 import com.espertech.esper.timer.TimerCallback;
 import com.espertech.esper.util.ExecutionPathDebugLog;
+import com.espertech.esper.util.ManagedReadWriteLock;
 import com.espertech.esper.util.MetricUtil;
 import com.espertech.esper.util.ThreadLogUtil;
 import com.espertech.esper.util.UuidGenerator;
@@ -312,6 +318,97 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(List<?> events) throws EPException
+    {
+        if (events == null)
+        {
+            throw new IllegalArgumentException("Invalid null event list");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEvents Processing batch of " + events.size() + " events");
+        }
+
+        if (!isBatchProcessing())
+        {
+            for (Object theEvent : events)
+            {
+                sendEvent(theEvent);
+            }
+            return;
+        }
+
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            if (theEvent == null)
+            {
+                log.error(".sendEvents Null object supplied");
+                continue;
+            }
+
+            if (theEvent instanceof TimerEvent)
+            {
+                // events preceding the time event are processed at the current time
+                processWrappedEventBatch(eventBeans, count);
+                count = 0;
+                processTimeEvent((TimerEvent) theEvent);
+                continue;
+            }
+
+            if (theEvent instanceof EventBean)
+            {
+                eventBeans[count++] = (EventBean) theEvent;
+            }
+            else
+            {
+                eventBeans[count++] = wrapEvent(theEvent);
+            }
+        }
+        processWrappedEventBatch(eventBeans, count);
+    }
+
+    public void sendEvents(Object[][] rows, String objectArrayEventTypeName) throws EPException
+    {
+        if (rows == null)
+        {
+            throw new IllegalArgumentException("Invalid null event array");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()))
+        {
+            log.debug(".sendEvents Processing batch of " + rows.length + " events");
+        }
+
+        if (!isBatchProcessing())
+        {
+            for (Object[] row : rows)
+            {
+                sendEvent(row, objectArrayEventTypeName);
+            }
+            return;
+        }
+
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(objectArrayEventTypeName);
+        if (!(eventType instanceof ObjectArrayEventType))
+        {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(objectArrayEventTypeName, eventType, "Object-array"));
+        }
+
+        EventBean[] eventBeans = new EventBean[rows.length];
+        for (int i = 0; i < rows.length; i++)
+        {
+            if (rows[i] == null)
+            {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[i] = services.getEventAdapterService().adapterForTypedObjectArray(rows[i], eventType);
+        }
+        processWrappedEventBatch(eventBeans, eventBeans.length);
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -466,6 +563,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());}
 
+        EventBean sentEvent = eventBean;
         if (internalEventRouter.isHasPreprocessing())
         {
             eventBean = internalEventRouter.preprocess(eventBean, engineFilterAndDispatchTimeContext);
@@ -475,32 +573,200 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
         }
 
-        // Acquire main processing lock which locks out statement management
-        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);}
+        // When journaling, acquire the unit lock so that a snapshot sees the event either with all events it routes or inserts, or not at all
+        ManagedReadWriteLock unitLock = services.getEventUnitRWLock();
+        if (unitLock != null)
+        {
+            unitLock.acquireReadLock();
+        }
+        try
+        {
+            // Acquire main processing lock which locks out statement management
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);}
+            services.getEventProcessingRWLock().acquireReadLock();
+            try
+            {
+                EventJournal eventJournal = services.getEventJournal();
+                if (eventJournal != null)
+                {
+                    eventJournal.append(sentEvent, services.getSchedulingService().getTime());
+                }
+                processMatches(eventBean);
+            }
+            catch (RuntimeException ex)
+            {
+                matchesArrayThreadLocal.get().clear();
+                throw new EPException(ex);
+            }
+            finally
+            {
+                services.getEventProcessingRWLock().releaseReadLock();
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEvent();}
+            }
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into
+            processThreadWorkQueue();
+        }
+        finally
+        {
+            if (unitLock != null)
+            {
+                unitLock.releaseReadLock();
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
+    }
+
+    /**
+     * Process a batch of wrapped events in batch order.
+     * <p>
+     * Each event is matched and processed in turn, same as {@link #processWrappedEvent(EventBean)} would.
+     * The engine processing lock is held across events and released only when results must be dispatched
+     * or the thread work queue must be worked off. When consecutive events match only the same statement
+     * the statement lock stays acquired between these events.
+     * @param events to process
+     * @param count number of events in the array to process
+     */
+    protected void processWrappedEventBatch(EventBean[] events, int count)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+
+        // when journaling, a snapshot sees each event of the batch either with all events it routes or inserts, or not at all
+        ManagedReadWriteLock unitLock = services.getEventUnitRWLock();
+        if (unitLock == null)
+        {
+            processWrappedEventBatchUnit(events, count);
+            return;
+        }
+        unitLock.acquireReadLock();
+        try
+        {
+            processWrappedEventBatchUnit(events, count);
+        }
+        finally
+        {
+            unitLock.releaseReadLock();
+        }
+    }
+
+    private void processWrappedEventBatchUnit(EventBean[] events, int count)
+    {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        DispatchService dispatchService = services.getDispatchService();
+        NamedWindowDispatchService namedWindowDispatchService = services.getNamedWindowDispatchService();
+        EPStatementAgentInstanceHandle lockedHandle = null;
+
+        EventJournal eventJournal = services.getEventJournal();
         services.getEventProcessingRWLock().acquireReadLock();
         try
         {
-            processMatches(eventBean);
+            for (int i = 0; i < count; i++)
+            {
+                EventBean theEvent = events[i];
+                if (eventJournal != null)
+                {
+                    eventJournal.append(theEvent, services.getSchedulingService().getTime());
+                }
+                long version = evaluateFilters(theEvent, matches);
+
+                EPStatementHandleCallback single = null;
+                if (matches.size() == 1)
+                {
+                    EPStatementHandleCallback handleCallback = (EPStatementHandleCallback) matches.getArray()[0];
+                    EPStatementAgentInstanceHandle handle = handleCallback.getAgentInstanceHandle();
+                    if (!handle.isCanSelfJoin() && !handle.isHasTableAccess())
+                    {
+                        single = handleCallback;
+                    }
+                }
+
+                if (single != null)
+                {
+                    matches.clear();
+                    EPStatementAgentInstanceHandle handle = single.getAgentInstanceHandle();
+                    if (lockedHandle != handle)
+                    {
+                        if (lockedHandle != null)
+                        {
+                            lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+                            lockedHandle = null;
+                        }
+                        handle.getStatementAgentInstanceLock().acquireWriteLock();
+                        lockedHandle = handle;
+                    }
+                    processStatementFilterSingleLocked(handle, single, theEvent, version);
+                }
+                else
+                {
+                    if (lockedHandle != null)
+                    {
+                        lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+                        lockedHandle = null;
+                    }
+                    processMatches(theEvent, matches, version);
+                }
+
+                // Dispatch and work off routed events outside of the locks, before the next event is processed
+                if (dispatchService.isDispatchWaiting() || namedWindowDispatchService.isDispatchWaiting() ||
+                    !queues.getFrontQueue().isEmpty() || !queues.getBackQueue().isEmpty())
+                {
+                    if (lockedHandle != null)
+                    {
+                        lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+                        lockedHandle = null;
+                    }
+                    services.getEventProcessingRWLock().releaseReadLock();
+                    try
+                    {
+                        dispatch();
+                        processThreadWorkQueue();
+                    }
+                    finally
+                    {
+                        services.getEventProcessingRWLock().acquireReadLock();
+                    }
+                }
+            }
         }
         catch (RuntimeException ex)
         {
-            matchesArrayThreadLocal.get().clear();
+            matches.clear();
+            if (ex instanceof EPException)
+            {
+                throw ex;
+            }
             throw new EPException(ex);
         }
         finally
         {
+            if (lockedHandle != null)
+            {
+                lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+            }
             services.getEventProcessingRWLock().releaseReadLock();
-            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEvent();}
         }
 
-        // Dispatch results to listeners
-        // Done outside of the read-lock to prevent lockups when listeners create statements
         dispatch();
-
-        // Work off the event queue if any events accumulated in there via a route() or insert-into
         processThreadWorkQueue();
+    }
 
-        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
+    private boolean isBatchProcessing()
+    {
+        if ((ThreadingOption.isThreadingEnabled) &&
+            (services.getThreadingService().isInboundThreading() || services.getThreadingService().isRouteThreading() || services.getThreadingService().isContextPartitionThreading()))
+        {
+            return false;
+        }
+        return !isPrioritized && !internalEventRouter.isHasPreprocessing() && !MetricReportingPath.isMetricsEnabled && !InstrumentationHelper.ENABLED;
     }
 
     private void processTimeEvent(TimerEvent theEvent)
@@ -869,6 +1135,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // wait for the latch to complete
         EventBean eventBean = insertIntoLatch.await();
 
+        long wallTimeBefore = MetricReportingPath.isMetricsEnabled ? MetricUtil.getWall() : 0;
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), false);}
         services.getEventProcessingRWLock().acquireReadLock();
         try
@@ -888,6 +1155,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         dispatch();
+
+        if (MetricReportingPath.isMetricsEnabled)
+        {
+            services.getMetricsReportingService().accountRouteTime(eventBean.getEventType(), MetricUtil.getWall() - wallTimeBefore);
+        }
     }
 
     private void processThreadWorkQueueLatchedSpin(InsertIntoLatchSpin insertIntoLatch)
@@ -895,6 +1167,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // wait for the latch to complete
         EventBean eventBean = insertIntoLatch.await();
 
+        long wallTimeBefore = MetricReportingPath.isMetricsEnabled ? MetricUtil.getWall() : 0;
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), false);}
         services.getEventProcessingRWLock().acquireReadLock();
         try
@@ -914,6 +1187,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         dispatch();
+
+        if (MetricReportingPath.isMetricsEnabled)
+        {
+            services.getMetricsReportingService().accountRouteTime(eventBean.getEventType(), MetricUtil.getWall() - wallTimeBefore);
+        }
     }
 
     private void processThreadWorkQueueUnlatched(Object item)
@@ -928,6 +1206,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             eventBean = services.getEventAdapterService().adapterForBean(item);
         }
 
+        long wallTimeBefore = MetricReportingPath.isMetricsEnabled ? MetricUtil.getWall() : 0;
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), false);}
         services.getEventProcessingRWLock().acquireReadLock();
         try
@@ -946,14 +1225,35 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         dispatch();
+
+        if (MetricReportingPath.isMetricsEnabled)
+        {
+            services.getMetricsReportingService().accountRouteTime(eventBean.getEventType(), MetricUtil.getWall() - wallTimeBefore);
+        }
     }
 
     protected void processMatches(EventBean theEvent)
     {
         // get matching filters
         ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        long version = evaluateFilters(theEvent, matches);
+        processMatches(theEvent, matches, version);
+    }
+
+    private long evaluateFilters(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches)
+    {
+        if (!MetricReportingPath.isMetricsEnabled)
+        {
+            return services.getFilterService().evaluate(theEvent, matches);
+        }
+        long wallTimeBefore = MetricUtil.getWall();
         long version = services.getFilterService().evaluate(theEvent, matches);
+        services.getMetricsReportingService().accountFilterTime(theEvent.getEventType(), MetricUtil.getWall() - wallTimeBefore);
+        return version;
+    }
 
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, long version)
+    {
         if (ThreadLogUtil.ENABLED_TRACE)
         {
             ThreadLogUtil.trace("Found matches for underlying ", matches.size(), theEvent.getUnderlying());
@@ -1023,7 +1323,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
+                if ((ThreadingOption.isThreadingEnabled) && (handle.getContextPartitionThreadIndex() != -1))
+                {
+                    services.getThreadingService().submitContextPartition(handle.getContextPartitionThreadIndex(), new RouteUnitSingle(this, handleCallback, theEvent, version));
+                }
+                else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
                 {
                     services.getThreadingService().submitRoute(new RouteUnitSingle(this, handleCallback, theEvent, version));
                 }
@@ -1063,7 +1367,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             }
             else
             {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
+                if ((ThreadingOption.isThreadingEnabled) && (handle.getContextPartitionThreadIndex() != -1))
+                {
+                    services.getThreadingService().submitContextPartition(handle.getContextPartitionThreadIndex(), new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+                }
+                else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading()))
                 {
                     services.getThreadingService().submitRoute(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
                 }
@@ -1227,6 +1535,22 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEventCP(theEvent, handle, services.getSchedulingService().getTime());}
         handle.getStatementAgentInstanceLock().acquireWriteLock();
+        try
+        {
+            processStatementFilterSingleLocked(handle, handleCallback, theEvent, version);
+        }
+        finally
+        {
+            if (handle.isHasTableAccess()) {
+                services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
+            }
+            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEventCP();}
+        }
+    }
+
+    private void processStatementFilterSingleLocked(EPStatementAgentInstanceHandle handle, EPStatementHandleCallback handleCallback, EventBean theEvent, long version)
+    {
         try
         {
             if (handle.isHasVariables())
@@ -1252,14 +1576,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         catch (RuntimeException ex) {
             services.getExceptionHandlingService().handleException(ex, handle, ExceptionHandlerExceptionType.PROCESS, theEvent);
         }
-        finally
-        {
-            if (handle.isHasTableAccess()) {
-                services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
-            }
-            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
-            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEventCP();}
-        }
     }
 
     protected void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent) {
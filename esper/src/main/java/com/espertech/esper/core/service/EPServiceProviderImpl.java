@@ -35,7 +35,7 @@ import com.espertech.esper.timer.TimerCallback;
 import com.espertech.esper.timer.TimerService;
 import com.espertech.esper.util.AuditPath;
 import com.espertech.esper.util.ExecutionPathDebugLog;
-import com.espertech.esper.util.SerializableObjectCopier;
+import com.espertech.esper.util.StructuralObjectCopier;
 import com.espertech.esper.util.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -431,7 +431,8 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolTimerExec() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolInbound() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolRouteExec() ||
-                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound());
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound() ||
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolContextPartition());
         
         if (engine != null)
         {
@@ -691,12 +692,15 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
         CommonJMXUtil.registerMbean(services.getSchedulingService(), scheduleName);
         MetricName runtimeName = MetricNameFactory.name(services.getEngineURI(), "runtime");
         CommonJMXUtil.registerMbean(runtime, runtimeName);
+        MetricName latencyName = MetricNameFactory.name(services.getEngineURI(), "latency");
+        CommonJMXUtil.registerMbean(services.getMetricsReportingService().getLatencyMetricRepository(), latencyName);
     }
 
     private synchronized void destroyEngineMetrics(String engineURI) {
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "filter"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "schedule"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "runtime"));
+        CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "latency"));
     }
 
     /**
@@ -804,7 +808,7 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
                 }
             }
 
-            Configuration copy = (Configuration) SerializableObjectCopier.copy(configuration);
+            Configuration copy = (Configuration) StructuralObjectCopier.copy(configuration);
             copy.setTransientConfiguration(configuration.getTransientConfiguration());
 
             // Restore variable with initial values
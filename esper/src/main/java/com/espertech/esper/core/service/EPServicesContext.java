@@ -10,6 +10,8 @@ package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.ConfigurationInformation;
 import com.espertech.esper.core.context.activator.ViewableActivatorFactory;
+import com.espertech.esper.core.compilecache.StatementCompileCache;
+import com.espertech.esper.core.journal.EventJournal;
 import com.espertech.esper.core.context.mgr.ContextControllerFactoryFactorySvc;
 import com.espertech.esper.core.context.mgr.ContextManagementService;
 import com.espertech.esper.core.context.mgr.ContextManagerFactoryService;
@@ -41,6 +43,7 @@ import com.espertech.esper.filter.FilterBooleanExpressionFactory;
 import com.espertech.esper.filter.FilterNonPropertyRegisteryService;
 import com.espertech.esper.filter.FilterServiceSPI;
 import com.espertech.esper.pattern.PatternNodeFactory;
+import com.espertech.esper.pattern.pool.PatternStatePoolEngineSvc;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolEngineSvc;
 import com.espertech.esper.rowregex.MatchRecognizeStatePoolEngineSvc;
 import com.espertech.esper.rowregex.RegexHandlerFactory;
@@ -73,6 +76,7 @@ public final class EPServicesContext
     private PluggableObjectCollection plugInViews;
     private StatementLockFactory statementLockFactory;
     private ManagedReadWriteLock eventProcessingRWLock;
+    private final ManagedReadWriteLock eventUnitRWLock;
     private EngineLevelExtensionServicesContext engineLevelExtensionServicesContext;
     private EngineEnvContext engineEnvContext;
     private StatementContextFactory statementContextFactory;
@@ -113,6 +117,9 @@ public final class EPServicesContext
     private MultiMatchHandlerFactory multiMatchHandlerFactory;
     private NamedWindowConsumerMgmtService namedWindowConsumerMgmtService;
     private AggregationFactoryFactory aggregationFactoryFactory;
+    private EventJournal eventJournal;
+    private StatementCompileCache statementCompileCache;
+    private PatternStatePoolEngineSvc patternStatePoolEngineSvc;
 
     // Supplied after construction to avoid circular dependency
     private StatementLifecycleSvc statementLifecycleSvc;
@@ -177,7 +184,9 @@ public final class EPServicesContext
                              DataCacheFactory dataCacheFactory,
                              MultiMatchHandlerFactory multiMatchHandlerFactory,
                              NamedWindowConsumerMgmtService namedWindowConsumerMgmtService,
-                             AggregationFactoryFactory aggregationFactoryFactory)
+                             AggregationFactoryFactory aggregationFactoryFactory,
+                             EventJournal eventJournal,
+                             StatementCompileCache statementCompileCache)
     {
         this.engineURI = engineURI;
         this.schedulingService = schedulingService;
@@ -237,6 +246,10 @@ public final class EPServicesContext
         this.multiMatchHandlerFactory = multiMatchHandlerFactory;
         this.namedWindowConsumerMgmtService = namedWindowConsumerMgmtService;
         this.aggregationFactoryFactory = aggregationFactoryFactory;
+        this.eventJournal = eventJournal;
+        this.eventUnitRWLock = eventJournal == null ? null : new ManagedReadWriteLock("EventUnitLock", false);
+        this.statementCompileCache = statementCompileCache;
+        this.patternStatePoolEngineSvc = new PatternStatePoolEngineSvc();
     }
 
     public PatternNodeFactory getPatternNodeFactory() {
@@ -396,6 +409,17 @@ public final class EPServicesContext
         return eventProcessingRWLock;
     }
 
+    /**
+     * Returns the lock that a thread holds for reading while it processes a sent event, including dispatch and the events
+     * the event routes or inserts, and that snapshot and restore hold for writing, so that the event journal position
+     * of a snapshot matches its named window and table rows.
+     * @return lock, or null when the event journal is not enabled
+     */
+    public ManagedReadWriteLock getEventUnitRWLock()
+    {
+        return eventUnitRWLock;
+    }
+
     /**
      * Returns statement lifecycle svc
      * @return service for statement start and stop
@@ -493,6 +517,9 @@ public final class EPServicesContext
         if (deploymentStateService != null) {
             deploymentStateService.destroy();
         }
+        if (eventJournal != null) {
+            eventJournal.destroy();
+        }
     }
 
     /**
@@ -763,4 +790,24 @@ public final class EPServicesContext
     public AggregationFactoryFactory getAggregationFactoryFactory() {
         return aggregationFactoryFactory;
     }
+
+    /**
+     * Returns the event journal, or null when the event journal is not enabled.
+     * @return event journal
+     */
+    public EventJournal getEventJournal() {
+        return eventJournal;
+    }
+
+    /**
+     * Returns the compiled statement cache, or null when the compiled statement cache is not enabled.
+     * @return compiled statement cache
+     */
+    public StatementCompileCache getStatementCompileCache() {
+        return statementCompileCache;
+    }
+
+    public PatternStatePoolEngineSvc getPatternStatePoolEngineSvc() {
+        return patternStatePoolEngineSvc;
+    }
 }
@@ -18,6 +18,8 @@ import com.espertech.esper.core.context.mgr.ContextManagementServiceImpl;
 import com.espertech.esper.core.context.mgr.ContextManagerFactoryServiceImpl;
 import com.espertech.esper.core.deploy.DeploymentStateService;
 import com.espertech.esper.core.deploy.DeploymentStateServiceImpl;
+import com.espertech.esper.core.compilecache.StatementCompileCache;
+import com.espertech.esper.core.journal.EventJournal;
 import com.espertech.esper.core.service.multimatch.MultiMatchHandlerFactoryImpl;
 import com.espertech.esper.core.start.EPStatementStartMethod;
 import com.espertech.esper.core.thread.ThreadingService;
@@ -105,7 +107,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineImportService engineImportService = makeEngineImportService(configSnapshot, AggregationFactoryFactoryDefault.INSTANCE);
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
@@ -189,6 +191,16 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
                     configSnapshot.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
         }
 
+        EventJournal eventJournal = null;
+        if (configSnapshot.getEngineDefaults().getJournal().isEnabled()) {
+            eventJournal = new EventJournal(epServiceProvider.getURI(), configSnapshot.getEngineDefaults().getJournal());
+        }
+
+        StatementCompileCache statementCompileCache = null;
+        if (configSnapshot.getEngineDefaults().getCompileCache().isEnabled()) {
+            statementCompileCache = new StatementCompileCache(epServiceProvider.getURI(), configSnapshot, configSnapshot.getEngineDefaults().getCompileCache());
+        }
+
         // New services context
         EPServicesContext services = new EPServicesContext(epServiceProvider.getURI(), schedulingService,
                 eventAdapterService, engineImportService, engineSettingsService, databaseConfigService, plugInViews,
@@ -202,10 +214,10 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
                 new ExprDeclaredServiceImpl(),
                 new ContextControllerFactoryFactorySvcImpl(), new ContextManagerFactoryServiceImpl(),
                 new EPStatementFactoryDefault(), new RegexHandlerFactoryDefault(), new ViewableActivatorFactoryDefault(),
-                new FilterNonPropertyRegisteryServiceImpl(), new ResultSetProcessorHelperFactoryImpl(),
+                new FilterNonPropertyRegisteryServiceImpl(), new ResultSetProcessorHelperFactoryImpl(threadingService, configSnapshot.getEngineDefaults().getThreading()),
                 new ViewServicePreviousFactoryImpl(), new EventTableIndexServiceImpl(), new EPRuntimeIsolatedFactoryImpl(),
                 new FilterBooleanExpressionFactoryImpl(), new DataCacheFactory(), new MultiMatchHandlerFactoryImpl(), NamedWindowConsumerMgmtServiceImpl.INSTANCE,
-                AggregationFactoryFactoryDefault.INSTANCE);
+                AggregationFactoryFactoryDefault.INSTANCE, eventJournal, statementCompileCache);
 
         // Engine services subset available to statements
         statementContextFactory.setStmtEngineServices(services);
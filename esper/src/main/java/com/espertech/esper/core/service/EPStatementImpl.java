@@ -9,6 +9,8 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.*;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionSelector;
 import com.espertech.esper.collection.SafeIteratorImpl;
 import com.espertech.esper.collection.SafeIteratorWTableImpl;
@@ -85,7 +87,31 @@ public class EPStatementImpl implements EPStatementSPI
         this.statementContext = statementContext;
         this.nameProvided = nameProvided; 
         statementListenerSet = new EPStatementListenerSet();
-        if (isBlockingDispatch)
+        Hint dispatchQueueHint = HintEnum.LISTENER_DISPATCH_QUEUE.getHint(statementContext.getAnnotations());
+        if (dispatchQueueHint != null)
+        {
+            String hintValue = HintEnum.LISTENER_DISPATCH_QUEUE.getHintAssignedValue(dispatchQueueHint);
+            int capacity;
+            try
+            {
+                capacity = Integer.parseInt(hintValue.trim());
+            }
+            catch (NumberFormatException ex)
+            {
+                capacity = -1;
+            }
+            if (capacity <= 0)
+            {
+                throw new EPException("Hint '" + HintEnum.LISTENER_DISPATCH_QUEUE.getValue() + "' requires a positive integer queue capacity but received '" + hintValue + "'");
+            }
+            UpdateDispatchViewQueued queued = new UpdateDispatchViewQueued(statementContext.getStatementResultService(), dispatchService, capacity, msecBlockingTimeout, statementContext.getEngineURI(), statementContext.getStatementName());
+            if (statementContext.getEpStatementHandle().getMetricsHandle() != null)
+            {
+                statementContext.getEpStatementHandle().getMetricsHandle().setDispatchQueue(queued);
+            }
+            this.dispatchChildView = queued;
+        }
+        else if (isBlockingDispatch)
         {
             if (isSpinBlockingDispatch)
             {
@@ -162,6 +188,10 @@ public class EPStatementImpl implements EPStatementSPI
     {
         this.currentState = currentState;
         this.timeLastStateChange = timeLastStateChange;
+        if (currentState == EPStatementState.DESTROYED && dispatchChildView instanceof UpdateDispatchViewQueued)
+        {
+            ((UpdateDispatchViewQueued) dispatchChildView).destroy();
+        }
     }
 
     public Viewable getParentView() {
@@ -33,6 +33,7 @@ import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.pattern.PatternContextFactory;
 import com.espertech.esper.pattern.PatternNodeFactory;
 import com.espertech.esper.pattern.PatternObjectResolutionService;
+import com.espertech.esper.pattern.pool.PatternStatePoolEngineSvc;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 import com.espertech.esper.rowregex.MatchRecognizeStatePoolStmtSvc;
 import com.espertech.esper.rowregex.RegexHandlerFactory;
@@ -461,6 +462,10 @@ public final class StatementContext
         return patternSubexpressionPoolSvc;
     }
 
+    public PatternStatePoolEngineSvc getPatternStatePoolEngineSvc() {
+        return stmtEngineServices.getPatternStatePoolEngineSvc();
+    }
+
     public MatchRecognizeStatePoolStmtSvc getMatchRecognizeStatePoolStmtSvc() {
         return matchRecognizeStatePoolStmtSvc;
     }
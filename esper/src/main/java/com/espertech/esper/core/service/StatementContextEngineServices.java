@@ -23,6 +23,7 @@ import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.vaevent.ValueAddEventService;
 import com.espertech.esper.filter.FilterBooleanExpressionFactory;
 import com.espertech.esper.pattern.PatternNodeFactory;
+import com.espertech.esper.pattern.pool.PatternStatePoolEngineSvc;
 import com.espertech.esper.rowregex.RegexHandlerFactory;
 import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.timer.TimeSourceService;
@@ -59,8 +60,9 @@ public final class StatementContextEngineServices
     private final EngineImportService engineImportService;
     private final AggregationFactoryFactory aggregationFactoryFactory;
     private final SchedulingService schedulingService;
+    private final PatternStatePoolEngineSvc patternStatePoolEngineSvc;
 
-    public StatementContextEngineServices(String engineURI, EventAdapterService eventAdapterService, NamedWindowMgmtService namedWindowMgmtService, VariableService variableService, TableService tableService, EngineSettingsService engineSettingsService, ValueAddEventService valueAddEventService, ConfigurationInformation configSnapshot, MetricReportingServiceSPI metricReportingService, ViewService viewService, ExceptionHandlingService exceptionHandlingService, ExpressionResultCacheService expressionResultCacheService, StatementEventTypeRef statementEventTypeRef, TableExprEvaluatorContext tableExprEvaluatorContext, EngineLevelExtensionServicesContext engineLevelExtensionServicesContext, RegexHandlerFactory regexHandlerFactory, StatementLockFactory statementLockFactory, ContextManagementService contextManagementService, ViewServicePreviousFactory viewServicePreviousFactory, EventTableIndexService eventTableIndexService, PatternNodeFactory patternNodeFactory, FilterBooleanExpressionFactory filterBooleanExpressionFactory, TimeSourceService timeSourceService, EngineImportService engineImportService, AggregationFactoryFactory aggregationFactoryFactory, SchedulingService schedulingService)
+    public StatementContextEngineServices(String engineURI, EventAdapterService eventAdapterService, NamedWindowMgmtService namedWindowMgmtService, VariableService variableService, TableService tableService, EngineSettingsService engineSettingsService, ValueAddEventService valueAddEventService, ConfigurationInformation configSnapshot, MetricReportingServiceSPI metricReportingService, ViewService viewService, ExceptionHandlingService exceptionHandlingService, ExpressionResultCacheService expressionResultCacheService, StatementEventTypeRef statementEventTypeRef, TableExprEvaluatorContext tableExprEvaluatorContext, EngineLevelExtensionServicesContext engineLevelExtensionServicesContext, RegexHandlerFactory regexHandlerFactory, StatementLockFactory statementLockFactory, ContextManagementService contextManagementService, ViewServicePreviousFactory viewServicePreviousFactory, EventTableIndexService eventTableIndexService, PatternNodeFactory patternNodeFactory, FilterBooleanExpressionFactory filterBooleanExpressionFactory, TimeSourceService timeSourceService, EngineImportService engineImportService, AggregationFactoryFactory aggregationFactoryFactory, SchedulingService schedulingService, PatternStatePoolEngineSvc patternStatePoolEngineSvc)
     {
         this.engineURI = engineURI;
         this.eventAdapterService = eventAdapterService;
@@ -88,6 +90,7 @@ public final class StatementContextEngineServices
         this.engineImportService = engineImportService;
         this.aggregationFactoryFactory = aggregationFactoryFactory;
         this.schedulingService = schedulingService;
+        this.patternStatePoolEngineSvc = patternStatePoolEngineSvc;
     }
 
     public String getEngineURI() {
@@ -197,4 +200,8 @@ public final class StatementContextEngineServices
     public SchedulingService getSchedulingService() {
         return schedulingService;
     }
+
+    public PatternStatePoolEngineSvc getPatternStatePoolEngineSvc() {
+        return patternStatePoolEngineSvc;
+    }
 }
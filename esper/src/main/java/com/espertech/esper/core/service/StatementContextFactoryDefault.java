@@ -105,7 +105,8 @@ public class StatementContextFactoryDefault implements StatementContextFactory
                 services.getTimeSource(),
                 services.getEngineImportService(),
                 services.getAggregationFactoryFactory(),
-                services.getSchedulingService()
+                services.getSchedulingService(),
+                services.getPatternStatePoolEngineSvc()
                 );
     }
 
@@ -76,6 +76,18 @@ public interface StatementResultService
      */
     public void indicate(UniformPair<EventBean[]> results);
 
+    /**
+     * Removes and returns the results stored for dispatching by the current thread, without dispatching these.
+     * @return insert and remove stream data, or null if none were stored
+     */
+    public UniformPair<EventBean[]> takeResults();
+
+    /**
+     * Dispatches results to listeners and subscriber.
+     * @param events is the insert and remove stream data
+     */
+    public void processDispatch(UniformPair<EventBean[]> events);
+
     /**
      * Execution of result indication.
      */
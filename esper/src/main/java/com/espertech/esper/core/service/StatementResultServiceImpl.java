@@ -8,10 +8,13 @@
  **************************************************************************************/
 package com.espertech.esper.core.service;
 
+import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.StatementAwareUpdateListener;
 import com.espertech.esper.client.UpdateListener;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.core.thread.OutboundUnitRunnable;
@@ -28,6 +31,7 @@ import com.espertech.esper.event.NaturalEventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.AuditPath;
 import com.espertech.esper.util.ExecutionPathDebugLog;
+import com.espertech.esper.util.MetricUtil;
 import com.espertech.esper.view.ViewSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +60,7 @@ public class StatementResultServiceImpl implements StatementResultService
     private boolean isDistinct;
     private boolean isForClause;
     private StatementMetricHandle statementMetricHandle;
+    private int dispatchChunkSize;
 
     private boolean forClauseDelivery= false;
     private ExprEvaluator[] groupDeliveryExpressions;
@@ -122,6 +127,24 @@ public class StatementResultServiceImpl implements StatementResultService
         this.isForClause = isForClause;
         isMakeSynthetic = isInsertInto || isPattern || isDistinct || isForClause;
         this.statementMetricHandle = statementMetricHandle;
+
+        Hint dispatchChunkHint = HintEnum.LISTENER_DISPATCH_CHUNK.getHint(epStatement.getAnnotations());
+        if (dispatchChunkHint != null)
+        {
+            String hintValue = HintEnum.LISTENER_DISPATCH_CHUNK.getHintAssignedValue(dispatchChunkHint);
+            try
+            {
+                dispatchChunkSize = Integer.parseInt(hintValue.trim());
+            }
+            catch (NumberFormatException ex)
+            {
+                dispatchChunkSize = -1;
+            }
+            if (dispatchChunkSize <= 0)
+            {
+                throw new EPException("Hint '" + HintEnum.LISTENER_DISPATCH_CHUNK.getValue() + "' requires a positive integer chunk size but received '" + hintValue + "'");
+            }
+        }
     }
 
     public void setSelectClause(Class[] selectClauseTypes, String[] selectClauseColumnNames,
@@ -212,6 +235,14 @@ public class StatementResultServiceImpl implements StatementResultService
         }
     }
 
+    public UniformPair<EventBean[]> takeResults()
+    {
+        ArrayDeque<UniformPair<EventBean[]>> dispatches = lastResults.get();
+        UniformPair<EventBean[]> events = EventBeanUtility.flattenList(dispatches);
+        dispatches.clear();
+        return events;
+    }
+
     public void execute()
     {
         ArrayDeque<UniformPair<EventBean[]>> dispatches = lastResults.get();
@@ -242,10 +273,29 @@ public class StatementResultServiceImpl implements StatementResultService
      * @param events to indicate
      */
     public void processDispatch(UniformPair<EventBean[]> events)
+    {
+        if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled()))
+        {
+            long wallTimeBefore = MetricUtil.getWall();
+            processDispatchDelivery(events);
+            metricReportingService.accountDispatchTime(statementMetricHandle, MetricUtil.getWall() - wallTimeBefore);
+        }
+        else
+        {
+            processDispatchDelivery(events);
+        }
+    }
+
+    private void processDispatchDelivery(UniformPair<EventBean[]> events)
     {
         // Plain all-events delivery
         if (!forClauseDelivery) {
-            dispatchInternal(events);
+            if (dispatchChunkSize > 0) {
+                dispatchChunked(events);
+            }
+            else {
+                dispatchInternal(events);
+            }
             return;
         }
 
@@ -357,6 +407,22 @@ public class StatementResultServiceImpl implements StatementResultService
         }
     }
 
+    private void dispatchChunked(UniformPair<EventBean[]> events) {
+        int numNew = events != null && events.getFirst() != null ? events.getFirst().length : 0;
+        int numOld = events != null && events.getSecond() != null ? events.getSecond().length : 0;
+        if (numNew <= dispatchChunkSize && numOld <= dispatchChunkSize) {
+            dispatchInternal(events);
+            return;
+        }
+
+        // deliver the insert and remove stream in slices of the chunk size, the n-th slices together
+        for (int offset = 0; offset < numNew || offset < numOld; offset += dispatchChunkSize) {
+            EventBean[] newChunk = offset < numNew ? Arrays.copyOfRange(events.getFirst(), offset, Math.min(numNew, offset + dispatchChunkSize)) : null;
+            EventBean[] oldChunk = offset < numOld ? Arrays.copyOfRange(events.getSecond(), offset, Math.min(numOld, offset + dispatchChunkSize)) : null;
+            dispatchInternal(new UniformPair<EventBean[]>(newChunk, oldChunk));
+        }
+    }
+
     private void dispatchInternal(UniformPair<EventBean[]> events) {
         if (statementResultNaturalStrategy != null)
         {
@@ -0,0 +1,307 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.thread.EngineThreadFactory;
+import com.espertech.esper.dispatch.DispatchService;
+import com.espertech.esper.epl.metric.LatencyHistogram;
+import com.espertech.esper.epl.metric.StatementDispatchQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatch view that preserves the order of statement results by handing them to a bounded per-statement queue
+ * that a dedicated delivery thread drains, instead of letting threads wait for each other's dispatch.
+ * <p>
+ * A thread reserves its place in the queue when the statement first indicates a result, while the statement lock is held,
+ * and fills the place with its results when it dispatches. Only the delivery thread delivers, in queue order, and it waits only for the
+ * oldest place to be filled, logging a warning when that takes longer than the timeout.
+ * <p>
+ * Reserving a place never waits, so that the statement lock is not held while waiting. Instead, when the queue holds more places than its capacity,
+ * a thread that dispatches waits for the delivery thread to catch up after filling its place, outside of the statement lock.
+ * A thread waits only once it has filled all places it reserved, of any statement, and delivery threads never wait,
+ * so that the queue holds at most its capacity plus one place per producing thread.
+ */
+public class UpdateDispatchViewQueued extends UpdateDispatchViewBase implements StatementDispatchQueue
+{
+    private static final Logger log = LoggerFactory.getLogger(UpdateDispatchViewQueued.class);
+
+    // number of places reserved and not yet filled by the current thread, across statements
+    private static final ThreadLocal<int[]> numReserved = new ThreadLocal<int[]>() {
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+    private static final ThreadLocal<Boolean> isDeliveryThread = new ThreadLocal<Boolean>();
+
+    private final LinkedBlockingQueue<Slot> queue = new LinkedBlockingQueue<Slot>();
+    private final int capacity;
+    private final long msecTimeout;
+    private final ThreadLocal<Slot> currentSlot = new ThreadLocal<Slot>();
+    private final Thread deliveryThread;
+    private final Object capacityMonitor = new Object();
+    private volatile int numWaiting;
+    private volatile boolean destroyed;
+
+    private volatile long numDelivered;
+    private volatile long deliveryLatencyNanosTotal;
+    private volatile long deliveryLatencyNanosMax;
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+    /**
+     * Ctor.
+     * @param statementResultServiceImpl - handles result delivery
+     * @param dispatchService - for performing the dispatch
+     * @param capacity - maximum number of queued results
+     * @param msecTimeout - timeout after which waiting for results to become available is logged
+     * @param engineURI - engine URI for naming the delivery thread
+     * @param statementName - statement name for naming the delivery thread
+     */
+    public UpdateDispatchViewQueued(StatementResultService statementResultServiceImpl, DispatchService dispatchService, int capacity, long msecTimeout, String engineURI, String statementName)
+    {
+        super(statementResultServiceImpl, dispatchService);
+        this.capacity = capacity;
+        this.msecTimeout = msecTimeout;
+        EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, "Dispatch-" + statementName, null, Thread.NORM_PRIORITY);
+        this.deliveryThread = threadFactory.newThread(new Delivery());
+        this.deliveryThread.start();
+    }
+
+    public void update(EventBean[] newData, EventBean[] oldData) {
+        newResult(new UniformPair<EventBean[]>(newData, oldData));
+    }
+
+    public void newResult(UniformPair<EventBean[]> results)
+    {
+        statementResultService.indicate(results);
+
+        if (!isDispatchWaiting.get())
+        {
+            // the statement lock is held: reserve the place without waiting for capacity
+            if (!destroyed)
+            {
+                Slot slot = new Slot();
+                queue.add(slot);
+                currentSlot.set(slot);
+                numReserved.get()[0]++;
+            }
+            dispatchService.addExternal(this);
+            isDispatchWaiting.set(true);
+        }
+    }
+
+    public void execute()
+    {
+        isDispatchWaiting.set(false);
+        Slot slot = currentSlot.get();
+        if (slot == null)
+        {
+            // the statement was destroyed, its results are not delivered
+            statementResultService.takeResults();
+            return;
+        }
+        currentSlot.remove();
+
+        slot.events = statementResultService.takeResults();
+        slot.ready = true;
+        LockSupport.unpark(deliveryThread);
+
+        int[] reserved = numReserved.get();
+        reserved[0]--;
+        if (reserved[0] == 0 && isDeliveryThread.get() == null)
+        {
+            awaitCapacity();
+        }
+    }
+
+    /**
+     * Stops the delivery thread after delivering results already queued.
+     */
+    public void destroy()
+    {
+        destroyed = true;
+        LockSupport.unpark(deliveryThread);
+        synchronized (capacityMonitor)
+        {
+            capacityMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of results queued and not yet delivered.
+     * @return queue depth
+     */
+    public int getQueueDepth()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Returns the maximum number of results queued.
+     * @return capacity
+     */
+    public int getQueueCapacity()
+    {
+        return capacity;
+    }
+    /**
+     * Returns the number of results delivered by the delivery thread.
+     * @return delivered count
+     */
+    public long getNumDelivered()
+    {
+        return numDelivered;
+    }
+
+    /**
+     * Returns the total time between a statement indicating a result and the delivery thread completing its delivery.
+     * @return nanoseconds
+     */
+    public long getDeliveryLatencyNanosTotal()
+    {
+        return deliveryLatencyNanosTotal;
+    }
+
+    /**
+     * Returns the maximum time between a statement indicating a result and the delivery thread completing its delivery.
+     * @return nanoseconds
+     */
+    public long getDeliveryLatencyNanosMax()
+    {
+        return deliveryLatencyNanosMax;
+    }
+
+    public LatencyHistogram getDeliveryLatency()
+    {
+        return deliveryLatency;
+    }
+
+    private void deliver(UniformPair<EventBean[]> events)
+    {
+        if (events == null)
+        {
+            return;
+        }
+        try
+        {
+            statementResultService.processDispatch(events);
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Unexpected error processing dispatch: " + e.getMessage(), e);
+        }
+    }
+
+    private void awaitCapacity()
+    {
+        if (queue.size() <= capacity)
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean logged = false;
+        synchronized (capacityMonitor)
+        {
+            numWaiting++;
+            try
+            {
+                while (queue.size() > capacity && !destroyed)
+                {
+                    capacityMonitor.wait(msecTimeout);
+                    if (!logged && System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(msecTimeout))
+                    {
+                        log.warn("Waiting for the dispatch queue of capacity " + capacity + " to drain for longer than " + msecTimeout + " msec");
+                        logged = true;
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                numWaiting--;
+            }
+        }
+    }
+
+    private class Delivery implements Runnable
+    {
+        public void run()
+        {
+            isDeliveryThread.set(true);
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(msecTimeout);
+            while (true)
+            {
+                Slot slot = queue.peek();
+                if (slot == null)
+                {
+                    if (destroyed)
+                    {
+                        return;
+                    }
+                    LockSupport.parkNanos(timeoutNanos);
+                    continue;
+                }
+
+                // only this thread delivers: keep waiting for the oldest place so that results are never reordered
+                boolean logged = false;
+                while (!slot.ready)
+                {
+                    long waited = System.nanoTime() - slot.createdNanos;
+                    if (waited >= timeoutNanos)
+                    {
+                        if (!logged)
+                        {
+                            log.warn("Waiting for statement results to become available for dispatch for longer than " + msecTimeout + " msec");
+                            logged = true;
+                        }
+                        LockSupport.parkNanos(timeoutNanos);
+                    }
+                    else
+                    {
+                        LockSupport.parkNanos(timeoutNanos - waited);
+                    }
+                }
+                queue.poll();
+                if (numWaiting > 0)
+                {
+                    synchronized (capacityMonitor)
+                    {
+                        capacityMonitor.notifyAll();
+                    }
+                }
+
+                deliver(slot.events);
+                long latency = System.nanoTime() - slot.createdNanos;
+                deliveryLatency.record(latency);
+                deliveryLatencyNanosTotal += latency;
+                if (latency > deliveryLatencyNanosMax)
+                {
+                    deliveryLatencyNanosMax = latency;
+                }
+                numDelivered++;
+            }
+        }
+    }
+
+    private static class Slot
+    {
+        private final long createdNanos = System.nanoTime();
+        private volatile UniformPair<EventBean[]> events;
+        private volatile boolean ready;
+    }
+}
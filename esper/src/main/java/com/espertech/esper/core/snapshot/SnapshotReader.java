@@ -0,0 +1,543 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.snapshot;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.util.OnDemandSunReflectionFactory;
+import com.espertech.esper.util.SerializerUtil;
+import com.espertech.esper.util.Version;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter} from a channel.
+ * <p>
+ * Objects, collections, maps and arrays are restored into the existing instance when the existing instance is of the same class,
+ * which retains state that is not captured, such as the comparator of a sorted map.
+ * <p>
+ * A snapshot is only read by the engine build that wrote it. The reader loads the classes named by the snapshot, restricted to the
+ * engine-internal classes that the writer captures field-by-field, and deserializes values written using Java serialization.
+ * Only restore snapshots from a trusted source.
+ */
+public class SnapshotReader
+{
+    private final DataInputStream in;
+    private final EventAdapterService eventAdapterService;
+    private long journalSegment = -1;
+
+    private byte sectionType;
+    private String sectionName;
+    private int agentInstanceId;
+    private int numRows;
+
+    /**
+     * Ctor, reads and validates the snapshot header.
+     * @param channel to read from, the channel is not closed by the reader
+     * @param eventAdapterService for resolving event types and creating events
+     * @throws IOException if the read fails
+     * @throws EPException if the channel does not contain a snapshot, or the snapshot version or engine build version does not match
+     */
+    public SnapshotReader(ReadableByteChannel channel, EventAdapterService eventAdapterService) throws IOException
+    {
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        this.eventAdapterService = eventAdapterService;
+        if (in.readInt() != SnapshotSupport.MAGIC)
+        {
+            throw new EPException("Input is not a snapshot");
+        }
+        int version = in.readInt();
+        if (version != SnapshotSupport.VERSION)
+        {
+            throw new EPException("Snapshot version " + version + " is not supported, expected version " + SnapshotSupport.VERSION);
+        }
+        String buildVersion = readString();
+        if (!buildVersion.equals(Version.getBuildVersion()))
+        {
+            throw new EPException("Snapshot was written by engine version '" + buildVersion + "' and cannot be restored by engine version '" + Version.getBuildVersion() + "'");
+        }
+        journalSegment = in.readLong();
+    }
+
+    /**
+     * Ctor for reading values from a stream, without a snapshot header.
+     * @param in to read from
+     * @param eventAdapterService for resolving event types and creating events
+     */
+    public SnapshotReader(DataInputStream in, EventAdapterService eventAdapterService)
+    {
+        this.in = in;
+        this.eventAdapterService = eventAdapterService;
+    }
+
+    /**
+     * Returns the number of the first event journal segment holding events that arrived after the snapshot was taken.
+     * @return segment number, or -1 if there was no journal
+     */
+    public long getJournalSegment()
+    {
+        return journalSegment;
+    }
+
+    /**
+     * Advances to the next section.
+     * @return false if there are no more sections
+     * @throws IOException if the read fails
+     */
+    public boolean next() throws IOException
+    {
+        sectionType = in.readByte();
+        if (sectionType == SnapshotSupport.SECTION_END)
+        {
+            return false;
+        }
+        if (sectionType != SnapshotSupport.SECTION_NAMED_WINDOW && sectionType != SnapshotSupport.SECTION_TABLE)
+        {
+            throw new EPException("Unrecognized snapshot section type " + sectionType);
+        }
+        sectionName = readString();
+        agentInstanceId = in.readInt();
+        numRows = in.readInt();
+        return true;
+    }
+
+    /**
+     * Returns indicator whether the current section holds named window rows, or table rows otherwise.
+     * @return indicator
+     */
+    public boolean isNamedWindow()
+    {
+        return sectionType == SnapshotSupport.SECTION_NAMED_WINDOW;
+    }
+
+    /**
+     * Returns the named window or table name of the current section.
+     * @return name
+     */
+    public String getSectionName()
+    {
+        return sectionName;
+    }
+
+    /**
+     * Returns the agent instance id of the current section.
+     * @return agent instance id, or -1 when not associated to a context
+     */
+    public int getAgentInstanceId()
+    {
+        return agentInstanceId;
+    }
+
+    /**
+     * Returns the number of rows of the current section.
+     * @return rows
+     */
+    public int getNumRows()
+    {
+        return numRows;
+    }
+
+    /**
+     * Reads a value.
+     * @return value, or null if the value was not captured
+     * @throws IOException if the read fails
+     */
+    public Object readValue() throws IOException
+    {
+        Object value = readValue(null, 0);
+        return value == SnapshotSupport.SKIPPED ? null : value;
+    }
+
+    /**
+     * Reads the underlying object of an event written by {@link SnapshotWriter#writeUnderlying(Object)}.
+     * @param eventType type of the event
+     * @return underlying
+     * @throws IOException if the read fails
+     * @throws EPException if the snapshot holds an underlying object of a different class
+     */
+    public Object readUnderlying(EventType eventType) throws IOException
+    {
+        Object value = readUnderlying(eventType, 0);
+        return value == SnapshotSupport.SKIPPED ? null : value;
+    }
+
+    /**
+     * Reads an object written by {@link SnapshotWriter#writeObject(Object)}, restoring the captured fields into the instance provided.
+     * @param target instance to restore into
+     * @throws IOException if the read fails
+     * @throws EPException if the snapshot holds an object of a different class
+     */
+    public void readObjectInto(Object target) throws IOException
+    {
+        byte tag = in.readByte();
+        if (tag == SnapshotSupport.TAG_NULL)
+        {
+            return;
+        }
+        if (tag != SnapshotSupport.TAG_OBJECT)
+        {
+            throw new EPException("Unexpected snapshot value type " + tag + ", expected an object");
+        }
+        String className = readString();
+        if (target == null || !target.getClass().getName().equals(className))
+        {
+            throw new EPException("Snapshot holds state of class '" + className + "' but the engine provides class '" +
+                    (target == null ? "null" : target.getClass().getName()) + "', the statement may have changed since the snapshot was taken");
+        }
+        readObjectFields(target, 0);
+    }
+
+    /**
+     * Reads an int.
+     * @return value
+     * @throws IOException if the read fails
+     */
+    public int readInt() throws IOException
+    {
+        return in.readInt();
+    }
+
+    private Object readValue(Object existing, int depth) throws IOException
+    {
+        return readValue(in.readByte(), existing, depth);
+    }
+
+    private Object readValue(byte tag, Object existing, int depth) throws IOException
+    {
+        if (depth > SnapshotSupport.MAX_DEPTH)
+        {
+            throw new EPException("Snapshot value nesting exceeds the maximum depth of " + SnapshotSupport.MAX_DEPTH);
+        }
+        switch (tag)
+        {
+            case SnapshotSupport.TAG_NULL:
+                return null;
+            case SnapshotSupport.TAG_SKIP:
+                return SnapshotSupport.SKIPPED;
+            case SnapshotSupport.TAG_BOOLEAN:
+                return in.readBoolean();
+            case SnapshotSupport.TAG_BYTE:
+                return in.readByte();
+            case SnapshotSupport.TAG_SHORT:
+                return in.readShort();
+            case SnapshotSupport.TAG_CHAR:
+                return in.readChar();
+            case SnapshotSupport.TAG_INT:
+                return in.readInt();
+            case SnapshotSupport.TAG_LONG:
+                return in.readLong();
+            case SnapshotSupport.TAG_FLOAT:
+                return in.readFloat();
+            case SnapshotSupport.TAG_DOUBLE:
+                return in.readDouble();
+            case SnapshotSupport.TAG_STRING:
+                return readString();
+            case SnapshotSupport.TAG_BIGDECIMAL:
+                int scale = in.readInt();
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case SnapshotSupport.TAG_BIGINTEGER:
+                return new BigInteger(readBytes());
+            case SnapshotSupport.TAG_ENUM:
+                Class enumClass = loadClass(readString());
+                return toEnum(enumClass, readString());
+            case SnapshotSupport.TAG_ARRAY:
+                return readArray(existing, depth);
+            case SnapshotSupport.TAG_COLLECTION:
+                return readCollection(existing, depth);
+            case SnapshotSupport.TAG_MAP:
+                return readMap(existing, depth);
+            case SnapshotSupport.TAG_OBJECT:
+                String className = readString();
+                if (!SnapshotSupport.isObjectClass(className))
+                {
+                    throw new EPException("Snapshot references class '" + className + "' that is not captured field-by-field");
+                }
+                Class clazz = loadClass(className);
+                Object target = existing != null && existing.getClass() == clazz ? existing : allocate(clazz);
+                readObjectFields(target, depth);
+                return target;
+            case SnapshotSupport.TAG_EVENT:
+                return readEvent(depth);
+            case SnapshotSupport.TAG_SERIALIZED:
+                return SerializerUtil.byteArrToObject(readBytes());
+            default:
+                throw new EPException("Unrecognized snapshot value type " + tag);
+        }
+    }
+
+    private void readObjectFields(Object target, int depth) throws IOException
+    {
+        Field[] fields = SnapshotSupport.getFields(target.getClass());
+        int numFields = in.readInt();
+        if (numFields != fields.length)
+        {
+            throw new EPException("Snapshot holds " + numFields + " fields for class '" + target.getClass().getName() + "' but the class has " + fields.length + " fields");
+        }
+        for (Field field : fields)
+        {
+            try
+            {
+                Object current = field.get(target);
+                Object value = readValue(current, depth + 1);
+                if (value != SnapshotSupport.SKIPPED && value != current)
+                {
+                    field.set(target, value);
+                }
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new EPException("Failed to restore field '" + field.getName() + "' of class '" + target.getClass().getName() + "': " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private Object readArray(Object existing, int depth) throws IOException
+    {
+        Class component = loadClass(readString());
+        int length = in.readInt();
+        Object array;
+        if (existing != null && existing.getClass().getComponentType() == component && Array.getLength(existing) == length)
+        {
+            array = existing;
+        }
+        else
+        {
+            array = Array.newInstance(component, length);
+        }
+
+        if (component == int.class)
+        {
+            int[] values = (int[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readInt();
+            }
+        }
+        else if (component == long.class)
+        {
+            long[] values = (long[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readLong();
+            }
+        }
+        else if (component == double.class)
+        {
+            double[] values = (double[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readDouble();
+            }
+        }
+        else if (component == boolean.class)
+        {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readBoolean();
+            }
+        }
+        else if (component == byte.class)
+        {
+            in.readFully((byte[]) array);
+        }
+        else if (component == float.class)
+        {
+            float[] values = (float[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readFloat();
+            }
+        }
+        else if (component == short.class)
+        {
+            short[] values = (short[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readShort();
+            }
+        }
+        else if (component == char.class)
+        {
+            char[] values = (char[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = in.readChar();
+            }
+        }
+        else
+        {
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < length; i++)
+            {
+                Object value = readValue(values[i], depth + 1);
+                if (value != SnapshotSupport.SKIPPED)
+                {
+                    values[i] = value;
+                }
+            }
+        }
+        return array;
+    }
+
+    private Object readCollection(Object existing, int depth) throws IOException
+    {
+        String className = readString();
+        Class clazz = SnapshotSupport.getContainerClass(className);
+        if (clazz == null || !SnapshotSupport.isCollectionClass(clazz))
+        {
+            throw new EPException("Snapshot references collection class '" + className + "' that is not supported");
+        }
+        Collection<Object> collection = instantiate(clazz, existing);
+        int size = in.readInt();
+        for (int i = 0; i < size; i++)
+        {
+            Object value = readValue(null, depth + 1);
+            if (value != SnapshotSupport.SKIPPED)
+            {
+                collection.add(value);
+            }
+        }
+        return collection;
+    }
+
+    private Object readMap(Object existing, int depth) throws IOException
+    {
+        String className = readString();
+        Class clazz = SnapshotSupport.getContainerClass(className);
+        if (clazz == null || !SnapshotSupport.isMapClass(clazz))
+        {
+            throw new EPException("Snapshot references map class '" + className + "' that is not supported");
+        }
+        Map<Object, Object> map = instantiate(clazz, existing);
+        int size = in.readInt();
+        for (int i = 0; i < size; i++)
+        {
+            Object key = readValue(null, depth + 1);
+            Object value = readValue(null, depth + 1);
+            if (key != SnapshotSupport.SKIPPED && value != SnapshotSupport.SKIPPED)
+            {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    private Object readEvent(int depth) throws IOException
+    {
+        String typeName = readString();
+        EventType eventType = eventAdapterService.getExistsTypeByName(typeName);
+        if (eventType == null)
+        {
+            throw new EPException("Snapshot references event type '" + typeName + "' that is not known to the engine");
+        }
+        return eventAdapterService.adapterForType(readUnderlying(eventType, depth + 1), eventType);
+    }
+
+    private Object readUnderlying(EventType eventType, int depth) throws IOException
+    {
+        // a bean underlying that is not serializable is captured field-by-field
+        byte tag = in.readByte();
+        if (tag != SnapshotSupport.TAG_OBJECT)
+        {
+            return readValue(tag, null, depth);
+        }
+        String className = readString();
+        Class underlyingType = eventType.getUnderlyingType();
+        if (!className.equals(underlyingType.getName()))
+        {
+            throw new EPException("Snapshot holds an event of class '" + className + "' for event type '" + eventType.getName() + "' of class '" + underlyingType.getName() + "'");
+        }
+        Object underlying = allocate(underlyingType);
+        readObjectFields(underlying, depth);
+        return underlying;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T instantiate(Class<?> clazz, Object existing)
+    {
+        // the container is a supported collection or map class, its elements are of any type
+        if (existing != null && existing.getClass() == clazz)
+        {
+            if (existing instanceof Map)
+            {
+                ((Map<?, ?>) existing).clear();
+            }
+            else
+            {
+                ((Collection<?>) existing).clear();
+            }
+            return (T) existing;
+        }
+        try
+        {
+            return (T) clazz.newInstance();
+        }
+        catch (Exception e)
+        {
+            throw new EPException("Failed to instantiate class '" + clazz.getName() + "': " + e.getMessage(), e);
+        }
+    }
+
+    private Object allocate(Class<?> clazz)
+    {
+        try
+        {
+            Constructor<?> ctor = OnDemandSunReflectionFactory.getConstructor(clazz, Object.class.getDeclaredConstructor());
+            return ctor.newInstance();
+        }
+        catch (Exception e)
+        {
+            throw new EPException("Failed to allocate class '" + clazz.getName() + "': " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> Object toEnum(Class<?> enumClass, String name)
+    {
+        return Enum.valueOf((Class<E>) enumClass, name);
+    }
+
+    private Class loadClass(String className)
+    {
+        try
+        {
+            return JavaClassHelper.getClassForName(className);
+        }
+        catch (ClassNotFoundException e)
+        {
+            throw new EPException("Failed to load class '" + className + "' referenced by snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] readBytes() throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private String readString() throws IOException
+    {
+        return new String(readBytes(), "UTF-8");
+    }
+}
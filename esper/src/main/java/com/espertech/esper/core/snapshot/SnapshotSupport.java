@@ -0,0 +1,211 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.snapshot;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Constants and reflection helpers shared by snapshot writer and reader.
+ * <p>
+ * A snapshot starts with a magic number, a format version, the engine build version and the event journal segment followed by sections. Each section carries the name of
+ * a named window or table, the agent instance id and the row count, followed by the rows. Values are written as a one-byte
+ * tag followed by the value.
+ * <p>
+ * Instances of the classes in {@link #isObjectClass(Class)} are written field-by-field, so the format depends on the private fields
+ * of these classes and a snapshot can only be restored by the engine build that wrote it. Restoring loads the classes named by the snapshot
+ * and deserializes values written using Java serialization, therefore only snapshots from a trusted source may be restored.
+ */
+public class SnapshotSupport
+{
+    /**
+     * Magic number that starts a snapshot.
+     */
+    public final static int MAGIC = 0x45534E50;
+
+    /**
+     * Current format version. Version 2 adds the event journal segment to the header, version 3 adds the engine build version.
+     */
+    public final static int VERSION = 3;
+
+    /**
+     * Maximum nesting depth of values.
+     */
+    public final static int MAX_DEPTH = 64;
+
+    final static byte SECTION_END = 0;
+    final static byte SECTION_NAMED_WINDOW = 1;
+    final static byte SECTION_TABLE = 2;
+
+    final static byte TAG_NULL = 0;
+    final static byte TAG_SKIP = 1;
+    final static byte TAG_BOOLEAN = 2;
+    final static byte TAG_BYTE = 3;
+    final static byte TAG_SHORT = 4;
+    final static byte TAG_CHAR = 5;
+    final static byte TAG_INT = 6;
+    final static byte TAG_LONG = 7;
+    final static byte TAG_FLOAT = 8;
+    final static byte TAG_DOUBLE = 9;
+    final static byte TAG_STRING = 10;
+    final static byte TAG_BIGDECIMAL = 11;
+    final static byte TAG_BIGINTEGER = 12;
+    final static byte TAG_ENUM = 13;
+    final static byte TAG_ARRAY = 14;
+    final static byte TAG_COLLECTION = 15;
+    final static byte TAG_MAP = 16;
+    final static byte TAG_OBJECT = 17;
+    final static byte TAG_EVENT = 18;
+    final static byte TAG_SERIALIZED = 19;
+
+    /**
+     * Marker returned by the reader for values that were not captured, such as expression evaluators held by final fields,
+     * leaving the current value in place.
+     */
+    final static Object SKIPPED = new Object();
+
+    private final static String[] OBJECT_PACKAGES = new String[] {
+            "com.espertech.esper.collection.",
+            "com.espertech.esper.epl.approx.",
+            "com.espertech.esper.epl.agg.aggregator.",
+            "com.espertech.esper.epl.agg.access.",
+    };
+
+    private final static Set<Class> COLLECTION_CLASSES = new HashSet<Class>(Arrays.<Class>asList(
+            ArrayList.class, LinkedList.class, ArrayDeque.class, HashSet.class, LinkedHashSet.class, TreeSet.class));
+
+    private final static Set<Class> MAP_CLASSES = new HashSet<Class>(Arrays.<Class>asList(
+            HashMap.class, LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class));
+
+    private final static Map<Class, Field[]> FIELDS = new ConcurrentHashMap<Class, Field[]>();
+
+    /**
+     * Returns indicator whether instances of the class are captured field-by-field.
+     * @param clazz class
+     * @return indicator
+     */
+    static boolean isObjectClass(Class clazz)
+    {
+        return isObjectClass(clazz.getName());
+    }
+
+    /**
+     * Returns indicator whether instances of the named class are captured field-by-field.
+     * @param className class name
+     * @return indicator
+     */
+    static boolean isObjectClass(String className)
+    {
+        for (String pkg : OBJECT_PACKAGES)
+        {
+            if (className.startsWith(pkg))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isCollectionClass(Class clazz)
+    {
+        return COLLECTION_CLASSES.contains(clazz);
+    }
+
+    static boolean isMapClass(Class clazz)
+    {
+        return MAP_CLASSES.contains(clazz);
+    }
+
+    /**
+     * Returns the supported collection or map class of the given name.
+     * @param className class name
+     * @return class or null if the class is not a supported collection or map class
+     */
+    static Class getContainerClass(String className)
+    {
+        for (Class clazz : COLLECTION_CLASSES)
+        {
+            if (clazz.getName().equals(className))
+            {
+                return clazz;
+            }
+        }
+        for (Class clazz : MAP_CLASSES)
+        {
+            if (clazz.getName().equals(className))
+            {
+                return clazz;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns indicator whether a value that is otherwise not supported can be written using Java serialization.
+     * @param value to check
+     * @return indicator
+     */
+    static boolean isSerializable(Object value)
+    {
+        if (!(value instanceof java.io.Serializable))
+        {
+            return false;
+        }
+        String name = value.getClass().getName();
+        return !name.startsWith("com.espertech.esper.") && !name.startsWith("java.util.concurrent.locks.");
+    }
+
+    /**
+     * Returns the captured fields of a class, in a stable order: superclass fields first, and by name within a class.
+     * Static, transient and synthetic fields are not captured.
+     * @param clazz class
+     * @return fields
+     */
+    static Field[] getFields(Class clazz)
+    {
+        Field[] fields = FIELDS.get(clazz);
+        if (fields != null)
+        {
+            return fields;
+        }
+
+        List<Class> hierarchy = new ArrayList<Class>();
+        for (Class current = clazz; current != null && current != Object.class; current = current.getSuperclass())
+        {
+            hierarchy.add(0, current);
+        }
+
+        List<Field> result = new ArrayList<Field>();
+        for (Class current : hierarchy)
+        {
+            Field[] declared = current.getDeclaredFields();
+            Arrays.sort(declared, new Comparator<Field>() {
+                public int compare(Field o1, Field o2) {
+                    return o1.getName().compareTo(o2.getName());
+                }
+            });
+            for (Field field : declared)
+            {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())
+                {
+                    continue;
+                }
+                field.setAccessible(true);
+                result.add(field);
+            }
+        }
+
+        fields = result.toArray(new Field[result.size()]);
+        FIELDS.put(clazz, fields);
+        return fields;
+    }
+}
@@ -0,0 +1,490 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.snapshot;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.SerializerUtil;
+import com.espertech.esper.util.Version;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a snapshot to a channel.
+ * <p>
+ * Values of known types are written in a compact binary form. Instances of engine-internal aggregation and collection
+ * classes are written field-by-field so that they can be restored into the fresh instances the engine allocates.
+ * Other serializable values use Java serialization. Final fields holding values that cannot be captured, such as expression evaluators
+ * that the constructor assigns, are marked as skipped and keep their current value upon restore. Any other value that cannot be captured
+ * fails the snapshot.
+ */
+public class SnapshotWriter
+{
+    private final DataOutputStream out;
+    private Field currentField;
+    private Class currentClass;
+
+    /**
+     * Ctor, writes the snapshot header.
+     * @param channel to write to, the channel is not closed by the writer
+     * @param journalSegment number of the first event journal segment holding events that arrived after the snapshot, or -1 if there is no journal
+     * @throws IOException if the write fails
+     */
+    public SnapshotWriter(WritableByteChannel channel, long journalSegment) throws IOException
+    {
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        out.writeInt(SnapshotSupport.MAGIC);
+        out.writeInt(SnapshotSupport.VERSION);
+        writeString(Version.getBuildVersion());
+        out.writeLong(journalSegment);
+    }
+
+    /**
+     * Ctor for writing values to a stream, without a snapshot header.
+     * @param out to write to
+     */
+    public SnapshotWriter(DataOutputStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Returns indicator whether events of the type can be written as named window rows.
+     * @param eventType type
+     * @return indicator
+     */
+    public static boolean isSupportedType(EventType eventType)
+    {
+        return eventType instanceof MapEventType || eventType instanceof ObjectArrayEventType || eventType instanceof BeanEventType;
+    }
+
+    /**
+     * Starts a section holding named window rows.
+     * @param namedWindowName name
+     * @param agentInstanceId agent instance id, or -1 when not associated to a context
+     * @param numRows number of rows that follow
+     * @throws IOException if the write fails
+     */
+    public void beginNamedWindow(String namedWindowName, int agentInstanceId, int numRows) throws IOException
+    {
+        beginSection(SnapshotSupport.SECTION_NAMED_WINDOW, namedWindowName, agentInstanceId, numRows);
+    }
+
+    /**
+     * Starts a section holding table rows.
+     * @param tableName name
+     * @param agentInstanceId agent instance id, or -1 when not associated to a context
+     * @param numRows number of rows that follow
+     * @throws IOException if the write fails
+     */
+    public void beginTable(String tableName, int agentInstanceId, int numRows) throws IOException
+    {
+        beginSection(SnapshotSupport.SECTION_TABLE, tableName, agentInstanceId, numRows);
+    }
+
+    /**
+     * Writes the underlying object of an event.
+     * @param underlying map, object-array or bean underlying
+     * @throws IOException if the write fails
+     */
+    public void writeUnderlying(Object underlying) throws IOException
+    {
+        writeUnderlying(underlying, 0);
+    }
+
+    /**
+     * Writes a value.
+     * @param value to write
+     * @throws IOException if the write fails
+     */
+    public void writeValue(Object value) throws IOException
+    {
+        writeValue(value, 0);
+    }
+
+    /**
+     * Writes the captured fields of an object regardless of its class, such as for aggregation methods and states.
+     * @param value to write
+     * @throws IOException if the write fails
+     */
+    public void writeObject(Object value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeByte(SnapshotSupport.TAG_NULL);
+            return;
+        }
+        writeObject(value, 0);
+    }
+
+    /**
+     * Writes an int.
+     * @param value to write
+     * @throws IOException if the write fails
+     */
+    public void writeInt(int value) throws IOException
+    {
+        out.writeInt(value);
+    }
+
+    /**
+     * Ends the snapshot and flushes.
+     * @throws IOException if the write fails
+     */
+    public void finish() throws IOException
+    {
+        out.writeByte(SnapshotSupport.SECTION_END);
+        out.flush();
+    }
+
+    private void beginSection(byte sectionType, String name, int agentInstanceId, int numRows) throws IOException
+    {
+        out.writeByte(sectionType);
+        writeString(name);
+        out.writeInt(agentInstanceId);
+        out.writeInt(numRows);
+    }
+
+    private void writeUnderlying(Object underlying, int depth) throws IOException
+    {
+        if (underlying instanceof Object[])
+        {
+            writeValue(underlying, depth);
+        }
+        else if (underlying instanceof Map)
+        {
+            Map<?, ?> map = (Map<?, ?>) underlying;
+            writeValue(SnapshotSupport.isMapClass(map.getClass()) ? map : new LinkedHashMap<Object, Object>(map), depth);
+        }
+        else if (SnapshotSupport.isSerializable(underlying))
+        {
+            writeSerialized(underlying);
+        }
+        else
+        {
+            writeObject(underlying, depth);
+        }
+    }
+
+    private void writeValue(Object value, int depth) throws IOException
+    {
+        if (depth > SnapshotSupport.MAX_DEPTH)
+        {
+            throw new EPException("Snapshot value nesting exceeds the maximum depth of " + SnapshotSupport.MAX_DEPTH);
+        }
+        if (value == null)
+        {
+            out.writeByte(SnapshotSupport.TAG_NULL);
+            return;
+        }
+
+        Class clazz = value.getClass();
+        if (clazz == String.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_STRING);
+            writeString((String) value);
+        }
+        else if (clazz == Integer.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_INT);
+            out.writeInt((Integer) value);
+        }
+        else if (clazz == Long.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_LONG);
+            out.writeLong((Long) value);
+        }
+        else if (clazz == Double.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        }
+        else if (clazz == Boolean.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        }
+        else if (clazz == Float.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_FLOAT);
+            out.writeFloat((Float) value);
+        }
+        else if (clazz == Short.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_SHORT);
+            out.writeShort((Short) value);
+        }
+        else if (clazz == Byte.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_BYTE);
+            out.writeByte((Byte) value);
+        }
+        else if (clazz == Character.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_CHAR);
+            out.writeChar((Character) value);
+        }
+        else if (clazz == BigDecimal.class)
+        {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(SnapshotSupport.TAG_BIGDECIMAL);
+            out.writeInt(decimal.scale());
+            writeBytes(decimal.unscaledValue().toByteArray());
+        }
+        else if (clazz == BigInteger.class)
+        {
+            out.writeByte(SnapshotSupport.TAG_BIGINTEGER);
+            writeBytes(((BigInteger) value).toByteArray());
+        }
+        else if (value instanceof Enum)
+        {
+            out.writeByte(SnapshotSupport.TAG_ENUM);
+            writeString(((Enum) value).getDeclaringClass().getName());
+            writeString(((Enum) value).name());
+        }
+        else if (clazz.isArray())
+        {
+            writeArray(value, depth);
+        }
+        else if (SnapshotSupport.isCollectionClass(clazz))
+        {
+            Collection<?> collection = (Collection<?>) value;
+            out.writeByte(SnapshotSupport.TAG_COLLECTION);
+            writeString(clazz.getName());
+            out.writeInt(collection.size());
+            for (Object item : collection)
+            {
+                writeValue(item, depth + 1);
+            }
+        }
+        else if (SnapshotSupport.isMapClass(clazz))
+        {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(SnapshotSupport.TAG_MAP);
+            writeString(clazz.getName());
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                writeValue(entry.getKey(), depth + 1);
+                writeValue(entry.getValue(), depth + 1);
+            }
+        }
+        else if (value instanceof EventBean)
+        {
+            EventType eventType = ((EventBean) value).getEventType();
+            if (eventType.getName() == null || !isSupportedType(eventType))
+            {
+                throw makeUnsupported(value);
+            }
+            out.writeByte(SnapshotSupport.TAG_EVENT);
+            writeString(eventType.getName());
+            writeUnderlying(((EventBean) value).getUnderlying(), depth + 1);
+        }
+        else if (SnapshotSupport.isObjectClass(clazz))
+        {
+            writeObject(value, depth);
+        }
+        else if (SnapshotSupport.isSerializable(value))
+        {
+            writeSerialized(value);
+        }
+        else
+        {
+            throw makeUnsupported(value);
+        }
+    }
+
+    private static boolean isCapturable(Object value)
+    {
+        if (value == null)
+        {
+            return true;
+        }
+        Class clazz = value.getClass();
+        if (value instanceof EventBean)
+        {
+            EventType eventType = ((EventBean) value).getEventType();
+            return eventType.getName() != null && isSupportedType(eventType);
+        }
+        if (value instanceof Object[])
+        {
+            for (Object item : (Object[]) value)
+            {
+                if (!isCapturable(item))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return clazz.isArray() || value instanceof String || value instanceof Number || value instanceof Boolean ||
+                value instanceof Character || value instanceof Enum || SnapshotSupport.isCollectionClass(clazz) || SnapshotSupport.isMapClass(clazz) ||
+                SnapshotSupport.isObjectClass(clazz) || SnapshotSupport.isSerializable(value);
+    }
+
+    private EPException makeUnsupported(Object value)
+    {
+        if (currentField == null)
+        {
+            return new EPException("Snapshot cannot capture a value of class '" + describe(value) + "'");
+        }
+        return new EPException("Snapshot cannot capture a value of class '" + describe(value) + "' held by field '" + currentField.getName() +
+                "' of class '" + currentClass.getName() + "'");
+    }
+
+    private static String describe(Object value)
+    {
+        if (value instanceof EventBean)
+        {
+            return value.getClass().getName() + "' of event type '" + ((EventBean) value).getEventType().getName();
+        }
+        return value.getClass().getName();
+    }
+
+    private void writeObject(Object value, int depth) throws IOException
+    {
+        Field[] fields = SnapshotSupport.getFields(value.getClass());
+        out.writeByte(SnapshotSupport.TAG_OBJECT);
+        writeString(value.getClass().getName());
+        out.writeInt(fields.length);
+        Field outerField = currentField;
+        Class outerClass = currentClass;
+        try
+        {
+            for (Field field : fields)
+            {
+                Object fieldValue;
+                try
+                {
+                    fieldValue = field.get(value);
+                }
+                catch (IllegalAccessException e)
+                {
+                    throw new EPException("Failed to read field '" + field.getName() + "' of class '" + value.getClass().getName() + "': " + e.getMessage(), e);
+                }
+                if (Modifier.isFinal(field.getModifiers()) && !isCapturable(fieldValue))
+                {
+                    // assigned by the constructor and provided by the instance restored into
+                    out.writeByte(SnapshotSupport.TAG_SKIP);
+                    continue;
+                }
+                currentField = field;
+                currentClass = value.getClass();
+                writeValue(fieldValue, depth + 1);
+            }
+        }
+        finally
+        {
+            currentField = outerField;
+            currentClass = outerClass;
+        }
+    }
+
+    private void writeArray(Object array, int depth) throws IOException
+    {
+        Class component = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        out.writeByte(SnapshotSupport.TAG_ARRAY);
+        writeString(component.getName());
+        out.writeInt(length);
+        if (component == int.class)
+        {
+            for (int value : (int[]) array)
+            {
+                out.writeInt(value);
+            }
+        }
+        else if (component == long.class)
+        {
+            for (long value : (long[]) array)
+            {
+                out.writeLong(value);
+            }
+        }
+        else if (component == double.class)
+        {
+            for (double value : (double[]) array)
+            {
+                out.writeDouble(value);
+            }
+        }
+        else if (component == boolean.class)
+        {
+            for (boolean value : (boolean[]) array)
+            {
+                out.writeBoolean(value);
+            }
+        }
+        else if (component == byte.class)
+        {
+            out.write((byte[]) array);
+        }
+        else if (component == float.class)
+        {
+            for (float value : (float[]) array)
+            {
+                out.writeFloat(value);
+            }
+        }
+        else if (component == short.class)
+        {
+            for (short value : (short[]) array)
+            {
+                out.writeShort(value);
+            }
+        }
+        else if (component == char.class)
+        {
+            for (char value : (char[]) array)
+            {
+                out.writeChar(value);
+            }
+        }
+        else
+        {
+            for (Object value : (Object[]) array)
+            {
+                writeValue(value, depth + 1);
+            }
+        }
+    }
+
+    private void writeSerialized(Object value) throws IOException
+    {
+        out.writeByte(SnapshotSupport.TAG_SERIALIZED);
+        writeBytes(SerializerUtil.objectToByteArr(value));
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException
+    {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeString(String value) throws IOException
+    {
+        writeBytes(value.getBytes("UTF-8"));
+    }
+}
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.core.start;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionSelector;
@@ -38,6 +39,7 @@ import com.espertech.esper.event.EventBeanUtility;
 import com.espertech.esper.event.EventTypeSPI;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.filter.FilterSpecCompiler;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.AuditPath;
 import com.espertech.esper.view.Viewable;
 import org.slf4j.Logger;
@@ -62,6 +64,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final FilterSpecCompiled[] filters;
     private boolean hasTableAccess;
+    private EPPreparedExecuteMethodQueryParallel parallel;
 
     /**
      * Ctor.
@@ -135,7 +138,20 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         EPStatementStartMethodHelperValidate.validateNodes(statementSpec, statementContext, typeService, null);
 
         ResultSetProcessorFactoryDesc resultSetProcessorPrototype = ResultSetProcessorFactoryFactory.getProcessorPrototype(statementSpec, statementContext, typeService, null, new boolean[0], true, ContextPropertyRegistryImpl.EMPTY_REGISTRY, null, services.getConfigSnapshot(), services.getResultSetProcessorHelperFactory(), true, false);
-        resultSetProcessor = EPStatementStartMethodHelperAssignExpr.getAssignResultSetProcessor(agentInstanceContext, resultSetProcessorPrototype, false, null, true);
+        // parallel execution, excluding table access expressions as table locks are held by the executing thread
+        boolean hasTableAccessExpr = statementSpec.getTableNodes() != null && statementSpec.getTableNodes().length > 0;
+        if (numStreams == 1 && !hasTableAccessExpr && statementSpec.getOptionalContextName() == null &&
+            statementSpec.getSubSelectExpressions().length == 0 && services.getThreadingService().isFireAndForgetThreading()) {
+            ConfigurationEngineDefaults.Threading threading = services.getConfigSnapshot().getEngineDefaults().getThreading();
+            parallel = EPPreparedExecuteMethodQueryParallel.make(resultSetProcessorPrototype, statementContext, services.getThreadingService().getFireAndForgetThreadPool(),
+                    threading.getThreadPoolFireAndForgetNumThreads(), threading.getThreadPoolFireAndForgetMinRows());
+        }
+        if (parallel != null) {
+            resultSetProcessor = parallel.getAssignResultSetProcessor(agentInstanceContext);
+        }
+        else {
+            resultSetProcessor = EPStatementStartMethodHelperAssignExpr.getAssignResultSetProcessor(agentInstanceContext, resultSetProcessorPrototype, false, null, true);
+        }
 
         if (statementSpec.getSelectClauseSpec().isDistinct())
         {
@@ -305,12 +321,17 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         UniformPair<EventBean[]> results;
         if (numStreams == 1)
         {
-            if (statementSpec.getFilterRootNode() != null)
-            {
-                snapshots[0] = getFiltered(snapshots[0], Arrays.asList(statementSpec.getFilterRootNode()));
+            if (parallel != null && snapshots[0].size() >= parallel.getMinRows() && !InstrumentationHelper.ENABLED) {
+                results = parallel.process(snapshots[0], statementSpec.getFilterRootNode(), resultSetProcessor);
+            }
+            else {
+                if (statementSpec.getFilterRootNode() != null)
+                {
+                    snapshots[0] = getFiltered(snapshots[0], Arrays.asList(statementSpec.getFilterRootNode()));
+                }
+                EventBean[] rows = snapshots[0].toArray(new EventBean[snapshots[0].size()]);
+                results = resultSetProcessor.processViewResult(rows, null, true);
             }
-            EventBean[] rows = snapshots[0].toArray(new EventBean[snapshots[0].size()]);
-            results = resultSetProcessor.processViewResult(rows, null, true);
         }
         else
         {
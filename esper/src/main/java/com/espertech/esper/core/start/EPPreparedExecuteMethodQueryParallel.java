@@ -0,0 +1,343 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.start;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.context.stmt.AIRegistryAggregationMap;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllNoAccessImpl;
+import com.espertech.esper.epl.agg.service.AggregationService;
+import com.espertech.esper.epl.agg.service.AggregationServiceAggExpressionDesc;
+import com.espertech.esper.epl.core.*;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.event.EventBeanUtility;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel execution of a single-stream fire-and-forget query.
+ * <p>
+ * The snapshot is split into segments that are filtered on a fork-join pool. Depending on the result set processor:
+ * <ul>
+ *     <li>Unaggregated queries: each segment is processed by its own result set processor and the segment results are concatenated in order.</li>
+ *     <li>Grouped aggregation: rows are partitioned by group key so that each segment owns a disjoint set of groups,
+ *     and each segment aggregates through its own aggregation service. Aggregation expressions are assigned an
+ *     agent-instance registry of aggregation services, with one agent instance id per segment.</li>
+ *     <li>Ungrouped aggregation without event access, when all aggregation functions can combine their state, such as count, sum, avg
+ *     and min/max: each segment aggregates through its own aggregation service, and the calling thread combines the
+ *     segment aggregation states and evaluates the select-clause.</li>
+ *     <li>Otherwise, the filtered rows are processed by the result set processor on the calling thread.</li>
+ * </ul>
+ */
+public class EPPreparedExecuteMethodQueryParallel
+{
+    private final ForkJoinPool pool;
+    private final int minRows;
+    private final ResultSetProcessorFactoryDesc prototype;
+    private final AIRegistryAggregationMap aggregationRegistry;
+    private final ExprEvaluator[] groupKeyNodes;
+    private final AgentInstanceContext[] segmentContexts;
+    private final ResultSetProcessor[] segmentProcessors;
+    private final AggSvcGroupAllNoAccessImpl[] segmentAggregationServices;
+
+    private EPPreparedExecuteMethodQueryParallel(ForkJoinPool pool, int minRows, ResultSetProcessorFactoryDesc prototype, AIRegistryAggregationMap aggregationRegistry, ExprEvaluator[] groupKeyNodes, AgentInstanceContext[] segmentContexts, ResultSetProcessor[] segmentProcessors, AggSvcGroupAllNoAccessImpl[] segmentAggregationServices) {
+        this.pool = pool;
+        this.minRows = minRows;
+        this.prototype = prototype;
+        this.aggregationRegistry = aggregationRegistry;
+        this.groupKeyNodes = groupKeyNodes;
+        this.segmentContexts = segmentContexts;
+        this.segmentProcessors = segmentProcessors;
+        this.segmentAggregationServices = segmentAggregationServices;
+    }
+
+    /**
+     * Returns the parallel execution for a single-stream query, or null if parallel execution is not enabled.
+     * @param prototype result set processor prototype
+     * @param statementContext statement context
+     * @param pool fork-join pool
+     * @param numSegments number of segments
+     * @param minRows minimum number of rows for parallel execution
+     * @return parallel execution
+     */
+    public static EPPreparedExecuteMethodQueryParallel make(ResultSetProcessorFactoryDesc prototype, StatementContext statementContext, ForkJoinPool pool, int numSegments, int minRows) {
+        if (pool == null || numSegments < 2) {
+            return null;
+        }
+
+        AgentInstanceContext[] segmentContexts = new AgentInstanceContext[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            segmentContexts[i] = new AgentInstanceContext(statementContext, null, i, null, null, statementContext.getDefaultAgentInstanceScriptContext());
+        }
+
+        ResultSetProcessorFactory factory = prototype.getResultSetProcessorFactory();
+        ResultSetProcessorType type = factory.getResultSetProcessorType();
+
+        // fully-aggregated ungrouped: segment-local aggregation services combined on the calling thread
+        if (type == ResultSetProcessorType.FULLYAGGREGATED_UNGROUPED && prototype.getAggregationServiceFactoryDesc() != null) {
+            AggSvcGroupAllNoAccessImpl[] services = new AggSvcGroupAllNoAccessImpl[numSegments];
+            for (int i = 0; i < numSegments; i++) {
+                AggregationService service = prototype.getAggregationServiceFactoryDesc().getAggregationServiceFactory().makeService(segmentContexts[i], statementContext.getEngineImportService(), false, null);
+                if (!(service instanceof AggSvcGroupAllNoAccessImpl) || !((AggSvcGroupAllNoAccessImpl) service).isMergeable()) {
+                    services = null;
+                    break;
+                }
+                services[i] = (AggSvcGroupAllNoAccessImpl) service;
+            }
+            if (services != null) {
+                return new EPPreparedExecuteMethodQueryParallel(pool, minRows, prototype, null, null, segmentContexts, null, services);
+            }
+        }
+
+        if (prototype.getOrderByProcessorFactory() != null) {
+            return new EPPreparedExecuteMethodQueryParallel(pool, minRows, prototype, null, null, segmentContexts, null, null);
+        }
+
+        // unaggregated: segment-local processors
+        if (type == ResultSetProcessorType.HANDTHROUGH || type == ResultSetProcessorType.UNAGGREGATED_UNGROUPED) {
+            ResultSetProcessor[] processors = new ResultSetProcessor[numSegments];
+            for (int i = 0; i < numSegments; i++) {
+                processors[i] = factory.instantiate(null, null, segmentContexts[i]);
+            }
+            return new EPPreparedExecuteMethodQueryParallel(pool, minRows, prototype, null, null, segmentContexts, processors, null);
+        }
+
+        // grouped: segment-local processors and aggregation services, each owning a partition of groups
+        ExprEvaluator[] groupKeyNodes = null;
+        if (factory instanceof ResultSetProcessorRowPerGroupFactory) {
+            groupKeyNodes = ((ResultSetProcessorRowPerGroupFactory) factory).getGroupKeyNodes();
+        }
+        else if (factory instanceof ResultSetProcessorAggregateGroupedFactory) {
+            groupKeyNodes = ((ResultSetProcessorAggregateGroupedFactory) factory).getGroupKeyNodes();
+        }
+        if (groupKeyNodes == null || prototype.getAggregationServiceFactoryDesc() == null) {
+            return new EPPreparedExecuteMethodQueryParallel(pool, minRows, prototype, null, null, segmentContexts, null, null);
+        }
+
+        AIRegistryAggregationMap registry = new AIRegistryAggregationMap();
+        ResultSetProcessor[] processors = new ResultSetProcessor[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            processors[i] = makeProcessor(prototype, segmentContexts[i], registry);
+        }
+        return new EPPreparedExecuteMethodQueryParallel(pool, minRows, prototype, registry, groupKeyNodes, segmentContexts, processors, null);
+    }
+
+    /**
+     * Returns the result set processor for sequential execution. When segments aggregate on their own,
+     * aggregation expressions are assigned the registry of aggregation services, which then also holds
+     * the aggregation service for sequential execution.
+     * @param agentInstanceContext context for sequential execution
+     * @return processor
+     */
+    public ResultSetProcessor getAssignResultSetProcessor(AgentInstanceContext agentInstanceContext) {
+        if (aggregationRegistry == null) {
+            return EPStatementStartMethodHelperAssignExpr.getAssignResultSetProcessor(agentInstanceContext, prototype, false, null, true);
+        }
+        ResultSetProcessor processor = makeProcessor(prototype, agentInstanceContext, aggregationRegistry);
+        for (AggregationServiceAggExpressionDesc aggregation : prototype.getAggregationServiceFactoryDesc().getExpressions()) {
+            aggregation.assignFuture(aggregationRegistry);
+        }
+        return processor;
+    }
+
+    /**
+     * Returns the minimum number of rows for parallel execution.
+     * @return minimum number of rows
+     */
+    public int getMinRows() {
+        return minRows;
+    }
+
+    /**
+     * Filters and processes the snapshot.
+     * @param snapshot snapshot of the named window or table
+     * @param optionalFilter where-clause if any
+     * @param sequentialProcessor processor for sequential processing of filtered rows
+     * @return results
+     */
+    public UniformPair<EventBean[]> process(Collection<EventBean> snapshot, final ExprNode optionalFilter, ResultSetProcessor sequentialProcessor) {
+        final EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
+        final int numSegments = segmentContexts.length;
+        final int segmentSize = (rows.length + numSegments - 1) / numSegments;
+
+        // unaggregated: filter and process each segment, concatenate in segment order
+        if (segmentProcessors != null && groupKeyNodes == null) {
+            List<Callable<EventBean[]>> tasks = new ArrayList<Callable<EventBean[]>>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+                final int segment = i;
+                tasks.add(new Callable<EventBean[]>() {
+                    public EventBean[] call() throws Exception {
+                        EventBean[] filtered = filter(rows, segment * segmentSize, Math.min(rows.length, (segment + 1) * segmentSize), optionalFilter, segment);
+                        UniformPair<EventBean[]> result = segmentProcessors[segment].processViewResult(filtered, null, true);
+                        return result == null ? null : result.getFirst();
+                    }
+                });
+            }
+            return new UniformPair<EventBean[]>(flatten(invokeAll(tasks)), null);
+        }
+
+        // grouped: filter each segment and partition by group key
+        if (segmentProcessors != null) {
+            List<Callable<List<List<EventBean>>>> partitionTasks = new ArrayList<Callable<List<List<EventBean>>>>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+                final int segment = i;
+                partitionTasks.add(new Callable<List<List<EventBean>>>() {
+                    public List<List<EventBean>> call() throws Exception {
+                        EventBean[] filtered = filter(rows, segment * segmentSize, Math.min(rows.length, (segment + 1) * segmentSize), optionalFilter, segment);
+                        return partition(filtered, segment);
+                    }
+                });
+            }
+            final List<List<List<EventBean>>> partitions = invokeAll(partitionTasks);
+
+            List<Callable<EventBean[]>> aggregateTasks = new ArrayList<Callable<EventBean[]>>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+                final int segment = i;
+                aggregateTasks.add(new Callable<EventBean[]>() {
+                    public EventBean[] call() throws Exception {
+                        ArrayList<EventBean> segmentRows = new ArrayList<EventBean>();
+                        for (List<List<EventBean>> partition : partitions) {
+                            segmentRows.addAll(partition.get(segment));
+                        }
+                        ResultSetProcessor processor = segmentProcessors[segment];
+                        processor.clear();
+                        UniformPair<EventBean[]> result = processor.processViewResult(segmentRows.toArray(new EventBean[segmentRows.size()]), null, true);
+                        return result == null ? null : result.getFirst();
+                    }
+                });
+            }
+            return new UniformPair<EventBean[]>(flatten(invokeAll(aggregateTasks)), null);
+        }
+
+        // ungrouped aggregation: filter and aggregate each segment, combine on the calling thread
+        if (segmentAggregationServices != null && sequentialProcessor instanceof ResultSetProcessorRowForAll &&
+            ((ResultSetProcessorRowForAll) sequentialProcessor).getAggregationService() instanceof AggSvcGroupAllNoAccessImpl) {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+                final int segment = i;
+                tasks.add(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        EventBean[] filtered = filter(rows, segment * segmentSize, Math.min(rows.length, (segment + 1) * segmentSize), optionalFilter, segment);
+                        AggSvcGroupAllNoAccessImpl service = segmentAggregationServices[segment];
+                        service.clearResults(segmentContexts[segment]);
+                        EventBean[] eventsPerStream = new EventBean[1];
+                        for (EventBean row : filtered) {
+                            eventsPerStream[0] = row;
+                            service.applyEnter(eventsPerStream, null, segmentContexts[segment]);
+                        }
+                        return null;
+                    }
+                });
+            }
+            invokeAll(tasks);
+
+            AggSvcGroupAllNoAccessImpl combined = (AggSvcGroupAllNoAccessImpl) ((ResultSetProcessorRowForAll) sequentialProcessor).getAggregationService();
+            for (AggSvcGroupAllNoAccessImpl service : segmentAggregationServices) {
+                combined.merge(service);
+            }
+            return sequentialProcessor.processViewResult(new EventBean[0], null, true);
+        }
+
+        // other: filter in parallel, process on the calling thread
+        List<EventBean[]> filtered = Collections.singletonList(rows);
+        if (optionalFilter != null) {
+            List<Callable<EventBean[]>> tasks = new ArrayList<Callable<EventBean[]>>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+                final int segment = i;
+                tasks.add(new Callable<EventBean[]>() {
+                    public EventBean[] call() throws Exception {
+                        return filter(rows, segment * segmentSize, Math.min(rows.length, (segment + 1) * segmentSize), optionalFilter, segment);
+                    }
+                });
+            }
+            filtered = invokeAll(tasks);
+        }
+        EventBean[] all = flatten(filtered);
+        return sequentialProcessor.processViewResult(all == null ? new EventBean[0] : all, null, true);
+    }
+
+    private EventBean[] filter(EventBean[] rows, int from, int to, ExprNode optionalFilter, int segment) {
+        if (from >= to) {
+            return new EventBean[0];
+        }
+        List<EventBean> range = Arrays.asList(rows).subList(from, to);
+        if (optionalFilter == null) {
+            return range.toArray(new EventBean[range.size()]);
+        }
+        ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(range.size(), 16));
+        ExprNodeUtility.applyFilterExpressionsIterable(range, Collections.singletonList(optionalFilter), segmentContexts[segment], deque);
+        return deque.toArray(new EventBean[deque.size()]);
+    }
+
+    private List<List<EventBean>> partition(EventBean[] rows, int segment) {
+        int numSegments = segmentContexts.length;
+        List<List<EventBean>> partitions = new ArrayList<List<EventBean>>(numSegments);
+        for (int i = 0; i < numSegments; i++) {
+            partitions.add(new ArrayList<EventBean>());
+        }
+        EventBean[] eventsPerStream = new EventBean[1];
+        for (EventBean row : rows) {
+            eventsPerStream[0] = row;
+            int hash = 0;
+            for (ExprEvaluator groupKeyNode : groupKeyNodes) {
+                Object key = groupKeyNode.evaluate(eventsPerStream, true, segmentContexts[segment]);
+                hash = 31 * hash + (key == null ? 0 : key.hashCode());
+            }
+            hash ^= hash >>> 16;
+            partitions.get((hash & 0x7fffffff) % numSegments).add(row);
+        }
+        return partitions;
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<Future<T>> futures = pool.invokeAll(tasks);
+        List<T> results = new ArrayList<T>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted executing fire-and-forget query", ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new EPException("Failed to execute fire-and-forget query: " + ex.getCause().getMessage(), ex.getCause());
+        }
+        return results;
+    }
+
+    private static EventBean[] flatten(List<EventBean[]> results) {
+        ArrayDeque<EventBean[]> nonEmpty = new ArrayDeque<EventBean[]>(results.size());
+        for (EventBean[] result : results) {
+            if (result != null && result.length > 0) {
+                nonEmpty.add(result);
+            }
+        }
+        return EventBeanUtility.flatten(nonEmpty);
+    }
+
+    private static ResultSetProcessor makeProcessor(ResultSetProcessorFactoryDesc prototype, AgentInstanceContext agentInstanceContext, AIRegistryAggregationMap registry) {
+        AggregationService aggregationService = prototype.getAggregationServiceFactoryDesc().getAggregationServiceFactory().makeService(agentInstanceContext, agentInstanceContext.getStatementContext().getEngineImportService(), false, null);
+        registry.assignService(agentInstanceContext.getAgentInstanceId(), aggregationService);
+        return prototype.getResultSetProcessorFactory().instantiate(null, aggregationService, agentInstanceContext);
+    }
+}
@@ -22,7 +22,12 @@ import com.espertech.esper.epl.spec.StreamSpecCompiled;
 import com.espertech.esper.event.EventTypeUtility;
 import com.espertech.esper.pattern.EvalFactoryNode;
 import com.espertech.esper.pattern.EvalFilterFactoryNode;
+import com.espertech.esper.view.ViewFactory;
 import com.espertech.esper.view.ViewFactoryChain;
+import com.espertech.esper.view.window.LengthWindowViewFactory;
+import com.espertech.esper.view.window.TimeWindowViewFactory;
+
+import java.util.List;
 
 public class EPStatementStartMethodHelperUtil
 {
@@ -75,6 +80,23 @@ public class EPStatementStartMethodHelperUtil
         return result;
     }
 
+    protected static boolean[] getFifoDataWindow(boolean[] isNamedWindow, ViewFactoryChain[] unmaterializedViewChain)
+    {
+        boolean[] result = new boolean[unmaterializedViewChain.length];
+        for (int i = 0; i < unmaterializedViewChain.length; i++) {
+            if (isNamedWindow[i]) {
+                continue;
+            }
+            List<ViewFactory> factories = unmaterializedViewChain[i].getViewFactoryChain();
+            if (factories.size() != 1) {
+                continue;
+            }
+            Class factoryClass = factories.get(0).getClass();
+            result[i] = factoryClass == LengthWindowViewFactory.class || factoryClass == TimeWindowViewFactory.class;
+        }
+        return result;
+    }
+
     protected static boolean determineSubquerySameStream(StatementSpecCompiled statementSpec, FilterStreamSpecCompiled filterStreamSpec) {
         for (ExprSubselectNode subselect : statementSpec.getSubSelectExpressions()) {
             StreamSpecCompiled streamSpec = subselect.getStatementSpecCompiled().getStreamSpecs()[0];
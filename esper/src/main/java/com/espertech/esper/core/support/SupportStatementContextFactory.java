@@ -30,6 +30,7 @@ import com.espertech.esper.event.vaevent.ValueAddEventServiceImpl;
 import com.espertech.esper.filter.FilterBooleanExpressionFactoryImpl;
 import com.espertech.esper.pattern.PatternNodeFactoryImpl;
 import com.espertech.esper.pattern.PatternObjectResolutionServiceImpl;
+import com.espertech.esper.pattern.pool.PatternStatePoolEngineSvc;
 import com.espertech.esper.schedule.ScheduleBucket;
 import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.schedule.SchedulingServiceImpl;
@@ -104,7 +105,7 @@ public class SupportStatementContextFactory
                 null,
                 null,
                 null,
-                new StatementEventTypeRefImpl(), null, null, null, null, null, new ViewServicePreviousFactoryImpl(), null, new PatternNodeFactoryImpl(), new FilterBooleanExpressionFactoryImpl(), timeSourceService, SupportEngineImportServiceFactory.make(), AggregationFactoryFactoryDefault.INSTANCE, new SchedulingServiceImpl(timeSourceService));
+                new StatementEventTypeRefImpl(), null, null, null, null, null, new ViewServicePreviousFactoryImpl(), null, new PatternNodeFactoryImpl(), new FilterBooleanExpressionFactoryImpl(), timeSourceService, SupportEngineImportServiceFactory.make(), AggregationFactoryFactoryDefault.INSTANCE, new SchedulingServiceImpl(timeSourceService), new PatternStatePoolEngineSvc());
 
         return new StatementContext(stmtEngineServices,
                 stub,
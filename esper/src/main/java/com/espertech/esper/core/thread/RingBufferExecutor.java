@@ -0,0 +1,144 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the units submitted to a ring buffer queue using a fixed set of consumer threads.
+ * <p>
+ * Each consumer thread takes units in batches of up to the configured batch size and runs them in order,
+ * waiting according to the queue's wait strategy while the queue is empty.
+ */
+public class RingBufferExecutor
+{
+    private static final Logger log = LoggerFactory.getLogger(RingBufferExecutor.class);
+
+    private final RingBufferQueue<Runnable> queue;
+    private final Thread[] threads;
+    private final int batchSize;
+    private volatile boolean shutdown;
+
+    /**
+     * Ctor.
+     * @param queue queue to consume
+     * @param numThreads number of consumer threads
+     * @param batchSize maximum number of units to take at a time
+     * @param threadFactory factory for consumer threads
+     */
+    public RingBufferExecutor(RingBufferQueue<Runnable> queue, int numThreads, int batchSize, ThreadFactory threadFactory)
+    {
+        this.queue = queue;
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++)
+        {
+            threads[i] = threadFactory.newThread(new Consumer());
+        }
+    }
+
+    /**
+     * Starts the consumer threads.
+     */
+    public void start()
+    {
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns the queue.
+     * @return queue
+     */
+    public RingBufferQueue<Runnable> getQueue()
+    {
+        return queue;
+    }
+
+    /**
+     * Returns the number of consumer threads.
+     * @return thread count
+     */
+    public int getNumThreads()
+    {
+        return threads.length;
+    }
+
+    /**
+     * Stops the consumer threads, which complete the unit in progress and discard any remaining units of their batch.
+     * @param timeout maximum time to wait for each thread
+     * @param unit time unit
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        shutdown = true;
+        long millis = unit.toMillis(timeout);
+        for (Thread thread : threads)
+        {
+            thread.join(millis);
+        }
+    }
+
+    private class Consumer implements Runnable
+    {
+        public void run()
+        {
+            Object[] batch = new Object[batchSize];
+            int counter = 0;
+            while (!shutdown)
+            {
+                int count = queue.drainTo(batch);
+                if (count == 0)
+                {
+                    try
+                    {
+                        counter = queue.idle(counter);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        if (shutdown)
+                        {
+                            break;
+                        }
+                    }
+                    continue;
+                }
+
+                counter = 0;
+                for (int i = 0; i < count; i++)
+                {
+                    Runnable unit = (Runnable) batch[i];
+                    batch[i] = null;
+                    if (shutdown)
+                    {
+                        continue;   // discard the remainder of the batch, as the queue itself is cleared on shutdown
+                    }
+                    try
+                    {
+                        unit.run();
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        log.error("Unexpected exception executing unit: " + ex.getMessage(), ex);
+                    }
+                }
+            }
+        }
+    }
+}
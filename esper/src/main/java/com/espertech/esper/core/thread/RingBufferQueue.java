@@ -0,0 +1,352 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue over a pre-allocated ring of slots, for multiple producers and multiple consumers.
+ * <p>
+ * Each slot carries a sequence number that tells producers and consumers whether the slot is available
+ * for the current lap around the ring. Producers claim a position by compare-and-set on the tail counter and
+ * consumers by compare-and-set on the head counter, so neither ever takes a lock. Slots are reused on
+ * every lap and the queue does not allocate after construction. Blocking operations wait
+ * according to the configured wait strategy.
+ * <p>
+ * The iterator returns a weakly-consistent snapshot and does not support removal.
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E>
+{
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 100;
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy;
+
+    /**
+     * Ctor.
+     * @param capacity minimum capacity, rounded up to the next power of two of at least two
+     * @param waitStrategy wait strategy for blocking operations
+     */
+    public RingBufferQueue(int capacity, ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid ring buffer capacity " + capacity);
+        }
+        // at least two slots are required to tell a filled slot apart from a slot free for the next lap
+        int size = Math.max(2, Integer.highestOneBit(capacity));
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<E>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    public boolean offer(E e)
+    {
+        if (e == null)
+        {
+            throw new NullPointerException();
+        }
+        while (true)
+        {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    slots.lazySet(index, e);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            }
+            else if (difference < 0)
+            {
+                return false;   // full
+            }
+        }
+    }
+
+    public E poll()
+    {
+        while (true)
+        {
+            long position = head.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0)
+            {
+                if (head.compareAndSet(position, position + 1))
+                {
+                    E e = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return e;
+                }
+            }
+            else if (difference < 0)
+            {
+                return null;    // empty
+            }
+        }
+    }
+
+    public E peek()
+    {
+        while (true)
+        {
+            long position = head.get();
+            int index = (int) position & mask;
+            if (sequences.get(index) - (position + 1) < 0)
+            {
+                return null;
+            }
+            E e = slots.get(index);
+            if (e != null && head.get() == position)
+            {
+                return e;
+            }
+        }
+    }
+
+    public void put(E e) throws InterruptedException
+    {
+        int counter = 0;
+        while (!offer(e))
+        {
+            counter = idle(counter);
+        }
+    }
+
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int counter = 0;
+        while (!offer(e))
+        {
+            if (System.nanoTime() - deadline >= 0)
+            {
+                return false;
+            }
+            counter = idle(counter);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException
+    {
+        int counter = 0;
+        while (true)
+        {
+            E e = poll();
+            if (e != null)
+            {
+                return e;
+            }
+            counter = idle(counter);
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int counter = 0;
+        while (true)
+        {
+            E e = poll();
+            if (e != null)
+            {
+                return e;
+            }
+            if (System.nanoTime() - deadline >= 0)
+            {
+                return null;
+            }
+            counter = idle(counter);
+        }
+    }
+
+    public int size()
+    {
+        while (true)
+        {
+            long headBefore = head.get();
+            long currentTail = tail.get();
+            if (head.get() == headBefore)
+            {
+                long size = currentTail - headBefore;
+                return (int) Math.max(0, Math.min(size, mask + 1));
+            }
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    public int remainingCapacity()
+    {
+        return mask + 1 - size();
+    }
+
+    /**
+     * Returns the capacity, which is the requested capacity rounded up to the next power of two.
+     * @return capacity
+     */
+    public int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    public int drainTo(Collection<? super E> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements)
+    {
+        int count = 0;
+        while (count < maxElements)
+        {
+            E e = poll();
+            if (e == null)
+            {
+                break;
+            }
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes up to the array length of elements, placing them into the array starting at index zero.
+     * @param target array to fill
+     * @return number of elements removed
+     */
+    public int drainTo(Object[] target)
+    {
+        int count = 0;
+        while (count < target.length)
+        {
+            E e = poll();
+            if (e == null)
+            {
+                break;
+            }
+            target[count++] = e;
+        }
+        return count;
+    }
+
+    public Iterator<E> iterator()
+    {
+        List<E> snapshot = new ArrayList<E>();
+        long end = tail.get();
+        for (long position = head.get(); position < end; position++)
+        {
+            int index = (int) position & mask;
+            if (sequences.get(index) == position + 1)
+            {
+                E e = slots.get(index);
+                if (e != null)
+                {
+                    snapshot.add(e);
+                }
+            }
+        }
+        final Iterator<E> it = snapshot.iterator();
+        return new Iterator<E>()
+        {
+            public boolean hasNext()
+            {
+                return it.hasNext();
+            }
+
+            public E next()
+            {
+                return it.next();
+            }
+
+            public void remove()
+            {
+                throw new UnsupportedOperationException("Remove is not supported by the ring buffer queue iterator");
+            }
+        };
+    }
+
+    /**
+     * Waits once according to the wait strategy, for use by threads that poll the queue.
+     * @param counter number of times waited so far without progress, zero to start
+     * @return counter to pass to the next invocation
+     * @throws InterruptedException if the thread was interrupted
+     */
+    public int idle(int counter) throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        switch (waitStrategy)
+        {
+            case BUSYSPIN:
+                return counter;
+            case YIELD:
+                if (counter < SPIN_TRIES)
+                {
+                    return counter + 1;
+                }
+                Thread.yield();
+                return counter;
+            default:
+                if (counter < SPIN_TRIES)
+                {
+                    return counter + 1;
+                }
+                if (counter < SPIN_TRIES + YIELD_TRIES)
+                {
+                    Thread.yield();
+                    return counter + 1;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+                return counter;
+        }
+    }
+}
@@ -14,7 +14,9 @@ package com.espertech.esper.core.thread;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -70,6 +72,26 @@ public interface ThreadingService
      */
     public void submitRoute(RouteUnitRunnable unit);
 
+    /**
+     * Returns true for context partition threading enabled.
+     * @return indicator
+     */
+    public boolean isContextPartitionThreading();
+
+    /**
+     * Returns the index of the context partition thread that processes the context partition of the given partition key.
+     * @param partitionKey hash code or key of the context partition
+     * @return thread index
+     */
+    public int getContextPartitionThreadIndex(Object partitionKey);
+
+    /**
+     * Submit context partition work unit for processing by the given context partition thread.
+     * @param threadIndex context partition thread index
+     * @param unit unit of work
+     */
+    public void submitContextPartition(int threadIndex, RouteUnitRunnable unit);
+
     /**
      * Returns true for outbound threading enabled.
      * @return indicator
@@ -89,7 +111,7 @@ public interface ThreadingService
     public BlockingQueue<Runnable> getOutboundQueue();
 
     /**
-     * Returns the outbound thread pool
+     * Returns the outbound thread pool, or null when the thread pool queue is a ring buffer
      * @return thread pool
      */
     public ThreadPoolExecutor getOutboundThreadPool();
@@ -101,7 +123,7 @@ public interface ThreadingService
     public BlockingQueue<Runnable> getRouteQueue();
 
     /**
-     * Returns the route thread pool
+     * Returns the route thread pool, or null when the thread pool queue is a ring buffer
      * @return thread pool
      */
     public ThreadPoolExecutor getRouteThreadPool();
@@ -113,7 +135,7 @@ public interface ThreadingService
     public BlockingQueue<Runnable> getTimerQueue();
 
     /**
-     * Returns the timer thread pool
+     * Returns the timer thread pool, or null when the thread pool queue is a ring buffer
      * @return thread pool
      */
     public ThreadPoolExecutor getTimerThreadPool();
@@ -125,10 +147,24 @@ public interface ThreadingService
     public BlockingQueue<Runnable> getInboundQueue();
 
     /**
-     * Returns the inbound thread pool
+     * Returns the inbound thread pool, or null when the thread pool queue is a ring buffer
      * @return thread pool
      */
     public ThreadPoolExecutor getInboundThreadPool();
 
+    public boolean isFireAndForgetThreading();
+
+    public ForkJoinPool getFireAndForgetThreadPool();
+
+    public boolean isOutputLimitThreading();
+
+    /**
+     * Returns the fork-join pool for parallel generation of output-rate-limited group rows, or null when not enabled
+     * @return pool
+     */
+    public ForkJoinPool getOutputLimitThreadPool();
+
+    public List<BlockingQueue<Runnable>> getContextPartitionQueues();
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable);
 }
@@ -17,6 +17,8 @@ import com.espertech.esper.core.service.EPServicesContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -26,21 +28,39 @@ public class ThreadingServiceImpl implements ThreadingService
 {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
 
+    /**
+     * Capacity of ring buffer queues when no capacity is configured, since ring buffers are always bounded.
+     */
+    public final static int DEFAULT_RING_BUFFER_CAPACITY = 8192;
+
     private final ConfigurationEngineDefaults.Threading config;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isFireAndForgetThreading;
+    private final boolean isOutputLimitThreading;
+    private final boolean isContextPartitionThreading;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
     private BlockingQueue<Runnable> routeQueue;
     private BlockingQueue<Runnable> outboundQueue;
+    private List<BlockingQueue<Runnable>> contextPartitionQueues;
 
     private ThreadPoolExecutor timerThreadPool;
     private ThreadPoolExecutor inboundThreadPool;
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
+    private ForkJoinPool fireAndForgetThreadPool;
+    private ForkJoinPool outputLimitThreadPool;
+    private ThreadPoolExecutor[] contextPartitionThreadPools;
+
+    private RingBufferExecutor timerRingBufferExecutor;
+    private RingBufferExecutor inboundRingBufferExecutor;
+    private RingBufferExecutor routeRingBufferExecutor;
+    private RingBufferExecutor outboundRingBufferExecutor;
+    private RingBufferExecutor[] contextPartitionRingBufferExecutors;
 
     /**
      * Ctor.
@@ -55,6 +75,7 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isContextPartitionThreading = threadingConfig.isThreadPoolContextPartition();
         }
         else
         {
@@ -62,7 +83,14 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isContextPartitionThreading = false;
         }
+
+        // fire-and-forget queries are not on the event processing path and do not require the threading option
+        isFireAndForgetThreading = threadingConfig.isThreadPoolFireAndForget();
+
+        // output generation runs on the pool while the statement lock is held by the releasing thread
+        isOutputLimitThreading = threadingConfig.isThreadPoolOutputLimit();
     }
 
     public boolean isRouteThreading()
@@ -85,8 +113,31 @@ public class ThreadingServiceImpl implements ThreadingService
         return isOutboundThreading;
     }
 
+    public boolean isContextPartitionThreading()
+    {
+        return isContextPartitionThreading;
+    }
+
+    public boolean isFireAndForgetThreading()
+    {
+        return isFireAndForgetThreading;
+    }
+
+    public boolean isOutputLimitThreading()
+    {
+        return isOutputLimitThreading;
+    }
+
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime)
     {
+        if (config.getThreadPoolQueue() == ConfigurationEngineDefaults.Threading.ThreadPoolQueue.RINGBUFFER)
+        {
+            initRingBufferThreading(services.getEngineURI());
+            initFireAndForgetThreading(services.getEngineURI());
+            initOutputLimitThreading(services.getEngineURI());
+            return;
+        }
+
         if (isInboundThreading)
         {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
@@ -110,6 +161,78 @@ public class ThreadingServiceImpl implements ThreadingService
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
             outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
         }
+
+        if (isContextPartitionThreading)
+        {
+            // one single-threaded pool per thread so that each context partition is processed in order
+            int numThreads = Math.max(1, config.getThreadPoolContextPartitionNumThreads());
+            contextPartitionQueues = new ArrayList<BlockingQueue<Runnable>>(numThreads);
+            contextPartitionThreadPools = new ThreadPoolExecutor[numThreads];
+            for (int i = 0; i < numThreads; i++)
+            {
+                BlockingQueue<Runnable> queue = makeQueue(config.getThreadPoolContextPartitionCapacity());
+                contextPartitionQueues.add(queue);
+                contextPartitionThreadPools[i] = getThreadPool(services.getEngineURI(), "ContextPartition-" + i, queue, 1);
+            }
+        }
+
+        initFireAndForgetThreading(services.getEngineURI());
+        initOutputLimitThreading(services.getEngineURI());
+    }
+
+    private void initRingBufferThreading(String engineURI)
+    {
+        if (isInboundThreading)
+        {
+            inboundRingBufferExecutor = getRingBufferExecutor(engineURI, "Inbound", config.getThreadPoolInboundCapacity(), config.getThreadPoolInboundNumThreads());
+            inboundQueue = inboundRingBufferExecutor.getQueue();
+        }
+
+        if (isTimerThreading)
+        {
+            timerRingBufferExecutor = getRingBufferExecutor(engineURI, "TimerExec", config.getThreadPoolTimerExecCapacity(), config.getThreadPoolTimerExecNumThreads());
+            timerQueue = timerRingBufferExecutor.getQueue();
+        }
+
+        if (isRouteThreading)
+        {
+            routeRingBufferExecutor = getRingBufferExecutor(engineURI, "RouteExec", config.getThreadPoolRouteExecCapacity(), config.getThreadPoolRouteExecNumThreads());
+            routeQueue = routeRingBufferExecutor.getQueue();
+        }
+
+        if (isOutboundThreading)
+        {
+            outboundRingBufferExecutor = getRingBufferExecutor(engineURI, "Outbound", config.getThreadPoolOutboundCapacity(), config.getThreadPoolOutboundNumThreads());
+            outboundQueue = outboundRingBufferExecutor.getQueue();
+        }
+
+        if (isContextPartitionThreading)
+        {
+            int numThreads = Math.max(1, config.getThreadPoolContextPartitionNumThreads());
+            contextPartitionQueues = new ArrayList<BlockingQueue<Runnable>>(numThreads);
+            contextPartitionRingBufferExecutors = new RingBufferExecutor[numThreads];
+            for (int i = 0; i < numThreads; i++)
+            {
+                contextPartitionRingBufferExecutors[i] = getRingBufferExecutor(engineURI, "ContextPartition-" + i, config.getThreadPoolContextPartitionCapacity(), 1);
+                contextPartitionQueues.add(contextPartitionRingBufferExecutors[i].getQueue());
+            }
+        }
+    }
+
+    private void initFireAndForgetThreading(String engineURI)
+    {
+        if (isFireAndForgetThreading)
+        {
+            fireAndForgetThreadPool = getForkJoinPool(engineURI, "FireAndForget", config.getThreadPoolFireAndForgetNumThreads());
+        }
+    }
+
+    private void initOutputLimitThreading(String engineURI)
+    {
+        if (isOutputLimitThreading)
+        {
+            outputLimitThreadPool = getForkJoinPool(engineURI, "OutputLimit", config.getThreadPoolOutputLimitNumThreads());
+        }
     }
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity)
@@ -150,6 +273,25 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    public int getContextPartitionThreadIndex(Object partitionKey)
+    {
+        int hash = partitionKey == null ? 0 : partitionKey.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % contextPartitionQueues.size();
+    }
+
+    public void submitContextPartition(int threadIndex, RouteUnitRunnable unit)
+    {
+        try
+        {
+            contextPartitionQueues.get(threadIndex).put(unit);
+        }
+        catch (InterruptedException e)
+        {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit)
     {
         try
@@ -214,6 +356,21 @@ public class ThreadingServiceImpl implements ThreadingService
         return inboundThreadPool;
     }
 
+    public ForkJoinPool getFireAndForgetThreadPool()
+    {
+        return fireAndForgetThreadPool;
+    }
+
+    public ForkJoinPool getOutputLimitThreadPool()
+    {
+        return outputLimitThreadPool;
+    }
+
+    public List<BlockingQueue<Runnable>> getContextPartitionQueues()
+    {
+        return contextPartitionQueues;
+    }
+
     public synchronized void destroy()
     {
         if (timerThreadPool != null)
@@ -232,11 +389,53 @@ public class ThreadingServiceImpl implements ThreadingService
         {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        stopRingBuffer(timerRingBufferExecutor, "TimerExec");
+        stopRingBuffer(routeRingBufferExecutor, "RouteExec");
+        stopRingBuffer(outboundRingBufferExecutor, "Outbound");
+        stopRingBuffer(inboundRingBufferExecutor, "Inbound");
+        if (contextPartitionThreadPools != null)
+        {
+            for (int i = 0; i < contextPartitionThreadPools.length; i++)
+            {
+                stopPool(contextPartitionThreadPools[i], contextPartitionQueues.get(i), "ContextPartition-" + i);
+            }
+        }
+        if (contextPartitionRingBufferExecutors != null)
+        {
+            for (int i = 0; i < contextPartitionRingBufferExecutors.length; i++)
+            {
+                stopRingBuffer(contextPartitionRingBufferExecutors[i], "ContextPartition-" + i);
+            }
+        }
+        if (fireAndForgetThreadPool != null)
+        {
+            if (log.isInfoEnabled())
+            {
+                log.info("Shutting down pool FireAndForget");
+            }
+            fireAndForgetThreadPool.shutdown();
+        }
+        if (outputLimitThreadPool != null)
+        {
+            if (log.isInfoEnabled())
+            {
+                log.info("Shutting down pool OutputLimit");
+            }
+            outputLimitThreadPool.shutdown();
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        fireAndForgetThreadPool = null;
+        outputLimitThreadPool = null;
+        timerRingBufferExecutor = null;
+        routeRingBufferExecutor = null;
+        outboundRingBufferExecutor = null;
+        inboundRingBufferExecutor = null;
+        contextPartitionThreadPools = null;
+        contextPartitionRingBufferExecutors = null;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads)
@@ -259,6 +458,48 @@ public class ThreadingServiceImpl implements ThreadingService
         return pool;
     }
 
+    private RingBufferExecutor getRingBufferExecutor(String engineURI, String name, Integer capacity, int numThreads)
+    {
+        if ((capacity == null) || (capacity <= 0) || (capacity == Integer.MAX_VALUE))
+        {
+            capacity = DEFAULT_RING_BUFFER_CAPACITY;
+        }
+
+        if (log.isInfoEnabled())
+        {
+            log.info("Starting ring buffer " + name + " with " + numThreads + " threads and capacity " + capacity);
+        }
+
+        if (engineURI == null)
+        {
+            engineURI = "default";
+        }
+
+        String threadGroupName = "com.espertech.esper." + engineURI + "-" + name;
+        ThreadGroup threadGroup = new ThreadGroup(threadGroupName);
+        RingBufferQueue<Runnable> queue = new RingBufferQueue<Runnable>(capacity, config.getThreadPoolRingBufferWaitStrategy());
+        RingBufferExecutor executor = new RingBufferExecutor(queue, numThreads, config.getThreadPoolRingBufferBatchSize(), new EngineThreadFactory(engineURI, name, threadGroup, Thread.NORM_PRIORITY));
+        executor.start();
+        return executor;
+    }
+
+    private ForkJoinPool getForkJoinPool(String engineURI, String name, int numThreads)
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Starting pool " + name + " with " + numThreads + " threads");
+        }
+
+        final String threadNamePrefix = "com.espertech.esper." + name + "-" + (engineURI == null ? "default" : engineURI) + "-";
+        return new ForkJoinPool(numThreads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName(threadNamePrefix + thread.getPoolIndex());
+                return thread;
+            }
+        }, null, false);
+    }
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable) {
         if (engineURI == null)
         {
@@ -270,6 +511,30 @@ public class ThreadingServiceImpl implements ThreadingService
         return new Thread(threadGroup, runnable);
     }
 
+    private void stopRingBuffer(RingBufferExecutor executor, String name)
+    {
+        if (executor == null)
+        {
+            return;
+        }
+
+        if (log.isInfoEnabled())
+        {
+            log.info("Shutting down ring buffer " + name);
+        }
+
+        executor.getQueue().clear();
+
+        try
+        {
+            executor.shutdown(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            log.error("Interruped awaiting termination", e);
+        }
+    }
+
     private void stopPool(ThreadPoolExecutor threadPool, BlockingQueue<Runnable> queue, String name)
     {
         if (log.isInfoEnabled())
@@ -36,4 +36,10 @@ public interface DispatchService
      */
     public void dispatch();
 
+    /**
+     * Returns indicator whether any Dispatchable was added to the current thread's queue and was not dispatched yet.
+     * @return true when dispatch is pending
+     */
+    public boolean isDispatchWaiting();
+
 }
@@ -0,0 +1,29 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method that accepts floating-point values without boxing, in addition to {@link AggregationMethod#enter(Object)}
+ * and {@link AggregationMethod#leave(Object)}.
+ * <p>The primitive methods are used when the aggregated expression evaluates to a double or float value that is not null.
+ */
+public interface AggregationMethodDoubleInput extends AggregationMethod
+{
+    /**
+     * Apply the non-null value as entering aggregation (entering window).
+     * @param value to add to aggregate
+     */
+    public void enterDouble(double value);
+
+    /**
+     * Apply the non-null value as leaving aggregation (leaving window).
+     * @param value to remove from aggregate
+     */
+    public void leaveDouble(double value);
+}
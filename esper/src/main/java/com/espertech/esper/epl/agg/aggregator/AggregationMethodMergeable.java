@@ -0,0 +1,22 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method whose state can be combined with the state of another aggregation method of the same class.
+ * <p>Used to aggregate disjoint sets of values independently, for example by different threads, and to combine the results.
+ */
+public interface AggregationMethodMergeable extends AggregationMethod
+{
+    /**
+     * Add the state of the other aggregation method, which aggregated a disjoint set of values, to this aggregation method.
+     * @param other aggregation method of the same class
+     */
+    public void merge(AggregationMethod other);
+}
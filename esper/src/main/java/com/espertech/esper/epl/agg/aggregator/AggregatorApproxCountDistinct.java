@@ -0,0 +1,56 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLogState;
+
+/**
+ * Approximate distinct count using a HyperLogLog++ sketch, in memory bounded by the precision.
+ * Values cannot be removed, the aggregator ignores values leaving.
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod
+{
+    protected final HyperLogLogState state;
+
+    /**
+     * Ctor.
+     * @param precision number of index bits of the sketch
+     */
+    public AggregatorApproxCountDistinct(int precision)
+    {
+        this.state = new HyperLogLogState(precision);
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        state.add(object);
+    }
+
+    public void leave(Object object)
+    {
+    }
+
+    public Object getValue()
+    {
+        return state.estimate();
+    }
+
+    public void clear()
+    {
+        state.clear();
+    }
+
+    public HyperLogLogState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,59 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.TDigestState;
+
+/**
+ * Approximate percentile using a t-digest, in memory bounded by the compression.
+ * Values cannot be removed, the aggregator ignores values leaving.
+ */
+public class AggregatorApproxPercentile implements AggregationMethod
+{
+    protected final double percentile;
+    protected final TDigestState state;
+
+    /**
+     * Ctor.
+     * @param percentile percentile between zero and one
+     * @param compression compression of the digest
+     */
+    public AggregatorApproxPercentile(double percentile, double compression)
+    {
+        this.percentile = percentile;
+        this.state = new TDigestState(compression);
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        state.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+    }
+
+    public Object getValue()
+    {
+        return state.quantile(percentile);
+    }
+
+    public void clear()
+    {
+        state.clear();
+    }
+
+    public TDigestState getState() {
+        return state;
+    }
+}
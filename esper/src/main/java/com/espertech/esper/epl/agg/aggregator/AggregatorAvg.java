@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Average that generates double-typed numbers.
  */
-public class AggregatorAvg implements AggregationMethod
+public class AggregatorAvg implements AggregationMethodDoubleInput, AggregationMethodLongInput, AggregationMethodMergeable
 {
     protected double sum;
     protected long numDataPoints;
@@ -27,8 +27,7 @@ public class AggregatorAvg implements AggregationMethod
         if (object == null) {
             return;
         }
-        numDataPoints++;
-        sum += ((Number) object).doubleValue();
+        enterDouble(((Number) object).doubleValue());
     }
 
     public void leave(Object object)
@@ -36,15 +35,43 @@ public class AggregatorAvg implements AggregationMethod
         if (object == null) {
             return;
         }
+        leaveDouble(((Number) object).doubleValue());
+    }
+
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveDouble(double value)
+    {
         if (numDataPoints <= 1) {
             clear();
         }
         else {
             numDataPoints--;
-            sum -= ((Number) object).doubleValue();
+            sum -= value;
         }
     }
 
+    public void enterLong(long value)
+    {
+        enterDouble(value);
+    }
+
+    public void leaveLong(long value)
+    {
+        leaveDouble(value);
+    }
+
+    public void merge(AggregationMethod other)
+    {
+        AggregatorAvg that = (AggregatorAvg) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0) {
@@ -18,7 +18,7 @@ import java.math.MathContext;
 /**
  * Average that generates a BigDecimal numbers.
  */
-public class AggregatorAvgBigDecimal implements AggregationMethod
+public class AggregatorAvgBigDecimal implements AggregationMethodMergeable
 {
     private static final Logger log = LoggerFactory.getLogger(AggregatorAvgBigDecimal.class);
     protected BigDecimal sum;
@@ -77,6 +77,13 @@ public class AggregatorAvgBigDecimal implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorAvgBigDecimal that = (AggregatorAvgBigDecimal) other;
+        sum = sum.add(that.sum);
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
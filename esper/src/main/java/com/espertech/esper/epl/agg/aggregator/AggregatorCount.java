@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCount implements AggregationMethod
+public class AggregatorCount implements AggregationMethodMergeable
 {
     protected long numDataPoints;
 
@@ -32,6 +32,11 @@ public class AggregatorCount implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        numDataPoints += ((AggregatorCount) other).numDataPoints;
+    }
+
     public Object getValue()
     {
         return numDataPoints;
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCountFilter implements AggregationMethod
+public class AggregatorCountFilter implements AggregationMethodMergeable
 {
     protected long numDataPoints;
 
@@ -36,6 +36,11 @@ public class AggregatorCountFilter implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        numDataPoints += ((AggregatorCountFilter) other).numDataPoints;
+    }
+
     public Object getValue()
     {
         return numDataPoints;
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNull implements AggregationMethod
+public class AggregatorCountNonNull implements AggregationMethodMergeable
 {
     protected long numDataPoints;
 
@@ -42,6 +42,11 @@ public class AggregatorCountNonNull implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        numDataPoints += ((AggregatorCountNonNull) other).numDataPoints;
+    }
+
     public Object getValue()
     {
         return numDataPoints;
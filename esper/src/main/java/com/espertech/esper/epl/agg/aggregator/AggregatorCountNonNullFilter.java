@@ -13,7 +13,7 @@ import java.lang.reflect.Array;
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNullFilter implements AggregationMethod
+public class AggregatorCountNonNullFilter implements AggregationMethodMergeable
 {
     protected long numDataPoints;
 
@@ -38,6 +38,11 @@ public class AggregatorCountNonNullFilter implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        numDataPoints += ((AggregatorCountNonNullFilter) other).numDataPoints;
+    }
+
     public Object getValue()
     {
         return numDataPoints;
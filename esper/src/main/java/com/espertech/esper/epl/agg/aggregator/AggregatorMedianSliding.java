@@ -0,0 +1,93 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.SlidingWindowMedian;
+import com.espertech.esper.collection.SortedDoubleVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Median aggregation for values of a first-in-first-out data window such as a length or time window.
+ * <p>
+ * Uses two heaps instead of a sorted vector. Should values not leave in the order they entered,
+ * the aggregator falls back to the sorted vector for the remainder of its lifetime.
+ */
+public class AggregatorMedianSliding extends AggregatorMedian
+{
+    private SlidingWindowMedian window;
+
+    /**
+     * Ctor.
+     */
+    public AggregatorMedianSliding()
+    {
+        this.window = new SlidingWindowMedian();
+    }
+
+    public void clear()
+    {
+        if (window == null)
+        {
+            super.clear();
+            return;
+        }
+        window.clear();
+    }
+
+    public void enter(Object object)
+    {
+        if (window == null)
+        {
+            super.enter(object);
+            return;
+        }
+        if (object == null)
+        {
+            return;
+        }
+        window.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        if (window == null)
+        {
+            super.leave(object);
+            return;
+        }
+        if (object == null)
+        {
+            return;
+        }
+        if (!window.removeOldest(((Number) object).doubleValue()))
+        {
+            double[] values = window.toArray();
+            Arrays.sort(values);
+            ArrayList<Double> sorted = new ArrayList<Double>(values.length);
+            for (double value : values)
+            {
+                sorted.add(value);
+            }
+            vector = new SortedDoubleVector(sorted);
+            window = null;
+            super.leave(object);
+        }
+    }
+
+    public Object getValue()
+    {
+        if (window == null)
+        {
+            return super.getValue();
+        }
+        return window.getMedian();
+    }
+}
@@ -15,7 +15,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Min/max aggregator for all values, not considering events leaving the aggregation (i.e. ever).
  */
-public class AggregatorMinMaxEver implements AggregationMethod
+public class AggregatorMinMaxEver implements AggregationMethodMergeable
 {
     private static final Logger log = LoggerFactory.getLogger(AggregatorMinMaxEver.class);
 
@@ -66,6 +66,12 @@ public class AggregatorMinMaxEver implements AggregationMethod
         log.warn(".leave Received remove stream, none was expected");
     }
 
+    public void merge(AggregationMethod other)
+    {
+        // the other segment's min or max enters like any other value
+        enter(((AggregatorMinMaxEver) other).currentMinMax);
+    }
+
     public Object getValue()
     {
         return currentMinMax;
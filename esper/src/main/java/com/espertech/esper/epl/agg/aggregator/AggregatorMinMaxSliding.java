@@ -0,0 +1,89 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.SlidingWindowMinMax;
+import com.espertech.esper.type.MinMaxTypeEnum;
+
+/**
+ * Min/max aggregator for values of a first-in-first-out data window such as a length or time window.
+ * <p>
+ * Uses a monotonic deque instead of a sorted set. Should values not leave in the order they entered,
+ * the aggregator falls back to the sorted set for the remainder of its lifetime.
+ */
+public class AggregatorMinMaxSliding extends AggregatorMinMax
+{
+    private SlidingWindowMinMax window;
+
+    /**
+     * Ctor.
+     *
+     * @param minMaxTypeEnum - enum indicating to return minimum or maximum values
+     */
+    public AggregatorMinMaxSliding(MinMaxTypeEnum minMaxTypeEnum)
+    {
+        super(minMaxTypeEnum);
+        this.window = new SlidingWindowMinMax(minMaxTypeEnum == MinMaxTypeEnum.MAX);
+    }
+
+    public void clear()
+    {
+        if (window == null)
+        {
+            super.clear();
+            return;
+        }
+        window.clear();
+    }
+
+    public void enter(Object object)
+    {
+        if (window == null)
+        {
+            super.enter(object);
+            return;
+        }
+        if (object == null)
+        {
+            return;
+        }
+        window.add(object);
+    }
+
+    public void leave(Object object)
+    {
+        if (window == null)
+        {
+            super.leave(object);
+            return;
+        }
+        if (object == null)
+        {
+            return;
+        }
+        if (!window.removeOldest(object))
+        {
+            for (Object value : window.toArray())
+            {
+                refSet.add(value);
+            }
+            window = null;
+            super.leave(object);
+        }
+    }
+
+    public Object getValue()
+    {
+        if (window == null)
+        {
+            return super.getValue();
+        }
+        return window.getValue();
+    }
+}
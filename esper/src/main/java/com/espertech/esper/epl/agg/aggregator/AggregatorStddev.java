@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Standard deviation always generates double-typed numbers.
  */
-public class AggregatorStddev implements AggregationMethod
+public class AggregatorStddev implements AggregationMethodDoubleInput, AggregationMethodLongInput
 {
     protected double mean;
     protected double qn;
@@ -30,9 +30,30 @@ public class AggregatorStddev implements AggregationMethod
         {
             return;
         }
+        enterDouble(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        leaveDouble(((Number) object).doubleValue());
+    }
+
+    public void enterLong(long value)
+    {
+        enterDouble(value);
+    }
 
-        double p = ((Number) object).doubleValue();
+    public void leaveLong(long value)
+    {
+        leaveDouble(value);
+    }
 
+    public void enterDouble(double p)
+    {
         // compute running variance per Knuth's method
         if (numDataPoints == 0) {
             mean = p;
@@ -47,15 +68,8 @@ public class AggregatorStddev implements AggregationMethod
         }
     }
 
-    public void leave(Object object)
+    public void leaveDouble(double p)
     {
-        if (object == null)
-        {
-            return;
-        }
-
-        double p = ((Number) object).doubleValue();
-
         // compute running variance per Knuth's method
         if (numDataPoints <= 1) {
             clear();
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigDecimal implements AggregationMethod
+public class AggregatorSumBigDecimal implements AggregationMethodMergeable
 {
     protected BigDecimal sum;
     protected long numDataPoints;
@@ -57,6 +57,13 @@ public class AggregatorSumBigDecimal implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumBigDecimal that = (AggregatorSumBigDecimal) other;
+        sum = sum.add(that.sum);
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
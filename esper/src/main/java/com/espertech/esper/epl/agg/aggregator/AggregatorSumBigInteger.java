@@ -13,7 +13,7 @@ import java.math.BigInteger;
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigInteger implements AggregationMethod
+public class AggregatorSumBigInteger implements AggregationMethodMergeable
 {
     protected BigInteger sum;
     protected long numDataPoints;
@@ -57,6 +57,13 @@ public class AggregatorSumBigInteger implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumBigInteger that = (AggregatorSumBigInteger) other;
+        sum = sum.add(that.sum);
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for double values.
  */
-public class AggregatorSumDouble implements AggregationMethod
+public class AggregatorSumDouble implements AggregationMethodDoubleInput, AggregationMethodMergeable
 {
     protected double sum;
     protected long numDataPoints;
@@ -28,8 +28,7 @@ public class AggregatorSumDouble implements AggregationMethod
         {
             return;
         }
-        numDataPoints++;
-        sum += (Double) object;
+        enterDouble((Double) object);
     }
 
     public void leave(Object object)
@@ -38,15 +37,33 @@ public class AggregatorSumDouble implements AggregationMethod
         {
             return;
         }
+        leaveDouble((Double) object);
+    }
+
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveDouble(double value)
+    {
         if (numDataPoints <= 1) {
             clear();
         }
         else {
             numDataPoints--;
-            sum -= (Double) object;
+            sum -= value;
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumDouble that = (AggregatorSumDouble) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for float values.
  */
-public class AggregatorSumFloat implements AggregationMethod
+public class AggregatorSumFloat implements AggregationMethodMergeable
 {
     protected float sum;
     protected long numDataPoints;
@@ -47,6 +47,13 @@ public class AggregatorSumFloat implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumFloat that = (AggregatorSumFloat) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
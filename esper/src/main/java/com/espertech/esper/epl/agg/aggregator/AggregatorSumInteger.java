@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for integer values.
  */
-public class AggregatorSumInteger implements AggregationMethod
+public class AggregatorSumInteger implements AggregationMethodLongInput, AggregationMethodMergeable
 {
     protected int sum;
     protected long numDataPoints;
@@ -28,8 +28,7 @@ public class AggregatorSumInteger implements AggregationMethod
         {
             return;
         }
-        numDataPoints++;
-        sum += (Integer) object;
+        enterLong((Integer) object);
     }
 
     public void leave(Object object)
@@ -38,16 +37,34 @@ public class AggregatorSumInteger implements AggregationMethod
         {
             return;
         }
+        leaveLong((Integer) object);
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += (int) value;
+    }
+
+    public void leaveLong(long value)
+    {
         if (numDataPoints <= 1) {
             clear();
         }
         else {
             numDataPoints--;
-            sum -= (Integer) object;
+            sum -= (int) value;
         }
     }
 
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumInteger that = (AggregatorSumInteger) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for long values.
  */
-public class AggregatorSumLong implements AggregationMethod
+public class AggregatorSumLong implements AggregationMethodLongInput, AggregationMethodMergeable
 {
     protected long sum;
     protected long numDataPoints;
@@ -28,8 +28,7 @@ public class AggregatorSumLong implements AggregationMethod
         {
             return;
         }
-        numDataPoints++;
-        sum += (Long) object;
+        enterLong((Long) object);
     }
 
     public void leave(Object object)
@@ -38,15 +37,33 @@ public class AggregatorSumLong implements AggregationMethod
         {
             return;
         }
+        leaveLong((Long) object);
+    }
+
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveLong(long value)
+    {
         if (numDataPoints <= 1) {
             clear();
         }
         else {
             numDataPoints--;
-            sum -= (Long) object;
+            sum -= value;
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumLong that = (AggregatorSumLong) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for any number value.
  */
-public class AggregatorSumNumInteger implements AggregationMethod
+public class AggregatorSumNumInteger implements AggregationMethodMergeable
 {
     protected int sum;
     protected long numDataPoints;
@@ -49,6 +49,13 @@ public class AggregatorSumNumInteger implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumNumInteger that = (AggregatorSumNumInteger) other;
+        sum += that.sum;
+        numDataPoints += that.numDataPoints;
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -41,6 +41,14 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactorySum(exprSumNode, childType);
     }
 
+    public AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType, int precision) {
+        return new AggregationMethodFactoryApproxCountDistinct(exprApproxCountDistinctNode, childType, precision);
+    }
+
+    public AggregationMethodFactory makeApproxPercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxPercentileNode exprApproxPercentileNode, Class childType, double percentile, double compression) {
+        return new AggregationMethodFactoryApproxPercentile(exprApproxPercentileNode, childType, percentile, compression);
+    }
+
     public AggregationMethodFactory makeAvedev(StatementExtensionSvcContext statementExtensionSvcContext, ExprAvedevNode exprAvedevNode, Class childType, ExprNode[] positionalParams) {
         return new AggregationMethodFactoryAvedev(exprAvedevNode, childType, positionalParams);
     }
@@ -65,12 +73,12 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactoryLeaving(exprLeavingAggNode);
     }
 
-    public AggregationMethodFactory makeMedian(StatementExtensionSvcContext statementExtensionSvcContext, ExprMedianNode exprMedianNode, Class childType) {
-        return new AggregationMethodFactoryMedian(exprMedianNode, childType);
+    public AggregationMethodFactory makeMedian(StatementExtensionSvcContext statementExtensionSvcContext, ExprMedianNode exprMedianNode, Class childType, boolean isFifoDataWindow) {
+        return new AggregationMethodFactoryMedian(exprMedianNode, childType, isFifoDataWindow);
     }
 
-    public AggregationMethodFactory makeMinMax(StatementExtensionSvcContext statementExtensionSvcContext, ExprMinMaxAggrNode exprMinMaxAggrNode, Class type, boolean hasDataWindows) {
-        return new AggregationMethodFactoryMinMax(exprMinMaxAggrNode, type, hasDataWindows);
+    public AggregationMethodFactory makeMinMax(StatementExtensionSvcContext statementExtensionSvcContext, ExprMinMaxAggrNode exprMinMaxAggrNode, Class type, boolean hasDataWindows, boolean isFifoDataWindow) {
+        return new AggregationMethodFactoryMinMax(exprMinMaxAggrNode, type, hasDataWindows, isFifoDataWindow);
     }
 
     public AggregationMethodFactory makeNth(StatementExtensionSvcContext statementExtensionSvcContext, ExprNthAggNode exprNthAggNode, Class type, int size) {
@@ -14,18 +14,22 @@ import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.agg.access.AggregationStateKey;
 import com.espertech.esper.epl.agg.aggregator.*;
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryPrimitive;
+import com.espertech.esper.epl.agg.service.AggregationPrimitiveColumn;
+import com.espertech.esper.epl.agg.service.AggregationPrimitiveColumnAvg;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.methodagg.ExprAvgNode;
 import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+import com.espertech.esper.util.JavaClassHelper;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
 
-public class AggregationMethodFactoryAvg implements AggregationMethodFactory
+public class AggregationMethodFactoryAvg implements AggregationMethodFactory, AggregationMethodFactoryPrimitive
 {
     protected final ExprAvgNode parent;
     protected final Class childType;
@@ -69,6 +73,20 @@ public class AggregationMethodFactoryAvg implements AggregationMethodFactory
         return AggregationMethodFactoryUtil.makeDistinctAggregator(method, parent.isHasFilter());
     }
 
+    public AggregationPrimitiveColumn makePrimitiveColumn(int doubleSlot, int longSlot) {
+        if (parent.isDistinct() || parent.isHasFilter()) {
+            return null;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(childType);
+        if ((boxed == Double.class) || (boxed == Float.class)) {
+            return new AggregationPrimitiveColumnAvg(doubleSlot, longSlot, AggregationPrimitiveColumn.InputKind.DOUBLE);
+        }
+        if ((boxed == Long.class) || (boxed == Integer.class) || (boxed == Short.class) || (boxed == Byte.class)) {
+            return new AggregationPrimitiveColumnAvg(doubleSlot, longSlot, AggregationPrimitiveColumn.InputKind.LONG);
+        }
+        return null;
+    }
+
     public ExprAggregateNodeBase getAggregationExpression() {
         return parent;
     }
@@ -15,6 +15,8 @@ import com.espertech.esper.epl.agg.access.AggregationStateKey;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.agg.aggregator.AggregatorMedian;
 import com.espertech.esper.epl.agg.aggregator.AggregatorMedianFilter;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMedianSliding;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMedianSlidingFilter;
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -27,11 +29,13 @@ public class AggregationMethodFactoryMedian implements AggregationMethodFactory
 {
     protected final ExprMedianNode parent;
     protected final Class aggregatedValueType;
+    protected final boolean isFifoDataWindow;
 
-    public AggregationMethodFactoryMedian(ExprMedianNode parent, Class aggregatedValueType)
+    public AggregationMethodFactoryMedian(ExprMedianNode parent, Class aggregatedValueType, boolean isFifoDataWindow)
     {
         this.parent = parent;
         this.aggregatedValueType = aggregatedValueType;
+        this.isFifoDataWindow = isFifoDataWindow;
     }
 
     public boolean isAccessAggregation() {
@@ -57,6 +61,12 @@ public class AggregationMethodFactoryMedian implements AggregationMethodFactory
 
     public AggregationMethod make() {
 
+        if (isFifoDataWindow && !parent.isDistinct()) {
+            if (parent.isHasFilter()) {
+                return new AggregatorMedianSlidingFilter();
+            }
+            return new AggregatorMedianSliding();
+        }
         AggregationMethod method = makeMedianAggregator(parent.isHasFilter());
         if (!parent.isDistinct()) {
             return method;
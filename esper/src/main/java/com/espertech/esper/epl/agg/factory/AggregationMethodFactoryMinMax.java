@@ -30,11 +30,13 @@ public class AggregationMethodFactoryMinMax implements AggregationMethodFactory
     protected final ExprMinMaxAggrNode parent;
     protected final Class type;
     protected final boolean hasDataWindows;
+    protected final boolean isFifoDataWindow;
 
-    public AggregationMethodFactoryMinMax(ExprMinMaxAggrNode parent, Class type, boolean hasDataWindows) {
+    public AggregationMethodFactoryMinMax(ExprMinMaxAggrNode parent, Class type, boolean hasDataWindows, boolean isFifoDataWindow) {
         this.parent = parent;
         this.type = type;
         this.hasDataWindows = hasDataWindows;
+        this.isFifoDataWindow = isFifoDataWindow;
     }
 
     public boolean isAccessAggregation() {
@@ -59,6 +61,12 @@ public class AggregationMethodFactoryMinMax implements AggregationMethodFactory
     }
 
     public AggregationMethod make() {
+        if (isFifoDataWindow && !parent.isDistinct()) {
+            if (parent.isHasFilter()) {
+                return new AggregatorMinMaxSlidingFilter(parent.getMinMaxTypeEnum());
+            }
+            return new AggregatorMinMaxSliding(parent.getMinMaxTypeEnum());
+        }
         AggregationMethod method = makeMinMaxAggregator(parent.getMinMaxTypeEnum(), type, hasDataWindows, parent.isHasFilter());
         if (!parent.isDistinct()) {
             return method;
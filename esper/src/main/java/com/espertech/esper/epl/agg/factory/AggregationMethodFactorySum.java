@@ -14,6 +14,10 @@ import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.agg.access.AggregationStateKey;
 import com.espertech.esper.epl.agg.aggregator.*;
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryPrimitive;
+import com.espertech.esper.epl.agg.service.AggregationPrimitiveColumn;
+import com.espertech.esper.epl.agg.service.AggregationPrimitiveColumnSumDouble;
+import com.espertech.esper.epl.agg.service.AggregationPrimitiveColumnSumLong;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -24,7 +28,7 @@ import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
-public class AggregationMethodFactorySum implements AggregationMethodFactory
+public class AggregationMethodFactorySum implements AggregationMethodFactory, AggregationMethodFactoryPrimitive
 {
     protected final ExprSumNode parent;
     protected final Class resultType;
@@ -66,6 +70,22 @@ public class AggregationMethodFactorySum implements AggregationMethodFactory
         return AggregationMethodFactoryUtil.makeDistinctAggregator(method, parent.isHasFilter());
     }
 
+    public AggregationPrimitiveColumn makePrimitiveColumn(int doubleSlot, int longSlot) {
+        if (parent.isDistinct() || parent.isHasFilter()) {
+            return null;
+        }
+        if ((inputValueType == Long.class) || (inputValueType == long.class)) {
+            return new AggregationPrimitiveColumnSumLong(doubleSlot, longSlot, false);
+        }
+        if ((inputValueType == Integer.class) || (inputValueType == int.class)) {
+            return new AggregationPrimitiveColumnSumLong(doubleSlot, longSlot, true);
+        }
+        if ((inputValueType == Double.class) || (inputValueType == double.class)) {
+            return new AggregationPrimitiveColumnSumDouble(doubleSlot, longSlot);
+        }
+        return null;
+    }
+
     public ExprAggregateNodeBase getAggregationExpression() {
         return parent;
     }
@@ -19,7 +19,7 @@ import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.util.CollectionUtil;
-import com.espertech.esper.util.SerializableObjectCopier;
+import com.espertech.esper.util.StructuralObjectCopier;
 
 import java.io.StringWriter;
 import java.util.*;
@@ -239,7 +239,7 @@ public class GroupByExpressionHelper {
 
     private static ExprNode copyVisitExpression(ExprNode expression, ExprNodeSubselectDeclaredDotVisitor visitor) {
         try {
-            ExprNode node = (ExprNode) SerializableObjectCopier.copy(expression);
+            ExprNode node = (ExprNode) StructuralObjectCopier.copy(expression);
             node.accept(visitor);
             return node;
         } catch (Exception e) {
@@ -10,8 +10,13 @@ package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDoubleInput;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodLongInput;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodMergeable;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
@@ -21,6 +26,14 @@ import java.util.Collection;
  */
 public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
 {
+    private static final byte INPUT_OBJECT = 0;
+    private static final byte INPUT_DOUBLE = 1;
+    private static final byte INPUT_LONG = 2;
+
+    private final byte[] inputKinds;
+    private final double[] doubleResult = new double[1];
+    private final long[] longResult = new long[1];
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
@@ -30,6 +43,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
     public AggSvcGroupAllNoAccessImpl(ExprEvaluator evaluators[], AggregationMethod aggregators[], AggregationMethodFactory aggregatorFactories[])
     {
         super(evaluators, aggregators, aggregatorFactories, new AggregationStateFactory[0]);
+        this.inputKinds = getInputKinds(evaluators, aggregators);
     }
 
     public void applyEnter(EventBean[] eventsPerStream, Object optionalGroupKeyPerRow, ExprEvaluatorContext exprEvaluatorContext)
@@ -38,8 +52,20 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[j].enter(columnResult);
+            if (inputKinds[j] == INPUT_DOUBLE) {
+                if (((ExprEvaluatorPrimitive) evaluators[j]).evaluateDouble(eventsPerStream, true, exprEvaluatorContext, doubleResult)) {
+                    ((AggregationMethodDoubleInput) aggregators[j]).enterDouble(doubleResult[0]);
+                }
+            }
+            else if (inputKinds[j] == INPUT_LONG) {
+                if (((ExprEvaluatorPrimitive) evaluators[j]).evaluateLong(eventsPerStream, true, exprEvaluatorContext, longResult)) {
+                    ((AggregationMethodLongInput) aggregators[j]).enterLong(longResult[0]);
+                }
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                aggregators[j].enter(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(true);}
@@ -51,8 +77,20 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[j].leave(columnResult);
+            if (inputKinds[j] == INPUT_DOUBLE) {
+                if (((ExprEvaluatorPrimitive) evaluators[j]).evaluateDouble(eventsPerStream, false, exprEvaluatorContext, doubleResult)) {
+                    ((AggregationMethodDoubleInput) aggregators[j]).leaveDouble(doubleResult[0]);
+                }
+            }
+            else if (inputKinds[j] == INPUT_LONG) {
+                if (((ExprEvaluatorPrimitive) evaluators[j]).evaluateLong(eventsPerStream, false, exprEvaluatorContext, longResult)) {
+                    ((AggregationMethodLongInput) aggregators[j]).leaveLong(longResult[0]);
+                }
+            }
+            else {
+                Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                aggregators[j].leave(columnResult);
+            }
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(false);}
@@ -110,4 +148,45 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
         return null;
     }
+
+    /**
+     * Returns true if the aggregation state of all aggregation methods can be combined with the state of another
+     * instance, see {@link #merge(AggSvcGroupAllNoAccessImpl)}.
+     * @return indicator
+     */
+    public boolean isMergeable() {
+        for (AggregationMethod aggregator : aggregators) {
+            if (!(aggregator instanceof AggregationMethodMergeable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the aggregation state of another instance of the same factory, which aggregated a disjoint set of events.
+     * @param other aggregation service to combine with
+     */
+    public void merge(AggSvcGroupAllNoAccessImpl other) {
+        for (int i = 0; i < aggregators.length; i++) {
+            ((AggregationMethodMergeable) aggregators[i]).merge(other.aggregators[i]);
+        }
+    }
+
+    private static byte[] getInputKinds(ExprEvaluator[] evaluators, AggregationMethod[] aggregators) {
+        byte[] kinds = new byte[evaluators.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            if (!(evaluators[i] instanceof ExprEvaluatorPrimitive)) {
+                continue;
+            }
+            Class type = JavaClassHelper.getBoxedType(evaluators[i].getType());
+            if ((type == Double.class || type == Float.class) && aggregators[i] instanceof AggregationMethodDoubleInput) {
+                kinds[i] = INPUT_DOUBLE;
+            }
+            else if ((type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) && aggregators[i] instanceof AggregationMethodLongInput) {
+                kinds[i] = INPUT_LONG;
+            }
+        }
+        return kinds;
+    }
 }
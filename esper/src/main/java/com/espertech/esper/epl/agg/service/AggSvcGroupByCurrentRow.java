@@ -0,0 +1,45 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Current group key and row of a thread, for aggregation services that allow parallel access.
+ * @param <T> row type
+ */
+public class AggSvcGroupByCurrentRow<T>
+{
+    private Object groupKey;
+    private T row;
+
+    /**
+     * Returns a thread-local holding a current row per thread.
+     * @param <T> row type
+     * @return thread-local
+     */
+    public static <T> ThreadLocal<AggSvcGroupByCurrentRow<T>> makeThreadLocal() {
+        return new ThreadLocal<AggSvcGroupByCurrentRow<T>>() {
+            protected AggSvcGroupByCurrentRow<T> initialValue() {
+                return new AggSvcGroupByCurrentRow<T>();
+            }
+        };
+    }
+
+    public void set(Object groupKey, T row) {
+        this.groupKey = groupKey;
+        this.row = row;
+    }
+
+    public Object getGroupKey() {
+        return groupKey;
+    }
+
+    public T getRow() {
+        return row;
+    }
+}
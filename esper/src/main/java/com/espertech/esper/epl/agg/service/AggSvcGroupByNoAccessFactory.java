@@ -11,12 +11,19 @@ package com.espertech.esper.epl.agg.service;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 /**
  * Implementation for handling aggregation with grouping by group-keys.
  */
 public class AggSvcGroupByNoAccessFactory extends AggregationServiceFactoryBase
 {
+    private final AggregationPrimitiveColumn[] columns;
+    private final ExprEvaluatorPrimitive[] primitiveEvaluators;
+    private final int numDoubles;
+    private final int numLongs;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
@@ -25,9 +32,39 @@ public class AggSvcGroupByNoAccessFactory extends AggregationServiceFactoryBase
     public AggSvcGroupByNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[])
     {
         super(evaluators, prototypes);
+
+        // determine if all aggregation functions can keep their state in primitive columns
+        AggregationPrimitiveColumn[] primitiveColumns = new AggregationPrimitiveColumn[prototypes.length];
+        ExprEvaluatorPrimitive[] primitives = new ExprEvaluatorPrimitive[prototypes.length];
+        int doubleSlot = 0;
+        int longSlot = 0;
+        for (int i = 0; i < prototypes.length; i++) {
+            if (!(prototypes[i] instanceof AggregationMethodFactoryPrimitive)) {
+                primitiveColumns = null;
+                break;
+            }
+            AggregationPrimitiveColumn column = ((AggregationMethodFactoryPrimitive) prototypes[i]).makePrimitiveColumn(doubleSlot, longSlot);
+            if (column == null) {
+                primitiveColumns = null;
+                break;
+            }
+            primitiveColumns[i] = column;
+            if (column.getInputKind() != AggregationPrimitiveColumn.InputKind.OBJECT && evaluators[i] instanceof ExprEvaluatorPrimitive) {
+                primitives[i] = (ExprEvaluatorPrimitive) evaluators[i];
+            }
+            doubleSlot += column.getNumDoubleSlots();
+            longSlot += column.getNumLongSlots();
+        }
+        this.columns = primitiveColumns;
+        this.primitiveEvaluators = primitives;
+        this.numDoubles = doubleSlot;
+        this.numLongs = longSlot;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        if (columns != null && !InstrumentationHelper.ENABLED) {
+            return new AggSvcGroupByNoAccessPrimitiveImpl(evaluators, aggregators, columns, primitiveEvaluators, numDoubles, numLongs);
+        }
         return new AggSvcGroupByNoAccessImpl(evaluators, aggregators);
     }
 }
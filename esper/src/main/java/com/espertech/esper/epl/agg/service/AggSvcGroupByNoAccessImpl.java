@@ -21,7 +21,7 @@ import java.util.Map;
 /**
  * Implementation for handling aggregation with grouping by group-keys.
  */
-public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
+public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped implements AggregationServiceParallelAccess
 {
     // maintain for each group a row of aggregator states that the expression node canb pull the data from via index
     private Map<Object, AggregationMethod[]> aggregatorsPerGroup;
@@ -31,6 +31,10 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    // current row per thread while output rows are generated in parallel
+    private boolean parallelAccess;
+    private ThreadLocal<AggSvcGroupByCurrentRow<AggregationMethod[]>> parallelCurrentRow;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
@@ -98,6 +102,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
 
     public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
     {
+        if (parallelAccess)
+        {
+            AggregationMethod[] row = aggregatorsPerGroup.get(groupByKey);
+            parallelCurrentRow.get().set(groupByKey, row != null ? row : AggSvcGroupByUtil.newAggregators(aggregators));
+            return;
+        }
+
         currentAggregatorRow = aggregatorsPerGroup.get(groupByKey);
         this.currentGroupKey = groupByKey;
 
@@ -110,6 +121,10 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
 
     public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
     {
+        if (parallelAccess)
+        {
+            return parallelCurrentRow.get().getRow()[column].getValue();
+        }
         return currentAggregatorRow[column].getValue();
     }
 
@@ -145,10 +160,20 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     }
 
     public Object getGroupKey(int agentInstanceId) {
+        if (parallelAccess) {
+            return parallelCurrentRow.get().getGroupKey();
+        }
         return currentGroupKey;
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
         return aggregatorsPerGroup.keySet();
     }
+
+    public void setParallelAccess(boolean parallelAccess) {
+        if (parallelAccess && parallelCurrentRow == null) {
+            parallelCurrentRow = AggSvcGroupByCurrentRow.makeThreadLocal();
+        }
+        this.parallelAccess = parallelAccess;
+    }
 }
@@ -0,0 +1,199 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps the aggregation state
+ * of each group in primitive columns of a single row object, for aggregation functions that
+ * provide a {@link AggregationPrimitiveColumn}.
+ * <p>
+ * Values of evaluators that implement {@link ExprEvaluatorPrimitive} are entered without boxing.
+ */
+public class AggSvcGroupByNoAccessPrimitiveImpl extends AggregationServiceBaseGrouped implements AggregationServiceParallelAccess
+{
+    private final AggregationPrimitiveColumn[] columns;
+    private final ExprEvaluatorPrimitive[] primitiveEvaluators;
+    private final int numDoubles;
+    private final int numLongs;
+    private final double[] doubleResult = new double[1];
+    private final long[] longResult = new long[1];
+
+    // maintain for each group a row of aggregator states that the expression node canb pull the data from via index
+    private Map<Object, AggregationPrimitiveRow> aggregatorsPerGroup;
+
+    // maintain a current row for random access into the aggregator state table
+    private AggregationPrimitiveRow currentAggregatorRow;
+    private Object currentGroupKey;
+
+    // current row per thread while output rows are generated in parallel
+    private boolean parallelAccess;
+    private ThreadLocal<AggSvcGroupByCurrentRow<AggregationPrimitiveRow>> parallelCurrentRow;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - aggregation factories
+     * @param columns - column per aggregation factory
+     * @param primitiveEvaluators - per column the evaluator to use for primitive evaluation, or null for object evaluation
+     * @param numDoubles - number of double slots per row
+     * @param numLongs - number of long slots per row
+     */
+    public AggSvcGroupByNoAccessPrimitiveImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], AggregationPrimitiveColumn[] columns, ExprEvaluatorPrimitive[] primitiveEvaluators, int numDoubles, int numLongs)
+    {
+        super(evaluators, prototypes);
+        this.columns = columns;
+        this.primitiveEvaluators = primitiveEvaluators;
+        this.numDoubles = numDoubles;
+        this.numLongs = numLongs;
+        this.aggregatorsPerGroup = new HashMap<Object, AggregationPrimitiveRow>();
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        aggregatorsPerGroup.clear();
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        AggregationPrimitiveRow row = getAddRow(groupByKey);
+        currentAggregatorRow = row;
+
+        for (int i = 0; i < columns.length; i++)
+        {
+            AggregationPrimitiveColumn column = columns[i];
+            ExprEvaluatorPrimitive primitive = primitiveEvaluators[i];
+            if (primitive == null) {
+                column.enter(row, evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext));
+            }
+            else if (column.getInputKind() == AggregationPrimitiveColumn.InputKind.DOUBLE) {
+                if (primitive.evaluateDouble(eventsPerStream, true, exprEvaluatorContext, doubleResult)) {
+                    column.enterDouble(row, doubleResult[0]);
+                }
+            }
+            else {
+                if (primitive.evaluateLong(eventsPerStream, true, exprEvaluatorContext, longResult)) {
+                    column.enterLong(row, longResult[0]);
+                }
+            }
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        AggregationPrimitiveRow row = getAddRow(groupByKey);
+        currentAggregatorRow = row;
+
+        for (int i = 0; i < columns.length; i++)
+        {
+            AggregationPrimitiveColumn column = columns[i];
+            ExprEvaluatorPrimitive primitive = primitiveEvaluators[i];
+            if (primitive == null) {
+                column.leave(row, evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext));
+            }
+            else if (column.getInputKind() == AggregationPrimitiveColumn.InputKind.DOUBLE) {
+                if (primitive.evaluateDouble(eventsPerStream, false, exprEvaluatorContext, doubleResult)) {
+                    column.leaveDouble(row, doubleResult[0]);
+                }
+            }
+            else {
+                if (primitive.evaluateLong(eventsPerStream, false, exprEvaluatorContext, longResult)) {
+                    column.leaveLong(row, longResult[0]);
+                }
+            }
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        if (parallelAccess)
+        {
+            AggregationPrimitiveRow row = aggregatorsPerGroup.get(groupByKey);
+            parallelCurrentRow.get().set(groupByKey, row != null ? row : new AggregationPrimitiveRow(numDoubles, numLongs));
+            return;
+        }
+        currentAggregatorRow = getAddRow(groupByKey);
+        this.currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (parallelAccess)
+        {
+            return columns[column].getValue(parallelCurrentRow.get().getRow());
+        }
+        return columns[column].getValue(currentAggregatorRow);
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(aggregatorsPerGroup.size(), aggregatorsPerGroup);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(aggregatorsPerGroup.size());
+        for (Map.Entry<Object, AggregationPrimitiveRow> entry : aggregatorsPerGroup.entrySet()) {
+            visitor.visitGroup(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        if (parallelAccess) {
+            return parallelCurrentRow.get().getGroupKey();
+        }
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        return aggregatorsPerGroup.keySet();
+    }
+
+    public void setParallelAccess(boolean parallelAccess) {
+        if (parallelAccess && parallelCurrentRow == null) {
+            parallelCurrentRow = AggSvcGroupByCurrentRow.makeThreadLocal();
+        }
+        this.parallelAccess = parallelAccess;
+    }
+
+    private AggregationPrimitiveRow getAddRow(Object groupByKey) {
+        AggregationPrimitiveRow row = aggregatorsPerGroup.get(groupByKey);
+        if (row == null) {
+            row = new AggregationPrimitiveRow(numDoubles, numLongs);
+            aggregatorsPerGroup.put(groupByKey, row);
+        }
+        return row;
+    }
+}
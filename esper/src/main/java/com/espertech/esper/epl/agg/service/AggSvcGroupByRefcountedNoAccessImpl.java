@@ -19,7 +19,7 @@ import java.util.*;
 /**
  * Implementation for handling aggregation with grouping by group-keys.
  */
-public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseGrouped
+public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseGrouped implements AggregationServiceParallelAccess
 {
     // maintain for each group a row of aggregator states that the expression node canb pull the data from via index
     protected Map<Object, AggregationMethodRow> aggregatorsPerGroup;
@@ -31,6 +31,10 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
 
     private List<Object> removedKeys;
 
+    // current row per thread while output rows are generated in parallel
+    private boolean parallelAccess;
+    private ThreadLocal<AggSvcGroupByCurrentRow<AggregationMethod[]>> parallelCurrentRow;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
@@ -121,6 +125,11 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     {
         AggregationMethodRow row = aggregatorsPerGroup.get(groupByKey);
 
+        if (parallelAccess) {
+            parallelCurrentRow.get().set(groupByKey, row != null ? row.getMethods() : AggSvcGroupByUtil.newAggregators(aggregators));
+            return;
+        }
+
         if (row != null) {
             currentAggregatorRow = row.getMethods();
         }
@@ -136,6 +145,9 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
 
     public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
     {
+        if (parallelAccess) {
+            return parallelCurrentRow.get().getRow()[column].getValue();
+        }
         return currentAggregatorRow[column].getValue();
     }
 
@@ -171,6 +183,9 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     }
 
     public Object getGroupKey(int agentInstanceId) {
+        if (parallelAccess) {
+            return parallelCurrentRow.get().getGroupKey();
+        }
         return currentGroupKey;
     }
 
@@ -189,4 +204,11 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         handleRemovedKeys();
         return aggregatorsPerGroup.keySet();
     }
+
+    public void setParallelAccess(boolean parallelAccess) {
+        if (parallelAccess && parallelCurrentRow == null) {
+            parallelCurrentRow = AggSvcGroupByCurrentRow.makeThreadLocal();
+        }
+        this.parallelAccess = parallelAccess;
+    }
 }
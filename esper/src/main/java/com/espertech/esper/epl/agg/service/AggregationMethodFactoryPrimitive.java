@@ -0,0 +1,25 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Aggregation method factory for aggregation functions that can keep state in primitive columns of a row,
+ * see {@link AggregationPrimitiveColumn}.
+ */
+public interface AggregationMethodFactoryPrimitive
+{
+    /**
+     * Returns a column that keeps the aggregation state starting at the given slots, or null if the aggregation
+     * cannot keep its state in primitive columns, for example for distinct or filtered aggregation.
+     * @param doubleSlot first free double slot
+     * @param longSlot first free long slot
+     * @return column or null
+     */
+    public AggregationPrimitiveColumn makePrimitiveColumn(int doubleSlot, int longSlot);
+}
@@ -0,0 +1,139 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * An aggregation function that keeps its state in primitive slots of a {@link AggregationPrimitiveRow} rather than
+ * in an {@link com.espertech.esper.epl.agg.aggregator.AggregationMethod} instance.
+ * <p>
+ * Columns are stateless and shared by all rows. The primitive enter and leave methods are only invoked for
+ * non-null values and only for the input kind that the column returns.
+ */
+public abstract class AggregationPrimitiveColumn
+{
+    /**
+     * Kind of value the column accepts through the primitive enter and leave methods.
+     */
+    public enum InputKind {
+        /**
+         * Accepts double values.
+         */
+        DOUBLE,
+
+        /**
+         * Accepts long values.
+         */
+        LONG,
+
+        /**
+         * Accepts objects only.
+         */
+        OBJECT
+    }
+
+    /**
+     * First double slot.
+     */
+    protected final int doubleSlot;
+
+    /**
+     * First long slot.
+     */
+    protected final int longSlot;
+
+    /**
+     * Ctor.
+     * @param doubleSlot first double slot
+     * @param longSlot first long slot
+     */
+    protected AggregationPrimitiveColumn(int doubleSlot, int longSlot)
+    {
+        this.doubleSlot = doubleSlot;
+        this.longSlot = longSlot;
+    }
+
+    /**
+     * Returns the kind of value accepted by the primitive enter and leave methods.
+     * @return input kind
+     */
+    public abstract InputKind getInputKind();
+
+    /**
+     * Returns the number of double slots the column occupies.
+     * @return number of slots
+     */
+    public abstract int getNumDoubleSlots();
+
+    /**
+     * Returns the number of long slots the column occupies.
+     * @return number of slots
+     */
+    public abstract int getNumLongSlots();
+
+    /**
+     * Apply the value as entering aggregation.
+     * @param row row
+     * @param value value, can be null
+     */
+    public abstract void enter(AggregationPrimitiveRow row, Object value);
+
+    /**
+     * Apply the value as leaving aggregation.
+     * @param row row
+     * @param value value, can be null
+     */
+    public abstract void leave(AggregationPrimitiveRow row, Object value);
+
+    /**
+     * Returns the current value.
+     * @param row row
+     * @return value
+     */
+    public abstract Object getValue(AggregationPrimitiveRow row);
+
+    /**
+     * Apply the non-null value as entering aggregation.
+     * @param row row
+     * @param value value
+     */
+    public void enterDouble(AggregationPrimitiveRow row, double value)
+    {
+        throw new UnsupportedOperationException("Double input not supported");
+    }
+
+    /**
+     * Apply the non-null value as leaving aggregation.
+     * @param row row
+     * @param value value
+     */
+    public void leaveDouble(AggregationPrimitiveRow row, double value)
+    {
+        throw new UnsupportedOperationException("Double input not supported");
+    }
+
+    /**
+     * Apply the non-null value as entering aggregation.
+     * @param row row
+     * @param value value
+     */
+    public void enterLong(AggregationPrimitiveRow row, long value)
+    {
+        throw new UnsupportedOperationException("Long input not supported");
+    }
+
+    /**
+     * Apply the non-null value as leaving aggregation.
+     * @param row row
+     * @param value value
+     */
+    public void leaveLong(AggregationPrimitiveRow row, long value)
+    {
+        throw new UnsupportedOperationException("Long input not supported");
+    }
+}
@@ -0,0 +1,102 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Average that generates double-typed numbers, keeping the sum in a double slot and the number of data points in a long slot.
+ */
+public class AggregationPrimitiveColumnAvg extends AggregationPrimitiveColumn
+{
+    private final InputKind inputKind;
+
+    /**
+     * Ctor.
+     * @param doubleSlot first double slot
+     * @param longSlot first long slot
+     * @param inputKind double for floating-point input, long for integral input
+     */
+    public AggregationPrimitiveColumnAvg(int doubleSlot, int longSlot, InputKind inputKind)
+    {
+        super(doubleSlot, longSlot);
+        this.inputKind = inputKind;
+    }
+
+    public InputKind getInputKind()
+    {
+        return inputKind;
+    }
+
+    public int getNumDoubleSlots()
+    {
+        return 1;
+    }
+
+    public int getNumLongSlots()
+    {
+        return 1;
+    }
+
+    public void enter(AggregationPrimitiveRow row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        enterDouble(row, ((Number) value).doubleValue());
+    }
+
+    public void leave(AggregationPrimitiveRow row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        leaveDouble(row, ((Number) value).doubleValue());
+    }
+
+    public void enterDouble(AggregationPrimitiveRow row, double value)
+    {
+        row.getLongs()[longSlot]++;
+        row.getDoubles()[doubleSlot] += value;
+    }
+
+    public void leaveDouble(AggregationPrimitiveRow row, double value)
+    {
+        long[] longs = row.getLongs();
+        double[] doubles = row.getDoubles();
+        if (longs[longSlot] <= 1) {
+            longs[longSlot] = 0;
+            doubles[doubleSlot] = 0;
+        }
+        else {
+            longs[longSlot]--;
+            doubles[doubleSlot] -= value;
+        }
+    }
+
+    public void enterLong(AggregationPrimitiveRow row, long value)
+    {
+        enterDouble(row, value);
+    }
+
+    public void leaveLong(AggregationPrimitiveRow row, long value)
+    {
+        leaveDouble(row, value);
+    }
+
+    public Object getValue(AggregationPrimitiveRow row)
+    {
+        long numDataPoints = row.getLongs()[longSlot];
+        if (numDataPoints == 0)
+        {
+            return null;
+        }
+        return row.getDoubles()[doubleSlot] / numDataPoints;
+    }
+}
@@ -0,0 +1,70 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Counts data points, optionally ignoring null values, keeping the count in a long slot.
+ */
+public class AggregationPrimitiveColumnCount extends AggregationPrimitiveColumn
+{
+    private final boolean ignoreNulls;
+
+    /**
+     * Ctor.
+     * @param doubleSlot first double slot
+     * @param longSlot first long slot
+     * @param ignoreNulls true to count non-null values only
+     */
+    public AggregationPrimitiveColumnCount(int doubleSlot, int longSlot, boolean ignoreNulls)
+    {
+        super(doubleSlot, longSlot);
+        this.ignoreNulls = ignoreNulls;
+    }
+
+    public InputKind getInputKind()
+    {
+        return InputKind.OBJECT;
+    }
+
+    public int getNumDoubleSlots()
+    {
+        return 0;
+    }
+
+    public int getNumLongSlots()
+    {
+        return 1;
+    }
+
+    public void enter(AggregationPrimitiveRow row, Object value)
+    {
+        if (ignoreNulls && value == null)
+        {
+            return;
+        }
+        row.getLongs()[longSlot]++;
+    }
+
+    public void leave(AggregationPrimitiveRow row, Object value)
+    {
+        if (ignoreNulls && value == null)
+        {
+            return;
+        }
+        long[] longs = row.getLongs();
+        if (longs[longSlot] > 0) {
+            longs[longSlot]--;
+        }
+    }
+
+    public Object getValue(AggregationPrimitiveRow row)
+    {
+        return row.getLongs()[longSlot];
+    }
+}
@@ -0,0 +1,87 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Sum for double values, keeping the sum in a double slot and the number of data points in a long slot.
+ */
+public class AggregationPrimitiveColumnSumDouble extends AggregationPrimitiveColumn
+{
+    /**
+     * Ctor.
+     * @param doubleSlot first double slot
+     * @param longSlot first long slot
+     */
+    public AggregationPrimitiveColumnSumDouble(int doubleSlot, int longSlot)
+    {
+        super(doubleSlot, longSlot);
+    }
+
+    public InputKind getInputKind()
+    {
+        return InputKind.DOUBLE;
+    }
+
+    public int getNumDoubleSlots()
+    {
+        return 1;
+    }
+
+    public int getNumLongSlots()
+    {
+        return 1;
+    }
+
+    public void enter(AggregationPrimitiveRow row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        enterDouble(row, (Double) value);
+    }
+
+    public void leave(AggregationPrimitiveRow row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        leaveDouble(row, (Double) value);
+    }
+
+    public void enterDouble(AggregationPrimitiveRow row, double value)
+    {
+        row.getLongs()[longSlot]++;
+        row.getDoubles()[doubleSlot] += value;
+    }
+
+    public void leaveDouble(AggregationPrimitiveRow row, double value)
+    {
+        long[] longs = row.getLongs();
+        double[] doubles = row.getDoubles();
+        if (longs[longSlot] <= 1) {
+            longs[longSlot] = 0;
+            doubles[doubleSlot] = 0;
+        }
+        else {
+            longs[longSlot]--;
+            doubles[doubleSlot] -= value;
+        }
+    }
+
+    public Object getValue(AggregationPrimitiveRow row)
+    {
+        if (row.getLongs()[longSlot] == 0)
+        {
+            return null;
+        }
+        return row.getDoubles()[doubleSlot];
+    }
+}
@@ -0,0 +1,97 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Sum for long and integer values, keeping the sum and the number of data points in long slots.
+ * <p>
+ * Integer sums overflow the same as when summing int values as the result is narrowed to int.
+ */
+public class AggregationPrimitiveColumnSumLong extends AggregationPrimitiveColumn
+{
+    private final boolean isInteger;
+
+    /**
+     * Ctor.
+     * @param doubleSlot first double slot
+     * @param longSlot first long slot
+     * @param isInteger true for an integer-typed sum, false for a long-typed sum
+     */
+    public AggregationPrimitiveColumnSumLong(int doubleSlot, int longSlot, boolean isInteger)
+    {
+        super(doubleSlot, longSlot);
+        this.isInteger = isInteger;
+    }
+
+    public InputKind getInputKind()
+    {
+        return InputKind.LONG;
+    }
+
+    public int getNumDoubleSlots()
+    {
+        return 0;
+    }
+
+    public int getNumLongSlots()
+    {
+        return 2;
+    }
+
+    public void enter(AggregationPrimitiveRow row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        enterLong(row, ((Number) value).longValue());
+    }
+
+    public void leave(AggregationPrimitiveRow row, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        leaveLong(row, ((Number) value).longValue());
+    }
+
+    public void enterLong(AggregationPrimitiveRow row, long value)
+    {
+        long[] longs = row.getLongs();
+        longs[longSlot + 1]++;
+        longs[longSlot] += value;
+    }
+
+    public void leaveLong(AggregationPrimitiveRow row, long value)
+    {
+        long[] longs = row.getLongs();
+        if (longs[longSlot + 1] <= 1) {
+            longs[longSlot + 1] = 0;
+            longs[longSlot] = 0;
+        }
+        else {
+            longs[longSlot + 1]--;
+            longs[longSlot] -= value;
+        }
+    }
+
+    public Object getValue(AggregationPrimitiveRow row)
+    {
+        long[] longs = row.getLongs();
+        if (longs[longSlot + 1] == 0)
+        {
+            return null;
+        }
+        if (isInteger) {
+            return (int) longs[longSlot];
+        }
+        return longs[longSlot];
+    }
+}
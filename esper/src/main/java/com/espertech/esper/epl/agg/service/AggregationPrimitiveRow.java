@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Aggregation state of a group kept in primitive columns, see {@link AggregationPrimitiveColumn}.
+ */
+public class AggregationPrimitiveRow
+{
+    private final double[] doubles;
+    private final long[] longs;
+
+    /**
+     * Ctor.
+     * @param numDoubles number of double slots
+     * @param numLongs number of long slots
+     */
+    public AggregationPrimitiveRow(int numDoubles, int numLongs)
+    {
+        this.doubles = numDoubles == 0 ? null : new double[numDoubles];
+        this.longs = numLongs == 0 ? null : new long[numLongs];
+    }
+
+    /**
+     * Returns the double slots.
+     * @return slots
+     */
+    public double[] getDoubles()
+    {
+        return doubles;
+    }
+
+    /**
+     * Returns the long slots.
+     * @return slots
+     */
+    public long[] getLongs()
+    {
+        return longs;
+    }
+}
@@ -23,6 +23,7 @@ import com.espertech.esper.epl.expression.baseagg.ExprAggregateLocalGroupByDesc;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeGroupKey;
+import com.espertech.esper.epl.expression.codegen.CodegenExprCompiler;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
 import com.espertech.esper.epl.expression.table.ExprTableNodeUtil;
@@ -158,7 +159,9 @@ public class AggregationServiceFactoryFactory
                                                            TableService tableService,
                                                            boolean isUnidirectional,
                                                            boolean isFireAndForget,
-                                                           boolean isOnSelect)
+                                                           boolean isOnSelect,
+                                                           boolean isCodeGeneration,
+                                                           String statementName)
             throws ExprValidationException
     {
         // No aggregates used, we do not need this service
@@ -209,7 +212,13 @@ public class AggregationServiceFactoryFactory
         for (AggregationServiceAggExpressionDesc aggregation : aggregations) {
             ExprAggregateNode aggregateNode = aggregation.getAggregationNode();
             if (!aggregateNode.getFactory().isAccessAggregation()) {
-                ExprEvaluator evaluator = aggregateNode.getFactory().getMethodAggregationEvaluator(typesPerStream.length > 1, typesPerStream);
+                ExprEvaluator evaluator;
+                if (isCodeGeneration && intoTableSpec == null && isPrimitiveInput(aggregateNode)) {
+                    evaluator = CodegenExprCompiler.compile(aggregateNode.getPositionalParams()[0], statementName);
+                }
+                else {
+                    evaluator = aggregateNode.getFactory().getMethodAggregationEvaluator(typesPerStream.length > 1, typesPerStream);
+                }
                 methodAggEvaluatorsList.add(evaluator);
             }
         }
@@ -601,4 +610,16 @@ public class AggregationServiceFactoryFactory
             return accessStateExpr;
         }
     }
+
+    private static boolean isPrimitiveInput(ExprAggregateNode aggregateNode) {
+        if (!(aggregateNode.getFactory() instanceof AggregationMethodFactoryPrimitive)) {
+            return false;
+        }
+        ExprNode[] params = aggregateNode.getPositionalParams();
+        if (params.length != 1 || params[0] instanceof ExprWildcard) {
+            return false;
+        }
+        AggregationPrimitiveColumn column = ((AggregationMethodFactoryPrimitive) aggregateNode.getFactory()).makePrimitiveColumn(0, 0);
+        return column != null && column.getInputKind() != AggregationPrimitiveColumn.InputKind.OBJECT;
+    }
 }
@@ -0,0 +1,26 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Grouped aggregation service that allows multiple threads to read group rows at the same time,
+ * for use by parallel generation of output rows while no events are applied.
+ * <p>
+ * While parallel access is set, the current row set by {@link AggregationService#setCurrentAccess} is confined to the calling thread
+ * and setting current access does not add rows.
+ */
+public interface AggregationServiceParallelAccess
+{
+    /**
+     * Sets or resets parallel access. The caller must ensure that no events are applied while parallel access is set
+     * and must establish happens-before between setting parallel access and the reading threads, for example by submitting to an executor.
+     * @param parallelAccess true to confine current access to threads, false for the default non-thread-safe access
+     */
+    public void setParallelAccess(boolean parallelAccess);
+}
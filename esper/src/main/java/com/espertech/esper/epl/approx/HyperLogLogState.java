@@ -0,0 +1,275 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+/**
+ * HyperLogLog++ cardinality estimator.
+ * <p>
+ * Values are hashed to 64 bits. While the number of distinct hashes is small the state keeps a sparse list of
+ * register updates at a precision of 25 bits. Once the sparse list would take more memory than the dense registers,
+ * the state converts to 2<sup>precision</sup> dense registers of one byte each.
+ * The cardinality is estimated using the improved estimator by Ertl, which does not require empirical bias correction.
+ * <p>
+ * States of the same precision can be merged.
+ */
+public class HyperLogLogState {
+
+    public final static int MIN_PRECISION = 4;
+    public final static int MAX_PRECISION = 18;
+
+    private final static int SPARSE_PRECISION = 25;
+    private final static int RANK_BITS = 6;
+
+    private final int precision;
+    private byte[] registers;
+    private int[] sparse = new int[4];
+    private int sparseCount;
+
+    public HyperLogLogState(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + " but received " + precision);
+        }
+        this.precision = precision;
+    }
+
+    public void add(Object value) {
+        addHash(hash(value));
+    }
+
+    public void addHash(long hash) {
+        if (registers != null) {
+            addDense(registers, precision, hash);
+            return;
+        }
+        int index = (int) (hash >>> (64 - SPARSE_PRECISION));
+        int rank = rank(hash, SPARSE_PRECISION);
+        addSparse(index, rank);
+    }
+
+    public long estimate() {
+        if (registers != null) {
+            int[] histogram = new int[64 - precision + 2];
+            for (byte register : registers) {
+                histogram[register]++;
+            }
+            return estimate(histogram, precision);
+        }
+        int[] histogram = new int[64 - SPARSE_PRECISION + 2];
+        histogram[0] = (1 << SPARSE_PRECISION) - sparseCount;
+        for (int i = 0; i < sparseCount; i++) {
+            histogram[sparse[i] & ((1 << RANK_BITS) - 1)]++;
+        }
+        return estimate(histogram, SPARSE_PRECISION);
+    }
+
+    public void merge(HyperLogLogState other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge states of precision " + precision + " and precision " + other.precision);
+        }
+        if (other.registers == null) {
+            for (int i = 0; i < other.sparseCount; i++) {
+                int entry = other.sparse[i];
+                if (registers != null) {
+                    addSparseToDense(registers, precision, entry);
+                }
+                else {
+                    addSparse(entry >>> RANK_BITS, entry & ((1 << RANK_BITS) - 1));
+                }
+            }
+            return;
+        }
+        if (registers == null) {
+            convertToDense();
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public void clear() {
+        registers = null;
+        sparse = new int[4];
+        sparseCount = 0;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public boolean isSparse() {
+        return registers == null;
+    }
+
+    /**
+     * Hashes a value to 64 bits. Strings are hashed by character, numbers by value so that for example
+     * an int and a long of the same value hash the same, and any other values by hash code.
+     * @param value to hash
+     * @return hash
+     */
+    public static long hash(Object value) {
+        if (value instanceof String) {
+            String text = (String) value;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+        }
+        return mix(value.hashCode());
+    }
+
+    private void addSparse(int index, int rank) {
+        int low = 0;
+        int high = sparseCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleIndex = sparse[middle] >>> RANK_BITS;
+            if (middleIndex < index) {
+                low = middle + 1;
+            }
+            else if (middleIndex > index) {
+                high = middle - 1;
+            }
+            else {
+                if ((sparse[middle] & ((1 << RANK_BITS) - 1)) < rank) {
+                    sparse[middle] = (index << RANK_BITS) | rank;
+                }
+                return;
+            }
+        }
+
+        // the sparse list takes 4 bytes per entry, the dense registers 1 byte per register
+        if (sparseCount >= (1 << precision) / 4) {
+            convertToDense();
+            addSparseToDense(registers, precision, (index << RANK_BITS) | rank);
+            return;
+        }
+        if (sparseCount == sparse.length) {
+            int[] grown = new int[Math.min(sparse.length * 2, (1 << precision) / 4)];
+            System.arraycopy(sparse, 0, grown, 0, sparseCount);
+            sparse = grown;
+        }
+        System.arraycopy(sparse, low, sparse, low + 1, sparseCount - low);
+        sparse[low] = (index << RANK_BITS) | rank;
+        sparseCount++;
+    }
+
+    private void convertToDense() {
+        byte[] dense = new byte[1 << precision];
+        for (int i = 0; i < sparseCount; i++) {
+            addSparseToDense(dense, precision, sparse[i]);
+        }
+        registers = dense;
+        sparse = null;
+        sparseCount = 0;
+    }
+
+    private static void addDense(byte[] registers, int precision, long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = rank(hash, precision);
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    private static void addSparseToDense(byte[] registers, int precision, int entry) {
+        int sparseIndex = entry >>> RANK_BITS;
+        int sparseRank = entry & ((1 << RANK_BITS) - 1);
+        int index = sparseIndex >>> (SPARSE_PRECISION - precision);
+
+        // the sparse index holds the hash bits following the dense index
+        int extraBits = SPARSE_PRECISION - precision;
+        int extra = sparseIndex & ((1 << extraBits) - 1);
+        int rank;
+        if (extra != 0) {
+            rank = Integer.numberOfLeadingZeros(extra) - (32 - extraBits) + 1;
+        }
+        else {
+            rank = extraBits + sparseRank;
+        }
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    // position of the first one-bit after the index bits, or the number of remaining bits plus one if all are zero
+    private static int rank(long hash, int precision) {
+        long remaining = hash << precision;
+        if (remaining == 0) {
+            return 64 - precision + 1;
+        }
+        return Long.numberOfLeadingZeros(remaining) + 1;
+    }
+
+    // improved raw estimator, see Otmar Ertl, "New cardinality estimation algorithms for HyperLogLog sketches", 2017
+    private static long estimate(int[] histogram, int precision) {
+        double m = 1 << precision;
+        int q = 64 - precision;
+        double z = m * tau(1 - histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z = z + m * sigma(histogram[0] / m);
+        return Math.round(m * m / (2 * Math.log(2)) / z);
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x = x * x;
+            previous = z;
+            z += x * y;
+            y += y;
+        }
+        while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= Math.pow(1 - x, 2) * y;
+        }
+        while (z != previous);
+        return z / 3;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for estimating quantiles.
+ * <p>
+ * Values are collected in a buffer and, when the buffer is full, merged into a sorted list of centroids.
+ * The size of centroids is limited by the arcsine scale function so that centroids near the tails remain small,
+ * which keeps quantile estimates accurate at the extremes. The number of centroids is bounded by the compression.
+ * <p>
+ * Digests can be merged, the merged digest has the same compression as the digest merged into.
+ */
+public class TDigestState {
+
+    public final static double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private final int bufferSize;
+
+    private double[] means = new double[8];
+    private double[] weights = new double[8];
+    private int centroidCount;
+    private double centroidWeight;
+
+    private double[] buffer = new double[8];
+    private int bufferCount;
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigestState(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10 but received " + compression);
+        }
+        this.compression = compression;
+        this.bufferSize = (int) (5 * compression);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferCount == buffer.length) {
+            if (bufferCount >= bufferSize) {
+                compress();
+            }
+            else {
+                buffer = Arrays.copyOf(buffer, Math.min(bufferCount * 2, bufferSize));
+            }
+        }
+        buffer[bufferCount++] = value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public void merge(TDigestState other) {
+        other.compress();
+        compress();
+        if (other.centroidCount == 0) {
+            return;
+        }
+        mergeCentroids(other.means, other.weights, other.centroidCount);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the estimated value at the quantile, or null if no values were added.
+     * @param quantile between 0 and 1
+     * @return value
+     */
+    public Double quantile(double quantile) {
+        compress();
+        if (centroidCount == 0) {
+            return null;
+        }
+        if (centroidCount == 1 || quantile <= 0) {
+            return quantile <= 0 ? min : means[0];
+        }
+        if (quantile >= 1) {
+            return max;
+        }
+
+        double position = quantile * centroidWeight;
+        double cumulative = weights[0] / 2;
+        if (position < cumulative) {
+            return min + (means[0] - min) * position / cumulative;
+        }
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (position < cumulative + step) {
+                return means[i] + (means[i + 1] - means[i]) * (position - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        double tail = weights[centroidCount - 1] / 2;
+        double fraction = Math.min(1, (position - cumulative) / tail);
+        return means[centroidCount - 1] + (max - means[centroidCount - 1]) * fraction;
+    }
+
+    public long size() {
+        return (long) centroidWeight + bufferCount;
+    }
+
+    public int getCentroidCount() {
+        compress();
+        return centroidCount;
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    public void clear() {
+        means = new double[8];
+        weights = new double[8];
+        centroidCount = 0;
+        centroidWeight = 0;
+        buffer = new double[8];
+        bufferCount = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferCount);
+        double[] unitWeights = new double[bufferCount];
+        Arrays.fill(unitWeights, 1);
+        double[] values = Arrays.copyOf(buffer, bufferCount);
+        bufferCount = 0;
+        mergeCentroids(values, unitWeights, values.length);
+    }
+
+    // merges sorted centroids into the sorted centroids of this digest
+    private void mergeCentroids(double[] otherMeans, double[] otherWeights, int otherCount) {
+        double totalWeight = centroidWeight;
+        for (int i = 0; i < otherCount; i++) {
+            totalWeight += otherWeights[i];
+        }
+
+        double[] resultMeans = new double[Math.max(8, Math.min(centroidCount + otherCount, (int) (2 * compression) + 8))];
+        double[] resultWeights = new double[resultMeans.length];
+        int resultCount = 0;
+
+        int left = 0;
+        int right = 0;
+        double weightSoFar = 0;
+        double weightLimit = 0;
+        double currentMean = 0;
+        double currentWeight = 0;
+        while (left < centroidCount || right < otherCount) {
+            double mean;
+            double weight;
+            if (right == otherCount || (left < centroidCount && means[left] <= otherMeans[right])) {
+                mean = means[left];
+                weight = weights[left++];
+            }
+            else {
+                mean = otherMeans[right];
+                weight = otherWeights[right++];
+            }
+
+            if (currentWeight > 0 && weightSoFar + currentWeight + weight <= weightLimit) {
+                currentMean += (mean - currentMean) * weight / (currentWeight + weight);
+                currentWeight += weight;
+                continue;
+            }
+            if (currentWeight > 0) {
+                if (resultCount == resultMeans.length) {
+                    resultMeans = Arrays.copyOf(resultMeans, resultCount * 2);
+                    resultWeights = Arrays.copyOf(resultWeights, resultCount * 2);
+                }
+                resultMeans[resultCount] = currentMean;
+                resultWeights[resultCount++] = currentWeight;
+                weightSoFar += currentWeight;
+            }
+            currentMean = mean;
+            currentWeight = weight;
+            weightLimit = totalWeight * quantileOfScale(scaleOfQuantile(weightSoFar / totalWeight) + 1);
+        }
+        if (resultCount == resultMeans.length) {
+            resultMeans = Arrays.copyOf(resultMeans, resultCount + 1);
+            resultWeights = Arrays.copyOf(resultWeights, resultCount + 1);
+        }
+        resultMeans[resultCount] = currentMean;
+        resultWeights[resultCount++] = currentWeight;
+
+        means = resultMeans;
+        weights = resultWeights;
+        centroidCount = resultCount;
+        centroidWeight = totalWeight;
+    }
+
+    private double scaleOfQuantile(double quantile) {
+        return compression / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+    }
+
+    private double quantileOfScale(double scale) {
+        if (scale >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(scale * 2 * Math.PI / compression) + 1) / 2;
+    }
+}
@@ -17,6 +17,8 @@ import com.espertech.esper.epl.expression.core.ExprNode;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.math.MathContext;
+import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 /**
@@ -191,4 +193,34 @@ public interface EngineImportService
     public ConfigurationEngineDefaults.ThreadingProfile getThreadingProfile();
 
     public AggregationFactoryFactory getAggregationFactoryFactory();
+
+    /**
+     * Returns the imports.
+     * @return imports
+     */
+    public List<String> getImportNames();
+
+    /**
+     * Returns the imports for annotation-only use.
+     * @return annotation imports
+     */
+    public List<String> getAnnotationImportNames();
+
+    /**
+     * Returns the plug-in aggregation functions by lowercase function name.
+     * @return aggregation functions
+     */
+    public Map<String, ConfigurationPlugInAggregationFunction> getAggregationFunctions();
+
+    /**
+     * Returns the plug-in aggregation multi-functions.
+     * @return aggregation multi-functions
+     */
+    public List<ConfigurationPlugInAggregationMultiFunction> getAggregationMultiFunctions();
+
+    /**
+     * Returns the plug-in single-row functions by lowercase function name.
+     * @return single-row functions
+     */
+    public Map<String, EngineImportSingleRowDesc> getSingleRowFunctions();
 }
@@ -486,6 +486,12 @@ public class EngineImportServiceImpl implements EngineImportService
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("approxcountdistinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct);
+        }
+        if (nameLowerCase.equals("approxpercentile")) {
+            return new ExprApproxPercentileNode(isDistinct);
+        }
         if (nameLowerCase.equals("maxby")) {
             return new ExprAggMultiFunctionSortedMinMaxByNode(true, false, false);
         }
@@ -528,6 +534,30 @@ public class EngineImportServiceImpl implements EngineImportService
         return aggregationFactoryFactory;
     }
 
+    public List<String> getImportNames() {
+        return imports;
+    }
+
+    public List<String> getAnnotationImportNames() {
+        return annotationImports;
+    }
+
+    public Map<String, ConfigurationPlugInAggregationFunction> getAggregationFunctions() {
+        return aggregationFunctions;
+    }
+
+    public List<ConfigurationPlugInAggregationMultiFunction> getAggregationMultiFunctions() {
+        List<ConfigurationPlugInAggregationMultiFunction> result = new ArrayList<ConfigurationPlugInAggregationMultiFunction>(aggregationAccess.size());
+        for (Pair<Set<String>, ConfigurationPlugInAggregationMultiFunction> pair : aggregationAccess) {
+            result.add(pair.getSecond());
+        }
+        return result;
+    }
+
+    public Map<String, EngineImportSingleRowDesc> getSingleRowFunctions() {
+        return singleRowFunctions;
+    }
+
     /**
      * For testing, returns imports.
      * @return returns auto-import list as array
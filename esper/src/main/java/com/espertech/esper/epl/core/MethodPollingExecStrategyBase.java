@@ -20,7 +20,9 @@ import net.sf.cglib.reflect.FastMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -38,6 +40,7 @@ public abstract class MethodPollingExecStrategyBase implements PollExecStrategy
     protected final VariableReader variableReader;
     protected final String variableName;
     protected final VariableService variableService;
+    private FastMethod batchMethod;
 
     public MethodPollingExecStrategyBase(EventAdapterService eventAdapterService, FastMethod method, EventType eventType, Object invocationTarget, MethodPollingExecStrategyEnum strategy, VariableReader variableReader, String variableName, VariableService variableService) {
         this.eventAdapterService = eventAdapterService;
@@ -52,6 +55,73 @@ public abstract class MethodPollingExecStrategyBase implements PollExecStrategy
 
     protected abstract List<EventBean> handleResult(Object invocationResult);
 
+    /**
+     * Sets the method that accepts the lookup values of multiple keys in a single invocation.
+     * @param batchMethod method taking a single {@code Object[][]} parameter and returning an array with one result per key
+     */
+    public void setBatchMethod(FastMethod batchMethod) {
+        this.batchMethod = batchMethod;
+    }
+
+    /**
+     * Returns the method that accepts the lookup values of multiple keys in a single invocation, if any.
+     * @return batch method or null if none
+     */
+    public FastMethod getBatchMethod() {
+        return batchMethod;
+    }
+
+    /**
+     * Poll events for multiple keys by invoking the batch method once.
+     * @param lookupValues lookup values for each key
+     * @param exprEvaluatorContext context
+     * @return list of events for each key, in the order of the keys
+     */
+    public List<List<EventBean>> pollBatch(Object[][] lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        Object target;
+        switch(strategy) {
+            case TARGET_CONST:
+                target = invocationTarget;
+                break;
+            case TARGET_VAR:
+                target = getVariableTarget(variableReader);
+                break;
+            case TARGET_VAR_CONTEXT:
+                VariableReader reader = variableService.getReader(variableName, exprEvaluatorContext.getAgentInstanceId());
+                target = reader == null ? null : getVariableTarget(reader);
+                break;
+            default:
+                throw new UnsupportedOperationException("unrecognized strategy " + strategy);
+        }
+
+        List<List<EventBean>> results = new ArrayList<List<EventBean>>(lookupValues.length);
+        if (target == null && strategy != MethodPollingExecStrategyEnum.TARGET_CONST) {
+            for (int i = 0; i < lookupValues.length; i++) {
+                results.add(null);
+            }
+            return results;
+        }
+
+        Object invocationResult;
+        try {
+            invocationResult = batchMethod.invoke(target, new Object[] {lookupValues});
+        }
+        catch (InvocationTargetException ex) {
+            throw new EPException("Method '" + batchMethod.getName() + "' of class '" + batchMethod.getJavaMethod().getDeclaringClass().getName() +
+                    "' reported an exception: " + ex.getTargetException(), ex.getTargetException());
+        }
+        if (invocationResult == null || Array.getLength(invocationResult) != lookupValues.length) {
+            throw new EPException("Method '" + batchMethod.getName() + "' of class '" + batchMethod.getJavaMethod().getDeclaringClass().getName() +
+                    "' returned " + (invocationResult == null ? "null" : Array.getLength(invocationResult) + " results") + " for " + lookupValues.length + " lookup keys, expecting one result per lookup key");
+        }
+        for (int i = 0; i < lookupValues.length; i++) {
+            Object value = Array.get(invocationResult, i);
+            results.add(value == null ? null : handleResult(value));
+        }
+        return results;
+    }
+
     protected boolean checkNonNullArrayValue(Object value) {
         if (value == null) {
             log.warn("Expected non-null return result from method '" + method.getName() + "', but received null array element value");
@@ -91,14 +161,19 @@ public abstract class MethodPollingExecStrategyBase implements PollExecStrategy
     }
 
     private List<EventBean> invokeInternalVariable(Object[] lookupValues, VariableReader variableReader) {
-        Object target = variableReader.getValue();
+        Object target = getVariableTarget(variableReader);
         if (target == null) {
             return null;
         }
+        return invokeInternal(lookupValues, target);
+    }
+
+    private static Object getVariableTarget(VariableReader variableReader) {
+        Object target = variableReader.getValue();
         if (target instanceof EventBean) {
             target = ((EventBean) target).getUnderlying();
         }
-        return invokeInternal(lookupValues, target);
+        return target;
     }
 
     private List<EventBean> invokeInternal(Object[] lookupValues, Object invocationTarget) {
@@ -9,13 +9,15 @@
 package com.espertech.esper.epl.core;
 
 import com.espertech.esper.client.ConfigurationInformation;
-import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.IterablesArrayIterator;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.db.DataCache;
+import com.espertech.esper.epl.db.DataCacheExpiringImpl;
+import com.espertech.esper.epl.db.DataCacheRefreshStrategy;
+import com.espertech.esper.epl.db.DataCacheUtil;
 import com.espertech.esper.epl.db.PollExecStrategy;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.visitor.ExprNodeIdentifierVisitor;
@@ -33,8 +35,11 @@ import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.view.HistoricalEventViewable;
 import com.espertech.esper.view.View;
 import com.espertech.esper.view.ViewSupport;
+import net.sf.cglib.reflect.FastClass;
 import net.sf.cglib.reflect.FastMethod;
 
+import java.lang.reflect.Method;
+
 import java.util.*;
 
 /**
@@ -54,6 +59,8 @@ public class MethodPollingViewable implements HistoricalEventViewable
     private final MethodPollingViewableMeta metadata;
 
     private PollExecStrategy pollExecStrategy;
+    private MethodPollingExecStrategyBase batchStrategy;
+    private PollResultIndexingStrategy refreshIndexingStrategy;
     private SortedSet<Integer> requiredStreams;
     private ExprEvaluator[] validatedExprNodes;
     private StatementContext statementContext;
@@ -93,6 +100,15 @@ public class MethodPollingViewable implements HistoricalEventViewable
         this.eventType = eventType;
         this.exprEvaluatorContext = exprEvaluatorContext;
         this.metadata = metadata;
+
+        if (dataCache instanceof DataCacheExpiringImpl)
+        {
+            ((DataCacheExpiringImpl) dataCache).setRefreshStrategy(new DataCacheRefreshStrategy() {
+                public EventTable[] refresh(Object[] lookupKeys) {
+                    return MethodPollingViewable.this.refresh(lookupKeys);
+                }
+            });
+        }
     }
 
     public void stop()
@@ -198,15 +214,32 @@ public class MethodPollingViewable implements HistoricalEventViewable
                 pollExecStrategy = new MethodPollingExecStrategyPOJOPlain(eventAdapterService, methodFastClass, eventType, invocationTarget, strategy, variableReader, variableName, variableService);
             }
         }
+
+        // the optional batch method receives the lookup values of all keys that miss the cache
+        Method batchMethod = metadata.getOptionalBatchMethod();
+        if (batchMethod != null) {
+            FastClass batchFastClass = FastClass.create(Thread.currentThread().getContextClassLoader(), batchMethod.getDeclaringClass());
+            batchStrategy = (MethodPollingExecStrategyBase) pollExecStrategy;
+            batchStrategy.setBatchMethod(batchFastClass.getMethod(batchMethod));
+        }
     }
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext)
     {
-        DataCache localDataCache = dataCacheThreadLocal.get();
-        boolean strategyStarted = false;
+        // cache entries refreshed ahead of expiry are indexed as for the join
+        if (refreshIndexingStrategy == null || indexingStrategy != iteratorIndexingStrategy)
+        {
+            refreshIndexingStrategy = indexingStrategy;
+        }
 
+        DataCache localDataCache = dataCacheThreadLocal.get();
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
+        // rows of the same batch that carry the same lookup keys share a single method invocation
+        Map<Object, Integer> missingKeys = null;
+        List<Object[]> missingLookupValues = null;
+        int[] missingPerRow = null;
+
         // Get input parameters for each row
         for (int row = 0; row < lookupEventsPerStream.length; row++)
         {
@@ -240,53 +273,103 @@ public class MethodPollingViewable implements HistoricalEventViewable
             if (result != null)     // found in cache
             {
                 resultPerInputRow[row] = result;
+                continue;
             }
-            else        // not found in cache, get from actual polling (db query)
-            {
-                try
-                {
-                    if (!strategyStarted)
-                    {
-                        pollExecStrategy.start();
-                        strategyStarted = true;
-                    }
 
-                    // Poll using the polling execution strategy and lookup values
-                    List<EventBean> pollResult = pollExecStrategy.poll(lookupValues, exprEvaluatorContext);
-
-                    // index the result, if required, using an indexing strategy
-                    EventTable[] indexTable = indexingStrategy.index(pollResult, dataCache.isActive(), statementContext);
-
-                    // assign to row
-                    resultPerInputRow[row] = indexTable;
+            // not found in cache, remember the distinct keys to poll
+            if (missingKeys == null)
+            {
+                missingKeys = new HashMap<Object, Integer>();
+                missingLookupValues = new ArrayList<Object[]>();
+                missingPerRow = new int[lookupEventsPerStream.length];
+            }
+            Object missingKey = DataCacheUtil.getLookupKey(lookupValues);
+            Integer missingNum = missingKeys.get(missingKey);
+            if (missingNum == null)
+            {
+                missingNum = missingLookupValues.size();
+                missingKeys.put(missingKey, missingNum);
+                missingLookupValues.add(lookupValues);
+            }
+            missingPerRow[row] = missingNum;
+        }
 
-                    // save in cache
-                    dataCache.put(lookupValues, indexTable);
+        if (missingKeys == null)
+        {
+            return resultPerInputRow;
+        }
 
-                    if (localDataCache != null)
-                    {
-                        localDataCache.put(lookupValues, indexTable);
-                    }
+        // get from actual polling (method invocation)
+        EventTable[][] polled = new EventTable[missingLookupValues.size()][];
+        pollExecStrategy.start();
+        try
+        {
+            if (batchStrategy != null && polled.length > 1)
+            {
+                Object[][] lookupValuesPerKey = missingLookupValues.toArray(new Object[polled.length][]);
+                List<List<EventBean>> pollResults = batchStrategy.pollBatch(lookupValuesPerKey, exprEvaluatorContext);
+                for (int i = 0; i < polled.length; i++)
+                {
+                    polled[i] = indexingStrategy.index(pollResults.get(i), dataCache.isActive(), statementContext);
                 }
-                catch (EPException ex)
+            }
+            else
+            {
+                for (int i = 0; i < polled.length; i++)
                 {
-                    if (strategyStarted)
-                    {
-                        pollExecStrategy.done();
-                    }
-                    throw ex;
+                    // Poll using the polling execution strategy and lookup values
+                    List<EventBean> pollResult = pollExecStrategy.poll(missingLookupValues.get(i), exprEvaluatorContext);
+
+                    // index the result, if required, using an indexing strategy
+                    polled[i] = indexingStrategy.index(pollResult, dataCache.isActive(), statementContext);
                 }
             }
         }
-
-        if (strategyStarted)
+        finally
         {
             pollExecStrategy.done();
         }
 
+        // save in cache
+        for (int i = 0; i < polled.length; i++)
+        {
+            dataCache.put(missingLookupValues.get(i), polled[i]);
+            if (localDataCache != null)
+            {
+                localDataCache.put(missingLookupValues.get(i), polled[i]);
+            }
+        }
+
+        // assign to rows
+        for (int row = 0; row < resultPerInputRow.length; row++)
+        {
+            if (resultPerInputRow[row] == null)
+            {
+                resultPerInputRow[row] = polled[missingPerRow[row]];
+            }
+        }
         return resultPerInputRow;
     }
 
+    private EventTable[] refresh(Object[] lookupKeys)
+    {
+        PollResultIndexingStrategy indexingStrategy = refreshIndexingStrategy;
+        if (indexingStrategy == null)
+        {
+            return null;
+        }
+        pollExecStrategy.start();
+        try
+        {
+            List<EventBean> pollResult = pollExecStrategy.poll(lookupKeys, exprEvaluatorContext);
+            return indexingStrategy.index(pollResult, dataCache.isActive(), statementContext);
+        }
+        finally
+        {
+            pollExecStrategy.done();
+        }
+    }
+
     public View addView(View view)
     {
         view.setParent(this);
@@ -210,11 +210,34 @@ public class MethodPollingViewableFactory
         ConfigurationDataCache dataCacheDesc = (configCache != null) ? configCache.getDataCacheDesc() : null;
         DataCache dataCache = dataCacheFactory.getDataCache(dataCacheDesc, statementContext, epStatementAgentInstanceHandle, schedulingService, scheduleBucket, streamNumber);
 
-        MethodPollingViewableMeta meta = new MethodPollingViewableMeta(declaringClass, mapType, oaType, invocationTarget, strategy, isCollection, isIterator, variableReader, variableName);
+        Method batchMethod = getBatchMethod(methodReflection);
+
+        MethodPollingViewableMeta meta = new MethodPollingViewableMeta(declaringClass, mapType, oaType, invocationTarget, strategy, isCollection, isIterator, variableReader, variableName, batchMethod);
 
         return new MethodPollingViewable(variableMetaData == null, methodReflection.getDeclaringClass(), methodStreamSpec, methodStreamSpec.getExpressions(), dataCache, eventType, exprEvaluatorContext, meta);
     }
 
+    private static Method getBatchMethod(Method methodReflection) throws ExprValidationException
+    {
+        // a method by name "<method>Batch" accepting the lookup values of multiple keys is optional
+        String batchMethodName = methodReflection.getName() + "Batch";
+        Method batchMethod;
+        try {
+            batchMethod = methodReflection.getDeclaringClass().getMethod(batchMethodName, Object[][].class);
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (Modifier.isStatic(batchMethod.getModifiers()) != Modifier.isStatic(methodReflection.getModifiers())) {
+            throw new ExprValidationException("Batch method '" + batchMethodName + "' must be " + (Modifier.isStatic(methodReflection.getModifiers()) ? "static" : "non-static") + " as is method '" + methodReflection.getName() + "'");
+        }
+        Class returnType = batchMethod.getReturnType();
+        if (!returnType.isArray() || returnType.getComponentType().isPrimitive()) {
+            throw new ExprValidationException("Batch method '" + batchMethodName + "' does not return an array holding a result for each lookup key");
+        }
+        return batchMethod;
+    }
+
     private static MethodMetadataDesc getCheckMetadataVariable(String methodName, VariableMetaData variableMetaData, VariableReader variableReader, EngineImportService engineImportService, Class metadataClass)
             throws ExprValidationException
     {
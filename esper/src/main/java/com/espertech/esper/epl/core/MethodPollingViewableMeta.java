@@ -2,6 +2,7 @@ package com.espertech.esper.epl.core;
 
 import com.espertech.esper.epl.variable.VariableReader;
 
+import java.lang.reflect.Method;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -16,8 +17,9 @@ public class MethodPollingViewableMeta
     private final boolean isIterator;
     private final VariableReader variableReader;
     private final String variableName;
+    private final Method optionalBatchMethod;
 
-    public MethodPollingViewableMeta(Class declaringClass, Map<String, Object> optionalMapType, LinkedHashMap<String, Object> optionalOaType, Object invocationTarget, MethodPollingExecStrategyEnum strategy, boolean isCollection, boolean isIterator, VariableReader variableReader, String variableName) {
+    public MethodPollingViewableMeta(Class declaringClass, Map<String, Object> optionalMapType, LinkedHashMap<String, Object> optionalOaType, Object invocationTarget, MethodPollingExecStrategyEnum strategy, boolean isCollection, boolean isIterator, VariableReader variableReader, String variableName, Method optionalBatchMethod) {
         this.declaringClass = declaringClass;
         this.optionalMapType = optionalMapType;
         this.optionalOaType = optionalOaType;
@@ -27,6 +29,7 @@ public class MethodPollingViewableMeta
         this.isIterator = isIterator;
         this.variableReader = variableReader;
         this.variableName = variableName;
+        this.optionalBatchMethod = optionalBatchMethod;
     }
 
     public Class getDeclaringClass() {
@@ -64,4 +67,8 @@ public class MethodPollingViewableMeta
     public String getVariableName() {
         return variableName;
     }
+
+    public Method getOptionalBatchMethod() {
+        return optionalBatchMethod;
+    }
 }
@@ -11,8 +11,11 @@
 
 package com.espertech.esper.epl.core;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.thread.ThreadingService;
+import com.espertech.esper.epl.agg.service.AggregationServiceParallelAccess;
 import com.espertech.esper.epl.agg.service.AggregationGroupByRollupDesc;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -25,6 +28,14 @@ import com.espertech.esper.epl.view.*;
 import java.util.List;
 
 public class ResultSetProcessorHelperFactoryImpl implements ResultSetProcessorHelperFactory {
+    private final ThreadingService threadingService;
+    private final ConfigurationEngineDefaults.Threading threadingConfig;
+
+    public ResultSetProcessorHelperFactoryImpl(ThreadingService threadingService, ConfigurationEngineDefaults.Threading threadingConfig) {
+        this.threadingService = threadingService;
+        this.threadingConfig = threadingConfig;
+    }
+
     public ResultSetProcessorSimpleOutputLastHelper makeRSSimpleOutputLast(ResultSetProcessorSimpleFactory prototype, ResultSetProcessorSimple simple, AgentInstanceContext agentInstanceContext) {
         return new ResultSetProcessorSimpleOutputLastHelperImpl(simple);
     }
@@ -81,11 +92,14 @@ public class ResultSetProcessorHelperFactoryImpl implements ResultSetProcessorHe
     }
 
     public ResultSetProcessorRowPerGroupOutputAllHelper makeRSRowPerGroupOutputAllOpt(AgentInstanceContext agentInstanceContext, ResultSetProcessorRowPerGroup resultSetProcessorRowPerGroup, ResultSetProcessorRowPerGroupFactory prototype) {
-        return new ResultSetProcessorRowPerGroupOutputAllHelperImpl(resultSetProcessorRowPerGroup);
+        ResultSetProcessorRowPerGroupOutputParallel parallel = makeRowPerGroupOutputParallel(resultSetProcessorRowPerGroup, prototype);
+        boolean incremental = prototype.isOutputRowsDeterministic() && !prototype.isUnidirectional() && !prototype.isHistoricalOnly() &&
+                resultSetProcessorRowPerGroup.getAggregationService() instanceof AggregationServiceParallelAccess;
+        return new ResultSetProcessorRowPerGroupOutputAllHelperImpl(resultSetProcessorRowPerGroup, parallel, incremental);
     }
 
     public ResultSetProcessorRowPerGroupOutputLastHelper makeRSRowPerGroupOutputLastOpt(AgentInstanceContext agentInstanceContext, ResultSetProcessorRowPerGroup resultSetProcessorRowPerGroup, ResultSetProcessorRowPerGroupFactory prototype) {
-        return new ResultSetProcessorRowPerGroupOutputLastHelperImpl(resultSetProcessorRowPerGroup);
+        return new ResultSetProcessorRowPerGroupOutputLastHelperImpl(resultSetProcessorRowPerGroup, makeRowPerGroupOutputParallel(resultSetProcessorRowPerGroup, prototype));
     }
 
     public ResultSetProcessorGroupedOutputFirstHelper makeRSGroupedOutputFirst(AgentInstanceContext agentInstanceContext, ExprEvaluator[] groupKeyNodes, OutputConditionPolledFactory optionalOutputFirstConditionFactory, AggregationGroupByRollupDesc optionalGroupByRollupDesc, int optionalRollupLevel) {
@@ -116,4 +130,9 @@ public class ResultSetProcessorHelperFactoryImpl implements ResultSetProcessorHe
         int levelCount = prototype.getGroupByRollupDesc().getLevels().length;
         return new ResultSetProcessorRowPerGroupRollupUnboundHelperImpl(levelCount);
     }
+
+    private ResultSetProcessorRowPerGroupOutputParallel makeRowPerGroupOutputParallel(ResultSetProcessorRowPerGroup processor, ResultSetProcessorRowPerGroupFactory prototype) {
+        return ResultSetProcessorRowPerGroupOutputParallel.make(processor, prototype, threadingService.getOutputLimitThreadPool(),
+                threadingConfig.getThreadPoolOutputLimitNumThreads(), threadingConfig.getThreadPoolOutputLimitMinGroups());
+    }
 }
@@ -39,6 +39,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     private final boolean enableOutputLimitOpt;
     private final int numStreams;
     private final OutputConditionPolledFactory optionalOutputFirstConditionFactory;
+    private final boolean outputRowsDeterministic;
 
     public ResultSetProcessorRowPerGroupFactory(SelectExprProcessor selectExprProcessor,
                                                 ExprNode[] groupKeyNodeExpressions,
@@ -54,7 +55,8 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
                                                 ResultSetProcessorHelperFactory resultSetProcessorHelperFactory,
                                                 boolean enableOutputLimitOpt,
                                                 int numStreams,
-                                                OutputConditionPolledFactory optionalOutputFirstConditionFactory)
+                                                OutputConditionPolledFactory optionalOutputFirstConditionFactory,
+                                                boolean outputRowsDeterministic)
     {
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
         this.selectExprProcessor = selectExprProcessor;
@@ -76,6 +78,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
         this.enableOutputLimitOpt = enableOutputLimitOpt;
         this.numStreams = numStreams;
         this.optionalOutputFirstConditionFactory = optionalOutputFirstConditionFactory;
+        this.outputRowsDeterministic = outputRowsDeterministic;
     }
 
     public ResultSetProcessor instantiate(OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
@@ -158,6 +161,15 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
         return optionalOutputFirstConditionFactory;
     }
 
+    /**
+     * Returns true when the select-clause and having-clause only depend on the group events and aggregation values,
+     * so that output rows of a group can be generated on any thread and remain valid while the group does not change.
+     * @return indicator
+     */
+    public boolean isOutputRowsDeterministic() {
+        return outputRowsDeterministic;
+    }
+
     public ResultSetProcessorHelperFactory getResultSetProcessorHelperFactory() {
         return resultSetProcessorHelperFactory;
     }
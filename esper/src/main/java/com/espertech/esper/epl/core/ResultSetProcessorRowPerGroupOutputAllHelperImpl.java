@@ -22,8 +22,19 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
     private final Map<Object, EventBean> groupRepsOutputLastUnordRStream = new LinkedHashMap<Object, EventBean>();
     private boolean first;
 
-    public ResultSetProcessorRowPerGroupOutputAllHelperImpl(ResultSetProcessorRowPerGroup processor) {
+    private final ResultSetProcessorRowPerGroupOutputParallel parallel;
+
+    // for incremental output, the last output row per group (null when not passing having) and the groups changed since,
+    // only groups that have a representative are tracked as changed
+    private final LinkedHashMap<Object, EventBean> outputRows;
+    private final LinkedHashSet<Object> changedGroups;
+    private boolean outputRowsSynthesize;
+
+    public ResultSetProcessorRowPerGroupOutputAllHelperImpl(ResultSetProcessorRowPerGroup processor, ResultSetProcessorRowPerGroupOutputParallel parallel, boolean incremental) {
         this.processor = processor;
+        this.parallel = parallel;
+        this.outputRows = incremental ? new LinkedHashMap<Object, EventBean>() : null;
+        this.changedGroups = incremental ? new LinkedHashSet<Object>() : null;
     }
 
     public void processView(EventBean[] newData, EventBean[] oldData, boolean isGenerateSynthetic) {
@@ -42,6 +53,9 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
                     }
                 }
                 processor.aggregationService.applyEnter(eventsPerStream, mk, processor.agentInstanceContext);
+                if (changedGroups != null) {
+                    changedGroups.add(mk);
+                }
             }
         }
         if (oldData != null) {
@@ -56,6 +70,9 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
                     }
                 }
                 processor.aggregationService.applyLeave(eventsPerStream, mk, processor.agentInstanceContext);
+                if (changedGroups != null && groupReps.containsKey(mk)) {
+                    changedGroups.add(mk);
+                }
             }
         }
     }
@@ -75,6 +92,9 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
                     }
                 }
                 processor.aggregationService.applyEnter(aNewData.getArray(), mk, processor.agentInstanceContext);
+                if (changedGroups != null) {
+                    changedGroups.add(mk);
+                }
             }
         }
         if (oldData != null) {
@@ -87,6 +107,9 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
                     }
                 }
                 processor.aggregationService.applyLeave(anOldData.getArray(), mk, processor.agentInstanceContext);
+                if (changedGroups != null && groupReps.containsKey(mk)) {
+                    changedGroups.add(mk);
+                }
             }
         }
     }
@@ -107,9 +130,20 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
 
     private UniformPair<EventBean[]> output(boolean isSynthesize, boolean join) {
         // generate latest new-events from group representatives
-        List<EventBean> newEvents = new ArrayList<EventBean>(4);
-        processor.generateOutputBatchedArr(join, groupReps.entrySet().iterator(), true, isSynthesize, newEvents, null);
-        EventBean[] newEventsArr = (newEvents.isEmpty()) ? null : newEvents.toArray(new EventBean[newEvents.size()]);
+        EventBean[] newEventsArr;
+        if (outputRows != null) {
+            newEventsArr = outputIncremental(isSynthesize, join);
+        }
+        else {
+            List<EventBean> newEvents = new ArrayList<EventBean>(4);
+            if (parallel != null && groupReps.size() >= parallel.getMinGroups()) {
+                parallel.generate(join, groupReps, isSynthesize, newEvents);
+            }
+            else {
+                processor.generateOutputBatchedArr(join, groupReps.entrySet().iterator(), true, isSynthesize, newEvents, null);
+            }
+            newEventsArr = (newEvents.isEmpty()) ? null : newEvents.toArray(new EventBean[newEvents.size()]);
+        }
 
         // use old-events as retained, if any
         EventBean[] oldEventsArr = null;
@@ -126,6 +160,52 @@ public class ResultSetProcessorRowPerGroupOutputAllHelperImpl implements ResultS
         return new UniformPair<EventBean[]>(newEventsArr, oldEventsArr);
     }
 
+    private EventBean[] outputIncremental(boolean isSynthesize, boolean join) {
+        // regenerate all groups when the synthesize-indicator changed
+        if (!outputRows.isEmpty() && isSynthesize != outputRowsSynthesize) {
+            changedGroups.addAll(groupReps.keySet());
+        }
+        outputRowsSynthesize = isSynthesize;
+
+        // generate the rows of changed groups only
+        int numChanged = changedGroups.size();
+        if (numChanged > 0) {
+            Object[] keys = new Object[numChanged];
+            EventBean[][] eventsPerGroup = new EventBean[numChanged][];
+            int count = 0;
+            for (Object key : changedGroups) {
+                keys[count] = key;
+                eventsPerGroup[count] = groupReps.get(key);
+                count++;
+            }
+
+            EventBean[] rows;
+            if (parallel != null && numChanged >= parallel.getMinGroups()) {
+                rows = parallel.generate(join, keys, eventsPerGroup, isSynthesize);
+            }
+            else {
+                rows = new EventBean[numChanged];
+                for (int i = 0; i < numChanged; i++) {
+                    rows[i] = processor.generateOutputBatchedNoSortWMap(join, keys[i], eventsPerGroup[i], true, isSynthesize);
+                }
+            }
+
+            // groups are new to both the output rows and the group representatives in the same order, therefore output rows keep the group order
+            for (int i = 0; i < numChanged; i++) {
+                outputRows.put(keys[i], rows[i]);
+            }
+            changedGroups.clear();
+        }
+
+        List<EventBean> newEvents = new ArrayList<EventBean>(outputRows.size());
+        for (EventBean row : outputRows.values()) {
+            if (row != null) {
+                newEvents.add(row);
+            }
+        }
+        return (newEvents.isEmpty()) ? null : newEvents.toArray(new EventBean[newEvents.size()]);
+    }
+
     private void generateRemoveStreamJustOnce(boolean isSynthesize, boolean join) {
         if (first && processor.prototype.isSelectRStream()) {
             for (Map.Entry<Object, EventBean[]> groupRep : groupReps.entrySet()) {
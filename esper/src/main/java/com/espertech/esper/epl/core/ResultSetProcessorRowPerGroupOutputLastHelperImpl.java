@@ -17,11 +17,13 @@ import java.util.*;
 public class ResultSetProcessorRowPerGroupOutputLastHelperImpl implements ResultSetProcessorRowPerGroupOutputLastHelper {
 
     protected final ResultSetProcessorRowPerGroup processor;
+    private final ResultSetProcessorRowPerGroupOutputParallel parallel;
     private final Map<Object, EventBean[]> groupReps = new LinkedHashMap<Object, EventBean[]>();
     private final Map<Object, EventBean> groupRepsOutputLastUnordRStream = new LinkedHashMap<Object, EventBean>();
 
-    public ResultSetProcessorRowPerGroupOutputLastHelperImpl(ResultSetProcessorRowPerGroup processor) {
+    public ResultSetProcessorRowPerGroupOutputLastHelperImpl(ResultSetProcessorRowPerGroup processor, ResultSetProcessorRowPerGroupOutputParallel parallel) {
         this.processor = processor;
+        this.parallel = parallel;
     }
 
     public void processView(EventBean[] newData, EventBean[] oldData, boolean isGenerateSynthetic) {
@@ -110,7 +112,12 @@ public class ResultSetProcessorRowPerGroupOutputLastHelperImpl implements Result
 
     private UniformPair<EventBean[]> output(boolean isSynthesize, boolean join) {
         List<EventBean> newEvents = new ArrayList<EventBean>(4);
-        processor.generateOutputBatchedArr(join, groupReps.entrySet().iterator(), true, isSynthesize, newEvents, null);
+        if (parallel != null && groupReps.size() >= parallel.getMinGroups()) {
+            parallel.generate(join, groupReps, isSynthesize, newEvents);
+        }
+        else {
+            processor.generateOutputBatchedArr(join, groupReps.entrySet().iterator(), true, isSynthesize, newEvents, null);
+        }
         groupReps.clear();
         EventBean[] newEventsArr = (newEvents.isEmpty()) ? null : newEvents.toArray(new EventBean[newEvents.size()]);
 
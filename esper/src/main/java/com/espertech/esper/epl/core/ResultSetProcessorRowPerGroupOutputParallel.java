@@ -0,0 +1,175 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.service.AggregationServiceParallelAccess;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel generation of the output rows of groups for output-rate-limited fully-grouped statements.
+ * <p>
+ * Groups are partitioned by group key hash and each partition is generated on a fork-join pool. The aggregation service
+ * confines the current group row to the generating thread while rows are generated, see {@link AggregationServiceParallelAccess}.
+ * Rows are returned in the order of the groups, the same as for sequential generation.
+ */
+public class ResultSetProcessorRowPerGroupOutputParallel
+{
+    private final ResultSetProcessorRowPerGroup processor;
+    private final AggregationServiceParallelAccess aggregationAccess;
+    private final ForkJoinPool pool;
+    private final int numPartitions;
+    private final int minGroups;
+
+    private ResultSetProcessorRowPerGroupOutputParallel(ResultSetProcessorRowPerGroup processor, AggregationServiceParallelAccess aggregationAccess, ForkJoinPool pool, int numPartitions, int minGroups) {
+        this.processor = processor;
+        this.aggregationAccess = aggregationAccess;
+        this.pool = pool;
+        this.numPartitions = numPartitions;
+        this.minGroups = minGroups;
+    }
+
+    /**
+     * Returns the parallel output generation for a processor, or null if not enabled or the statement does not allow it.
+     * @param processor result set processor
+     * @param prototype result set processor prototype
+     * @param pool fork-join pool or null if not enabled
+     * @param numPartitions number of partitions
+     * @param minGroups minimum number of groups for parallel generation
+     * @return parallel output generation or null
+     */
+    public static ResultSetProcessorRowPerGroupOutputParallel make(ResultSetProcessorRowPerGroup processor, ResultSetProcessorRowPerGroupFactory prototype, ForkJoinPool pool, int numPartitions, int minGroups) {
+        if (pool == null || numPartitions < 2 || InstrumentationHelper.ENABLED || !prototype.isOutputRowsDeterministic()) {
+            return null;
+        }
+        if (!(processor.getAggregationService() instanceof AggregationServiceParallelAccess)) {
+            return null;
+        }
+        return new ResultSetProcessorRowPerGroupOutputParallel(processor, (AggregationServiceParallelAccess) processor.getAggregationService(), pool, numPartitions, minGroups);
+    }
+
+    /**
+     * Returns the minimum number of groups for parallel generation.
+     * @return minimum number of groups
+     */
+    public int getMinGroups() {
+        return minGroups;
+    }
+
+    /**
+     * Generates the insert stream rows of groups and adds rows passing the having-clause to the result.
+     * @param join true for join
+     * @param groupReps group representative events per group key
+     * @param isSynthesize whether to synthesize
+     * @param resultEvents result rows in the order of groups
+     */
+    public void generate(boolean join, Map<Object, EventBean[]> groupReps, boolean isSynthesize, List<EventBean> resultEvents) {
+        Object[] keys = new Object[groupReps.size()];
+        EventBean[][] eventsPerGroup = new EventBean[groupReps.size()][];
+        int count = 0;
+        for (Map.Entry<Object, EventBean[]> entry : groupReps.entrySet()) {
+            keys[count] = entry.getKey();
+            eventsPerGroup[count] = entry.getValue();
+            count++;
+        }
+        for (EventBean row : generate(join, keys, eventsPerGroup, isSynthesize)) {
+            if (row != null) {
+                resultEvents.add(row);
+            }
+        }
+    }
+
+    /**
+     * Generates the insert stream rows of groups.
+     * @param join true for join
+     * @param keys group keys
+     * @param eventsPerGroup group representative events per group key
+     * @param isSynthesize whether to synthesize
+     * @return row per group in the order of the keys, or null for groups not passing the having-clause
+     */
+    public EventBean[] generate(final boolean join, final Object[] keys, final EventBean[][] eventsPerGroup, final boolean isSynthesize) {
+        final EventBean[] rows = new EventBean[keys.length];
+        final int[][] partitions = partition(keys);
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(numPartitions);
+        for (final int[] partition : partitions) {
+            if (partition.length == 0) {
+                continue;
+            }
+            tasks.add(new Callable<Object>() {
+                public Object call() throws Exception {
+                    for (int index : partition) {
+                        rows[index] = processor.generateOutputBatchedNoSortWMap(join, keys[index], eventsPerGroup[index], true, isSynthesize);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        aggregationAccess.setParallelAccess(true);
+        try {
+            invokeAll(tasks);
+        }
+        finally {
+            aggregationAccess.setParallelAccess(false);
+        }
+        return rows;
+    }
+
+    private int[][] partition(Object[] keys) {
+        int[] partitionPerKey = new int[keys.length];
+        int[] counts = new int[numPartitions];
+        for (int i = 0; i < keys.length; i++) {
+            int hash = keys[i] == null ? 0 : keys[i].hashCode();
+            hash ^= hash >>> 16;
+            int partition = (hash & 0x7fffffff) % numPartitions;
+            partitionPerKey[i] = partition;
+            counts[partition]++;
+        }
+
+        int[][] partitions = new int[numPartitions][];
+        for (int i = 0; i < numPartitions; i++) {
+            partitions[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            int partition = partitionPerKey[i];
+            partitions[partition][counts[partition]++] = i;
+        }
+        return partitions;
+    }
+
+    private void invokeAll(List<Callable<Object>> tasks) {
+        List<Future<Object>> futures = pool.invokeAll(tasks);
+        try {
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted generating output rows", ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new EPException("Failed to generate output rows: " + ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+}
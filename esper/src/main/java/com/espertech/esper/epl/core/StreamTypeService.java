@@ -112,6 +112,13 @@ public interface StreamTypeService
      */
     public boolean[] getIStreamOnly();
 
+    /**
+     * Returns true for each stream whose only data window is a first-in-first-out window, such as a length or time window,
+     * so that events leave the stream in the order they entered.
+     * @return true for first-in-first-out data windows
+     */
+    public boolean[] getFifoDataWindow();
+
     public int getStreamNumForStreamName(String streamWildcard);
 
     public boolean isOnDemandStreams();
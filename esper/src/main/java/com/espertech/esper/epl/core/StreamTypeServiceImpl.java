@@ -29,6 +29,7 @@ public class StreamTypeServiceImpl implements StreamTypeService
     private final EventType[] eventTypes;
     private final String[] streamNames;
     private final boolean[] isIStreamOnly;
+    private boolean[] isFifoDataWindow;
     private final String engineURIQualifier;
     private boolean isStreamZeroUnambigous;
     private boolean requireStreamNames;
@@ -148,6 +149,21 @@ public class StreamTypeServiceImpl implements StreamTypeService
         return isIStreamOnly;
     }
 
+    public boolean[] getFifoDataWindow() {
+        if (isFifoDataWindow == null) {
+            return new boolean[eventTypes.length];
+        }
+        return isFifoDataWindow;
+    }
+
+    /**
+     * Sets the indicator per stream whether the stream's only data window is first-in-first-out.
+     * @param isFifoDataWindow true for first-in-first-out data windows
+     */
+    public void setFifoDataWindow(boolean[] isFifoDataWindow) {
+        this.isFifoDataWindow = isFifoDataWindow;
+    }
+
     public int getStreamNumForStreamName(String streamWildcard) {
         for (int i = 0; i < streamNames.length; i++) {
             if (streamWildcard.equals(streamNames[i])) {
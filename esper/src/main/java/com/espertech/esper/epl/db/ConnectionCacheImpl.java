@@ -12,13 +12,19 @@ import com.espertech.esper.collection.Pair;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Caches the Connection and PreparedStatement instance for reuse.
+ * <p>
+ * Each thread polling at the same time obtains its own connection and statement pair, so that
+ * threads do not serialize on a single connection. Pairs are retained for reuse when returned,
+ * so a statement polled by a single thread at a time retains a single pair.
  */
 public class ConnectionCacheImpl extends ConnectionCache
 {
-    private Pair<Connection, PreparedStatement> cache;
+    private final ConcurrentLinkedQueue<Pair<Connection, PreparedStatement>> idle = new ConcurrentLinkedQueue<Pair<Connection, PreparedStatement>>();
+    private volatile boolean destroyed;
 
     /**
      * Ctor.
@@ -32,24 +38,44 @@ public class ConnectionCacheImpl extends ConnectionCache
 
     public Pair<Connection, PreparedStatement> getConnection()
     {
-        if (cache == null)
+        Pair<Connection, PreparedStatement> pair = idle.poll();
+        if (pair == null)
         {
-            cache = makeNew();
+            pair = makeNew();
         }
-        return cache;
+        return pair;
     }
 
     public void doneWith(Pair<Connection, PreparedStatement> pair)
     {
-        // no need to implement
+        idle.offer(pair);
+        if (destroyed)
+        {
+            closeIdle();
+        }
     }
 
     public void destroy()
     {
-        if (cache != null)
+        destroyed = true;
+        closeIdle();
+    }
+
+    /**
+     * Returns the number of connection and statement pairs retained for reuse.
+     * @return idle pair count
+     */
+    public int getNumIdle()
+    {
+        return idle.size();
+    }
+
+    private void closeIdle()
+    {
+        Pair<Connection, PreparedStatement> pair;
+        while ((pair = idle.poll()) != null)
         {
-            close(cache);
+            close(pair);
         }
-        cache = null;
     }
 }
@@ -17,9 +17,13 @@ import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.schedule.ScheduleHandleCallback;
 import com.espertech.esper.schedule.SchedulingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -29,16 +33,24 @@ import java.util.WeakHashMap;
  * <p>
  * The cache reference type indicates which backing Map is used: Weak type uses the WeakHashMap,
  * Soft type uses the apache commons ReferenceMap, and Hard type simply uses a HashMap.
+ * <p>
+ * With refresh-ahead, the scheduled callback also reloads entries that were looked up since they were loaded
+ * and that are within the refresh-ahead time of expiry, using the refresh strategy provided by the cache owner.
+ * The callback runs under the statement lock, as do lookups.
  */
 public class DataCacheExpiringImpl implements DataCache, ScheduleHandleCallback
 {
+    private static final Logger log = LoggerFactory.getLogger(DataCacheExpiringImpl.class);
+
     private final long maxAgeMSec;
     private final long purgeIntervalMSec;
+    private final long refreshAheadMSec;
     private final SchedulingService schedulingService;
     private final long scheduleSlot;
     private final Map<Object, Item> cache;
     private final EPStatementAgentInstanceHandle epStatementAgentInstanceHandle;
 
+    private DataCacheRefreshStrategy refreshStrategy;
     private boolean isScheduled;
 
     /**
@@ -56,9 +68,31 @@ public class DataCacheExpiringImpl implements DataCache, ScheduleHandleCallback
                                  SchedulingService schedulingService,
                                  long scheduleSlot,
                                  EPStatementAgentInstanceHandle epStatementAgentInstanceHandle)
+    {
+        this(maxAgeSec, purgeIntervalSec, cacheReferenceType, schedulingService, scheduleSlot, epStatementAgentInstanceHandle, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param maxAgeSec is the maximum age in seconds
+     * @param purgeIntervalSec is the purge interval in seconds
+     * @param cacheReferenceType indicates whether hard, soft or weak references are used in the cache
+     * @param schedulingService is a service for call backs at a scheduled time, for purging
+     * @param scheduleSlot slot for scheduling callbacks for this cache
+     * @param epStatementAgentInstanceHandle is the statements-own handle for use in registering callbacks with services
+     * @param refreshAheadSec is the number of seconds before expiry at which looked-up entries are reloaded, or zero for no refresh-ahead
+     */
+    public DataCacheExpiringImpl(double maxAgeSec,
+                                 double purgeIntervalSec,
+                                 ConfigurationCacheReferenceType cacheReferenceType,
+                                 SchedulingService schedulingService,
+                                 long scheduleSlot,
+                                 EPStatementAgentInstanceHandle epStatementAgentInstanceHandle,
+                                 double refreshAheadSec)
     {
         this.maxAgeMSec = (long) maxAgeSec * 1000;
         this.purgeIntervalMSec = (long) purgeIntervalSec * 1000;
+        this.refreshAheadMSec = (long) (refreshAheadSec * 1000);
         this.schedulingService = schedulingService;
         this.scheduleSlot = scheduleSlot;
 
@@ -94,6 +128,7 @@ public class DataCacheExpiringImpl implements DataCache, ScheduleHandleCallback
             return null;
         }
 
+        item.setAccessed();
         return item.getData();
     }
 
@@ -101,17 +136,41 @@ public class DataCacheExpiringImpl implements DataCache, ScheduleHandleCallback
     {
         Object key = DataCacheUtil.getLookupKey(lookupKeys);
         long now = schedulingService.getTime();
-        Item item = new Item(rows, now);
+        Item item = new Item(rows, now, refreshAheadMSec > 0 ? lookupKeys : null);
         cache.put(key, item);
 
         if (!isScheduled)
         {
+            // with refresh-ahead, check often enough to reload entries before they expire
+            long interval = purgeIntervalMSec;
+            if (refreshAheadMSec > 0 && refreshStrategy != null && refreshAheadMSec < interval)
+            {
+                interval = refreshAheadMSec;
+            }
             EPStatementHandleCallback callback = new EPStatementHandleCallback(epStatementAgentInstanceHandle, this);
-            schedulingService.add(purgeIntervalMSec, callback, scheduleSlot);
+            schedulingService.add(interval, callback, scheduleSlot);
             isScheduled = true;
         }
     }
 
+    /**
+     * Sets the strategy for reloading entries ahead of expiry.
+     * @param refreshStrategy refresh strategy
+     */
+    public void setRefreshStrategy(DataCacheRefreshStrategy refreshStrategy)
+    {
+        this.refreshStrategy = refreshStrategy;
+    }
+
+    /**
+     * Returns the number of milliseconds before expiry at which looked-up entries are reloaded.
+     * @return millisecond refresh-ahead, or zero if none
+     */
+    protected long getRefreshAheadMSec()
+    {
+        return refreshAheadMSec;
+    }
+
     /**
      * Returns the maximum age in milliseconds.
      * @return millisecon max age
@@ -147,19 +206,52 @@ public class DataCacheExpiringImpl implements DataCache, ScheduleHandleCallback
     public void scheduledTrigger(EngineLevelExtensionServicesContext engineLevelExtensionServicesContext)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qHistoricalScheduledEval();}
-        // purge expired
+        // purge expired, determine entries to refresh
         long now = schedulingService.getTime();
+        boolean refreshAhead = refreshAheadMSec > 0 && refreshStrategy != null;
+        List<Object[]> refreshKeys = null;
         Iterator<Object> it = cache.keySet().iterator();
         for (;it.hasNext();)
         {
             Item item = cache.get(it.next());
-            if ((now - item.getTime()) > maxAgeMSec)
+            long age = now - item.getTime();
+            if (age > maxAgeMSec)
             {
                 it.remove();
             }
+            else if (refreshAhead && item.isAccessed() && age >= maxAgeMSec - refreshAheadMSec)
+            {
+                if (refreshKeys == null)
+                {
+                    refreshKeys = new ArrayList<Object[]>();
+                }
+                refreshKeys.add(item.getLookupKeys());
+            }
         }
 
         isScheduled = false;
+
+        // reload the entries, which schedules the next check
+        if (refreshKeys != null)
+        {
+            for (Object[] lookupKeys : refreshKeys)
+            {
+                EventTable[] rows;
+                try
+                {
+                    rows = refreshStrategy.refresh(lookupKeys);
+                }
+                catch (RuntimeException ex)
+                {
+                    log.warn("Failed to refresh cache entry ahead of expiry, the entry expires as usual: " + ex.getMessage(), ex);
+                    continue;
+                }
+                if (rows != null)
+                {
+                    put(lookupKeys, rows);
+                }
+            }
+        }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aHistoricalScheduledEval();}
     }
 
@@ -170,11 +262,29 @@ public class DataCacheExpiringImpl implements DataCache, ScheduleHandleCallback
     {
         private EventTable[] data;
         private long time;
+        private Object[] lookupKeys;
+        private boolean accessed;
 
-        public Item(EventTable[] data, long time)
+        public Item(EventTable[] data, long time, Object[] lookupKeys)
         {
             this.data = data;
             this.time = time;
+            this.lookupKeys = lookupKeys;
+        }
+
+        public Object[] getLookupKeys()
+        {
+            return lookupKeys;
+        }
+
+        public boolean isAccessed()
+        {
+            return accessed;
+        }
+
+        public void setAccessed()
+        {
+            accessed = true;
         }
 
         public EventTable[] getData()
@@ -16,12 +16,20 @@ import java.util.Map;
 /**
  * Query result data cache implementation that uses a least-recently-used algorithm
  * to store and evict query results.
+ * <p>
+ * The cache is split into lock-striped segments, each segment being an access-ordered map that evicts its own
+ * least-recently-used entry, so that concurrent lookups by different threads do not contend on a single lock.
+ * Small caches use a single segment and therefore provide exact least-recently-used eviction.
  */
 public class DataCacheLRUImpl implements DataCache
 {
-    private final int cacheSize;
     private static final float hashTableLoadFactor = 0.75f;
-    private final LinkedHashMap<Object, EventTable[]> cache;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 256;
+
+    private final int cacheSize;
+    private final Segment[] segments;
+    private final int segmentMask;
 
     /**
      * Ctor.
@@ -30,16 +38,18 @@ public class DataCacheLRUImpl implements DataCache
     public DataCacheLRUImpl(int cacheSize)
     {
         this.cacheSize = cacheSize;
-        int hashTableCapacity = (int)Math.ceil(cacheSize / hashTableLoadFactor) + 1;
-        this.cache = new LinkedHashMap<Object,EventTable[]>(hashTableCapacity, hashTableLoadFactor, true)
+        int numSegments = 1;
+        while (numSegments < MAX_SEGMENTS && cacheSize / (numSegments * 2) >= MIN_SEGMENT_SIZE)
         {
-            private static final long serialVersionUID = 1;
-
-            @Override protected boolean removeEldestEntry (Map.Entry<Object,EventTable[]> eldest)
-            {
-                return size() > DataCacheLRUImpl.this.cacheSize;
-            }
-        };
+            numSegments *= 2;
+        }
+        this.segments = new Segment[numSegments];
+        this.segmentMask = numSegments - 1;
+        int segmentSize = (cacheSize + numSegments - 1) / numSegments;
+        for (int i = 0; i < numSegments; i++)
+        {
+            segments[i] = new Segment(segmentSize);
+        }
     }
 
     /**
@@ -52,7 +62,11 @@ public class DataCacheLRUImpl implements DataCache
     public EventTable[] getCached(Object[] lookupKeys)
     {
         Object key = DataCacheUtil.getLookupKey(lookupKeys);
-        return cache.get(key);
+        Segment segment = segmentFor(key);
+        synchronized (segment)
+        {
+            return segment.get(key);
+        }
     }
 
     /**
@@ -61,10 +75,14 @@ public class DataCacheLRUImpl implements DataCache
     * @param keys the keys with which the specified value is to be associated.
     * @param value a value to be associated with the specified key.
     */
-    public synchronized void put(Object[] keys, EventTable[] value)
+    public void put(Object[] keys, EventTable[] value)
     {
         Object key = DataCacheUtil.getLookupKey(keys);
-        cache.put(key, value);
+        Segment segment = segmentFor(key);
+        synchronized (segment)
+        {
+            segment.put(key, value);
+        }
     }
 
     /**
@@ -76,6 +94,15 @@ public class DataCacheLRUImpl implements DataCache
         return cacheSize;
     }
 
+    /**
+     * Returns the number of lock-striped segments.
+     * @return segment count
+     */
+    public int getNumSegments()
+    {
+        return segments.length;
+    }
+
     public boolean isActive()
     {
         return true;
@@ -83,4 +110,34 @@ public class DataCacheLRUImpl implements DataCache
 
     public void destroy() {
     }
+
+    private Segment segmentFor(Object key)
+    {
+        if (key == null)
+        {
+            return segments[0];
+        }
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return segments[h & segmentMask];
+    }
+
+    private static class Segment extends LinkedHashMap<Object, EventTable[]>
+    {
+        private static final long serialVersionUID = 1;
+        private final int maxSize;
+
+        private Segment(int maxSize)
+        {
+            super((int)Math.ceil(maxSize / hashTableLoadFactor) + 1, hashTableLoadFactor, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override protected boolean removeEldestEntry(Map.Entry<Object,EventTable[]> eldest)
+        {
+            return size() > maxSize;
+        }
+    }
 }
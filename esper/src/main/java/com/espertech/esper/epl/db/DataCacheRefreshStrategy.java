@@ -0,0 +1,24 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.epl.join.table.EventTable;
+
+/**
+ * Reloads the rows for lookup keys, for use by caches that refresh entries ahead of expiry.
+ */
+public interface DataCacheRefreshStrategy
+{
+    /**
+     * Reloads the rows for the lookup keys provided.
+     * @param lookupKeys is the keys to reload
+     * @return rows, or null if the rows cannot currently be reloaded
+     */
+    public EventTable[] refresh(Object[] lookupKeys);
+}
@@ -49,6 +49,7 @@ public class DatabasePollingViewable implements HistoricalEventViewable
     private SortedSet<Integer> subordinateStreams;
     private ExprEvaluatorContext exprEvaluatorContext;
     private StatementContext statementContext;
+    private PollResultIndexingStrategy refreshIndexingStrategy;
 
     private static final EventBean[][] NULL_ROWS;
     static {
@@ -86,6 +87,15 @@ public class DatabasePollingViewable implements HistoricalEventViewable
         this.pollExecStrategy = pollExecStrategy;
         this.dataCache = dataCache;
         this.eventType = eventType;
+
+        if (dataCache instanceof DataCacheExpiringImpl)
+        {
+            ((DataCacheExpiringImpl) dataCache).setRefreshStrategy(new DataCacheRefreshStrategy() {
+                public EventTable[] refresh(Object[] lookupKeys) {
+                    return DatabasePollingViewable.this.refresh(lookupKeys);
+                }
+            });
+        }
     }
 
     public void stop()
@@ -140,11 +150,20 @@ public class DatabasePollingViewable implements HistoricalEventViewable
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext)
     {
+        // cache entries refreshed ahead of expiry are indexed as for the join
+        if (refreshIndexingStrategy == null || indexingStrategy != iteratorIndexingStrategy)
+        {
+            refreshIndexingStrategy = indexingStrategy;
+        }
+
         DataCache localDataCache = dataCacheThreadLocal.get();
         boolean strategyStarted = false;
 
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
+        // rows of the same batch that carry the same lookup keys share a single query execution
+        Map<Object, EventTable[]> batchResults = null;
+
         // Get input parameters for each row
         EventBean[] eventsPerStream;
         for (int row = 0; row < lookupEventsPerStream.length; row++)
@@ -180,6 +199,21 @@ public class DatabasePollingViewable implements HistoricalEventViewable
                 }
             }
 
+            // try the results of previous rows of this batch
+            Object batchKey = null;
+            if (result == null && lookupEventsPerStream.length > 1)
+            {
+                batchKey = DataCacheUtil.getLookupKey(lookupValues);
+                if (batchResults == null)
+                {
+                    batchResults = new HashMap<Object, EventTable[]>();
+                }
+                else
+                {
+                    result = batchResults.get(batchKey);
+                }
+            }
+
             // use the result from cache
             if (result != null)     // found in cache
             {
@@ -207,6 +241,11 @@ public class DatabasePollingViewable implements HistoricalEventViewable
                     // save in cache
                     dataCache.put(lookupValues, indexTable);
 
+                    if (batchKey != null)
+                    {
+                        batchResults.put(batchKey, indexTable);
+                    }
+
                     if (localDataCache != null)
                     {
                         localDataCache.put(lookupValues, indexTable);
@@ -231,6 +270,25 @@ public class DatabasePollingViewable implements HistoricalEventViewable
         return resultPerInputRow;
     }
 
+    private EventTable[] refresh(Object[] lookupKeys)
+    {
+        PollResultIndexingStrategy indexingStrategy = refreshIndexingStrategy;
+        if (indexingStrategy == null)
+        {
+            return null;
+        }
+        pollExecStrategy.start();
+        try
+        {
+            List<EventBean> pollResult = pollExecStrategy.poll(lookupKeys, exprEvaluatorContext);
+            return indexingStrategy.index(pollResult, dataCache.isActive(), statementContext);
+        }
+        finally
+        {
+            pollExecStrategy.done();
+        }
+    }
+
     public View addView(View view)
     {
         view.setParent(this);
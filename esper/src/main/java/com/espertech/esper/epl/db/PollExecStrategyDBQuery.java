@@ -43,7 +43,7 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
     private final SQLOutputRowConversion outputRowConversionHook;
     private final boolean enableJDBCLogging;
 
-    private Pair<Connection, PreparedStatement> resources;
+    private final ThreadLocal<Pair<Connection, PreparedStatement>> resources = new ThreadLocal<Pair<Connection, PreparedStatement>>();
 
     /**
      * Ctor.
@@ -77,12 +77,17 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
 
     public void start()
     {
-        resources = connectionCache.getConnection();
+        resources.set(connectionCache.getConnection());
     }
 
     public void done()
     {
-        connectionCache.doneWith(resources);
+        Pair<Connection, PreparedStatement> pair = resources.get();
+        if (pair != null)
+        {
+            resources.remove();
+            connectionCache.doneWith(pair);
+        }
     }
 
     public void destroy()
@@ -95,18 +100,18 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
         List<EventBean> result;
         try
         {
-            result = execute(resources.getSecond(), lookupValues);
+            result = execute(resources.get().getSecond(), lookupValues);
         }
         catch (EPException ex)
         {
-            connectionCache.doneWith(resources);
+            done();
             throw ex;
         }
 
         return result;
     }
 
-    private synchronized List<EventBean> execute(PreparedStatement preparedStatement,
+    private List<EventBean> execute(PreparedStatement preparedStatement,
                                     Object[] lookupValuePerStream)
     {
         if (ExecutionPathDebugLog.isDebugEnabled && log.isInfoEnabled())
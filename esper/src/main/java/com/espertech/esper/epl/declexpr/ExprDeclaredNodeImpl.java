@@ -26,7 +26,7 @@ import com.espertech.esper.epl.expression.visitor.ExprNodeVisitor;
 import com.espertech.esper.epl.expression.visitor.ExprNodeVisitorWithParent;
 import com.espertech.esper.epl.spec.ExpressionDeclItem;
 import com.espertech.esper.filter.FilterSpecLookupable;
-import com.espertech.esper.util.SerializableObjectCopier;
+import com.espertech.esper.util.StructuralObjectCopier;
 
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -52,7 +52,7 @@ public class ExprDeclaredNodeImpl extends ExprNodeBase implements ExprDeclaredNo
 
         // copy expression - we do it at this time and not later
         try {
-             expressionBodyCopy = (ExprNode) SerializableObjectCopier.copy(prototype.getInner());
+             expressionBodyCopy = (ExprNode) StructuralObjectCopier.copy(prototype.getInner());
         } catch (Exception e) {
             throw new RuntimeException("Internal error providing expression tree: " + e.getMessage(), e);
         }
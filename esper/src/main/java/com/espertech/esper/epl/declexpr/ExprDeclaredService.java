@@ -16,11 +16,14 @@ import com.espertech.esper.epl.spec.CreateExpressionDesc;
 import com.espertech.esper.epl.spec.ExpressionDeclItem;
 import com.espertech.esper.epl.spec.ExpressionScriptProvided;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ExprDeclaredService {
     public ExpressionDeclItem getExpression(String name);
     public List<ExpressionScriptProvided> getScriptsByName(String expressionName);
+    public Collection<ExpressionDeclItem> getExpressions();
+    public Collection<ExpressionScriptProvided> getScripts();
     public String addExpressionOrScript(CreateExpressionDesc expression) throws ExprValidationException;
     public void destroyedExpression(CreateExpressionDesc expression);
     public void destroy();
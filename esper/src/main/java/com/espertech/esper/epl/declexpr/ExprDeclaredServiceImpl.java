@@ -17,6 +17,7 @@ import com.espertech.esper.epl.spec.ExpressionDeclItem;
 import com.espertech.esper.epl.spec.ExpressionScriptProvided;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +72,18 @@ public class ExprDeclaredServiceImpl implements ExprDeclaredService {
         return globalScripts.get(name);
     }
 
+    public synchronized Collection<ExpressionDeclItem> getExpressions() {
+        return new ArrayList<ExpressionDeclItem>(globalExpressions.values());
+    }
+
+    public synchronized Collection<ExpressionScriptProvided> getScripts() {
+        List<ExpressionScriptProvided> result = new ArrayList<ExpressionScriptProvided>();
+        for (List<ExpressionScriptProvided> scripts : globalScripts.values()) {
+            result.addAll(scripts);
+        }
+        return result;
+    }
+
     public synchronized void destroyedExpression(CreateExpressionDesc expressionDesc) {
         if (expressionDesc.getExpression() != null) {
             globalExpressions.remove(expressionDesc.getExpression().getName());
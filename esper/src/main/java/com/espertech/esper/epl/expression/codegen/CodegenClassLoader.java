@@ -0,0 +1,34 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+/**
+ * Class loader for generated expression evaluator classes, one per generated class so that classes
+ * can be unloaded when the statement is destroyed.
+ */
+public class CodegenClassLoader extends ClassLoader {
+
+    /**
+     * Ctor.
+     * @param parent parent class loader that must be able to resolve engine classes and any inlined event classes
+     */
+    public CodegenClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Defines the generated class.
+     * @param name class name
+     * @param bytes class bytes
+     * @return class
+     */
+    public Class define(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,163 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+import net.sf.cglib.asm.$Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Code generation context for the evaluate-method of a generated expression evaluator.
+ * <p>
+ * Local variable slots 1 to 3 hold the events-per-stream, is-new-data and evaluation context parameters.
+ * The primitive evaluation methods receive the result array in slot 4.
+ */
+public class CodegenContext {
+
+    /**
+     * Local variable slot of the events-per-stream parameter.
+     */
+    public static final int LOCAL_EVENTS = 1;
+
+    /**
+     * Local variable slot of the is-new-data parameter.
+     */
+    public static final int LOCAL_ISNEWDATA = 2;
+
+    /**
+     * Local variable slot of the evaluation context parameter.
+     */
+    public static final int LOCAL_CONTEXT = 3;
+
+    /**
+     * Local variable slot of the result array parameter of primitive evaluation methods.
+     */
+    public static final int LOCAL_RESULT = 4;
+
+    private final String classInternalName;
+    private $MethodVisitor mv;
+    private final List<Object> dependencies = new ArrayList<Object>();
+    private final List<Class> dependencyTypes = new ArrayList<Class>();
+    private int nextLocal = LOCAL_CONTEXT + 1;
+
+    /**
+     * Ctor.
+     * @param classInternalName internal name of the generated class
+     * @param mv method visitor for the evaluate-method
+     */
+    public CodegenContext(String classInternalName, $MethodVisitor mv) {
+        this.classInternalName = classInternalName;
+        this.mv = mv;
+    }
+
+    /**
+     * Continues generation with a further method of the same class, keeping the dependencies.
+     * @param mv method visitor for the method
+     * @param firstFreeLocal first local variable slot not taken by parameters
+     */
+    public void beginMethod($MethodVisitor mv, int firstFreeLocal) {
+        this.mv = mv;
+        this.nextLocal = firstFreeLocal;
+    }
+
+    public $MethodVisitor getMv() {
+        return mv;
+    }
+
+    public String getClassInternalName() {
+        return classInternalName;
+    }
+
+    public List<Object> getDependencies() {
+        return dependencies;
+    }
+
+    public List<Class> getDependencyTypes() {
+        return dependencyTypes;
+    }
+
+    /**
+     * Allocates a new local variable.
+     * @param kind kind of value to store
+     * @return slot
+     */
+    public int allocateLocal(CodegenKind kind) {
+        int slot = nextLocal;
+        nextLocal += kind.getLocalSize();
+        return slot;
+    }
+
+    /**
+     * Registers a dependency that the generated code accesses through an instance field.
+     * @param value dependency
+     * @param type declared field type
+     * @return field index
+     */
+    public int addDependency(Object value, Class type) {
+        dependencies.add(value);
+        dependencyTypes.add(type);
+        return dependencies.size() - 1;
+    }
+
+    /**
+     * Emits code to load a dependency field onto the operand stack.
+     * @param index field index
+     */
+    public void loadDependency(int index) {
+        mv.visitVarInsn($Opcodes.ALOAD, 0);
+        mv.visitFieldInsn($Opcodes.GETFIELD, classInternalName, getDependencyFieldName(index), $Type.getDescriptor(dependencyTypes.get(index)));
+    }
+
+    /**
+     * Emits code to push an int constant.
+     * @param value constant
+     */
+    public void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn($Opcodes.ICONST_0 + value);
+        }
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn($Opcodes.BIPUSH, value);
+        }
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn($Opcodes.SIPUSH, value);
+        }
+        else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * Emits code to box the primitive value on top of the operand stack.
+     * @param kind numeric or boolean kind of the value
+     */
+    public void box(CodegenKind kind) {
+        if (kind == CodegenKind.BOOLEAN) {
+            mv.visitMethodInsn($Opcodes.INVOKESTATIC, $Type.getInternalName(CodegenExprEvaluatorBase.class), "toBoxedBoolean", "(I)Ljava/lang/Boolean;", false);
+            return;
+        }
+        if (kind == CodegenKind.REF) {
+            return;
+        }
+        String owner = $Type.getInternalName(kind.getBoxedType());
+        mv.visitMethodInsn($Opcodes.INVOKESTATIC, owner, "valueOf", "(" + kind.getDescriptor() + ")L" + owner + ";", false);
+    }
+
+    /**
+     * Returns the field name of a dependency.
+     * @param index field index
+     * @return name
+     */
+    public static String getDependencyFieldName(int index) {
+        return "d" + index;
+    }
+}
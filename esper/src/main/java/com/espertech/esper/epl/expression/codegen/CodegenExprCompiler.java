@@ -0,0 +1,303 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.util.CoercionException;
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles a validated expression tree into a generated evaluator class.
+ * <p>
+ * Logical, relational, equals and arithmetic operators, constants and event properties are compiled into
+ * a single evaluate-method using primitive-typed locals. All other sub-expressions are evaluated through their
+ * interpreted evaluator. The interpreted evaluator is returned when the expression cannot be compiled
+ * or instrumentation is enabled.
+ * <p>
+ * Generated evaluators of numeric expressions also implement {@link ExprEvaluatorPrimitive}.
+ */
+public class CodegenExprCompiler {
+
+    private static final Logger log = LoggerFactory.getLogger(CodegenExprCompiler.class);
+
+    /**
+     * Descriptor of the evaluate-method.
+     */
+    public final static String EVALUATE_DESCRIPTOR = "([" + $Type.getDescriptor(EventBean.class) + "Z" + $Type.getDescriptor(ExprEvaluatorContext.class) + ")Ljava/lang/Object;";
+
+    private final static String BASE_INTERNAL_NAME = $Type.getInternalName(CodegenExprEvaluatorBase.class);
+    private final static String CLASS_NAME_PREFIX = CodegenExprCompiler.class.getPackage().getName() + ".CodegenExprEvaluatorGen";
+    private final static AtomicLong CLASS_NUMBER = new AtomicLong();
+
+    /**
+     * Returns a generated evaluator for the expression, or the interpreted evaluator of the expression if the
+     * expression cannot be compiled.
+     * @param exprNode validated expression
+     * @param statementName statement name for logging
+     * @return evaluator
+     */
+    public static ExprEvaluator compile(ExprNode exprNode, String statementName) {
+        ExprEvaluator interpreted = exprNode.getExprEvaluator();
+        if (InstrumentationHelper.ENABLED) {
+            return interpreted;
+        }
+
+        CodegenClassLoader classLoader = new CodegenClassLoader(CodegenExprCompiler.class.getClassLoader());
+        try {
+            CodegenNode root = analyze(exprNode, classLoader);
+            if (!root.isCompiled()) {
+                return interpreted;
+            }
+            return generate(root, interpreted, classLoader);
+        }
+        catch (Throwable t) {
+            log.warn("Failed to generate code for expression '" + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(exprNode) +
+                    "' for statement '" + statementName + "', using interpreted evaluation: " + t.getMessage(), t);
+            return interpreted;
+        }
+    }
+
+    /**
+     * Analyzes an expression returning the node to generate code for.
+     * @param exprNode validated expression
+     * @param classLoader class loader of the generated class
+     * @return node
+     */
+    protected static CodegenNode analyze(ExprNode exprNode, ClassLoader classLoader) {
+        ExprNode[] childNodes = exprNode.getChildNodes();
+
+        if (exprNode instanceof ExprAndNodeImpl || exprNode instanceof ExprOrNode) {
+            CodegenNode[] children = new CodegenNode[childNodes.length];
+            for (int i = 0; i < childNodes.length; i++) {
+                children[i] = analyze(childNodes[i], classLoader);
+                if (!CodegenNode.isConvertible(children[i].getKind(), CodegenKind.BOOLEAN)) {
+                    return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+                }
+            }
+            return new CodegenNodeAndOr(exprNode instanceof ExprAndNodeImpl, children);
+        }
+
+        if (exprNode instanceof ExprNotNode) {
+            CodegenNode child = analyze(childNodes[0], classLoader);
+            if (!CodegenNode.isConvertible(child.getKind(), CodegenKind.BOOLEAN)) {
+                return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+            }
+            return new CodegenNodeNot(child);
+        }
+
+        if (exprNode instanceof ExprRelationalOpNodeImpl) {
+            CodegenKind kind = getCompareKind(childNodes);
+            if (kind == null || !kind.isNumeric()) {
+                return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+            }
+            return analyzeBinary(exprNode, kind, classLoader, new BinaryFactory() {
+                public CodegenNode make(ExprNode node, CodegenKind kind, CodegenNode left, CodegenNode right) {
+                    return new CodegenNodeRelOp(((ExprRelationalOpNodeImpl) node).getRelationalOpEnum(), kind, left, right);
+                }
+            });
+        }
+
+        if (exprNode instanceof ExprEqualsNodeImpl && !((ExprEqualsNodeImpl) exprNode).isIs()) {
+            CodegenKind kind = getEqualsKind(childNodes);
+            if (kind == null) {
+                return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+            }
+            return analyzeBinary(exprNode, kind, classLoader, new BinaryFactory() {
+                public CodegenNode make(ExprNode node, CodegenKind kind, CodegenNode left, CodegenNode right) {
+                    return new CodegenNodeEquals(((ExprEqualsNodeImpl) node).isNotEquals(), kind, left, right);
+                }
+            });
+        }
+
+        if (exprNode instanceof ExprMathNode) {
+            CodegenKind kind = CodegenKind.of(exprNode.getExprEvaluator().getType());
+            if (!kind.isNumeric()) {
+                return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+            }
+            return analyzeBinary(exprNode, kind, classLoader, new BinaryFactory() {
+                public CodegenNode make(ExprNode node, CodegenKind kind, CodegenNode left, CodegenNode right) {
+                    ExprMathNode math = (ExprMathNode) node;
+                    return new CodegenNodeMath(math.getMathArithTypeEnum(), kind, math.isDivisionByZeroReturnsNull(), left, right);
+                }
+            });
+        }
+
+        if (exprNode instanceof ExprConstantNodeImpl) {
+            Object value = ((ExprConstantNodeImpl) exprNode).getConstantValue(null);
+            if (CodegenNodeConstant.isSupported(value)) {
+                return new CodegenNodeConstant(value);
+            }
+        }
+
+        if (exprNode instanceof ExprIdentNode) {
+            ExprIdentNodeEvaluator identEval = ((ExprIdentNode) exprNode).getExprEvaluatorIdent();
+            if (identEval != null && identEval.getClass() == ExprIdentNodeEvaluatorImpl.class) {
+                ExprIdentNodeEvaluatorImpl impl = (ExprIdentNodeEvaluatorImpl) identEval;
+                return CodegenNodeIdent.make(impl.getStreamNum(), impl.getGetter(), classLoader);
+            }
+        }
+
+        return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+    }
+
+    private static CodegenNode analyzeBinary(ExprNode exprNode, CodegenKind kind, ClassLoader classLoader, BinaryFactory factory) {
+        ExprNode[] childNodes = exprNode.getChildNodes();
+        CodegenNode left = analyze(childNodes[0], classLoader);
+        CodegenNode right = analyze(childNodes[1], classLoader);
+        if (!CodegenNode.isConvertible(left.getKind(), kind) || !CodegenNode.isConvertible(right.getKind(), kind)) {
+            return new CodegenNodeEvaluator(exprNode.getExprEvaluator());
+        }
+        return factory.make(exprNode, kind, left, right);
+    }
+
+    private static CodegenKind getCompareKind(ExprNode[] childNodes) {
+        Class typeOne = JavaClassHelper.getBoxedType(childNodes[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(childNodes[1].getExprEvaluator().getType());
+        if (typeOne == null || typeTwo == null || !JavaClassHelper.isNumeric(typeOne) || !JavaClassHelper.isNumeric(typeTwo)) {
+            return null;
+        }
+        try {
+            return CodegenKind.of(JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo));
+        }
+        catch (CoercionException ex) {
+            return null;
+        }
+    }
+
+    private static CodegenKind getEqualsKind(ExprNode[] childNodes) {
+        Class<?> typeOne = JavaClassHelper.getBoxedType(childNodes[0].getExprEvaluator().getType());
+        Class<?> typeTwo = JavaClassHelper.getBoxedType(childNodes[1].getExprEvaluator().getType());
+        if (typeOne == null || typeTwo == null) {
+            return null;
+        }
+        if (typeOne.equals(typeTwo)) {
+            CodegenKind kind = CodegenKind.of(typeOne);
+            // other boxed numbers such as short compare as references
+            if (kind == CodegenKind.REF && JavaClassHelper.isNumeric(typeOne)) {
+                return null;
+            }
+            return kind;
+        }
+        if (typeOne.isAssignableFrom(typeTwo)) {
+            return CodegenKind.REF;
+        }
+        if (!JavaClassHelper.isNumeric(typeOne) || !JavaClassHelper.isNumeric(typeTwo)) {
+            return null;
+        }
+        CodegenKind kind = getCompareKind(childNodes);
+        return kind != null && kind.isNumeric() ? kind : null;
+    }
+
+    private static ExprEvaluator generate(CodegenNode root, ExprEvaluator interpreted, CodegenClassLoader classLoader) throws Exception {
+        String className = CLASS_NAME_PREFIX + CLASS_NUMBER.incrementAndGet();
+        String internalName = className.replace('.', '/');
+
+        // numeric expressions can also be evaluated to primitive values
+        CodegenKind kind = root.getKind();
+        String[] interfaces = kind.isNumeric() ? new String[] {$Type.getInternalName(ExprEvaluatorPrimitive.class)} : null;
+
+        $ClassWriter cw = new $ClassWriter($ClassWriter.COMPUTE_MAXS);
+        cw.visit($Opcodes.V1_5, $Opcodes.ACC_PUBLIC | $Opcodes.ACC_FINAL | $Opcodes.ACC_SUPER, internalName, null, BASE_INTERNAL_NAME, interfaces);
+
+        // evaluate-method
+        $MethodVisitor mv = cw.visitMethod($Opcodes.ACC_PUBLIC, "evaluate", EVALUATE_DESCRIPTOR, null, null);
+        mv.visitCode();
+        CodegenContext context = new CodegenContext(internalName, mv);
+        if (kind.isNumeric()) {
+            $Label isNull = new $Label();
+            root.emit(context, isNull);
+            context.box(kind);
+            mv.visitInsn($Opcodes.ARETURN);
+            mv.visitLabel(isNull);
+            mv.visitInsn($Opcodes.ACONST_NULL);
+        }
+        else {
+            root.emit(context, null);
+            context.box(kind);
+        }
+        mv.visitInsn($Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // primitive evaluate-methods
+        if (kind.isNumeric()) {
+            generatePrimitive(cw, context, root, "evaluateDouble", CodegenKind.DOUBLE);
+            generatePrimitive(cw, context, root, "evaluateLong", CodegenKind.LONG);
+        }
+
+        // dependency fields
+        List<Class> dependencyTypes = context.getDependencyTypes();
+        for (int i = 0; i < dependencyTypes.size(); i++) {
+            cw.visitField($Opcodes.ACC_PRIVATE | $Opcodes.ACC_FINAL, CodegenContext.getDependencyFieldName(i), $Type.getDescriptor(dependencyTypes.get(i)), null, null).visitEnd();
+        }
+
+        // constructor
+        String ctorDescriptor = "(Ljava/lang/Class;" + $Type.getDescriptor(ExprEvaluator.class) + "[Ljava/lang/Object;)V";
+        $MethodVisitor ctor = cw.visitMethod($Opcodes.ACC_PUBLIC, "<init>", ctorDescriptor, null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn($Opcodes.ALOAD, 0);
+        ctor.visitVarInsn($Opcodes.ALOAD, 1);
+        ctor.visitVarInsn($Opcodes.ALOAD, 2);
+        ctor.visitMethodInsn($Opcodes.INVOKESPECIAL, BASE_INTERNAL_NAME, "<init>", "(Ljava/lang/Class;" + $Type.getDescriptor(ExprEvaluator.class) + ")V", false);
+        for (int i = 0; i < dependencyTypes.size(); i++) {
+            ctor.visitVarInsn($Opcodes.ALOAD, 0);
+            ctor.visitVarInsn($Opcodes.ALOAD, 3);
+            ctor.visitLdcInsn(i);
+            ctor.visitInsn($Opcodes.AALOAD);
+            ctor.visitTypeInsn($Opcodes.CHECKCAST, $Type.getInternalName(dependencyTypes.get(i)));
+            ctor.visitFieldInsn($Opcodes.PUTFIELD, internalName, CodegenContext.getDependencyFieldName(i), $Type.getDescriptor(dependencyTypes.get(i)));
+        }
+        ctor.visitInsn($Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+        cw.visitEnd();
+
+        Class<?> clazz = classLoader.define(className, cw.toByteArray());
+        Constructor<?> constructor = clazz.getConstructor(Class.class, ExprEvaluator.class, Object[].class);
+        return (ExprEvaluator) constructor.newInstance(interpreted.getType(), interpreted, context.getDependencies().toArray());
+    }
+
+    private static void generatePrimitive($ClassWriter cw, CodegenContext context, CodegenNode root, String methodName, CodegenKind target) {
+        String descriptor = EVALUATE_DESCRIPTOR.replace(")Ljava/lang/Object;", "[" + target.getDescriptor() + ")Z");
+        $MethodVisitor mv = cw.visitMethod($Opcodes.ACC_PUBLIC, methodName, descriptor, null, null);
+        mv.visitCode();
+        context.beginMethod(mv, CodegenContext.LOCAL_RESULT + 1);
+
+        $Label isNull = new $Label();
+        root.emitAs(context, target, isNull);
+        int local = context.allocateLocal(target);
+        mv.visitVarInsn(target.getStoreOpcode(), local);
+        mv.visitVarInsn($Opcodes.ALOAD, CodegenContext.LOCAL_RESULT);
+        mv.visitInsn($Opcodes.ICONST_0);
+        mv.visitVarInsn(target.getLoadOpcode(), local);
+        mv.visitInsn(target == CodegenKind.DOUBLE ? $Opcodes.DASTORE : $Opcodes.LASTORE);
+        mv.visitInsn($Opcodes.ICONST_1);
+        mv.visitInsn($Opcodes.IRETURN);
+        mv.visitLabel(isNull);
+        mv.visitInsn($Opcodes.ICONST_0);
+        mv.visitInsn($Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private interface BinaryFactory {
+        CodegenNode make(ExprNode node, CodegenKind kind, CodegenNode left, CodegenNode right);
+    }
+}
@@ -0,0 +1,71 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+/**
+ * Base class of generated expression evaluators.
+ * <p>
+ * Generated subclasses implement {@link #evaluate(EventBean[], boolean, ExprEvaluatorContext)} and receive
+ * their dependencies, such as property getters and non-compiled evaluators, through the constructor.
+ */
+public abstract class CodegenExprEvaluatorBase implements ExprEvaluator {
+
+    private final Class type;
+    private final ExprEvaluator interpreted;
+
+    /**
+     * Ctor.
+     * @param type result type
+     * @param interpreted the interpreted evaluator of the same expression
+     */
+    protected CodegenExprEvaluatorBase(Class type, ExprEvaluator interpreted) {
+        this.type = type;
+        this.interpreted = interpreted;
+    }
+
+    public Class getType() {
+        return type;
+    }
+
+    /**
+     * Returns the interpreted evaluator that the generated class replaces.
+     * @return evaluator
+     */
+    public ExprEvaluator getInterpreted() {
+        return interpreted;
+    }
+
+    /**
+     * Converts a three-state boolean to a boxed boolean.
+     * @param value 0 for false, 1 for true and 2 for null
+     * @return boxed value
+     */
+    public static Boolean toBoxedBoolean(int value) {
+        if (value == 2) {
+            return null;
+        }
+        return value == 1 ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    /**
+     * Converts a boxed boolean to a three-state boolean.
+     * @param value boxed value or null
+     * @return 0 for false, 1 for true and 2 for null
+     */
+    public static int toTriState(Object value) {
+        if (value == null) {
+            return 2;
+        }
+        return ((Boolean) value) ? 1 : 0;
+    }
+}
@@ -0,0 +1,95 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Value kind of a compiled expression node, i.e. how the generated code leaves the result on the operand stack.
+ * <p>
+ * Numeric kinds leave a primitive value and jump to a null-label, with an empty operand stack, when the value is null.
+ * The boolean kind leaves a three-state int: 0 for false, 1 for true and 2 for null.
+ * The reference kind leaves an object reference or null.
+ */
+public enum CodegenKind {
+    INT("I", Integer.class, $Opcodes.ILOAD, $Opcodes.ISTORE, 1),
+    LONG("J", Long.class, $Opcodes.LLOAD, $Opcodes.LSTORE, 2),
+    FLOAT("F", Float.class, $Opcodes.FLOAD, $Opcodes.FSTORE, 1),
+    DOUBLE("D", Double.class, $Opcodes.DLOAD, $Opcodes.DSTORE, 2),
+    BOOLEAN("I", Boolean.class, $Opcodes.ILOAD, $Opcodes.ISTORE, 1),
+    REF("Ljava/lang/Object;", Object.class, $Opcodes.ALOAD, $Opcodes.ASTORE, 1);
+
+    private final String descriptor;
+    private final Class boxedType;
+    private final int loadOpcode;
+    private final int storeOpcode;
+    private final int localSize;
+
+    CodegenKind(String descriptor, Class boxedType, int loadOpcode, int storeOpcode, int localSize) {
+        this.descriptor = descriptor;
+        this.boxedType = boxedType;
+        this.loadOpcode = loadOpcode;
+        this.storeOpcode = storeOpcode;
+        this.localSize = localSize;
+    }
+
+    /**
+     * Returns the kind for a given expression result type.
+     * @param type result type, may be null for a null-type constant
+     * @return kind
+     */
+    public static CodegenKind of(Class type) {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == Integer.class) {
+            return INT;
+        }
+        if (boxed == Long.class) {
+            return LONG;
+        }
+        if (boxed == Double.class) {
+            return DOUBLE;
+        }
+        if (boxed == Float.class) {
+            return FLOAT;
+        }
+        if (boxed == Boolean.class) {
+            return BOOLEAN;
+        }
+        return REF;
+    }
+
+    /**
+     * Returns true for int, long, float and double.
+     * @return indicator
+     */
+    public boolean isNumeric() {
+        return this == INT || this == LONG || this == FLOAT || this == DOUBLE;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public Class getBoxedType() {
+        return boxedType;
+    }
+
+    public int getLoadOpcode() {
+        return loadOpcode;
+    }
+
+    public int getStoreOpcode() {
+        return storeOpcode;
+    }
+
+    public int getLocalSize() {
+        return localSize;
+    }
+}
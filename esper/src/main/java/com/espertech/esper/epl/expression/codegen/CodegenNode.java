@@ -0,0 +1,144 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+import net.sf.cglib.asm.$Type;
+
+/**
+ * A node of an expression tree for which code is generated.
+ */
+public abstract class CodegenNode {
+
+    private final CodegenKind kind;
+
+    /**
+     * Ctor.
+     * @param kind kind of value the node leaves on the operand stack
+     */
+    protected CodegenNode(CodegenKind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Emits code that leaves the node value on the operand stack, see {@link CodegenKind}.
+     * Must be invoked with an empty operand stack, relative to the node.
+     * @param context generation context
+     * @param ifNull for numeric kinds the label to jump to, with an empty operand stack, when the value is null
+     */
+    public abstract void emit(CodegenContext context, $Label ifNull);
+
+    /**
+     * Returns false if the node merely delegates to an interpreted evaluator.
+     * @return indicator
+     */
+    public boolean isCompiled() {
+        return true;
+    }
+
+    public CodegenKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Emits code that leaves the node value as the given kind on the operand stack.
+     * @param context generation context
+     * @param target kind to convert to
+     * @param ifNull for numeric target kinds the label to jump to when the value is null
+     */
+    public void emitAs(CodegenContext context, CodegenKind target, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        if (kind == target) {
+            emit(context, ifNull);
+            return;
+        }
+
+        if (target == CodegenKind.REF) {
+            if (!kind.isNumeric()) {
+                emit(context, null);
+                context.box(kind);
+                return;
+            }
+            $Label isNull = new $Label();
+            $Label end = new $Label();
+            emit(context, isNull);
+            context.box(kind);
+            mv.visitJumpInsn($Opcodes.GOTO, end);
+            mv.visitLabel(isNull);
+            mv.visitInsn($Opcodes.ACONST_NULL);
+            mv.visitLabel(end);
+            return;
+        }
+
+        if (target == CodegenKind.BOOLEAN) {
+            if (kind != CodegenKind.REF) {
+                throw new IllegalStateException("Cannot convert " + kind + " to " + target);
+            }
+            emit(context, null);
+            mv.visitMethodInsn($Opcodes.INVOKESTATIC, $Type.getInternalName(CodegenExprEvaluatorBase.class), "toTriState", "(Ljava/lang/Object;)I", false);
+            return;
+        }
+
+        // numeric target
+        if (kind == CodegenKind.REF) {
+            emit(context, null);
+            int local = context.allocateLocal(CodegenKind.REF);
+            mv.visitVarInsn($Opcodes.ASTORE, local);
+            mv.visitVarInsn($Opcodes.ALOAD, local);
+            mv.visitJumpInsn($Opcodes.IFNULL, ifNull);
+            mv.visitVarInsn($Opcodes.ALOAD, local);
+            mv.visitTypeInsn($Opcodes.CHECKCAST, "java/lang/Number");
+            String name = target == CodegenKind.INT ? "intValue" : target == CodegenKind.LONG ? "longValue" : target == CodegenKind.FLOAT ? "floatValue" : "doubleValue";
+            mv.visitMethodInsn($Opcodes.INVOKEVIRTUAL, "java/lang/Number", name, "()" + target.getDescriptor(), false);
+            return;
+        }
+        if (kind == CodegenKind.BOOLEAN) {
+            throw new IllegalStateException("Cannot convert " + kind + " to " + target);
+        }
+        emit(context, ifNull);
+        emitPrimitiveConversion(mv, kind, target);
+    }
+
+    /**
+     * Returns true if the value of the given kind can be converted to the target kind.
+     * @param from source kind
+     * @param target target kind
+     * @return indicator
+     */
+    public static boolean isConvertible(CodegenKind from, CodegenKind target) {
+        if (from == target || target == CodegenKind.REF) {
+            return true;
+        }
+        if (target == CodegenKind.BOOLEAN) {
+            return from == CodegenKind.REF;
+        }
+        return from != CodegenKind.BOOLEAN;
+    }
+
+    private static void emitPrimitiveConversion($MethodVisitor mv, CodegenKind from, CodegenKind to) {
+        int opcode;
+        switch (from) {
+            case INT:
+                opcode = to == CodegenKind.LONG ? $Opcodes.I2L : to == CodegenKind.FLOAT ? $Opcodes.I2F : $Opcodes.I2D;
+                break;
+            case LONG:
+                opcode = to == CodegenKind.INT ? $Opcodes.L2I : to == CodegenKind.FLOAT ? $Opcodes.L2F : $Opcodes.L2D;
+                break;
+            case FLOAT:
+                opcode = to == CodegenKind.INT ? $Opcodes.F2I : to == CodegenKind.LONG ? $Opcodes.F2L : $Opcodes.F2D;
+                break;
+            default:
+                opcode = to == CodegenKind.INT ? $Opcodes.D2I : to == CodegenKind.LONG ? $Opcodes.D2L : $Opcodes.D2F;
+                break;
+        }
+        mv.visitInsn(opcode);
+    }
+}
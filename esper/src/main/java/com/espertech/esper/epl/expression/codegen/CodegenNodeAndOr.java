@@ -0,0 +1,70 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Node for the logical and-operator and or-operator, following the null-handling of the interpreted evaluators:
+ * a false (and) or true (or) child value short-circuits evaluation, otherwise any null child value results in null.
+ */
+public class CodegenNodeAndOr extends CodegenNode {
+
+    private final boolean isAnd;
+    private final CodegenNode[] children;
+
+    /**
+     * Ctor.
+     * @param isAnd true for and, false for or
+     * @param children child nodes
+     */
+    public CodegenNodeAndOr(boolean isAnd, CodegenNode[] children) {
+        super(CodegenKind.BOOLEAN);
+        this.isAnd = isAnd;
+        this.children = children;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        $Label shortCircuit = new $Label();
+        $Label end = new $Label();
+
+        int result = context.allocateLocal(CodegenKind.BOOLEAN);
+        int value = context.allocateLocal(CodegenKind.BOOLEAN);
+        mv.visitInsn(isAnd ? $Opcodes.ICONST_1 : $Opcodes.ICONST_0);
+        mv.visitVarInsn($Opcodes.ISTORE, result);
+
+        for (CodegenNode child : children) {
+            child.emitAs(context, CodegenKind.BOOLEAN, null);
+            mv.visitVarInsn($Opcodes.ISTORE, value);
+
+            // false for and, true for or decides the result
+            mv.visitVarInsn($Opcodes.ILOAD, value);
+            mv.visitInsn(isAnd ? $Opcodes.ICONST_0 : $Opcodes.ICONST_1);
+            mv.visitJumpInsn($Opcodes.IF_ICMPEQ, shortCircuit);
+
+            // null makes the result null unless decided by a later child
+            $Label next = new $Label();
+            mv.visitVarInsn($Opcodes.ILOAD, value);
+            mv.visitInsn($Opcodes.ICONST_2);
+            mv.visitJumpInsn($Opcodes.IF_ICMPNE, next);
+            mv.visitInsn($Opcodes.ICONST_2);
+            mv.visitVarInsn($Opcodes.ISTORE, result);
+            mv.visitLabel(next);
+        }
+
+        mv.visitVarInsn($Opcodes.ILOAD, result);
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(shortCircuit);
+        mv.visitInsn(isAnd ? $Opcodes.ICONST_0 : $Opcodes.ICONST_1);
+        mv.visitLabel(end);
+    }
+}
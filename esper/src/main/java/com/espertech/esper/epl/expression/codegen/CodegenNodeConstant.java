@@ -0,0 +1,55 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Node for a constant value.
+ */
+public class CodegenNodeConstant extends CodegenNode {
+
+    private final Object value;
+
+    /**
+     * Ctor.
+     * @param value non-null constant value of type Integer, Long, Float, Double, Boolean or String
+     */
+    public CodegenNodeConstant(Object value) {
+        super(CodegenKind.of(value.getClass()));
+        this.value = value;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        switch (getKind()) {
+            case INT:
+                context.pushInt((Integer) value);
+                break;
+            case BOOLEAN:
+                mv.visitInsn(((Boolean) value) ? $Opcodes.ICONST_1 : $Opcodes.ICONST_0);
+                break;
+            default:
+                mv.visitLdcInsn(value);
+                break;
+        }
+    }
+
+    /**
+     * Returns true if the constant value can be represented in generated code.
+     * @param value to check
+     * @return indicator
+     */
+    public static boolean isSupported(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Double ||
+               value instanceof Float || value instanceof Boolean || value instanceof String;
+    }
+}
@@ -0,0 +1,108 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Node for the equals-operator and not-equals-operator. A null value on either side results in null.
+ * <p>
+ * Floating-point values compare as by {@link Double#equals(Object)} and {@link Float#equals(Object)},
+ * same as the interpreted evaluator comparing boxed values.
+ */
+public class CodegenNodeEquals extends CodegenNode {
+
+    private final boolean isNotEquals;
+    private final CodegenKind compareKind;
+    private final CodegenNode left;
+    private final CodegenNode right;
+
+    /**
+     * Ctor.
+     * @param isNotEquals true for not-equals
+     * @param compareKind kind both sides are coerced to
+     * @param left left-hand side
+     * @param right right-hand side
+     */
+    public CodegenNodeEquals(boolean isNotEquals, CodegenKind compareKind, CodegenNode left, CodegenNode right) {
+        super(CodegenKind.BOOLEAN);
+        this.isNotEquals = isNotEquals;
+        this.compareKind = compareKind;
+        this.left = left;
+        this.right = right;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        $Label isNull = new $Label();
+        $Label isNotEqual = new $Label();
+        $Label end = new $Label();
+
+        int localLeft = context.allocateLocal(compareKind);
+        int localRight = context.allocateLocal(compareKind);
+        left.emitAs(context, compareKind, isNull);
+        mv.visitVarInsn(compareKind.getStoreOpcode(), localLeft);
+        right.emitAs(context, compareKind, isNull);
+        mv.visitVarInsn(compareKind.getStoreOpcode(), localRight);
+
+        if (compareKind == CodegenKind.REF) {
+            mv.visitVarInsn($Opcodes.ALOAD, localLeft);
+            mv.visitJumpInsn($Opcodes.IFNULL, isNull);
+            mv.visitVarInsn($Opcodes.ALOAD, localRight);
+            mv.visitJumpInsn($Opcodes.IFNULL, isNull);
+            mv.visitVarInsn($Opcodes.ALOAD, localLeft);
+            mv.visitVarInsn($Opcodes.ALOAD, localRight);
+            mv.visitMethodInsn($Opcodes.INVOKEVIRTUAL, "java/lang/Object", "equals", "(Ljava/lang/Object;)Z", false);
+            mv.visitJumpInsn($Opcodes.IFEQ, isNotEqual);
+        }
+        else if (compareKind == CodegenKind.BOOLEAN) {
+            mv.visitVarInsn($Opcodes.ILOAD, localLeft);
+            mv.visitInsn($Opcodes.ICONST_2);
+            mv.visitJumpInsn($Opcodes.IF_ICMPEQ, isNull);
+            mv.visitVarInsn($Opcodes.ILOAD, localRight);
+            mv.visitInsn($Opcodes.ICONST_2);
+            mv.visitJumpInsn($Opcodes.IF_ICMPEQ, isNull);
+            mv.visitVarInsn($Opcodes.ILOAD, localLeft);
+            mv.visitVarInsn($Opcodes.ILOAD, localRight);
+            mv.visitJumpInsn($Opcodes.IF_ICMPNE, isNotEqual);
+        }
+        else {
+            mv.visitVarInsn(compareKind.getLoadOpcode(), localLeft);
+            mv.visitVarInsn(compareKind.getLoadOpcode(), localRight);
+            switch (compareKind) {
+                case INT:
+                    mv.visitJumpInsn($Opcodes.IF_ICMPNE, isNotEqual);
+                    break;
+                case LONG:
+                    mv.visitInsn($Opcodes.LCMP);
+                    mv.visitJumpInsn($Opcodes.IFNE, isNotEqual);
+                    break;
+                case DOUBLE:
+                    mv.visitMethodInsn($Opcodes.INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false);
+                    mv.visitJumpInsn($Opcodes.IFNE, isNotEqual);
+                    break;
+                default:
+                    mv.visitMethodInsn($Opcodes.INVOKESTATIC, "java/lang/Float", "compare", "(FF)I", false);
+                    mv.visitJumpInsn($Opcodes.IFNE, isNotEqual);
+                    break;
+            }
+        }
+
+        mv.visitInsn(isNotEquals ? $Opcodes.ICONST_0 : $Opcodes.ICONST_1);
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(isNotEqual);
+        mv.visitInsn(isNotEquals ? $Opcodes.ICONST_1 : $Opcodes.ICONST_0);
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(isNull);
+        mv.visitInsn($Opcodes.ICONST_2);
+        mv.visitLabel(end);
+    }
+}
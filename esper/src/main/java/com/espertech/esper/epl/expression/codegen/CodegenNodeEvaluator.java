@@ -0,0 +1,46 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+import net.sf.cglib.asm.$Type;
+
+/**
+ * Node delegating to the interpreted evaluator of a sub-expression that is not compiled.
+ */
+public class CodegenNodeEvaluator extends CodegenNode {
+
+    private final ExprEvaluator evaluator;
+
+    /**
+     * Ctor.
+     * @param evaluator interpreted evaluator
+     */
+    public CodegenNodeEvaluator(ExprEvaluator evaluator) {
+        super(CodegenKind.REF);
+        this.evaluator = evaluator;
+    }
+
+    public boolean isCompiled() {
+        return false;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        int index = context.addDependency(evaluator, ExprEvaluator.class);
+        context.loadDependency(index);
+        mv.visitVarInsn($Opcodes.ALOAD, CodegenContext.LOCAL_EVENTS);
+        mv.visitVarInsn($Opcodes.ILOAD, CodegenContext.LOCAL_ISNEWDATA);
+        mv.visitVarInsn($Opcodes.ALOAD, CodegenContext.LOCAL_CONTEXT);
+        mv.visitMethodInsn($Opcodes.INVOKEINTERFACE, $Type.getInternalName(ExprEvaluator.class), "evaluate", CodegenExprCompiler.EVALUATE_DESCRIPTOR, true);
+    }
+}
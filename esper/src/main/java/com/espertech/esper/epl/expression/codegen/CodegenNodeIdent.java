@@ -0,0 +1,168 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.event.arr.ObjectArrayEntryPropertyGetter;
+import com.espertech.esper.event.bean.CGLibPropertyGetter;
+import com.espertech.esper.event.bean.ReflectionPropMethodGetter;
+import com.espertech.esper.event.map.MapEntryPropertyGetter;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+import net.sf.cglib.asm.$Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Node for an event property of a stream, accessing the underlying event object directly for
+ * simple properties of JavaBean, Map and object-array events and invoking the property getter otherwise.
+ * An absent stream event results in null.
+ */
+public class CodegenNodeIdent extends CodegenNode {
+
+    private static final String EVENTBEAN_INTERNAL_NAME = $Type.getInternalName(EventBean.class);
+
+    private final int streamNum;
+    private final EventPropertyGetter getter;
+    private final Method inlinedMethod;
+
+    private CodegenNodeIdent(CodegenKind kind, int streamNum, EventPropertyGetter getter, Method inlinedMethod) {
+        super(kind);
+        this.streamNum = streamNum;
+        this.getter = getter;
+        this.inlinedMethod = inlinedMethod;
+    }
+
+    /**
+     * Returns the node for a property.
+     * @param streamNum stream number
+     * @param getter property getter
+     * @param classLoader class loader of the generated class, for determining whether bean classes can be referenced
+     * @return node
+     */
+    public static CodegenNodeIdent make(int streamNum, EventPropertyGetter getter, ClassLoader classLoader) {
+        Method method = null;
+        if (getter instanceof CGLibPropertyGetter) {
+            method = ((CGLibPropertyGetter) getter).getMethod();
+        }
+        else if (getter instanceof ReflectionPropMethodGetter) {
+            method = ((ReflectionPropMethodGetter) getter).getMethod();
+        }
+        if (method != null && isInlinable(method, classLoader)) {
+            Class returnType = method.getReturnType();
+            CodegenKind kind = CodegenKind.REF;
+            if (returnType == int.class || returnType == long.class || returnType == double.class ||
+                returnType == float.class || returnType == boolean.class) {
+                kind = CodegenKind.of(returnType);
+            }
+            return new CodegenNodeIdent(kind, streamNum, getter, method);
+        }
+        return new CodegenNodeIdent(CodegenKind.REF, streamNum, getter, null);
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        CodegenKind kind = getKind();
+        $Label isNull = kind.isNumeric() ? ifNull : new $Label();
+        $Label end = new $Label();
+
+        int localEvent = context.allocateLocal(CodegenKind.REF);
+        mv.visitVarInsn($Opcodes.ALOAD, CodegenContext.LOCAL_EVENTS);
+        context.pushInt(streamNum);
+        mv.visitInsn($Opcodes.AALOAD);
+        mv.visitVarInsn($Opcodes.ASTORE, localEvent);
+        mv.visitVarInsn($Opcodes.ALOAD, localEvent);
+        mv.visitJumpInsn($Opcodes.IFNULL, isNull);
+
+        if (inlinedMethod != null) {
+            emitUnderlying(mv, localEvent);
+            Class declaring = inlinedMethod.getDeclaringClass();
+            String owner = $Type.getInternalName(declaring);
+            mv.visitTypeInsn($Opcodes.CHECKCAST, owner);
+            mv.visitMethodInsn(declaring.isInterface() ? $Opcodes.INVOKEINTERFACE : $Opcodes.INVOKEVIRTUAL, owner,
+                    inlinedMethod.getName(), $Type.getMethodDescriptor(inlinedMethod), declaring.isInterface());
+            Class returnType = inlinedMethod.getReturnType();
+            if (kind == CodegenKind.REF && returnType.isPrimitive()) {
+                // byte, short and char values are boxed same as by the getter
+                $Type type = $Type.getType(returnType);
+                String boxed = returnType == char.class ? "java/lang/Character" : returnType == byte.class ? "java/lang/Byte" : "java/lang/Short";
+                mv.visitMethodInsn($Opcodes.INVOKESTATIC, boxed, "valueOf", "(" + type.getDescriptor() + ")L" + boxed + ";", false);
+            }
+        }
+        else if (getter instanceof ObjectArrayEntryPropertyGetter) {
+            emitUnderlying(mv, localEvent);
+            mv.visitTypeInsn($Opcodes.CHECKCAST, "[Ljava/lang/Object;");
+            context.pushInt(((ObjectArrayEntryPropertyGetter) getter).getPropertyIndex());
+            mv.visitInsn($Opcodes.AALOAD);
+        }
+        else if (getter instanceof MapEntryPropertyGetter) {
+            emitUnderlying(mv, localEvent);
+            mv.visitTypeInsn($Opcodes.CHECKCAST, "java/util/Map");
+            mv.visitLdcInsn(((MapEntryPropertyGetter) getter).getPropertyName());
+            mv.visitMethodInsn($Opcodes.INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+        }
+        else {
+            int index = context.addDependency(getter, EventPropertyGetter.class);
+            context.loadDependency(index);
+            mv.visitVarInsn($Opcodes.ALOAD, localEvent);
+            mv.visitMethodInsn($Opcodes.INVOKEINTERFACE, $Type.getInternalName(EventPropertyGetter.class), "get", "(L" + EVENTBEAN_INTERNAL_NAME + ";)Ljava/lang/Object;", true);
+        }
+
+        if (kind.isNumeric()) {
+            return;
+        }
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(isNull);
+        if (kind == CodegenKind.BOOLEAN) {
+            mv.visitInsn($Opcodes.ICONST_2);
+        }
+        else {
+            mv.visitInsn($Opcodes.ACONST_NULL);
+        }
+        mv.visitLabel(end);
+    }
+
+    private static void emitUnderlying($MethodVisitor mv, int localEvent) {
+        mv.visitVarInsn($Opcodes.ALOAD, localEvent);
+        mv.visitMethodInsn($Opcodes.INVOKEINTERFACE, EVENTBEAN_INTERNAL_NAME, "getUnderlying", "()Ljava/lang/Object;", true);
+    }
+
+    private static boolean isInlinable(Method method, ClassLoader classLoader) {
+        Class declaring = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(declaring.getModifiers())) {
+            return false;
+        }
+        if (method.getParameterTypes().length != 0) {
+            return false;
+        }
+        if (!isVisible(declaring, classLoader)) {
+            return false;
+        }
+        Class returnType = method.getReturnType();
+        while (returnType.isArray()) {
+            returnType = returnType.getComponentType();
+        }
+        return returnType.isPrimitive() || isVisible(returnType, classLoader);
+    }
+
+    private static boolean isVisible(Class clazz, ClassLoader classLoader) {
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz;
+        }
+        catch (ClassNotFoundException ex) {
+            return false;
+        }
+        catch (LinkageError ex) {
+            return false;
+        }
+    }
+}
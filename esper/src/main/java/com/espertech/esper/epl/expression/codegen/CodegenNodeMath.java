@@ -0,0 +1,96 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.type.MathArithTypeEnum;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Node for arithmetic on primitive values of the result type, following the division semantics of
+ * {@link MathArithTypeEnum}: integer and long division by zero is null, as is floating-point division by zero
+ * when configured to return null.
+ */
+public class CodegenNodeMath extends CodegenNode {
+
+    private final MathArithTypeEnum op;
+    private final boolean isDivisionByZeroReturnsNull;
+    private final CodegenNode left;
+    private final CodegenNode right;
+
+    /**
+     * Ctor.
+     * @param op arithmetic operator
+     * @param resultKind numeric kind of the result, both sides are coerced to this kind
+     * @param isDivisionByZeroReturnsNull indicator whether floating-point division by zero returns null
+     * @param left left-hand side
+     * @param right right-hand side
+     */
+    public CodegenNodeMath(MathArithTypeEnum op, CodegenKind resultKind, boolean isDivisionByZeroReturnsNull, CodegenNode left, CodegenNode right) {
+        super(resultKind);
+        this.op = op;
+        this.isDivisionByZeroReturnsNull = resultKind != CodegenKind.DOUBLE || isDivisionByZeroReturnsNull;
+        this.left = left;
+        this.right = right;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        CodegenKind kind = getKind();
+        int localLeft = context.allocateLocal(kind);
+        int localRight = context.allocateLocal(kind);
+        left.emitAs(context, kind, ifNull);
+        mv.visitVarInsn(kind.getStoreOpcode(), localLeft);
+        right.emitAs(context, kind, ifNull);
+        mv.visitVarInsn(kind.getStoreOpcode(), localRight);
+
+        if (op == MathArithTypeEnum.DIVIDE && isDivisionByZeroReturnsNull) {
+            mv.visitVarInsn(kind.getLoadOpcode(), localRight);
+            switch (kind) {
+                case LONG:
+                    mv.visitInsn($Opcodes.LCONST_0);
+                    mv.visitInsn($Opcodes.LCMP);
+                    break;
+                case DOUBLE:
+                    mv.visitInsn($Opcodes.DCONST_0);
+                    mv.visitInsn($Opcodes.DCMPL);
+                    break;
+                case FLOAT:
+                    mv.visitInsn($Opcodes.FCONST_0);
+                    mv.visitInsn($Opcodes.FCMPL);
+                    break;
+                default:
+                    break;
+            }
+            mv.visitJumpInsn($Opcodes.IFEQ, ifNull);
+        }
+
+        mv.visitVarInsn(kind.getLoadOpcode(), localLeft);
+        mv.visitVarInsn(kind.getLoadOpcode(), localRight);
+        int offset = kind == CodegenKind.INT ? 0 : kind == CodegenKind.LONG ? 1 : kind == CodegenKind.FLOAT ? 2 : 3;
+        switch (op) {
+            case ADD:
+                mv.visitInsn($Opcodes.IADD + offset);
+                break;
+            case SUBTRACT:
+                mv.visitInsn($Opcodes.ISUB + offset);
+                break;
+            case MULTIPLY:
+                mv.visitInsn($Opcodes.IMUL + offset);
+                break;
+            case DIVIDE:
+                mv.visitInsn($Opcodes.IDIV + offset);
+                break;
+            default:
+                mv.visitInsn($Opcodes.IREM + offset);
+                break;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Node for the logical not-operator.
+ */
+public class CodegenNodeNot extends CodegenNode {
+
+    private final CodegenNode child;
+
+    /**
+     * Ctor.
+     * @param child negated node
+     */
+    public CodegenNodeNot(CodegenNode child) {
+        super(CodegenKind.BOOLEAN);
+        this.child = child;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        $Label isNull = new $Label();
+        $Label end = new $Label();
+        int value = context.allocateLocal(CodegenKind.BOOLEAN);
+
+        child.emitAs(context, CodegenKind.BOOLEAN, null);
+        mv.visitVarInsn($Opcodes.ISTORE, value);
+        mv.visitVarInsn($Opcodes.ILOAD, value);
+        mv.visitInsn($Opcodes.ICONST_2);
+        mv.visitJumpInsn($Opcodes.IF_ICMPEQ, isNull);
+        mv.visitInsn($Opcodes.ICONST_1);
+        mv.visitVarInsn($Opcodes.ILOAD, value);
+        mv.visitInsn($Opcodes.ISUB);
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(isNull);
+        mv.visitInsn($Opcodes.ICONST_2);
+        mv.visitLabel(end);
+    }
+}
@@ -0,0 +1,112 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.type.RelationalOpEnum;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+
+/**
+ * Node for a relational operator (&lt;, &lt;=, &gt;, &gt;=) comparing primitive values of the coercion type.
+ * A null value on either side results in null.
+ */
+public class CodegenNodeRelOp extends CodegenNode {
+
+    private final RelationalOpEnum op;
+    private final CodegenKind compareKind;
+    private final CodegenNode left;
+    private final CodegenNode right;
+
+    /**
+     * Ctor.
+     * @param op relational operator
+     * @param compareKind numeric kind both sides are coerced to
+     * @param left left-hand side
+     * @param right right-hand side
+     */
+    public CodegenNodeRelOp(RelationalOpEnum op, CodegenKind compareKind, CodegenNode left, CodegenNode right) {
+        super(CodegenKind.BOOLEAN);
+        this.op = op;
+        this.compareKind = compareKind;
+        this.left = left;
+        this.right = right;
+    }
+
+    public void emit(CodegenContext context, $Label ifNull) {
+        $MethodVisitor mv = context.getMv();
+        $Label isNull = new $Label();
+        $Label isFalse = new $Label();
+        $Label end = new $Label();
+
+        int localLeft = context.allocateLocal(compareKind);
+        int localRight = context.allocateLocal(compareKind);
+        left.emitAs(context, compareKind, isNull);
+        mv.visitVarInsn(compareKind.getStoreOpcode(), localLeft);
+        right.emitAs(context, compareKind, isNull);
+        mv.visitVarInsn(compareKind.getStoreOpcode(), localRight);
+
+        mv.visitVarInsn(compareKind.getLoadOpcode(), localLeft);
+        mv.visitVarInsn(compareKind.getLoadOpcode(), localRight);
+        if (compareKind == CodegenKind.INT) {
+            mv.visitJumpInsn(getIntCompareNegated(op), isFalse);
+        }
+        else {
+            if (compareKind == CodegenKind.LONG) {
+                mv.visitInsn($Opcodes.LCMP);
+            }
+            else {
+                // NaN must compare false: use the compare-instruction producing the failing value for NaN
+                boolean greater = op == RelationalOpEnum.GT || op == RelationalOpEnum.GE;
+                if (compareKind == CodegenKind.DOUBLE) {
+                    mv.visitInsn(greater ? $Opcodes.DCMPL : $Opcodes.DCMPG);
+                }
+                else {
+                    mv.visitInsn(greater ? $Opcodes.FCMPL : $Opcodes.FCMPG);
+                }
+            }
+            mv.visitJumpInsn(getZeroCompareNegated(op), isFalse);
+        }
+
+        mv.visitInsn($Opcodes.ICONST_1);
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(isFalse);
+        mv.visitInsn($Opcodes.ICONST_0);
+        mv.visitJumpInsn($Opcodes.GOTO, end);
+        mv.visitLabel(isNull);
+        mv.visitInsn($Opcodes.ICONST_2);
+        mv.visitLabel(end);
+    }
+
+    private static int getIntCompareNegated(RelationalOpEnum op) {
+        switch (op) {
+            case GT:
+                return $Opcodes.IF_ICMPLE;
+            case GE:
+                return $Opcodes.IF_ICMPLT;
+            case LT:
+                return $Opcodes.IF_ICMPGE;
+            default:
+                return $Opcodes.IF_ICMPGT;
+        }
+    }
+
+    private static int getZeroCompareNegated(RelationalOpEnum op) {
+        switch (op) {
+            case GT:
+                return $Opcodes.IFLE;
+            case GE:
+                return $Opcodes.IFLT;
+            case LT:
+                return $Opcodes.IFGE;
+            default:
+                return $Opcodes.IFGT;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Evaluator of a numeric expression that can return the result as a primitive value, without boxing.
+ * <p>
+ * The result is written to the first element of the result array provided by the caller, which allows callers
+ * to reuse the array.
+ */
+public interface ExprEvaluatorPrimitive extends ExprEvaluator
+{
+    /**
+     * Evaluate event tuple and return the result as a double value.
+     * @param eventsPerStream - event tuple
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @param result array receiving the result at index zero
+     * @return false if the result is null, true if the result was written
+     */
+    public boolean evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, double[] result);
+
+    /**
+     * Evaluate event tuple and return the result as a long value.
+     * @param eventsPerStream - event tuple
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @param result array receiving the result at index zero
+     * @return false if the result is null, true if the result was written
+     */
+    public boolean evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, long[] result);
+}
@@ -13,6 +13,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.hook.AggregationFunctionFactory;
 import com.espertech.esper.client.hook.EPLMethodInvocationContext;
 import com.espertech.esper.client.util.TimePeriod;
+import com.espertech.esper.core.service.StatementType;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.ContextPropertyRegistry;
 import com.espertech.esper.core.service.ExprEvaluatorContextStatement;
@@ -1276,6 +1277,23 @@ public class ExprNodeUtility {
         return streams;
     }
 
+    /**
+     * Returns true if the aggregation receives the events of a single stream whose only data window is
+     * first-in-first-out, such as a length or time window, so that values leave the aggregation in the order they entered.
+     * @param validationContext validation context
+     * @return indicator
+     */
+    public static boolean isFifoDataWindowForAggregations(ExprValidationContext validationContext) {
+        StreamTypeService streamTypeService = validationContext.getStreamTypeService();
+        if (streamTypeService.getEventTypes().length != 1 || validationContext.isResettingAggregations() || validationContext.getIntoTableName() != null) {
+            return false;
+        }
+        if (validationContext.getExprEvaluatorContext().getStatementType() == StatementType.CREATE_TABLE) {
+            return false;
+        }
+        return streamTypeService.getFifoDataWindow()[0];
+    }
+
     /**
      * Returns true if all properties within the expression are witin data window'd streams.
      * @param child expression to interrogate
@@ -0,0 +1,84 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.core.service.StatementType;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.approx.HyperLogLogState;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+
+/**
+ * Represents the approxCountDistinct(...) aggregate function is an expression tree, an approximate
+ * distinct count in bounded memory backed by a HyperLogLog++ sketch.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = 4580913284377528632L;
+
+    /**
+     * Default precision, for a standard error of about 0.8 percent at 16 kilobytes per aggregation.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxCountDistinctNode(boolean distinct)
+    {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        String message = "The approxCountDistinct aggregation function requires an expression returning the values to count and an optional precision constant between " + HyperLogLogState.MIN_PRECISION + " and " + HyperLogLogState.MAX_PRECISION;
+        if (positionalParams.length == 0 || positionalParams.length > 2) {
+            throw new ExprValidationException(message);
+        }
+        if (isDistinct()) {
+            throw new ExprValidationException("The approxCountDistinct aggregation function does not support distinct");
+        }
+
+        int precision = DEFAULT_PRECISION;
+        if (positionalParams.length == 2) {
+            ExprNode second = positionalParams[1];
+            if (!second.isConstantResult() || !(second.getExprEvaluator().getType() == Integer.class || second.getExprEvaluator().getType() == int.class)) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) second.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || num.intValue() < HyperLogLogState.MIN_PRECISION || num.intValue() > HyperLogLogState.MAX_PRECISION) {
+                throw new ExprValidationException(message);
+            }
+            precision = num.intValue();
+        }
+
+        ExprNode first = positionalParams[0];
+        if (validationContext.getExprEvaluatorContext().getStatementType() != StatementType.CREATE_TABLE &&
+            ExprNodeUtility.hasRemoveStreamForAggregations(first, validationContext.getStreamTypeService(), validationContext.isResettingAggregations())) {
+            throw new ExprValidationException("The approxCountDistinct aggregation function cannot remove values and does not support data windows");
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxCountDistinct(validationContext.getStatementExtensionSvcContext(), this, first.getExprEvaluator().getType(), precision);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return "approxCountDistinct";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        return node instanceof ExprApproxCountDistinctNode;
+    }
+}
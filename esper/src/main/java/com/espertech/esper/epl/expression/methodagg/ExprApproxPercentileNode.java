@@ -0,0 +1,98 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.core.service.StatementType;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.approx.TDigestState;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the approxPercentile(...) aggregate function is an expression tree, an approximate
+ * percentile in bounded memory backed by a t-digest.
+ */
+public class ExprApproxPercentileNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = -3106279146396316754L;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxPercentileNode(boolean distinct)
+    {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        String message = "The approxPercentile aggregation function requires a numeric expression returning the values, a percentile constant between zero and one and an optional compression constant of at least 10";
+        if (positionalParams.length < 2 || positionalParams.length > 3) {
+            throw new ExprValidationException(message);
+        }
+        if (isDistinct()) {
+            throw new ExprValidationException("The approxPercentile aggregation function does not support distinct");
+        }
+
+        ExprNode first = positionalParams[0];
+        Class childType = first.getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+
+        Number percentile = getConstant(positionalParams[1], validationContext, message);
+        if (percentile.doubleValue() < 0 || percentile.doubleValue() > 1) {
+            throw new ExprValidationException(message);
+        }
+        double compression = TDigestState.DEFAULT_COMPRESSION;
+        if (positionalParams.length == 3) {
+            compression = getConstant(positionalParams[2], validationContext, message).doubleValue();
+            if (compression < 10) {
+                throw new ExprValidationException(message);
+            }
+        }
+
+        if (validationContext.getExprEvaluatorContext().getStatementType() != StatementType.CREATE_TABLE &&
+            ExprNodeUtility.hasRemoveStreamForAggregations(first, validationContext.getStreamTypeService(), validationContext.isResettingAggregations())) {
+            throw new ExprValidationException("The approxPercentile aggregation function cannot remove values and does not support data windows");
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxPercentile(validationContext.getStatementExtensionSvcContext(), this, childType, percentile.doubleValue(), compression);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return "approxPercentile";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        return node instanceof ExprApproxPercentileNode;
+    }
+
+    private Number getConstant(ExprNode node, ExprValidationContext validationContext, String message) throws ExprValidationException
+    {
+        if (!node.isConstantResult() || !JavaClassHelper.isNumeric(node.getExprEvaluator().getType())) {
+            throw new ExprValidationException(message);
+        }
+        Number num = (Number) node.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+        if (num == null) {
+            throw new ExprValidationException(message);
+        }
+        return num;
+    }
+}
@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.expression.methodagg;
 
 import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationContext;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
@@ -36,7 +37,7 @@ public class ExprMedianNode extends ExprAggregateNodeBase
     {
         hasFilter = positionalParams.length > 1;
         Class childType = super.validateNumericChildAllowFilter(hasFilter);
-        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeMedian(validationContext.getStatementExtensionSvcContext(), this, childType);
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeMedian(validationContext.getStatementExtensionSvcContext(), this, childType, ExprNodeUtility.isFifoDataWindowForAggregations(validationContext));
     }
 
     public String getAggregationFunctionName()
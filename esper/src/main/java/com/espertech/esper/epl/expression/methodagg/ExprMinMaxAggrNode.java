@@ -63,7 +63,7 @@ public class ExprMinMaxAggrNode extends ExprAggregateNodeBase
             }
             super.validateFilter(positionalParams[1].getExprEvaluator());
         }
-        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeMinMax(validationContext.getStatementExtensionSvcContext(), this, child.getExprEvaluator().getType(), hasDataWindows);
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeMinMax(validationContext.getStatementExtensionSvcContext(), this, child.getExprEvaluator().getType(), hasDataWindows, hasDataWindows && ExprNodeUtility.isFifoDataWindowForAggregations(validationContext));
     }
 
     public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
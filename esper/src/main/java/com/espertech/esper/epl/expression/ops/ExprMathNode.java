@@ -183,4 +183,22 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
     {
         return mathArithTypeEnum;
     }
+
+    /**
+     * Returns false for division returns double, true for using Java-standard integer division.
+     * @return indicator
+     */
+    public boolean isIntegerDivision()
+    {
+        return isIntegerDivision;
+    }
+
+    /**
+     * Returns false for division-by-zero returns infinity, true for null.
+     * @return indicator
+     */
+    public boolean isDivisionByZeroReturnsNull()
+    {
+        return isDivisionByZeroReturnsNull;
+    }
 }
@@ -0,0 +1,79 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.visitor;
+
+import com.espertech.esper.epl.declexpr.ExprDeclaredNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregationPlugInNodeMarker;
+import com.espertech.esper.epl.expression.core.ExprGroupingIdNode;
+import com.espertech.esper.epl.expression.core.ExprGroupingNode;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprVariableNode;
+import com.espertech.esper.epl.expression.dot.ExprDotNode;
+import com.espertech.esper.epl.expression.funcs.ExprPlugInSingleRowNode;
+import com.espertech.esper.epl.expression.methodagg.ExprPlugInAggNode;
+import com.espertech.esper.epl.expression.methodagg.ExprRateAggNode;
+import com.espertech.esper.epl.expression.prev.ExprPreviousNode;
+import com.espertech.esper.epl.expression.prior.ExprPriorNode;
+import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
+import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
+import com.espertech.esper.epl.expression.time.ExprTimestampNode;
+import com.espertech.esper.epl.script.ExprNodeScript;
+
+/**
+ * Visitor that determines whether expressions of a grouped select-clause or having-clause evaluate only
+ * against the group representative events and the aggregation values of the group.
+ * <p>
+ * Such expressions return the same result for a group for as long as the group's events and aggregation state
+ * remain unchanged, and they can be evaluated for different groups by different threads.
+ * Expressions that read variables, time, tables, subqueries, scripts, user-defined functions, method chains
+ * or previous and prior events are not deterministic in this sense.
+ * Expressions under aggregation functions are not visited since they are evaluated when entering events.
+ */
+public class ExprNodeGroupRowDeterministicVisitor implements ExprNodeVisitor
+{
+    private boolean isDeterministic = true;
+
+    public boolean isVisit(ExprNode exprNode)
+    {
+        if (exprNode instanceof ExprAggregateNode) {
+            if (exprNode instanceof ExprPlugInAggNode || exprNode instanceof ExprAggregationPlugInNodeMarker || exprNode instanceof ExprRateAggNode) {
+                isDeterministic = false;
+            }
+            return false;
+        }
+        return isDeterministic;
+    }
+
+    public void visit(ExprNode exprNode)
+    {
+        if (exprNode instanceof ExprSubselectNode ||
+            exprNode instanceof ExprDeclaredNode ||
+            exprNode instanceof ExprDotNode ||
+            exprNode instanceof ExprPlugInSingleRowNode ||
+            exprNode instanceof ExprNodeScript ||
+            exprNode instanceof ExprVariableNode ||
+            exprNode instanceof ExprTimestampNode ||
+            exprNode instanceof ExprTableAccessNode ||
+            exprNode instanceof ExprPreviousNode ||
+            exprNode instanceof ExprPriorNode ||
+            exprNode instanceof ExprGroupingNode ||
+            exprNode instanceof ExprGroupingIdNode) {
+            isDeterministic = false;
+        }
+    }
+
+    /**
+     * Returns true if all expressions visited are deterministic for a group.
+     * @return indicator
+     */
+    public boolean isDeterministic() {
+        return isDeterministic;
+    }
+}
@@ -11,12 +11,16 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.event.EventBeanUtility;
+import com.espertech.esper.util.JavaClassHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Index factory that organizes events by the event property values into hash buckets. Based on a HashMap
  * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * <p>
+ * For properties of a numeric primitive or boxed type the factory makes indexes that key on the primitive
+ * value, see {@link PropertyIndexedEventTableSinglePrimitive}.
  */
 public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
 {
@@ -26,6 +30,7 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
     protected final String optionalIndexName;
 
     protected final EventPropertyGetter propertyGetter;
+    protected final Class primitiveKeyClass;
 
     public PropertyIndexedEventTableSingleFactory(int streamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName)
     {
@@ -36,10 +41,19 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
 
         // Init getters
         propertyGetter = EventBeanUtility.getAssertPropertyGetter(eventType, propertyName);
+
+        Class keyClass = JavaClassHelper.getBoxedType(eventType.getPropertyType(propertyName));
+        primitiveKeyClass = PropertyIndexedEventTableSinglePrimitive.isPrimitiveKeyClass(keyClass) ? keyClass : null;
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
         EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[] {propertyName}, EventTableOrganizationType.HASH);
+        if (primitiveKeyClass != null) {
+            if (unique) {
+                return new EventTable[] {new PropertyIndexedEventTableSinglePrimitiveUnique(propertyGetter, organization, primitiveKeyClass)};
+            }
+            return new EventTable[] {new PropertyIndexedEventTableSinglePrimitiveUnadorned(propertyGetter, organization, primitiveKeyClass)};
+        }
         if (unique) {
             return new EventTable[] {new PropertyIndexedEventTableSingleUnique(propertyGetter, organization)};
         }
@@ -0,0 +1,98 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+
+import java.util.Set;
+
+/**
+ * Index that organizes events by a single numeric property value into hash buckets, keyed by the primitive
+ * long representation of the value and not by the boxed value.
+ * <p>
+ * Integral values use their long value and floating-point values use their bit pattern, so that two keys
+ * are the same when the boxed values are equal. Null keys and keys of a different class than the
+ * property type, which a boxed-key index would not find equal to property values, are kept in a separate
+ * map of boxed keys.
+ */
+public abstract class PropertyIndexedEventTableSinglePrimitive extends PropertyIndexedEventTableSingle
+{
+    protected final Class keyClass;
+
+    /**
+     * Returns the events for the primitive key representation.
+     * @param keyBits key as obtained from {@link #toKeyBits(Object)}
+     * @return set of events with property value, or null if none found (never returns zero-sized set)
+     */
+    public abstract Set<EventBean> lookupPrimitive(long keyBits);
+
+    /**
+     * Returns the events for a null or foreign-class key.
+     * @param key to look up
+     * @return set of events with property value, or null if none found (never returns zero-sized set)
+     */
+    protected abstract Set<EventBean> lookupBoxed(Object key);
+
+    public PropertyIndexedEventTableSinglePrimitive(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyClass)
+    {
+        super(propertyGetter, organization);
+        this.keyClass = keyClass;
+    }
+
+    public Set<EventBean> lookup(Object key)
+    {
+        if (key == null || key.getClass() != keyClass) {
+            return lookupBoxed(key);
+        }
+        return lookupPrimitive(toKeyBits(key));
+    }
+
+    /**
+     * Returns the boxed key class.
+     * @return key class
+     */
+    public Class getKeyClass() {
+        return keyClass;
+    }
+
+    /**
+     * Returns true for a key class supported by the primitive index.
+     * @param boxedType boxed property type
+     * @return indicator
+     */
+    public static boolean isPrimitiveKeyClass(Class boxedType) {
+        return boxedType == Long.class || boxedType == Integer.class || boxedType == Short.class || boxedType == Byte.class ||
+               boxedType == Double.class || boxedType == Float.class;
+    }
+
+    /**
+     * Returns the primitive representation of a non-null numeric key of a primitive key class.
+     * @param key key
+     * @return long representation
+     */
+    public static long toKeyBits(Object key) {
+        if (key instanceof Double) {
+            return Double.doubleToLongBits((Double) key);
+        }
+        if (key instanceof Float) {
+            return Float.floatToIntBits((Float) key);
+        }
+        return ((Number) key).longValue();
+    }
+
+    /**
+     * Returns true when the key is indexed under its primitive representation.
+     * @param key key
+     * @return indicator
+     */
+    protected boolean isPrimitiveKey(Object key) {
+        return key != null && key.getClass() == keyClass;
+    }
+}
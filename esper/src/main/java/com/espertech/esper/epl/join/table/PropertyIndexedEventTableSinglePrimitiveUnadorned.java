@@ -0,0 +1,238 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.LongKeyHashMap;
+
+import java.util.*;
+
+/**
+ * Non-unique index on a single numeric property that keys on the primitive value. A key with a single event
+ * holds the event itself, a key with multiple events holds a set of events in insertion order.
+ */
+public class PropertyIndexedEventTableSinglePrimitiveUnadorned extends PropertyIndexedEventTableSinglePrimitive
+{
+    protected final LongKeyHashMap<Object> propertyIndex;
+    protected Map<Object, Set<EventBean>> boxedIndex;
+
+    public PropertyIndexedEventTableSinglePrimitiveUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyClass)
+    {
+        super(propertyGetter, organization, keyClass);
+        propertyIndex = new LongKeyHashMap<Object>();
+    }
+
+    public Set<EventBean> lookupPrimitive(long keyBits)
+    {
+        Object value = propertyIndex.get(keyBits);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof EventBean) {
+            return Collections.singleton((EventBean) value);
+        }
+        return toEventSet(value);
+    }
+
+    protected Set<EventBean> lookupBoxed(Object key)
+    {
+        return boxedIndex == null ? null : boxedIndex.get(key);
+    }
+
+    public void add(EventBean theEvent)
+    {
+        Object key = getKey(theEvent);
+        if (!isPrimitiveKey(key)) {
+            addBoxed(key, theEvent);
+            return;
+        }
+
+        long keyBits = toKeyBits(key);
+        Object value = propertyIndex.get(keyBits);
+        if (value == null) {
+            propertyIndex.put(keyBits, theEvent);
+        }
+        else if (value instanceof EventBean) {
+            if (value.equals(theEvent)) {
+                return;
+            }
+            Set<EventBean> events = new LinkedHashSet<EventBean>();
+            events.add((EventBean) value);
+            events.add(theEvent);
+            propertyIndex.put(keyBits, events);
+        }
+        else {
+            toEventSet(value).add(theEvent);
+        }
+    }
+
+    public void remove(EventBean theEvent)
+    {
+        Object key = getKey(theEvent);
+        if (!isPrimitiveKey(key)) {
+            removeBoxed(key, theEvent);
+            return;
+        }
+
+        // Not an error if not found, its possible that an old-data event is artificial (such as for statistics) and
+        // thus did not correspond to a new-data event raised earlier.
+        long keyBits = toKeyBits(key);
+        Object value = propertyIndex.get(keyBits);
+        if (value == null) {
+            return;
+        }
+        if (value instanceof EventBean) {
+            if (value.equals(theEvent)) {
+                propertyIndex.remove(keyBits);
+            }
+            return;
+        }
+
+        Set<EventBean> events = toEventSet(value);
+        if (!events.remove(theEvent)) {
+            return;
+        }
+        if (events.size() == 1) {
+            propertyIndex.put(keyBits, events.iterator().next());
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return propertyIndex.isEmpty() && (boxedIndex == null || boxedIndex.isEmpty());
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        return new PrimitiveIndexIterator();
+    }
+
+    public void clear()
+    {
+        propertyIndex.clear();
+        boxedIndex = null;
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Integer getNumberOfEvents() {
+        return null;
+    }
+
+    public int getNumKeys() {
+        return propertyIndex.size() + (boxedIndex == null ? 0 : boxedIndex.size());
+    }
+
+    public Object getIndex() {
+        return propertyIndex;
+    }
+
+    public Class getProviderClass() {
+        return PropertyIndexedEventTableSingle.class;
+    }
+
+    private void addBoxed(Object key, EventBean theEvent)
+    {
+        if (boxedIndex == null) {
+            boxedIndex = new HashMap<Object, Set<EventBean>>();
+        }
+        Set<EventBean> events = boxedIndex.get(key);
+        if (events == null) {
+            events = new LinkedHashSet<EventBean>();
+            boxedIndex.put(key, events);
+        }
+        events.add(theEvent);
+    }
+
+    private void removeBoxed(Object key, EventBean theEvent)
+    {
+        if (boxedIndex == null) {
+            return;
+        }
+        Set<EventBean> events = boxedIndex.get(key);
+        if (events == null || !events.remove(theEvent)) {
+            return;
+        }
+        if (events.isEmpty()) {
+            boxedIndex.remove(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<EventBean> toEventSet(Object value)
+    {
+        // a key with multiple events holds the set of events that the index created
+        return (Set<EventBean>) value;
+    }
+
+    private class PrimitiveIndexIterator implements Iterator<EventBean>
+    {
+        private final Iterator<Object> valueIterator = propertyIndex.valueIterator();
+        private Iterator<Set<EventBean>> boxedIterator;
+        private Iterator<EventBean> currentSetIterator;
+        private EventBean next;
+
+        private PrimitiveIndexIterator()
+        {
+            advance();
+        }
+
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        public EventBean next()
+        {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            EventBean result = next;
+            advance();
+            return result;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance()
+        {
+            while (true) {
+                if (currentSetIterator != null && currentSetIterator.hasNext()) {
+                    next = currentSetIterator.next();
+                    return;
+                }
+                if (valueIterator.hasNext()) {
+                    Object value = valueIterator.next();
+                    if (value instanceof EventBean) {
+                        currentSetIterator = null;
+                        next = (EventBean) value;
+                        return;
+                    }
+                    currentSetIterator = toEventSet(value).iterator();
+                    continue;
+                }
+                if (boxedIterator == null) {
+                    boxedIterator = boxedIndex == null ? Collections.<Set<EventBean>>emptyList().iterator() : boxedIndex.values().iterator();
+                }
+                if (boxedIterator.hasNext()) {
+                    currentSetIterator = boxedIterator.next().iterator();
+                    continue;
+                }
+                next = null;
+                return;
+            }
+        }
+    }
+}
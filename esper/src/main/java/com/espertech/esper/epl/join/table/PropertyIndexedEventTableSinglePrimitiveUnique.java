@@ -0,0 +1,159 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.LongKeyHashMap;
+import com.espertech.esper.collection.SuperIterator;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.*;
+
+/**
+ * Unique index on a single numeric property that keys on the primitive value.
+ */
+public class PropertyIndexedEventTableSinglePrimitiveUnique extends PropertyIndexedEventTableSinglePrimitive implements EventTableAsSet
+{
+    private final LongKeyHashMap<EventBean> propertyIndex;
+    private Map<Object, EventBean> boxedIndex;
+
+    public PropertyIndexedEventTableSinglePrimitiveUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyClass)
+    {
+        super(propertyGetter, organization, keyClass);
+        propertyIndex = new LongKeyHashMap<EventBean>();
+    }
+
+    public Set<EventBean> lookupPrimitive(long keyBits)
+    {
+        EventBean event = propertyIndex.get(keyBits);
+        if (event != null) {
+            return Collections.singleton(event);
+        }
+        return null;
+    }
+
+    protected Set<EventBean> lookupBoxed(Object key)
+    {
+        if (boxedIndex == null) {
+            return null;
+        }
+        EventBean event = boxedIndex.get(key);
+        if (event != null) {
+            return Collections.singleton(event);
+        }
+        return null;
+    }
+
+    public int getNumKeys() {
+        return propertyIndex.size() + (boxedIndex == null ? 0 : boxedIndex.size());
+    }
+
+    public Object getIndex() {
+        return propertyIndex;
+    }
+
+    /**
+     * Remove then add events.
+     * @param newData to add
+     * @param oldData to remove
+     */
+    @Override
+    public void addRemove(EventBean[] newData, EventBean[] oldData) {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qIndexAddRemove(this, newData, oldData);}
+        if (oldData != null) {
+            for (EventBean theEvent : oldData) {
+                remove(theEvent);
+            }
+        }
+        if (newData != null) {
+            for (EventBean theEvent : newData) {
+                add(theEvent);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aIndexAddRemove();}
+    }
+
+    public void add(EventBean theEvent)
+    {
+        Object key = getKey(theEvent);
+
+        EventBean existing;
+        if (isPrimitiveKey(key)) {
+            existing = propertyIndex.put(toKeyBits(key), theEvent);
+        }
+        else {
+            if (boxedIndex == null) {
+                boxedIndex = new HashMap<Object, EventBean>();
+            }
+            existing = boxedIndex.put(key, theEvent);
+        }
+        if (existing != null && !existing.equals(theEvent)) {
+            throw PropertyIndexedEventTableUnique.handleUniqueIndexViolation(organization.getIndexName(), key);
+        }
+    }
+
+    public void remove(EventBean theEvent)
+    {
+        Object key = getKey(theEvent);
+        if (isPrimitiveKey(key)) {
+            propertyIndex.remove(toKeyBits(key));
+        }
+        else if (boxedIndex != null) {
+            boxedIndex.remove(key);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return propertyIndex.isEmpty() && (boxedIndex == null || boxedIndex.isEmpty());
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        if (boxedIndex == null || boxedIndex.isEmpty()) {
+            return propertyIndex.valueIterator();
+        }
+        return new SuperIterator<EventBean>(propertyIndex.valueIterator(), boxedIndex.values().iterator());
+    }
+
+    public void clear()
+    {
+        propertyIndex.clear();
+        boxedIndex = null;
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public String toString()
+    {
+        return toQueryPlan();
+    }
+
+    public Integer getNumberOfEvents() {
+        return getNumKeys();
+    }
+
+    public Set<EventBean> allValues() {
+        if (isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<EventBean> result = new HashSet<EventBean>();
+        for (Iterator<EventBean> it = iterator(); it.hasNext();) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    public Class getProviderClass() {
+        return PropertyIndexedEventTableSingleUnique.class;
+    }
+}
@@ -12,8 +12,11 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingle;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSinglePrimitive;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSinglePrimitiveUnique;
 import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingleUnique;
 import com.espertech.esper.event.EventBeanUtility;
+import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 
 /**
@@ -33,6 +36,8 @@ public class SubordIndexedTableLookupStrategySinglePropFactory implements Subord
      */
     protected final EventPropertyGetter propertyGetter;
 
+    private final Class propertyType;
+
     /**
      * Ctor.
      * @param eventTypes is the event types per stream
@@ -45,9 +50,19 @@ public class SubordIndexedTableLookupStrategySinglePropFactory implements Subord
         this.keyStreamNum = keyStreamNum + (isNWOnTrigger ? 1 : 0); // for on-trigger the key will be provided in a {1,2,...} stream and not {0,...}
         this.property = property;
         propertyGetter = EventBeanUtility.getAssertPropertyGetter(eventTypes, keyStreamNum, property);
+        propertyType = JavaClassHelper.getBoxedType(eventTypes[keyStreamNum].getPropertyType(property));
     }
 
     public SubordTableLookupStrategy makeStrategy(EventTable[] eventTable, VirtualDWView vdw) {
+        if (eventTable[0] instanceof PropertyIndexedEventTableSinglePrimitive) {
+            PropertyIndexedEventTableSinglePrimitive index = (PropertyIndexedEventTableSinglePrimitive) eventTable[0];
+            LookupStrategyType type = index instanceof PropertyIndexedEventTableSinglePrimitiveUnique ? LookupStrategyType.SINGLEPROPUNIQUE : LookupStrategyType.SINGLEPROPNONUNIQUE;
+            LookupStrategyDesc desc = new LookupStrategyDesc(type, new String[] {property});
+            if (index.getKeyClass() == propertyType) {
+                return new SubordIndexedTableLookupStrategySinglePropPrimitive(keyStreamNum, propertyGetter, index, desc);
+            }
+            return new SubordIndexedTableLookupStrategySingleProp(keyStreamNum, propertyGetter, index, desc);
+        }
         if (eventTable[0] instanceof PropertyIndexedEventTableSingleUnique) {
             return new SubordIndexedTableLookupStrategySinglePropUnique(keyStreamNum, propertyGetter, (PropertyIndexedEventTableSingleUnique) eventTable[0],
                     new LookupStrategyDesc(LookupStrategyType.SINGLEPROPUNIQUE, new String[] {property}));
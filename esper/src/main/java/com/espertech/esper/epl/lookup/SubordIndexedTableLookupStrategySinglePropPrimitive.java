@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.lookup;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSinglePrimitive;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Index lookup strategy for subqueries and on-trigger against an index keyed on a primitive numeric value,
+ * for a lookup property of the same type as the indexed property.
+ */
+public class SubordIndexedTableLookupStrategySinglePropPrimitive extends SubordIndexedTableLookupStrategySingleProp
+{
+    private final PropertyIndexedEventTableSinglePrimitive primitiveIndex;
+    private final Class keyClass;
+
+    public SubordIndexedTableLookupStrategySinglePropPrimitive(int keyStreamNum, EventPropertyGetter propertyGetter, PropertyIndexedEventTableSinglePrimitive index, LookupStrategyDesc strategyDesc) {
+        super(keyStreamNum, propertyGetter, index, strategyDesc);
+        this.primitiveIndex = index;
+        this.keyClass = index.getKeyClass();
+    }
+
+    public Collection<EventBean> lookup(EventBean[] eventsPerStream, ExprEvaluatorContext context)
+    {
+        if (InstrumentationHelper.ENABLED) {
+            return super.lookup(eventsPerStream, context);
+        }
+
+        Object key = propertyGetter.get(eventsPerStream[keyStreamNum]);
+        if (key == null || key.getClass() != keyClass) {
+            return primitiveIndex.lookup(key);
+        }
+        return primitiveIndex.lookupPrimitive(PropertyIndexedEventTableSinglePrimitive.toKeyBits(key));
+    }
+}
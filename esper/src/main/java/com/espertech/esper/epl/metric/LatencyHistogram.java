@@ -0,0 +1,169 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with log-linear buckets, for recording latencies in nanoseconds.
+ * <p>
+ * Values below 16 each have their own bucket. Above that, each power of two is divided into 8 buckets
+ * so that the bucket width is at most 1/8 of the value. Values of 2^36 nanoseconds (about 68 seconds) and above
+ * fall into the last bucket.
+ * <p>
+ * Each thread records into its own bucket array that only this thread writes, therefore recording does not lock
+ * or compare-and-set. Reading merges the bucket arrays of all threads into a snapshot. The bucket arrays of threads that
+ * terminated are folded into a single retired bucket array, so that the number of bucket arrays is bounded by the number of live
+ * threads that record.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKET_COUNT;
+    private static final int MAX_MAGNITUDE = 35;
+
+    /**
+     * Number of buckets.
+     */
+    public static final int NUM_BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+    private final CopyOnWriteArrayList<Recorder> recorders = new CopyOnWriteArrayList<Recorder>();
+    private final ThreadLocal<AtomicLongArray> recorderThreadLocal = new ThreadLocal<AtomicLongArray>();
+    private final long[] retired = new long[NUM_BUCKETS];
+    private LatencyHistogramSnapshot lastInterval = new LatencyHistogramSnapshot(new long[NUM_BUCKETS]);
+
+    /**
+     * Record a latency.
+     * @param latency latency in nanoseconds
+     */
+    public void record(long latency)
+    {
+        AtomicLongArray counts = recorderThreadLocal.get();
+        if (counts == null)
+        {
+            counts = new AtomicLongArray(NUM_BUCKETS);
+            recorderThreadLocal.set(counts);
+            synchronized (this)
+            {
+                retireTerminated();
+                recorders.add(new Recorder(Thread.currentThread(), counts));
+            }
+        }
+        int index = getBucketIndex(latency);
+        counts.lazySet(index, counts.get(index) + 1);
+    }
+
+    /**
+     * Returns the latencies recorded so far by all threads.
+     * @return snapshot
+     */
+    public synchronized LatencyHistogramSnapshot snapshot()
+    {
+        retireTerminated();
+        long[] counts = retired.clone();
+        for (Recorder recorder : recorders)
+        {
+            for (int i = 0; i < NUM_BUCKETS; i++)
+            {
+                counts[i] += recorder.counts.get(i);
+            }
+        }
+        return new LatencyHistogramSnapshot(counts);
+    }
+
+    /**
+     * Returns the number of bucket arrays of threads that were not yet found to have terminated.
+     * @return number of bucket arrays
+     */
+    public synchronized int getNumRecorders()
+    {
+        return recorders.size();
+    }
+
+    /**
+     * Returns the latencies recorded since the last call to this method, for use by periodic reporting.
+     * @return snapshot of the interval
+     */
+    public synchronized LatencyHistogramSnapshot snapshotInterval()
+    {
+        LatencyHistogramSnapshot current = snapshot();
+        LatencyHistogramSnapshot interval = current.minus(lastInterval);
+        lastInterval = current;
+        return interval;
+    }
+
+    private void retireTerminated()
+    {
+        for (Recorder recorder : recorders)
+        {
+            Thread thread = recorder.thread.get();
+            if (thread != null && thread.isAlive())
+            {
+                continue;
+            }
+            // a terminated thread no longer writes to its bucket array
+            for (int i = 0; i < NUM_BUCKETS; i++)
+            {
+                retired[i] += recorder.counts.get(i);
+            }
+            recorders.remove(recorder);
+        }
+    }
+
+    /**
+     * Returns the bucket index for a latency.
+     * @param latency latency in nanoseconds
+     * @return index
+     */
+    public static int getBucketIndex(long latency)
+    {
+        if (latency < LINEAR_LIMIT)
+        {
+            return latency < 0 ? 0 : (int) latency;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(latency);
+        if (magnitude > MAX_MAGNITUDE)
+        {
+            return NUM_BUCKETS - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (latency >>> shift);
+    }
+
+    /**
+     * Returns the highest latency that falls into a bucket.
+     * @param index bucket index
+     * @return highest latency in nanoseconds
+     */
+    public static long getBucketHighestValue(int index)
+    {
+        if (index < LINEAR_LIMIT)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static class Recorder
+    {
+        private final WeakReference<Thread> thread;
+        private final AtomicLongArray counts;
+
+        private Recorder(Thread thread, AtomicLongArray counts)
+        {
+            this.thread = new WeakReference<Thread>(thread);
+            this.counts = counts;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+/**
+ * Merged bucket counts of a {@link LatencyHistogram}.
+ * <p>
+ * Percentile and maximum values are the highest latency of the bucket they fall into.
+ */
+public class LatencyHistogramSnapshot
+{
+    private final long[] counts;
+    private final long totalCount;
+
+    /**
+     * Ctor.
+     * @param counts count per bucket
+     */
+    public LatencyHistogramSnapshot(long[] counts)
+    {
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts)
+        {
+            total += count;
+        }
+        this.totalCount = total;
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     * @return count
+     */
+    public long getTotalCount()
+    {
+        return totalCount;
+    }
+
+    /**
+     * Returns the latency at the given percentile.
+     * @param percentile percentile between 0 and 100
+     * @return latency in nanoseconds or zero if none recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (totalCount == 0)
+        {
+            return 0;
+        }
+        long target = (long) Math.ceil(totalCount * Math.min(percentile, 100d) / 100d);
+        if (target < 1)
+        {
+            target = 1;
+        }
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++)
+        {
+            cumulative += counts[i];
+            if (cumulative >= target)
+            {
+                return LatencyHistogram.getBucketHighestValue(i);
+            }
+        }
+        return getMaxValue();
+    }
+
+    /**
+     * Returns the maximum latency.
+     * @return latency in nanoseconds or zero if none recorded
+     */
+    public long getMaxValue()
+    {
+        for (int i = counts.length - 1; i >= 0; i--)
+        {
+            if (counts[i] != 0)
+            {
+                return LatencyHistogram.getBucketHighestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the latencies recorded in addition to those of an earlier snapshot of the same histogram.
+     * @param earlier earlier snapshot
+     * @return difference
+     */
+    public LatencyHistogramSnapshot minus(LatencyHistogramSnapshot earlier)
+    {
+        long[] difference = new long[counts.length];
+        for (int i = 0; i < counts.length; i++)
+        {
+            difference[i] = counts[i] - earlier.counts[i];
+        }
+        return new LatencyHistogramSnapshot(difference);
+    }
+
+    public String toString()
+    {
+        return "count=" + totalCount +
+                " p50=" + getValueAtPercentile(50) +
+                " p90=" + getValueAtPercentile(90) +
+                " p99=" + getValueAtPercentile(99) +
+                " p99.9=" + getValueAtPercentile(99.9) +
+                " max=" + getMaxValue();
+    }
+}
@@ -0,0 +1,201 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.metrics.jmx.JmxOperation;
+import com.espertech.esper.metrics.jmx.JmxParam;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the latency histograms of the engine: filter evaluation time and insert-into route time per event type,
+ * and the processing and dispatch time histograms of statements by statement name.
+ * <p>
+ * Latencies are in nanoseconds. The histograms are cumulative since engine initialization, the
+ * metric events report the latencies of the last interval.
+ */
+public class LatencyMetricRepository
+{
+    private final LatencyHistogram filterLatency;
+    private final ConcurrentHashMap<String, LatencyHistogram> filterLatencyPerType;
+    private final ConcurrentHashMap<String, LatencyHistogram> routeLatencyPerType;
+    private final ConcurrentHashMap<String, StatementMetricHandle> statementHandles;
+
+    /**
+     * Ctor.
+     */
+    public LatencyMetricRepository()
+    {
+        filterLatency = new LatencyHistogram();
+        filterLatencyPerType = new ConcurrentHashMap<String, LatencyHistogram>();
+        routeLatencyPerType = new ConcurrentHashMap<String, LatencyHistogram>();
+        statementHandles = new ConcurrentHashMap<String, StatementMetricHandle>();
+    }
+
+    /**
+     * Account for filter evaluation time of an event.
+     * @param eventType type of the event
+     * @param deltaWall wall time nsec
+     */
+    public void accountFilterTime(EventType eventType, long deltaWall)
+    {
+        filterLatency.record(deltaWall);
+        if (eventType.getName() != null)
+        {
+            getAddHistogram(filterLatencyPerType, eventType.getName()).record(deltaWall);
+        }
+    }
+
+    /**
+     * Account for processing time of a routed or inserted-into event.
+     * @param eventType type of the event
+     * @param deltaWall wall time nsec
+     */
+    public void accountRouteTime(EventType eventType, long deltaWall)
+    {
+        if (eventType.getName() != null)
+        {
+            getAddHistogram(routeLatencyPerType, eventType.getName()).record(deltaWall);
+        }
+    }
+
+    /**
+     * Add a statement.
+     * @param statementName statement name
+     * @param handle statement handle holding the statement histograms
+     */
+    public void addStatement(String statementName, StatementMetricHandle handle)
+    {
+        statementHandles.put(statementName, handle);
+    }
+
+    /**
+     * Remove a statement.
+     * @param statementName statement name
+     */
+    public void removeStatement(String statementName)
+    {
+        statementHandles.remove(statementName);
+    }
+
+    /**
+     * Returns the statement handle.
+     * @param statementName statement name
+     * @return handle or null if not found
+     */
+    public StatementMetricHandle getStatementHandle(String statementName)
+    {
+        return statementHandles.get(statementName);
+    }
+
+    /**
+     * Returns the histogram of filter evaluation time over all event types.
+     * @return histogram
+     */
+    public LatencyHistogram getFilterLatency()
+    {
+        return filterLatency;
+    }
+
+    @JmxGetter(name="FilterLatency", description = "Filter evaluation time over all event types (nanoseconds)")
+    public String getFilterLatencySummary()
+    {
+        return filterLatency.snapshot().toString();
+    }
+
+    @JmxOperation(description = "Filter evaluation time per event type (nanoseconds)")
+    public String[] getFilterLatencyPerEventType()
+    {
+        return summarize(filterLatencyPerType);
+    }
+
+    @JmxOperation(description = "Insert-into and route processing time per event type (nanoseconds)")
+    public String[] getRouteLatencyPerEventType()
+    {
+        return summarize(routeLatencyPerType);
+    }
+
+    @JmxOperation(description = "Processing time of a statement (nanoseconds)")
+    public String getStatementLatency(@JmxParam(name = "statementName", description = "Statement name") String statementName)
+    {
+        StatementMetricHandle handle = statementHandles.get(statementName);
+        return handle == null ? null : handle.getProcessingLatency().snapshot().toString();
+    }
+
+    @JmxOperation(description = "Listener and subscriber dispatch time of a statement (nanoseconds)")
+    public String getStatementDispatchLatency(@JmxParam(name = "statementName", description = "Statement name") String statementName)
+    {
+        StatementMetricHandle handle = statementHandles.get(statementName);
+        return handle == null ? null : handle.getDispatchLatency().snapshot().toString();
+    }
+
+    @JmxOperation(description = "Statements with the highest processing time at the given percentile (nanoseconds)")
+    public String[] getTopStatementsByLatency(@JmxParam(name = "percentile", description = "Percentile between 0 and 100") double percentile,
+                                              @JmxParam(name = "numStatements", description = "Maximum number of statements") int numStatements)
+    {
+        List<Map.Entry<String, LatencyHistogramSnapshot>> snapshots = new ArrayList<Map.Entry<String, LatencyHistogramSnapshot>>();
+        for (Map.Entry<String, StatementMetricHandle> entry : statementHandles.entrySet())
+        {
+            LatencyHistogramSnapshot snapshot = entry.getValue().getProcessingLatency().snapshot();
+            if (snapshot.getTotalCount() > 0)
+            {
+                snapshots.add(new AbstractMap.SimpleEntry<String, LatencyHistogramSnapshot>(entry.getKey(), snapshot));
+            }
+        }
+
+        final double percentileValue = percentile;
+        Collections.sort(snapshots, new Comparator<Map.Entry<String, LatencyHistogramSnapshot>>()
+        {
+            public int compare(Map.Entry<String, LatencyHistogramSnapshot> o1, Map.Entry<String, LatencyHistogramSnapshot> o2)
+            {
+                long first = o1.getValue().getValueAtPercentile(percentileValue);
+                long second = o2.getValue().getValueAtPercentile(percentileValue);
+                return first < second ? 1 : (first > second ? -1 : 0);
+            }
+        });
+
+        int size = Math.min(Math.max(numStatements, 0), snapshots.size());
+        String[] result = new String[size];
+        for (int i = 0; i < size; i++)
+        {
+            result[i] = snapshots.get(i).getKey() + ": " + snapshots.get(i).getValue();
+        }
+        return result;
+    }
+
+    private static LatencyHistogram getAddHistogram(ConcurrentHashMap<String, LatencyHistogram> histograms, String name)
+    {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null)
+        {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = histograms.putIfAbsent(name, histogram);
+            if (existing != null)
+            {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    private static String[] summarize(Map<String, LatencyHistogram> histograms)
+    {
+        TreeMap<String, LatencyHistogram> sorted = new TreeMap<String, LatencyHistogram>(histograms);
+        String[] result = new String[sorted.size()];
+        int count = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet())
+        {
+            result[count++] = entry.getKey() + ": " + entry.getValue().snapshot();
+        }
+        return result;
+    }
+}
@@ -41,7 +41,10 @@ public class MetricExecEngine implements MetricExec
         long inputCount = context.getServices().getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getServices().getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+        long patternFilterStateCount = context.getServices().getPatternStatePoolEngineSvc().getLiveCount();
+        LatencyHistogramSnapshot filterLatency = context.getLatencyMetricRepository().getFilterLatency().snapshotInterval();
+        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth, patternFilterStateCount,
+                filterLatency.getValueAtPercentile(50), filterLatency.getValueAtPercentile(99), filterLatency.getMaxValue());
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);        
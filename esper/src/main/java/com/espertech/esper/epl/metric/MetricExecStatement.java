@@ -48,6 +48,25 @@ public class MetricExecStatement implements MetricExec
                 if (metric != null)
                 {
                     metric.setTimestamp(timestamp);
+                    StatementMetricHandle handle = context.getLatencyMetricRepository().getStatementHandle(metric.getStatementName());
+                    if (handle != null)
+                    {
+                        LatencyHistogramSnapshot processing = handle.getProcessingLatency().snapshotInterval();
+                        metric.setWallTimeP50(processing.getValueAtPercentile(50));
+                        metric.setWallTimeP99(processing.getValueAtPercentile(99));
+                        metric.setWallTimeMax(processing.getMaxValue());
+                        LatencyHistogramSnapshot dispatch = handle.getDispatchLatency().snapshotInterval();
+                        metric.setDispatchTimeP99(dispatch.getValueAtPercentile(99));
+                        metric.setDispatchTimeMax(dispatch.getMaxValue());
+                        StatementDispatchQueue queue = handle.getDispatchQueue();
+                        if (queue != null)
+                        {
+                            LatencyHistogramSnapshot queued = queue.getDeliveryLatency().snapshotInterval();
+                            metric.setDispatchQueueDepth(queue.getQueueDepth());
+                            metric.setDispatchQueueLatencyP99(queued.getValueAtPercentile(99));
+                            metric.setDispatchQueueLatencyMax(queued.getMaxValue());
+                        }
+                    }
                     metricEventRouter.route(metrics[i]);
                 }
             }
@@ -19,18 +19,21 @@ public class MetricExecutionContext
     private final EPServicesContext epServicesContext;
     private final EPRuntime runtime;
     private final StatementMetricRepository statementMetricRepository;
+    private final LatencyMetricRepository latencyMetricRepository;
 
     /**
      * Ctor.
      * @param epServicesContext services context
      * @param runtime for routing events
      * @param statementMetricRepository for getting statement data
+     * @param latencyMetricRepository for getting latency histograms
      */
-    public MetricExecutionContext(EPServicesContext epServicesContext, EPRuntime runtime, StatementMetricRepository statementMetricRepository)
+    public MetricExecutionContext(EPServicesContext epServicesContext, EPRuntime runtime, StatementMetricRepository statementMetricRepository, LatencyMetricRepository latencyMetricRepository)
     {
         this.epServicesContext = epServicesContext;
         this.runtime = runtime;
         this.statementMetricRepository = statementMetricRepository;
+        this.latencyMetricRepository = latencyMetricRepository;
     }
 
     /**
@@ -59,4 +62,13 @@ public class MetricExecutionContext
     {
         return statementMetricRepository;
     }
+
+    /**
+     * Returns latency histograms
+     * @return latency histograms
+     */
+    public LatencyMetricRepository getLatencyMetricRepository()
+    {
+        return latencyMetricRepository;
+    }
 }
@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.metric;
 
 import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.service.EPServicesContext;
 
 /**
@@ -51,6 +52,27 @@ public interface MetricReportingService
      */
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream);
 
+    /**
+     * Account for statement listener and subscriber dispatch time.
+     * @param handle statement handle
+     * @param deltaWall wall time nsec
+     */
+    public void accountDispatchTime(StatementMetricHandle handle, long deltaWall);
+
+    /**
+     * Account for filter evaluation time of an event.
+     * @param eventType type of the event
+     * @param deltaWall wall time nsec
+     */
+    public void accountFilterTime(EventType eventType, long deltaWall);
+
+    /**
+     * Account for processing time of a routed or inserted-into event.
+     * @param eventType type of the event
+     * @param deltaWall wall time nsec
+     */
+    public void accountRouteTime(EventType eventType, long deltaWall);
+
     /**
      * Returns for a new statement a handle for later accounting.
      * @param statementId statement id
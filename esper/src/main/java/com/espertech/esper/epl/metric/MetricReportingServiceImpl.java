@@ -11,6 +11,7 @@ package com.espertech.esper.epl.metric;
 import com.espertech.esper.client.ConfigurationException;
 import com.espertech.esper.client.ConfigurationMetricsReporting;
 import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.metric.MetricEvent;
 import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.StatementLifecycleEvent;
@@ -40,6 +41,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
     private boolean isScheduled;
     private final MetricScheduleService schedule;
     private final StatementMetricRepository stmtMetricRepository;
+    private final LatencyMetricRepository latencyMetricRepository;
 
     private MetricExecEngine metricExecEngine;
     private MetricExecStatement metricExecStmtGroupDefault;
@@ -66,6 +68,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         schedule = new MetricScheduleService();
 
         stmtMetricRepository = new StatementMetricRepository(engineUri, specification);
+        latencyMetricRepository = new LatencyMetricRepository();
         statementGroupExecutions = new LinkedHashMap<String, MetricExecStatement>();
         statementMetricHandles = new HashMap<String, StatementMetricHandle>();
         statementOutputHooks = new CopyOnWriteArraySet<StatementResultListener>();
@@ -92,9 +95,13 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         return statementOutputHooks;
     }
 
+    public LatencyMetricRepository getLatencyMetricRepository() {
+        return latencyMetricRepository;
+    }
+
     public void setContext(EPRuntime runtime, EPServicesContext servicesContext)
     {
-        MetricExecutionContext metricsExecutionContext = new MetricExecutionContext(servicesContext, runtime, stmtMetricRepository);
+        MetricExecutionContext metricsExecutionContext = new MetricExecutionContext(servicesContext, runtime, stmtMetricRepository, latencyMetricRepository);
 
         // create all engine and statement executions
         metricExecEngine = new MetricExecEngine(this, engineUri, schedule, specification.getEngineInterval());
@@ -176,6 +183,10 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
     public void accountTime(StatementMetricHandle metricsHandle, long deltaCPU, long deltaWall, int numInputEvents)
     {
         stmtMetricRepository.accountTimes(metricsHandle, deltaCPU, deltaWall, numInputEvents);
+        if (deltaWall > 0)
+        {
+            metricsHandle.getProcessingLatency().record(deltaWall);
+        }
     }
 
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream)
@@ -183,6 +194,21 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
     }
 
+    public void accountDispatchTime(StatementMetricHandle handle, long deltaWall)
+    {
+        handle.getDispatchLatency().record(deltaWall);
+    }
+
+    public void accountFilterTime(EventType eventType, long deltaWall)
+    {
+        latencyMetricRepository.accountFilterTime(eventType, deltaWall);
+    }
+
+    public void accountRouteTime(EventType eventType, long deltaWall)
+    {
+        latencyMetricRepository.accountRouteTime(eventType, deltaWall);
+    }
+
     public StatementMetricHandle getStatementHandle(int statementId, String statementName)
     {
         if (!MetricReportingPath.isMetricsEnabled)
@@ -192,6 +218,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
 
         StatementMetricHandle handle = stmtMetricRepository.addStatement(statementName);
         statementMetricHandles.put(statementName, handle);
+        latencyMetricRepository.addStatement(statementName, handle);
         return handle;
     }
 
@@ -208,6 +235,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
             {
                 stmtMetricRepository.removeStatement(theEvent.getStatement().getName());
                 statementMetricHandles.remove(theEvent.getStatement().getName());
+                latencyMetricRepository.removeStatement(theEvent.getStatement().getName());
             }
         }
     }
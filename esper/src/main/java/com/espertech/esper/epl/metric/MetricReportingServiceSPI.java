@@ -34,4 +34,10 @@ public interface MetricReportingServiceSPI extends MetricReportingService
      * @return hooks.
      */
     public Set<StatementResultListener> getStatementOutputHooks();
-}
\ No newline at end of file
+
+    /**
+     * Returns the latency histograms.
+     * @return latency histograms
+     */
+    public LatencyMetricRepository getLatencyMetricRepository();
+}
@@ -0,0 +1,27 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+/**
+ * Queue of statement results pending delivery to listeners and subscribers, for statement metric reporting.
+ */
+public interface StatementDispatchQueue
+{
+    /**
+     * Returns the number of results queued and not yet delivered.
+     * @return queue depth
+     */
+    public int getQueueDepth();
+
+    /**
+     * Returns the histogram of time between the statement indicating a result and the result being delivered from the queue.
+     * @return histogram
+     */
+    public LatencyHistogram getDeliveryLatency();
+}
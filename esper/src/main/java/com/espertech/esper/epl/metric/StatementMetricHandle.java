@@ -16,6 +16,9 @@ public class StatementMetricHandle
     private final int groupNum;
     private final int index;
     private boolean isEnabled;
+    private final LatencyHistogram processingLatency;
+    private final LatencyHistogram dispatchLatency;
+    private volatile StatementDispatchQueue dispatchQueue;
 
     /**
      * Ctor.
@@ -27,6 +30,8 @@ public class StatementMetricHandle
         this.groupNum = groupNum;
         this.index = index;
         this.isEnabled = true;
+        this.processingLatency = new LatencyHistogram();
+        this.dispatchLatency = new LatencyHistogram();
     }
 
     /**
@@ -64,4 +69,40 @@ public class StatementMetricHandle
     {
         isEnabled = enabled;
     }
+
+    /**
+     * Returns the histogram of statement processing wall time.
+     * @return histogram
+     */
+    public LatencyHistogram getProcessingLatency()
+    {
+        return processingLatency;
+    }
+
+    /**
+     * Returns the histogram of wall time delivering statement output to listeners and subscribers.
+     * @return histogram
+     */
+    public LatencyHistogram getDispatchLatency()
+    {
+        return dispatchLatency;
+    }
+
+    /**
+     * Returns the queue of results pending delivery, or null if the statement delivers without a queue.
+     * @return queue or null
+     */
+    public StatementDispatchQueue getDispatchQueue()
+    {
+        return dispatchQueue;
+    }
+
+    /**
+     * Sets the queue of results pending delivery.
+     * @param dispatchQueue queue
+     */
+    public void setDispatchQueue(StatementDispatchQueue dispatchQueue)
+    {
+        this.dispatchQueue = dispatchQueue;
+    }
 }
@@ -36,6 +36,12 @@ public interface NamedWindowDispatchService
      */
     boolean dispatch();
 
+    /**
+     * Returns indicator whether the current thread has named window results that are not yet dispatched to consumers.
+     * @return true when dispatch is pending
+     */
+    boolean isDispatchWaiting();
+
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
      * @param delta is the result to dispatch
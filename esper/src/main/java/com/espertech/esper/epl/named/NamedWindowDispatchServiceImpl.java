@@ -97,6 +97,11 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         threadLocal.get().add(latch);
     }
 
+    public boolean isDispatchWaiting()
+    {
+        return !threadLocal.get().isEmpty();
+    }
+
     public boolean dispatch()
     {
         List<NamedWindowConsumerLatch> dispatches = threadLocal.get();
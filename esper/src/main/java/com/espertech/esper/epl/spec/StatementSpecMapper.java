@@ -2625,6 +2625,14 @@ public class StatementSpecMapper
         {
             return new PlugInProjectionExpression("leaving", false);
         }
+        else if (expr instanceof ExprApproxCountDistinctNode)
+        {
+            return new PlugInProjectionExpression("approxCountDistinct", false);
+        }
+        else if (expr instanceof ExprApproxPercentileNode)
+        {
+            return new PlugInProjectionExpression("approxPercentile", false);
+        }
         else if (expr instanceof ExprAggCountMinSketchNode)
         {
             ExprAggCountMinSketchNode cmsNode = (ExprAggCountMinSketchNode) expr;
@@ -11,6 +11,7 @@ package com.espertech.esper.epl.variable;
 import com.espertech.esper.core.service.StatementExtensionSvcContext;
 import com.espertech.esper.epl.core.EngineImportService;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -100,6 +101,12 @@ public interface VariableService
 
     public VariableMetaData getVariableMetaData(String variableName);
 
+    /**
+     * Returns the metadata of all variables, for thread-safe iteration.
+     * @return variable metadata
+     */
+    public Collection<VariableMetaData> getVariableMetaDataAll();
+
     /**
      * Removes a variable.
      * @param name to remove
@@ -432,6 +432,10 @@ public class VariableServiceImpl implements VariableService
         return variables.get(variableName);
     }
 
+    public synchronized Collection<VariableMetaData> getVariableMetaDataAll() {
+        return new ArrayList<VariableMetaData>(variables.values());
+    }
+
     public VariableReader getReader(String variableName, int agentInstanceIdAccessor)
     {
         VariableMetaData metaData = variables.get(variableName);
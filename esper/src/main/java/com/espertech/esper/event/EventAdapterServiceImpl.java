@@ -207,6 +207,13 @@ public class EventAdapterServiceImpl implements EventAdapterService
             throw new EventTypeException("Event type named '" + eventTypeName + "' could not be found");
         }
 
+        // handle plug-in types, which may be backed by a built-in representation
+        PlugInEventTypeHandler handlers = nameToHandlerMap.get(eventTypeName);
+        if (handlers != null)
+        {
+            return handlers.getSender(runtimeEventSender);
+        }
+
         // handle built-in types
         if (eventType instanceof BeanEventType)
         {
@@ -224,12 +231,6 @@ public class EventAdapterServiceImpl implements EventAdapterService
         {
             return new EventSenderXMLDOM(runtimeEventSender, (BaseXMLEventType) eventType, this, threadingService);
         }
-
-        PlugInEventTypeHandler handlers = nameToHandlerMap.get(eventTypeName);
-        if (handlers != null)
-        {
-            return handlers.getSender(runtimeEventSender);
-        }
         throw new EventTypeException("An event sender for event type named '" + eventTypeName + "' could not be created as the type is internal");
     }
 
@@ -39,12 +39,23 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
         return array[propertyIndex];
     }
 
+    /**
+     * Returns the index of the property in the object array.
+     * @return index
+     */
+    public int getPropertyIndex() {
+        return propertyIndex;
+    }
+
     public boolean isObjectArrayExistsProperty(Object[] array) {
         return true; // Property exists as the property is not dynamic (unchecked)
     }
 
     public Object get(EventBean obj)
     {
+        if (obj instanceof ObjectArrayOffHeapEventBean) {
+            return ((ObjectArrayOffHeapEventBean) obj).getPropertyValue(propertyIndex);
+        }
         Object[] arr = BaseNestableEventUtil.checkedCastUnderlyingObjectArray(obj);
         return getObjectArray(arr);
     }
@@ -0,0 +1,124 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Flyweight object-array event that reads its property values from a row of an {@link ObjectArrayOffHeapStore}.
+ * <p>
+ * When the row is removed from the store the owner detaches the event, which copies the property values
+ * onto the heap so that the event stays valid for consumers of the remove stream.
+ * The event is immutable: the property values cannot be replaced.
+ */
+public final class ObjectArrayOffHeapEventBean implements ObjectArrayBackedEventBean
+{
+    private final EventType eventType;
+    private final ObjectArrayOffHeapStore store;
+    private final int slot;
+    private volatile Object[] detached;
+
+    /**
+     * Ctor.
+     * @param eventType event type
+     * @param store row store
+     * @param slot slot of the row
+     */
+    public ObjectArrayOffHeapEventBean(EventType eventType, ObjectArrayOffHeapStore store, int slot) {
+        this.eventType = eventType;
+        this.store = store;
+        this.slot = slot;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Object[] getProperties() {
+        Object[] values = detached;
+        if (values != null) {
+            return values;
+        }
+        values = store.read(slot);
+        // re-check as the row may have been removed and its slot reused while reading
+        Object[] detachedValues = detached;
+        return detachedValues != null ? detachedValues : values;
+    }
+
+    /**
+     * Returns a single property value.
+     * @param index property index
+     * @return value
+     */
+    public Object getPropertyValue(int index) {
+        Object[] values = detached;
+        if (values != null) {
+            return values[index];
+        }
+        Object value = store.read(slot, index);
+        values = detached;
+        return values != null ? values[index] : value;
+    }
+
+    public void setPropertyValues(Object[] objects) {
+        throw new UnsupportedOperationException("Off-heap events cannot be modified");
+    }
+
+    public Object getUnderlying() {
+        return getProperties();
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null)
+        {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null)
+        {
+            throw new PropertyAccessException("Property named '" + propertyExpression + "' is not a valid property name for this type");
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Returns the slot of the row.
+     * @return slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns true while the event reads from the store.
+     * @return attached indicator
+     */
+    public boolean isAttached() {
+        return detached == null;
+    }
+
+    /**
+     * Copies the property values onto the heap and removes the row from the store.
+     */
+    public void detach() {
+        if (detached != null) {
+            return;
+        }
+        detached = store.read(slot);
+        store.remove(slot);
+    }
+}
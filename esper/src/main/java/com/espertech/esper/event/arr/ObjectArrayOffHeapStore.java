@@ -0,0 +1,359 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Row store for object-array events that keeps the property values outside of the Java heap.
+ * <p>
+ * Each row occupies a fixed-width slot in a direct {@link ByteBuffer} chunk: a null-bitmap followed by one
+ * column per property. Boolean and byte columns take 1 byte, short and char 2 bytes, int and float 4 bytes,
+ * long and double 8 bytes. String columns store a 4-byte identifier into a reference-counted string dictionary,
+ * which works well for the low-cardinality string values typically found in reference and state data.
+ * <p>
+ * Slots of removed rows are reused by subsequent inserts. The store is not thread-safe for writes;
+ * writes are expected to be serialized by the owning statement's lock.
+ */
+public class ObjectArrayOffHeapStore
+{
+    private static final int CHUNK_SIZE_BYTES = 1024 * 1024;
+
+    private static final byte KIND_BOOLEAN = 0;
+    private static final byte KIND_BYTE = 1;
+    private static final byte KIND_SHORT = 2;
+    private static final byte KIND_CHAR = 3;
+    private static final byte KIND_INT = 4;
+    private static final byte KIND_LONG = 5;
+    private static final byte KIND_FLOAT = 6;
+    private static final byte KIND_DOUBLE = 7;
+    private static final byte KIND_STRING = 8;
+
+    private final byte[] columnKinds;
+    private final int[] columnOffsets;
+    private final int nullBitmapSize;
+    private final int rowSize;
+    private final int rowsPerChunk;
+    private final StringDictionary dictionary = new StringDictionary();
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[4];
+    private int numChunks;
+    private int highWatermark;
+    private int[] freeSlots = new int[16];
+    private int numFreeSlots;
+    private int numRows;
+
+    /**
+     * Ctor.
+     * @param eventType object-array event type of rows, all properties must be of a supported type
+     * @throws IllegalArgumentException if a property type is not supported
+     */
+    public ObjectArrayOffHeapStore(ObjectArrayEventType eventType) {
+        String message = checkSupported(eventType);
+        if (message != null) {
+            throw new IllegalArgumentException(message);
+        }
+        Map<String, Integer> indexes = eventType.getPropertiesIndexes();
+        int numColumns = indexes.size();
+        columnKinds = new byte[numColumns];
+        columnOffsets = new int[numColumns];
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            columnKinds[entry.getValue()] = getKind(eventType.getPropertyType(entry.getKey()));
+        }
+
+        nullBitmapSize = (numColumns + 7) / 8;
+        int offset = nullBitmapSize;
+        for (int i = 0; i < numColumns; i++) {
+            columnOffsets[i] = offset;
+            offset += getWidth(columnKinds[i]);
+        }
+        rowSize = Math.max(1, offset);
+        rowsPerChunk = Math.max(1, CHUNK_SIZE_BYTES / rowSize);
+    }
+
+    /**
+     * Returns a message describing the first property that cannot be stored off-heap, or null if all properties are supported.
+     * @param eventType type to check
+     * @return message or null if supported
+     */
+    public static String checkSupported(ObjectArrayEventType eventType) {
+        for (String name : eventType.getPropertiesIndexes().keySet()) {
+            Class type = eventType.getPropertyType(name);
+            if (getKind(type) == null) {
+                return "Property '" + name + "' of type '" + JavaClassHelper.getClassNameFullyQualPretty(type) + "' is not supported for off-heap storage, supported are primitive, boxed and string property types";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a row.
+     * @param values property values in the order of the object-array event type
+     * @return slot of the row
+     */
+    public int add(Object[] values) {
+        int slot;
+        if (numFreeSlots > 0) {
+            slot = freeSlots[--numFreeSlots];
+        }
+        else {
+            slot = highWatermark++;
+            if (slot / rowsPerChunk >= numChunks) {
+                allocateChunk();
+            }
+        }
+
+        ByteBuffer buf = chunks[slot / rowsPerChunk];
+        int base = (slot % rowsPerChunk) * rowSize;
+        for (int i = 0; i < nullBitmapSize; i++) {
+            buf.put(base + i, (byte) 0);
+        }
+        for (int i = 0; i < columnKinds.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                int bitmapIndex = base + (i >>> 3);
+                buf.put(bitmapIndex, (byte) (buf.get(bitmapIndex) | (1 << (i & 7))));
+                continue;
+            }
+            int pos = base + columnOffsets[i];
+            switch (columnKinds[i]) {
+                case KIND_BOOLEAN: buf.put(pos, (Boolean) value ? (byte) 1 : (byte) 0); break;
+                case KIND_BYTE: buf.put(pos, ((Number) value).byteValue()); break;
+                case KIND_SHORT: buf.putShort(pos, ((Number) value).shortValue()); break;
+                case KIND_CHAR: buf.putChar(pos, (Character) value); break;
+                case KIND_INT: buf.putInt(pos, ((Number) value).intValue()); break;
+                case KIND_LONG: buf.putLong(pos, ((Number) value).longValue()); break;
+                case KIND_FLOAT: buf.putFloat(pos, ((Number) value).floatValue()); break;
+                case KIND_DOUBLE: buf.putDouble(pos, ((Number) value).doubleValue()); break;
+                default: buf.putInt(pos, dictionary.acquire((String) value)); break;
+            }
+        }
+        numRows++;
+        return slot;
+    }
+
+    /**
+     * Removes a row, making its slot available for reuse.
+     * @param slot slot of the row
+     */
+    public void remove(int slot) {
+        ByteBuffer buf = chunks[slot / rowsPerChunk];
+        int base = (slot % rowsPerChunk) * rowSize;
+        for (int i = 0; i < columnKinds.length; i++) {
+            if (columnKinds[i] == KIND_STRING && !isNull(buf, base, i)) {
+                dictionary.release(buf.getInt(base + columnOffsets[i]));
+            }
+        }
+        if (numFreeSlots == freeSlots.length) {
+            int[] grown = new int[freeSlots.length * 2];
+            System.arraycopy(freeSlots, 0, grown, 0, freeSlots.length);
+            freeSlots = grown;
+        }
+        freeSlots[numFreeSlots++] = slot;
+        numRows--;
+    }
+
+    /**
+     * Reads all property values of a row.
+     * @param slot slot of the row
+     * @return new array of property values
+     */
+    public Object[] read(int slot) {
+        ByteBuffer buf = chunks[slot / rowsPerChunk];
+        int base = (slot % rowsPerChunk) * rowSize;
+        Object[] values = new Object[columnKinds.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readColumn(buf, base, i);
+        }
+        return values;
+    }
+
+    /**
+     * Reads a single property value of a row.
+     * @param slot slot of the row
+     * @param index property index
+     * @return property value
+     */
+    public Object read(int slot, int index) {
+        return readColumn(chunks[slot / rowsPerChunk], (slot % rowsPerChunk) * rowSize, index);
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return rows
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Returns the number of bytes allocated outside of the heap.
+     * @return bytes
+     */
+    public long getOffHeapBytes() {
+        return (long) numChunks * rowsPerChunk * rowSize;
+    }
+
+    /**
+     * Returns the number of distinct strings currently held by the string dictionary.
+     * @return distinct string count
+     */
+    public int getNumDictionaryStrings() {
+        return dictionary.size();
+    }
+
+    private Object readColumn(ByteBuffer buf, int base, int index) {
+        if (isNull(buf, base, index)) {
+            return null;
+        }
+        int pos = base + columnOffsets[index];
+        switch (columnKinds[index]) {
+            case KIND_BOOLEAN: return buf.get(pos) != 0;
+            case KIND_BYTE: return buf.get(pos);
+            case KIND_SHORT: return buf.getShort(pos);
+            case KIND_CHAR: return buf.getChar(pos);
+            case KIND_INT: return buf.getInt(pos);
+            case KIND_LONG: return buf.getLong(pos);
+            case KIND_FLOAT: return buf.getFloat(pos);
+            case KIND_DOUBLE: return buf.getDouble(pos);
+            default: return dictionary.get(buf.getInt(pos));
+        }
+    }
+
+    private boolean isNull(ByteBuffer buf, int base, int index) {
+        return (buf.get(base + (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    private void allocateChunk() {
+        ByteBuffer[] current = chunks;
+        if (numChunks == current.length) {
+            ByteBuffer[] grown = new ByteBuffer[current.length * 2];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        current[numChunks++] = ByteBuffer.allocateDirect(rowsPerChunk * rowSize).order(ByteOrder.nativeOrder());
+        chunks = current;
+    }
+
+    private static Byte getKind(Class type) {
+        if (type == null) {
+            return null;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == Boolean.class) {
+            return KIND_BOOLEAN;
+        }
+        if (boxed == Byte.class) {
+            return KIND_BYTE;
+        }
+        if (boxed == Short.class) {
+            return KIND_SHORT;
+        }
+        if (boxed == Character.class) {
+            return KIND_CHAR;
+        }
+        if (boxed == Integer.class) {
+            return KIND_INT;
+        }
+        if (boxed == Long.class) {
+            return KIND_LONG;
+        }
+        if (boxed == Float.class) {
+            return KIND_FLOAT;
+        }
+        if (boxed == Double.class) {
+            return KIND_DOUBLE;
+        }
+        if (boxed == String.class) {
+            return KIND_STRING;
+        }
+        return null;
+    }
+
+    private static int getWidth(byte kind) {
+        switch (kind) {
+            case KIND_BOOLEAN:
+            case KIND_BYTE: return 1;
+            case KIND_SHORT:
+            case KIND_CHAR: return 2;
+            case KIND_LONG:
+            case KIND_DOUBLE: return 8;
+            default: return 4;
+        }
+    }
+
+    private static class StringDictionary
+    {
+        private final Map<String, Integer> ids = new HashMap<String, Integer>();
+        private volatile String[] values = new String[16];
+        private int[] refCounts = new int[16];
+        private int[] freeIds = new int[16];
+        private int numFreeIds;
+        private int highWatermark;
+
+        int acquire(String value) {
+            Integer existing = ids.get(value);
+            if (existing != null) {
+                refCounts[existing]++;
+                return existing;
+            }
+            int id;
+            if (numFreeIds > 0) {
+                id = freeIds[--numFreeIds];
+            }
+            else {
+                id = highWatermark++;
+                if (id == refCounts.length) {
+                    grow();
+                }
+            }
+            values[id] = value;
+            refCounts[id] = 1;
+            ids.put(value, id);
+            return id;
+        }
+
+        void release(int id) {
+            if (--refCounts[id] > 0) {
+                return;
+            }
+            ids.remove(values[id]);
+            values[id] = null;
+            if (numFreeIds == freeIds.length) {
+                int[] grown = new int[freeIds.length * 2];
+                System.arraycopy(freeIds, 0, grown, 0, freeIds.length);
+                freeIds = grown;
+            }
+            freeIds[numFreeIds++] = id;
+        }
+
+        String get(int id) {
+            String[] current = values;
+            return id < current.length ? current[id] : null;
+        }
+
+        int size() {
+            return ids.size();
+        }
+
+        private void grow() {
+            int[] grownRefs = new int[refCounts.length * 2];
+            System.arraycopy(refCounts, 0, grownRefs, 0, refCounts.length);
+            refCounts = grownRefs;
+            String[] grownValues = new String[grownRefs.length];
+            System.arraycopy(values, 0, grownValues, 0, values.length);
+            values = grownValues;
+        }
+    }
+}
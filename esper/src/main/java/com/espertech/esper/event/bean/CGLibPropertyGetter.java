@@ -53,6 +53,15 @@ public class CGLibPropertyGetter extends BaseNativePropertyGetter implements Bea
         }
     }
 
+    /**
+     * Returns the read method.
+     * @return method
+     */
+    public Method getMethod()
+    {
+        return fastMethod.getJavaMethod();
+    }
+
     public boolean isBeanExistsProperty(Object object)
     {
         return true; // Property exists as the property is not dynamic (unchecked)
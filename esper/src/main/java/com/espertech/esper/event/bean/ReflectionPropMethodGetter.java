@@ -55,6 +55,15 @@ public final class ReflectionPropMethodGetter extends BaseNativePropertyGetter i
         }
     }
 
+    /**
+     * Returns the read method.
+     * @return method
+     */
+    public Method getMethod()
+    {
+        return method;
+    }
+
     public boolean isBeanExistsProperty(Object object)
     {
         return true;
@@ -43,6 +43,15 @@ public class MapEntryPropertyGetter implements MapEventPropertyGetter
         return map.get(propertyName);
     }
 
+    /**
+     * Returns the map key.
+     * @return property name
+     */
+    public String getPropertyName()
+    {
+        return propertyName;
+    }
+
     public boolean isMapExistsProperty(Map<String, Object> map)
     {
         return true; // Property exists as the property is not dynamic (unchecked)
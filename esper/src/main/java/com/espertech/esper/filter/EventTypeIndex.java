@@ -30,13 +30,15 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public class EventTypeIndex implements EventEvaluator
 {
-    private Map<EventType, FilterHandleSetNode> eventTypes;
+    private volatile Map<EventType, FilterHandleSetNode> eventTypes;
     private ReadWriteLock eventTypesRWLock;
+    private final boolean copyOnWrite;
 
     public EventTypeIndex(FilterServiceGranularLockFactory lockFactory)
     {
         eventTypes = new HashMap<EventType, FilterHandleSetNode>();
         eventTypesRWLock = lockFactory.obtainNew();
+        copyOnWrite = lockFactory instanceof FilterServiceGranularLockFactoryCopyOnWrite;
     }
 
     /**
@@ -44,7 +46,7 @@ public class EventTypeIndex implements EventEvaluator
      */
     public void destroy()
     {
-        eventTypes.clear();
+        eventTypes = new HashMap<EventType, FilterHandleSetNode>();
     }
 
     /**
@@ -62,6 +64,12 @@ public class EventTypeIndex implements EventEvaluator
             {
                 throw new IllegalStateException("Event type already in index, add not performed, type=" + eventType);
             }
+            if (copyOnWrite) {
+                Map<EventType, FilterHandleSetNode> copy = new HashMap<EventType, FilterHandleSetNode>(eventTypes);
+                copy.put(eventType, rootNode);
+                eventTypes = copy;
+                return;
+            }
             eventTypes.put(eventType, rootNode);
         }
         finally
@@ -75,6 +83,12 @@ public class EventTypeIndex implements EventEvaluator
         eventTypesRWLock.writeLock().lock();
         try
         {
+            if (copyOnWrite) {
+                Map<EventType, FilterHandleSetNode> copy = new HashMap<EventType, FilterHandleSetNode>(eventTypes);
+                copy.remove(type);
+                eventTypes = copy;
+                return;
+            }
             eventTypes.remove(type);
         }
         finally
@@ -81,7 +81,7 @@ public class EventTypeIndexBuilder
                 rootNode = eventTypeIndex.get(eventType);
                 if (rootNode == null)
                 {
-                    rootNode = new FilterHandleSetNode(lockFactory.obtainNew());
+                    rootNode = IndexFactory.createNode(lockFactory);
                     eventTypeIndex.add(eventType, rootNode);
                 }
             }
@@ -27,11 +27,16 @@ public class ExprNodeAdapterBase
     protected final ExprEvaluatorContext evaluatorContext;
 
     public ExprNodeAdapterBase(int filterSpecId, int filterSpecParamPathNum, ExprNode exprNode, ExprEvaluatorContext evaluatorContext)
+    {
+        this(filterSpecId, filterSpecParamPathNum, exprNode, exprNode.getExprEvaluator(), evaluatorContext);
+    }
+
+    public ExprNodeAdapterBase(int filterSpecId, int filterSpecParamPathNum, ExprNode exprNode, ExprEvaluator exprNodeEval, ExprEvaluatorContext evaluatorContext)
     {
         this.filterSpecId = filterSpecId;
         this.filterSpecParamPathNum = filterSpecParamPathNum;
         this.exprNode = exprNode;
-        this.exprNodeEval = exprNode.getExprEvaluator();
+        this.exprNodeEval = exprNodeEval;
         this.evaluatorContext = evaluatorContext;
     }
 
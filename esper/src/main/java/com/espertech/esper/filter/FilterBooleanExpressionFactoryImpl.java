@@ -42,7 +42,12 @@ public class FilterBooleanExpressionFactoryImpl implements FilterBooleanExpressi
             }
             // no-variable no-prior event evaluation
             else if (!node.isHasVariable()) {
-                adapter = new ExprNodeAdapterBase(filterSpecId, filterSpecParamPathNum, exprNode, exprEvaluatorContext);
+                if (node.getCompiledEvaluator() != null) {
+                    adapter = new ExprNodeAdapterBase(filterSpecId, filterSpecParamPathNum, exprNode, node.getCompiledEvaluator(), exprEvaluatorContext);
+                }
+                else {
+                    adapter = new ExprNodeAdapterBase(filterSpecId, filterSpecParamPathNum, exprNode, exprEvaluatorContext);
+                }
             }
             else {
                 // with-variable no-prior event evaluation
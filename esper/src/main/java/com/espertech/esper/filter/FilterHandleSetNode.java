@@ -25,13 +25,25 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterHandleSetNode implements EventEvaluator
 {
     private final ReadWriteLock nodeRWLock;
-    private final Set<FilterHandle> callbackSet;
-    private final List<FilterParamIndexBase> indizes;
+    private final boolean copyOnWrite;
+    private volatile Set<FilterHandle> callbackSet;
+    private volatile List<FilterParamIndexBase> indizes;
 
     public FilterHandleSetNode(ReadWriteLock nodeRWLock) {
+        this(nodeRWLock, false);
+    }
+
+    /**
+     * Ctor.
+     * @param nodeRWLock lock
+     * @param copyOnWrite indicator whether changes replace the collections of callbacks and indizes with changed copies
+     * rather than changing the collections, so that events can be evaluated without locking
+     */
+    public FilterHandleSetNode(ReadWriteLock nodeRWLock, boolean copyOnWrite) {
         this.nodeRWLock = nodeRWLock;
+        this.copyOnWrite = copyOnWrite;
         callbackSet = new LinkedHashSet<FilterHandle>();
-        indizes = new LinkedList<FilterParamIndexBase>();
+        indizes = copyOnWrite ? new ArrayList<FilterParamIndexBase>(2) : new LinkedList<FilterParamIndexBase>();
     }
 
     /**
@@ -85,6 +97,9 @@ public final class FilterHandleSetNode implements EventEvaluator
     {
         nodeRWLock.readLock().lock();
         try {
+            List<FilterParamIndexBase> indizes = this.indizes;
+            Set<FilterHandle> callbackSet = this.callbackSet;
+
             if (InstrumentationHelper.ENABLED) {
                 if (!indizes.isEmpty()) {
                     InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
@@ -139,6 +154,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final void add(FilterParamIndexBase index)
     {
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            copy.add(index);
+            indizes = copy;
+            return;
+        }
         indizes.add(index);
     }
 
@@ -151,6 +172,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final boolean remove(FilterParamIndexBase index)
     {
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            boolean removed = copy.remove(index);
+            indizes = copy;
+            return removed;
+        }
         return indizes.remove(index);
     }
 
@@ -163,6 +190,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final void add(FilterHandle filterCallback)
     {
+        if (copyOnWrite) {
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.add(filterCallback);
+            callbackSet = copy;
+            return;
+        }
         callbackSet.add(filterCallback);
     }
 
@@ -175,6 +208,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final boolean remove(FilterHandle filterCallback)
     {
+        if (copyOnWrite) {
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            boolean removed = copy.remove(filterCallback);
+            callbackSet = copy;
+            return removed;
+        }
         return callbackSet.remove(filterCallback);
     }
 
@@ -0,0 +1,104 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants that publishes each change as a new index via a volatile reference,
+ * for use with {@link FilterServiceCopyOnWrite}.
+ * <p>
+ * Events are matched against the published index without locking. The published index is never changed: a put or remove
+ * builds a new index of the same kind from the entries retained by this class, so that changes cost time linear in the
+ * number of constants in the index. Writers must be serialized by the caller.
+ */
+public final class FilterParamIndexCopyOnWrite extends FilterParamIndexLookupableBase
+{
+    private final ArrayList<Object> filterConstants = new ArrayList<Object>();
+    private final ArrayList<EventEvaluator> evaluators = new ArrayList<EventEvaluator>();
+    private volatile FilterParamIndexBase published;
+
+    public FilterParamIndexCopyOnWrite(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
+        super(filterOperator, lookupable);
+        published = IndexFactory.createIndex(lookupable, FilterServiceGranularLockFactoryNone.INSTANCE, filterOperator);
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        return published.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        // an existing entry for the same constant is replaced in place, retaining entry order
+        EventEvaluator existing = published.get(filterConstant);
+        int position = existing == null ? -1 : indexOf(existing);
+        if (position == -1) {
+            filterConstants.add(filterConstant);
+            evaluators.add(evaluator);
+        }
+        else {
+            filterConstants.set(position, filterConstant);
+            evaluators.set(position, evaluator);
+        }
+        publish();
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        EventEvaluator existing = published.get(filterConstant);
+        if (existing == null) {
+            return false;
+        }
+        int position = indexOf(existing);
+        filterConstants.remove(position);
+        evaluators.remove(position);
+        publish();
+        return true;
+    }
+
+    public final int size()
+    {
+        return published.size();
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return published.getReadWriteLock();
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        published.matchEvent(theEvent, matches);
+    }
+
+    private int indexOf(EventEvaluator evaluator)
+    {
+        // each constant has its own node or index, therefore the evaluator identifies the entry
+        for (int i = 0; i < evaluators.size(); i++) {
+            if (evaluators.get(i) == evaluator) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void publish()
+    {
+        FilterParamIndexBase index = IndexFactory.createIndex(lookupable, FilterServiceGranularLockFactoryNone.INSTANCE, getFilterOperator());
+        for (int i = 0; i < evaluators.size(); i++) {
+            index.put(filterConstants.get(i), evaluators.get(i));
+        }
+        published = index;
+    }
+}
@@ -0,0 +1,97 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filter service for filters that change rarely: events are evaluated without taking any lock.
+ * <p>
+ * Event type index, nodes and indexes publish each change as a new copy via a volatile reference.
+ * Adding and removing filters copies the changed collections along the path of the filter and is serialized by a single lock.
+ */
+public final class FilterServiceCopyOnWrite extends FilterServiceBase
+{
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FilterServiceCopyOnWrite(boolean allowIsolation) {
+        super(FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE, allowIsolation);
+    }
+
+    public void acquireWriteLock() {
+        lock.lock();
+    }
+
+    public void releaseWriteLock() {
+        lock.unlock();
+    }
+
+    public FilterSet take(Set<Integer> statementId) {
+        lock.lock();
+        try {
+            return super.takeInternal(statementId);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public void apply(FilterSet filterSet) {
+        lock.lock();
+        try {
+            super.applyInternal(filterSet);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        return super.evaluateInternal(theEvent, matches);
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        return super.evaluateInternal(theEvent, matches, statementId);
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        lock.lock();
+        try {
+            return super.addInternal(filterValueSet, callback);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        lock.lock();
+        try {
+            super.removeInternal(callback, filterServiceEntry);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeType(EventType type) {
+        lock.lock();
+        try {
+            super.removeTypeInternal(type);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+}
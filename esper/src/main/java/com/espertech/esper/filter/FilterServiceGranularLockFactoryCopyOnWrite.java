@@ -0,0 +1,27 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Lock factory for copy-on-write filter trees: nodes and indexes are not locked, since changes are published
+ * as new immutable copies and writers are serialized by the filter service.
+ */
+public class FilterServiceGranularLockFactoryCopyOnWrite implements FilterServiceGranularLockFactory
+{
+    public static final FilterServiceGranularLockFactoryCopyOnWrite INSTANCE = new FilterServiceGranularLockFactoryCopyOnWrite();
+
+    private FilterServiceGranularLockFactoryCopyOnWrite() {
+    }
+
+    public ReadWriteLock obtainNew() {
+        return FilterServiceGranularLockFactoryNone.INSTANCE.obtainNew();
+    }
+}
@@ -26,6 +26,9 @@ public final class FilterServiceProvider
         if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY) {
             return new FilterServiceLockCoarse(allowIsolation);
         }
+        else if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.COPYONWRITE) {
+            return new FilterServiceCopyOnWrite(allowIsolation);
+        }
         else {
             return new FilterServiceLockFine(allowIsolation);
         }
@@ -14,6 +14,8 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.expression.codegen.CodegenExprCompiler;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.visitor.ExprNodeVariableVisitor;
 import com.espertech.esper.epl.table.mgmt.TableService;
@@ -40,6 +42,7 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
     private final boolean useLargeThreadingProfile;
     private final boolean hasFilterStreamSubquery;
     private final boolean hasTableAccess;
+    private final transient ExprEvaluator compiledEvaluator;
 
     private int filterSpecId;
     private int filterSpecParamPathNum;
@@ -56,6 +59,7 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
                              EventAdapterService eventAdapterService,
                              FilterBooleanExpressionFactory filterBooleanExpressionFactory,
                              ConfigurationInformation configurationInformation,
+                             String statementName,
                              boolean hasSubquery,
                              boolean hasTableAccess)
         throws IllegalArgumentException
@@ -79,6 +83,15 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
         ExprNodeVariableVisitor visitor = new ExprNodeVariableVisitor();
         exprNode.accept(visitor);
         this.hasVariable = visitor.isHasVariables();
+
+        // pattern filters evaluate against the matched events per stream and are not compiled
+        boolean hasPatternEvents = (taggedEventTypes != null && !taggedEventTypes.isEmpty()) || (arrayEventTypes != null && !arrayEventTypes.isEmpty());
+        if (configurationInformation.getEngineDefaults().getExpression().isCodeGeneration() && !hasVariable && !hasSubquery && !hasTableAccess && !hasPatternEvents) {
+            this.compiledEvaluator = CodegenExprCompiler.compile(exprNode, statementName);
+        }
+        else {
+            this.compiledEvaluator = null;
+        }
     }
 
     /**
@@ -90,6 +103,15 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
         return exprNode;
     }
 
+    /**
+     * Returns the evaluator compiled when expression code generation is enabled, or null when the
+     * expression is evaluated interpreted.
+     * @return compiled evaluator or null
+     */
+    public ExprEvaluator getCompiledEvaluator() {
+        return compiledEvaluator;
+    }
+
     /**
      * Returns the map of tag/stream names to event types that the filter expressions map use (for patterns)
      * @return map
@@ -28,6 +28,12 @@ public class IndexFactory
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
 
+        // Copy-on-write indexes build a new index of the kind below for each change
+        if (lockFactory instanceof FilterServiceGranularLockFactoryCopyOnWrite)
+        {
+            return new FilterParamIndexCopyOnWrite(lookupable, filterOperator);
+        }
+
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL)
         {
@@ -107,5 +113,14 @@ public class IndexFactory
         }
         throw new IllegalArgumentException("Cannot create filter index instance for filter operator " + filterOperator);
     }
-}
 
+    /**
+     * Factory for nodes holding filter callbacks and indexes.
+     * @param lockFactory lock factory
+     * @return node
+     */
+    public static FilterHandleSetNode createNode(FilterServiceGranularLockFactory lockFactory)
+    {
+        return new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory instanceof FilterServiceGranularLockFactoryCopyOnWrite);
+    }
+}
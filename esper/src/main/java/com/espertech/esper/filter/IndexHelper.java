@@ -41,8 +41,15 @@ public class IndexHelper
 
             for (FilterParamIndexBase index : indizes)
             {
+                // if boolean-expression then match only if this is the last parameter,
+                // all others considered are higher order and sort ahead
+                if (index.getFilterOperator() == FilterOperator.BOOLEAN_EXPRESSION) {
+                    if (parameters.size() == 1 && operator.equals(FilterOperator.BOOLEAN_EXPRESSION)) {
+                        return new Pair<FilterValueSetParam, FilterParamIndexBase>(parameter, index);
+                    }
+                }
                 // if property-based index, we prefer this in matching
-                if (index instanceof FilterParamIndexLookupableBase)
+                else if (index instanceof FilterParamIndexLookupableBase)
                 {
                     FilterParamIndexLookupableBase propBasedIndex = (FilterParamIndexLookupableBase) index;
                     if ( (lookupable.equals(propBasedIndex.getLookupable())) &&
@@ -51,13 +58,6 @@ public class IndexHelper
                         return new Pair<FilterValueSetParam, FilterParamIndexBase>(parameter, index);
                     }
                 }
-                // if boolean-expression then match only if this is the last parameter,
-                // all others considered are higher order and sort ahead
-                else if (index instanceof FilterParamIndexBooleanExpr && parameters.size() == 1) {
-                    if (operator.equals(FilterOperator.BOOLEAN_EXPRESSION)) {
-                        return new Pair<FilterValueSetParam, FilterParamIndexBase>(parameter, index);
-                    }
-                }
             }
         }
 
@@ -74,7 +74,7 @@ public class IndexHelper
     public static FilterValueSetParam findParameter(ArrayDeque<FilterValueSetParam> parameters,
                                                 FilterParamIndexBase index)
     {
-        if (index instanceof FilterParamIndexLookupableBase)
+        if ((index instanceof FilterParamIndexLookupableBase) && (index.getFilterOperator() != FilterOperator.BOOLEAN_EXPRESSION))
         {
             FilterParamIndexLookupableBase propBasedIndex = (FilterParamIndexLookupableBase) index;
             FilterSpecLookupable indexLookupable = propBasedIndex.getLookupable();
@@ -172,7 +172,7 @@ public final class IndexTreeBuilder
 
             FilterParamIndexBase index = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), lockFactory, parameterPickedForIndex.getFilterOperator());
 
-            currentNode.getIndizes().add(index);
+            currentNode.add(index);
             treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(index, parameterPickedForIndex.getFilterForValue()));
             addToIndex(remainingParameters, filterCallback, index, parameterPickedForIndex.getFilterForValue(), treePathInfo, lockFactory);
         }
@@ -380,9 +380,12 @@ public final class IndexTreeBuilder
 
                 // The found eventEvaluator must be converted to a new FilterHandleSetNode
                 FilterParamIndexBase nextIndex = (FilterParamIndexBase) eventEvaluator;
-                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode newNode = IndexFactory.createNode(lockFactory);
                 newNode.add(nextIndex);
-                index.remove(filterForValue);
+                // copy-on-write indexes replace the entry in one step so that concurrent evaluation always finds it
+                if (!(index instanceof FilterParamIndexCopyOnWrite)) {
+                    index.remove(filterForValue);
+                }
                 index.put(filterForValue, newNode);
                 addToNode(remainingParameters, filterCallback, newNode, treePathInfo, lockFactory);
 
@@ -393,7 +396,7 @@ public final class IndexTreeBuilder
             // if there are no remaining parameters, create a node
             if (remainingParameters.isEmpty())
             {
-                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode node = IndexFactory.createNode(lockFactory);
                 addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory);
                 index.put(filterForValue, node);
                 return;
@@ -74,6 +74,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
         if (spawnEvaluator.isEvaluatedTrue())
         {
             childState.quit();
+            spawnedNodes.remove(childState);
         }
         else
         {
@@ -161,6 +162,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
         {
             child.quit();
         }
+        spawnedNodes.clear();
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aPatternEveryQuit();}
     }
 
@@ -9,6 +9,7 @@
 package com.espertech.esper.pattern;
 
 import com.espertech.esper.filter.FilterValueSetParam;
+import com.espertech.esper.pattern.pool.PatternStatePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,14 @@ public class EvalFilterNode extends EvalNodeBase
         if (getContext().getConsumptionHandler() != null) {
             return new EvalFilterStateNodeConsumeImpl(parentNode, this);
         }
+        PatternStatePool pool = getContext().getStatePool();
+        if (pool != null) {
+            EvalStateNode pooled = pool.acquire(this);
+            if (pooled != null) {
+                pooled.setParentEvaluator(parentNode);
+                return pooled;
+            }
+        }
         return new EvalFilterStateNode(parentNode, this);
     }
 
@@ -15,6 +15,7 @@ import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.filter.FilterServiceEntry;
 import com.espertech.esper.filter.FilterValueSet;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.pattern.pool.PatternStatePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,8 +73,12 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     public final void quit()
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qPatternFilterQuit(evalFilterNode, beginState);}
+        boolean wasStarted = isStarted;
         isStarted = false;
         stopFiltering();
+        if (wasStarted) {
+            release();
+        }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aPatternFilterQuit();}
     }
 
@@ -134,6 +139,9 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         }
 
         this.evaluateTrue(passUp, isQuitted);
+        if (isQuitted) {
+            release();
+        }
 
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aPatternFilterMatch(isQuitted);}
     }
@@ -186,6 +194,9 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
         FilterValueSet filterValues = evalFilterNode.getFactoryNode().getFilterSpec().getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
         filterServiceEntry = filterService.add(filterValues, handle);
+        if (evalFilterNode.getContext().getStatePool() != null) {
+            evalFilterNode.getContext().getStatePool().getEngineSvc().increaseLiveCount();
+        }
         long filtersVersion = filterService.getFiltersVersion();
         evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
     }
@@ -195,6 +206,9 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         PatternContext context = evalFilterNode.getContext().getPatternContext();
         if (handle != null) {
             context.getFilterService().remove(handle, filterServiceEntry);
+            if (evalFilterNode.getContext().getStatePool() != null) {
+                evalFilterNode.getContext().getStatePool().getEngineSvc().decreaseLiveCount();
+            }
         }
         handle = null;
         filterServiceEntry = null;
@@ -203,5 +217,23 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
     }
 
+    /**
+     * Returns this state node to the pool, if the parent no longer references a state node that quit.
+     * Other parents may retain a reference and quit the state node again later.
+     */
+    private void release()
+    {
+        PatternStatePool pool = evalFilterNode.getContext().getStatePool();
+        if (pool == null || getClass() != EvalFilterStateNode.class) {
+            return;
+        }
+        Evaluator parent = getParentEvaluator();
+        if (parent instanceof EvalFollowedByStateNode || parent instanceof EvalGuardStateNode ||
+            parent instanceof EvalEveryStateNode || parent instanceof EvalEveryStateSpawnEvaluator) {
+            beginState = null;
+            pool.release(this);
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(EvalFilterStateNode.class);
 }
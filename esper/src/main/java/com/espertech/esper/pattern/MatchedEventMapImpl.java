@@ -18,11 +18,15 @@ import java.util.Map;
  * that holds the one or more events that could match any defined event expressions.
  * The optional tag value supplied when an event expression is created is used as a key for placing
  * matching event objects into this collection.
+ * <p>
+ * Copies share the array of matching events until either the copy or the original is changed,
+ * at which time the changed instance takes its own copy of the array.
  */
 public final class MatchedEventMapImpl implements MatchedEventMap
 {
     private final MatchedEventMapMeta meta;
-    private final Object[] matches;
+    private Object[] matches;
+    private boolean shared;
 
     /**
      * Constructor creates an empty collection of events.
@@ -38,6 +42,12 @@ public final class MatchedEventMapImpl implements MatchedEventMap
         this.matches = matches;
     }
 
+    private MatchedEventMapImpl(MatchedEventMapMeta meta, Object[] matches, boolean shared) {
+        this.meta = meta;
+        this.matches = matches;
+        this.shared = shared;
+    }
+
     /**
      * Add an event to the collection identified by the given tag.
      * @param tag is an identifier to retrieve the event from
@@ -45,12 +55,15 @@ public final class MatchedEventMapImpl implements MatchedEventMap
      */
     public void add(final int tag, final Object theEvent)
     {
+        if (shared) {
+            unshare();
+        }
         matches[tag] = theEvent;
     }
 
     /**
      * Returns a map containing the events where the key is the event tag string and the value is the event
-     * instance.
+     * instance. The array may be shared with copies and must not be modified.
      * @return Hashtable containing event instances
      */
     public Object[] getMatchingEvents()
@@ -93,7 +106,8 @@ public final class MatchedEventMapImpl implements MatchedEventMap
     }
 
     /**
-     * Make a shallow copy of this collection.
+     * Make a shallow copy of this collection. The copy shares the array of matching events with this collection
+     * until either is changed.
      * @return shallow copy
      */
     public MatchedEventMapImpl shallowCopy()
@@ -101,15 +115,8 @@ public final class MatchedEventMapImpl implements MatchedEventMap
         if (matches.length == 0) {
             return this;
         }
-
-        Object[] copy = new Object[matches.length];
-        if (matches.length > 1) {
-            System.arraycopy(matches, 0, copy, 0, matches.length);
-        }
-        else {
-            copy[0] = matches[0];
-        }
-        return new MatchedEventMapImpl(meta, copy);
+        shared = true;
+        return new MatchedEventMapImpl(meta, matches, true);
     }
 
     /**
@@ -124,10 +131,16 @@ public final class MatchedEventMapImpl implements MatchedEventMap
             throw new UnsupportedOperationException("Merge requires same types");
         }
         MatchedEventMapImpl otherImpl = (MatchedEventMapImpl) other;
+        if (otherImpl.matches == matches) {
+            return;
+        }
         for (int i = 0; i < matches.length; i++) {
-            if (otherImpl.matches[i] == null) {
+            if (otherImpl.matches[i] == null || otherImpl.matches[i] == matches[i]) {
                 continue;
             }
+            if (shared) {
+                unshare();
+            }
             matches[i] = otherImpl.matches[i];
         }
     }
@@ -159,4 +172,11 @@ public final class MatchedEventMapImpl implements MatchedEventMap
         }
         return matches[index];
     }
+
+    private void unshare() {
+        Object[] copy = new Object[matches.length];
+        System.arraycopy(matches, 0, copy, 0, matches.length);
+        matches = copy;
+        shared = false;
+    }
 }
@@ -9,7 +9,10 @@
 package com.espertech.esper.pattern;
 
 import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.pattern.pool.PatternStatePool;
+import com.espertech.esper.pattern.pool.PatternStatePoolEngineSvc;
 
 /**
  * Contains handles to implementations of services needed by evaluation nodes.
@@ -19,6 +22,7 @@ public class PatternAgentInstanceContext
     private final PatternContext patternContext;
     private final AgentInstanceContext agentInstanceContext;
     private final EvalFilterConsumptionHandler consumptionHandler;
+    private final PatternStatePool statePool;
 
     public PatternAgentInstanceContext(PatternContext patternContext, AgentInstanceContext agentInstanceContext, boolean hasConsumingFilter) {
         this.patternContext = patternContext;
@@ -30,6 +34,20 @@ public class PatternAgentInstanceContext
         else {
             consumptionHandler = null;
         }
+
+        // state nodes are pooled per statement agent instance, patterns of the same statement agent instance share the pool
+        EPStatementAgentInstanceHandle handle = agentInstanceContext.getEpStatementAgentInstanceHandle();
+        PatternStatePoolEngineSvc engineSvc = agentInstanceContext.getStatementContext().getPatternStatePoolEngineSvc();
+        if (handle == null || engineSvc == null) {
+            statePool = null;
+        }
+        else if (handle.getOptionalPostDispatchable() instanceof PatternStatePool) {
+            statePool = (PatternStatePool) handle.getOptionalPostDispatchable();
+        }
+        else {
+            statePool = new PatternStatePool(engineSvc);
+            handle.setOptionalPostDispatchable(statePool);
+        }
     }
 
     public PatternContext getPatternContext() {
@@ -44,6 +62,14 @@ public class PatternAgentInstanceContext
         return consumptionHandler;
     }
 
+    /**
+     * Returns the pool of state nodes, or null if state nodes are not pooled.
+     * @return pool
+     */
+    public PatternStatePool getStatePool() {
+        return statePool;
+    }
+
     public StatementContext getStatementContext() {
         return agentInstanceContext.getStatementContext();
     }
@@ -0,0 +1,91 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.pattern.pool;
+
+import com.espertech.esper.core.service.EPStatementDispatch;
+import com.espertech.esper.pattern.EvalNode;
+import com.espertech.esper.pattern.EvalStateNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool of pattern state nodes of a statement agent instance, for reuse of state nodes that have quit.
+ * <p>
+ * A state node that quit may still receive a callback from the filter matches or schedule that the engine collected for the
+ * event or time currently being processed. Released state nodes therefore become available for reuse only after the
+ * statement agent instance completes processing, when the engine invokes this pool as the post-dispatch of the statement handle.
+ * <p>
+ * Only filter state nodes are pooled. Followed-by, every and guard state nodes are allocated for each subexpression as before.
+ */
+public class PatternStatePool implements EPStatementDispatch {
+    /**
+     * Maximum number of free state nodes retained per evaluation node.
+     */
+    public final static int MAX_FREE_PER_NODE = 64;
+
+    private final PatternStatePoolEngineSvc engineSvc;
+    private final List<EvalStateNode> released = new ArrayList<EvalStateNode>();
+    private final Map<EvalNode, ArrayDeque<EvalStateNode>> free = new IdentityHashMap<EvalNode, ArrayDeque<EvalStateNode>>();
+
+    public PatternStatePool(PatternStatePoolEngineSvc engineSvc) {
+        this.engineSvc = engineSvc;
+    }
+
+    /**
+     * Returns a free state node of the evaluation node, or null if there is none.
+     * @param evalNode evaluation node
+     * @return state node or null
+     */
+    public synchronized EvalStateNode acquire(EvalNode evalNode) {
+        ArrayDeque<EvalStateNode> nodes = free.get(evalNode);
+        if (nodes == null) {
+            return null;
+        }
+        EvalStateNode node = nodes.pollLast();
+        if (node != null) {
+            engineSvc.increaseRecycledCount();
+        }
+        return node;
+    }
+
+    /**
+     * Releases a state node that quit and that is no longer referenced by its parent.
+     * @param stateNode state node
+     */
+    public synchronized void release(EvalStateNode stateNode) {
+        released.add(stateNode);
+    }
+
+    public synchronized void execute() {
+        if (released.isEmpty()) {
+            return;
+        }
+        for (EvalStateNode node : released) {
+            ArrayDeque<EvalStateNode> nodes = free.get(node.getFactoryNode());
+            if (nodes == null) {
+                nodes = new ArrayDeque<EvalStateNode>();
+                free.put(node.getFactoryNode(), nodes);
+            }
+            if (nodes.size() < MAX_FREE_PER_NODE) {
+                nodes.add(node);
+            }
+        }
+        released.clear();
+    }
+
+    public PatternStatePoolEngineSvc getEngineSvc() {
+        return engineSvc;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.pattern.pool;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Engine-level counts of live and recycled pattern filter states.
+ */
+public class PatternStatePoolEngineSvc {
+    private final LongAdder liveCount = new LongAdder();
+    private final LongAdder recycledCount = new LongAdder();
+
+    public void increaseLiveCount() {
+        liveCount.increment();
+    }
+
+    public void decreaseLiveCount() {
+        liveCount.decrement();
+    }
+
+    public void increaseRecycledCount() {
+        recycledCount.increment();
+    }
+
+    /**
+     * Returns the number of live pattern filter states, i.e. the number of pattern filter expressions that are active.
+     * @return count
+     */
+    public long getLiveCount() {
+        return liveCount.sum();
+    }
+
+    /**
+     * Returns the number of times a pattern filter state was taken from a pool rather than allocated.
+     * @return count
+     */
+    public long getRecycledCount() {
+        return recycledCount.sum();
+    }
+}
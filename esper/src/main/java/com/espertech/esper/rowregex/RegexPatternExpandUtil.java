@@ -19,7 +19,7 @@ import com.espertech.esper.epl.expression.core.ExprNodeOrigin;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.util.JavaClassHelper;
-import com.espertech.esper.util.SerializableObjectCopier;
+import com.espertech.esper.util.StructuralObjectCopier;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -230,7 +230,7 @@ public class RegexPatternExpandUtil {
 
     private static RowRegexExprNode checkedCopy(RowRegexExprNode inner) {
         try {
-            return (RowRegexExprNode) SerializableObjectCopier.copy(inner);
+            return (RowRegexExprNode) StructuralObjectCopier.copy(inner);
         }
         catch (Exception e) {
             throw new EPException("Failed to repeat nested match-recognize: " + e.getMessage(), e);
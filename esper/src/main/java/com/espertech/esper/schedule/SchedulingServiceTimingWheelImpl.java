@@ -0,0 +1,425 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel with constant-time add and remove.
+ * <p>
+ * The wheel has levels of 64 buckets each, with level 0 buckets covering a single millisecond and
+ * each higher level bucket covering 64 times the time span of a bucket of the level below.
+ * A handle is placed into the level of the highest 6-bit group in which its trigger time differs from the wheel time.
+ * When the wheel time advances, the handles of the nearest non-empty bucket of a higher level are redistributed
+ * to lower levels. Empty buckets are skipped using a bit set per level, so that advancing the time
+ * by a large amount does not visit each millisecond.
+ * <p>
+ * Handles that trigger at the same time are returned ordered by schedule slot, same as {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheelImpl implements SchedulingServiceSPI
+{
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+    private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+    private static final int NUM_LEVELS = (Long.SIZE + LEVEL_BITS - 1) / LEVEL_BITS;
+    private static final int LEVEL_DUE = -1;
+
+    private static final Comparator<Entry> TRIGGER_ORDER = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            if (o1.time != o2.time) {
+                return o1.time < o2.time ? -1 : 1;
+            }
+            if (o1.slot != o2.slot) {
+                return o1.slot < o2.slot ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+
+    // Per level the head of the linked list of entries for each bucket
+    private final Entry[][] buckets;
+
+    // Per level the bit set of non-empty buckets
+    private final long[] occupied;
+
+    // Head of the linked list of entries that are due as their time is on or before the wheel time
+    private Entry due;
+
+    // Map of handle and entry for constant-time removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Entries triggered during evaluation
+    private final ArrayList<Entry> triggered;
+
+    // Time up to which entries have been distributed to due
+    private long wheelTime;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheelImpl(TimeSourceService timeSourceService)
+    {
+        this.buckets = new Entry[NUM_LEVELS][LEVEL_SIZE];
+        this.occupied = new long[NUM_LEVELS];
+        this.handleEntryMap = new HashMap<ScheduleHandle, Entry>();
+        this.triggered = new ArrayList<Entry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public synchronized void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        handleEntryMap.clear();
+        clearWheel();
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+        if (currentTime < wheelTime) {
+            // time moved backwards: place all entries relative to the new time
+            wheelTime = currentTime;
+            clearWheel();
+            for (Entry entry : handleEntryMap.values()) {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized final void add(long afterMSec, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
+        Entry existing = handleEntryMap.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(handle, slot, currentTime + afterMSec);
+        place(entry);
+        handleEntryMap.put(handle, entry);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry != null)
+        {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            unlink(entry);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
+        advance(currentTime);
+
+        if (due == null) {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());}
+            return;
+        }
+
+        // Take all due entries, ordered by time and slot
+        for (Entry entry = due; entry != null; entry = entry.next) {
+            triggered.add(entry);
+            handleEntryMap.remove(entry.handle);
+        }
+        due = null;
+        if (triggered.size() > 1) {
+            Collections.sort(triggered, TRIGGER_ORDER);
+        }
+        for (Entry entry : triggered) {
+            handles.add(entry.handle);
+        }
+        triggered.clear();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds)
+    {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (Entry entry : handleEntryMap.values())
+        {
+            if (statementIds.contains(entry.handle.getStatementId()))
+            {
+                long relative = entry.time - currentTime;
+                list.add(new ScheduleSetEntry(relative, entry.slot, entry.handle));
+            }
+        }
+
+        for (ScheduleSetEntry entry : list)
+        {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount()
+    {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : handleEntryMap.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate()
+    {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate()
+    {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle()
+    {
+        if (handleEntryMap.isEmpty()) {
+            return null;
+        }
+        long furthest = Long.MIN_VALUE;
+        for (Entry entry : handleEntryMap.values()) {
+            furthest = Math.max(furthest, entry.time);
+        }
+        return furthest;
+    }
+
+    public synchronized int getScheduleHandleCount()
+    {
+        return handleEntryMap.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        if (due != null) {
+            return minTime(due);
+        }
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (occupied[level] == 0) {
+                continue;
+            }
+            int index = Long.numberOfTrailingZeros(occupied[level]);
+            if (level == 0) {
+                return bucketStartTime(0, index);
+            }
+            return minTime(buckets[level][index]);
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : handleEntryMap.values()) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    /**
+     * Advances the wheel time to the target time, moving all entries on or before the target time to due.
+     * @param targetTime time to advance to
+     */
+    private void advance(long targetTime)
+    {
+        while (true) {
+            int level = 0;
+            while (level < NUM_LEVELS && occupied[level] == 0) {
+                level++;
+            }
+            if (level == NUM_LEVELS) {
+                break;
+            }
+
+            // the first bucket of the lowest non-empty level holds the nearest entries
+            int index = Long.numberOfTrailingZeros(occupied[level]);
+            long startTime = bucketStartTime(level, index);
+            if (startTime > targetTime) {
+                break;
+            }
+
+            wheelTime = startTime;
+            Entry entry = buckets[level][index];
+            buckets[level][index] = null;
+            occupied[level] &= ~(1L << index);
+            while (entry != null) {
+                Entry next = entry.next;
+                place(entry);
+                entry = next;
+            }
+        }
+
+        if (targetTime > wheelTime) {
+            wheelTime = targetTime;
+        }
+    }
+
+    private long bucketStartTime(int level, int index)
+    {
+        int shift = level * LEVEL_BITS;
+        long key = toKey(wheelTime);
+        long upperMask = shift + LEVEL_BITS >= Long.SIZE ? 0 : -1L << (shift + LEVEL_BITS);
+        return fromKey((key & upperMask) | ((long) index << shift));
+    }
+
+    private void place(Entry entry)
+    {
+        entry.prev = null;
+        if (entry.time <= wheelTime) {
+            entry.level = LEVEL_DUE;
+            entry.next = due;
+            if (due != null) {
+                due.prev = entry;
+            }
+            due = entry;
+            return;
+        }
+
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(entry.time ^ wheelTime)) / LEVEL_BITS;
+        int index = (int) ((toKey(entry.time) >>> (level * LEVEL_BITS)) & LEVEL_MASK);
+        Entry head = buckets[level][index];
+        entry.level = level;
+        entry.index = index;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        buckets[level][index] = entry;
+        occupied[level] |= 1L << index;
+    }
+
+    private void unlink(Entry entry)
+    {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        }
+        else if (entry.level == LEVEL_DUE) {
+            due = entry.next;
+        }
+        else {
+            buckets[entry.level][entry.index] = entry.next;
+            if (entry.next == null) {
+                occupied[entry.level] &= ~(1L << entry.index);
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void clearWheel()
+    {
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (occupied[level] != 0) {
+                Arrays.fill(buckets[level], null);
+                occupied[level] = 0;
+            }
+        }
+        due = null;
+    }
+
+    private static long minTime(Entry head)
+    {
+        long min = Long.MAX_VALUE;
+        for (Entry entry = head; entry != null; entry = entry.next) {
+            min = Math.min(min, entry.time);
+        }
+        return min;
+    }
+
+    // the key has the same unsigned order as the time has signed order
+    private static long toKey(long time)
+    {
+        return time ^ Long.MIN_VALUE;
+    }
+
+    private static long fromKey(long key)
+    {
+        return key ^ Long.MIN_VALUE;
+    }
+
+    private static final class Entry
+    {
+        private final ScheduleHandle handle;
+        private final long slot;
+        private final long time;
+        private int level;
+        private int index;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(ScheduleHandle handle, long slot, long time) {
+            this.handle = handle;
+            this.slot = slot;
+            this.time = time;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheelImpl.class);
+}
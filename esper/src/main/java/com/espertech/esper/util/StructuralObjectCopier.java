@@ -0,0 +1,353 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.util;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utility class for deep-copying serializable objects by copying their fields, without writing and reading the objects through
+ * object output and input streams.
+ * <p>
+ * The copy is the copy that serialization produces: instances are created without running the constructors of serializable classes,
+ * transient fields keep their default value, and enum constants and immutable values are shared. Objects that are referenced
+ * more than once are copied once. Objects of classes that customize serialization, and of Java runtime classes other
+ * than common collections, are copied using {@link SerializableObjectCopier}. When the runtime does not allow creating instances
+ * without constructors all objects are copied using {@link SerializableObjectCopier}.
+ */
+public class StructuralObjectCopier
+{
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, Class.class));
+
+    private static final Map<Class<?>, ClassCopier> COPIERS = new ConcurrentHashMap<Class<?>, ClassCopier>();
+
+    private static final boolean ENABLED;
+
+    static
+    {
+        boolean enabled = false;
+        try
+        {
+            Thread.currentThread().getContextClassLoader().loadClass("sun.reflect.ReflectionFactory");
+            enabled = true;
+        }
+        catch (Throwable t)
+        {
+            // copies use serialization
+        }
+        ENABLED = enabled;
+    }
+
+    /**
+     * Deep copies the input object.
+     * @param orig is the object to be copied, must be serializable
+     * @return copied object
+     * @throws IOException if the object or an object it references is not serializable
+     * @throws ClassNotFoundException if the de-serialize of an object copied using serialization fails
+     */
+    public static Object copy(Object orig) throws IOException, ClassNotFoundException
+    {
+        if (!ENABLED)
+        {
+            return SerializableObjectCopier.copy(orig);
+        }
+        return copy(orig, new IdentityHashMap<Object, Object>());
+    }
+
+    private static Object copy(Object orig, IdentityHashMap<Object, Object> copies) throws IOException, ClassNotFoundException
+    {
+        if (orig == null)
+        {
+            return null;
+        }
+        Class<?> clazz = orig.getClass();
+        if (IMMUTABLE_CLASSES.contains(clazz) || orig instanceof Enum)
+        {
+            return orig;
+        }
+        Object existing = copies.get(orig);
+        if (existing != null)
+        {
+            return existing;
+        }
+
+        if (clazz.isArray())
+        {
+            return copyArray(orig, clazz.getComponentType(), copies);
+        }
+        if (clazz == ArrayList.class)
+        {
+            return copyCollection((Collection<?>) orig, new ArrayList<Object>(((Collection<?>) orig).size()), copies);
+        }
+        if (clazz == LinkedList.class)
+        {
+            return copyCollection((Collection<?>) orig, new LinkedList<Object>(), copies);
+        }
+        if (clazz == HashSet.class)
+        {
+            return copyCollection((Collection<?>) orig, new HashSet<Object>(), copies);
+        }
+        if (clazz == LinkedHashSet.class)
+        {
+            return copyCollection((Collection<?>) orig, new LinkedHashSet<Object>(), copies);
+        }
+        if (clazz == TreeSet.class)
+        {
+            Comparator<Object> comparator = toComparator(copy(((TreeSet<?>) orig).comparator(), copies));
+            return copyCollection((Collection<?>) orig, new TreeSet<Object>(comparator), copies);
+        }
+        if (clazz == HashMap.class)
+        {
+            return copyMap((Map<?, ?>) orig, new HashMap<Object, Object>(), copies);
+        }
+        if (clazz == LinkedHashMap.class)
+        {
+            return copyMap((Map<?, ?>) orig, new LinkedHashMap<Object, Object>(), copies);
+        }
+        if (clazz == TreeMap.class)
+        {
+            Comparator<Object> comparator = toComparator(copy(((TreeMap<?, ?>) orig).comparator(), copies));
+            return copyMap((Map<?, ?>) orig, new TreeMap<Object, Object>(comparator), copies);
+        }
+        if (clazz == Properties.class && !hasDefaults((Properties) orig))
+        {
+            return copyMap((Map<?, ?>) orig, new Properties(), copies);
+        }
+
+        ClassCopier copier = getCopier(clazz);
+        if (copier.fields == null)
+        {
+            Object copy = SerializableObjectCopier.copy(orig);
+            copies.put(orig, copy);
+            return copy;
+        }
+
+        Object copy;
+        try
+        {
+            copy = copier.constructor.newInstance();
+        }
+        catch (Exception ex)
+        {
+            throw new InvalidClassException(clazz.getName(), "Failed to instantiate: " + ex.getMessage());
+        }
+        copies.put(orig, copy);
+        try
+        {
+            for (Field field : copier.fields)
+            {
+                if (field.getType().isPrimitive())
+                {
+                    field.set(copy, field.get(orig));
+                }
+                else
+                {
+                    field.set(copy, copy(field.get(orig), copies));
+                }
+            }
+        }
+        catch (IllegalAccessException ex)
+        {
+            throw new InvalidClassException(clazz.getName(), "Failed to access field: " + ex.getMessage());
+        }
+        return copy;
+    }
+
+    private static Object copyArray(Object orig, Class<?> componentType, IdentityHashMap<Object, Object> copies) throws IOException, ClassNotFoundException
+    {
+        int length = Array.getLength(orig);
+        Object copy = Array.newInstance(componentType, length);
+        copies.put(orig, copy);
+        if (componentType.isPrimitive())
+        {
+            System.arraycopy(orig, 0, copy, 0, length);
+            return copy;
+        }
+        Object[] source = (Object[]) orig;
+        Object[] target = (Object[]) copy;
+        for (int i = 0; i < length; i++)
+        {
+            target[i] = copy(source[i], copies);
+        }
+        return copy;
+    }
+
+    private static Object copyCollection(Collection<?> orig, Collection<Object> copy, IdentityHashMap<Object, Object> copies) throws IOException, ClassNotFoundException
+    {
+        copies.put(orig, copy);
+        for (Object item : orig)
+        {
+            copy.add(copy(item, copies));
+        }
+        return copy;
+    }
+
+    private static Object copyMap(Map<?, ?> orig, Map<Object, Object> copy, IdentityHashMap<Object, Object> copies) throws IOException, ClassNotFoundException
+    {
+        copies.put(orig, copy);
+        for (Map.Entry<?, ?> entry : orig.entrySet())
+        {
+            copy.put(copy(entry.getKey(), copies), copy(entry.getValue(), copies));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> toComparator(Object comparator)
+    {
+        // the copied comparator compares the copied elements, as the original compares the original elements
+        return (Comparator<Object>) comparator;
+    }
+
+    private static boolean hasDefaults(Properties properties)
+    {
+        int count = 0;
+        for (Enumeration names = properties.propertyNames(); names.hasMoreElements(); names.nextElement())
+        {
+            count++;
+        }
+        return count != properties.size();
+    }
+
+    private static ClassCopier getCopier(Class<?> clazz) throws IOException
+    {
+        ClassCopier copier = COPIERS.get(clazz);
+        if (copier == null)
+        {
+            copier = makeCopier(clazz);
+            COPIERS.put(clazz, copier);
+        }
+        return copier;
+    }
+
+    private static ClassCopier makeCopier(Class<?> clazz) throws IOException
+    {
+        if (!Serializable.class.isAssignableFrom(clazz))
+        {
+            throw new NotSerializableException(clazz.getName());
+        }
+        if (Externalizable.class.isAssignableFrom(clazz) || Proxy.isProxyClass(clazz) || isRuntimeClass(clazz) ||
+            hasInheritableMethod(clazz, "writeReplace") || hasInheritableMethod(clazz, "readResolve"))
+        {
+            return new ClassCopier(null, null);
+        }
+
+        // serializable classes are copied field-by-field, the first non-serializable superclass is constructed
+        List<Field> fields = new ArrayList<Field>();
+        Class<?> current = clazz;
+        for (; current != null && Serializable.class.isAssignableFrom(current); current = current.getSuperclass())
+        {
+            if (isRuntimeClass(current) || hasCustomSerialization(current))
+            {
+                return new ClassCopier(null, null);
+            }
+            for (Field field : current.getDeclaredFields())
+            {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+                {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+
+        Constructor<?> constructor;
+        try
+        {
+            constructor = OnDemandSunReflectionFactory.getConstructor(clazz, toObjectConstructor(current.getDeclaredConstructor()));
+        }
+        catch (NoSuchMethodException ex)
+        {
+            throw new InvalidClassException(clazz.getName(), "no valid constructor");
+        }
+        constructor.setAccessible(true);
+        return new ClassCopier(constructor, fields.toArray(new Field[fields.size()]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Constructor<Object> toObjectConstructor(Constructor<?> constructor)
+    {
+        // the reflection factory takes the superclass constructor as a constructor of Object
+        return (Constructor<Object>) constructor;
+    }
+
+    private static boolean isRuntimeClass(Class<?> clazz)
+    {
+        String name = clazz.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private static boolean hasCustomSerialization(Class<?> clazz)
+    {
+        for (Method method : clazz.getDeclaredMethods())
+        {
+            String name = method.getName();
+            if ((name.equals("writeObject") || name.equals("readObject") || name.equals("readObjectNoData")) && Modifier.isPrivate(method.getModifiers()))
+            {
+                return true;
+            }
+        }
+        try
+        {
+            clazz.getDeclaredField("serialPersistentFields");
+            return true;
+        }
+        catch (NoSuchFieldException ex)
+        {
+            return false;
+        }
+    }
+
+    private static boolean hasInheritableMethod(Class<?> clazz, String name)
+    {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass())
+        {
+            try
+            {
+                Method method = current.getDeclaredMethod(name);
+                return method.getReturnType() == Object.class && !Modifier.isStatic(method.getModifiers()) &&
+                       (current == clazz || !Modifier.isPrivate(method.getModifiers()));
+            }
+            catch (NoSuchMethodException ex)
+            {
+                // continue with superclass
+            }
+        }
+        return false;
+    }
+
+    private static class ClassCopier
+    {
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+
+        private ClassCopier(Constructor<?> constructor, Field[] fields)
+        {
+            this.constructor = constructor;
+            this.fields = fields;
+        }
+    }
+}
@@ -13,4 +13,17 @@ package com.espertech.esper.util;
 
 public class Version {
     public static final String VERSION = "6.0.0";
+
+    /**
+     * Returns the engine version followed by the implementation version of the engine package, if the jar manifest provides one,
+     * for identifying the build that wrote persisted engine-internal state.
+     * @return build version
+     */
+    public static String getBuildVersion() {
+        String implementationVersion = Version.class.getPackage() == null ? null : Version.class.getPackage().getImplementationVersion();
+        if (implementationVersion == null || implementationVersion.equals(VERSION)) {
+            return VERSION;
+        }
+        return VERSION + "/" + implementationVersion;
+    }
 }
@@ -83,6 +83,11 @@ public enum ViewEnum
      */
     KEEPALL_WINDOW("win", "keepall", KeepAllViewFactory.class, null),
 
+    /**
+     * Keep-all data window storing object-array events off-heap.
+     */
+    KEEPALL_OFFHEAP_WINDOW("win", "keepall_offheap", KeepAllOffHeapViewFactory.class, null),
+
     /**
      * Size view.
      */
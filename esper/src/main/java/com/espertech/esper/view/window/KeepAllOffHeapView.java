@@ -0,0 +1,190 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.window;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.ViewUpdatedCollection;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapEventBean;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapStore;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.view.*;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Keep-all data window for object-array events that keeps the property values outside of the Java heap
+ * in a {@link ObjectArrayOffHeapStore}.
+ * <p>
+ * Events entering the window are stored off-heap and replaced by flyweight events that read from the store,
+ * which are the events posted to child views and held by any indexes. Removed events are detached from
+ * the store, i.e. copied back onto the heap, before their row is freed.
+ * Iteration follows the order of store slots, as slots of removed events get reused.
+ */
+public class KeepAllOffHeapView extends ViewSupport implements DataWindowView, CloneableView
+{
+    private final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
+    private final KeepAllOffHeapViewFactory factory;
+    private final ViewUpdatedCollection viewUpdatedCollection;
+    private final ObjectArrayOffHeapStore store;
+    private ObjectArrayOffHeapEventBean[] events = new ObjectArrayOffHeapEventBean[16];
+    private int maxSlot = -1;
+
+    public KeepAllOffHeapView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext, KeepAllOffHeapViewFactory factory, ViewUpdatedCollection viewUpdatedCollection)
+    {
+        this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
+        this.factory = factory;
+        this.viewUpdatedCollection = viewUpdatedCollection;
+        this.store = new ObjectArrayOffHeapStore((ObjectArrayEventType) factory.getEventType());
+    }
+
+    public ViewFactory getViewFactory() {
+        return factory;
+    }
+
+    public View cloneView()
+    {
+        return factory.makeView(agentInstanceViewFactoryContext);
+    }
+
+    /**
+     * Returns true if the window is empty, or false if not empty.
+     * @return true if empty
+     */
+    public boolean isEmpty()
+    {
+        return store.getNumRows() == 0;
+    }
+
+    /**
+     * Returns the off-heap row store.
+     * @return store
+     */
+    public ObjectArrayOffHeapStore getStore() {
+        return store;
+    }
+
+    public final EventType getEventType()
+    {
+        // The event type is the parent view's event type
+        return parent.getEventType();
+    }
+
+    public final void update(EventBean[] newData, EventBean[] oldData)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewProcessIRStream(this, factory.getViewName(), newData, oldData);}
+
+        EventBean[] postNewData = null;
+        if (newData != null)
+        {
+            postNewData = new EventBean[newData.length];
+            for (int i = 0; i < newData.length; i++) {
+                postNewData[i] = add(newData[i]);
+            }
+        }
+
+        if (oldData != null)
+        {
+            for (EventBean anOldData : oldData)
+            {
+                remove(anOldData);
+            }
+        }
+
+        // update event buffer for access by expressions, if any
+        if (viewUpdatedCollection != null)
+        {
+            viewUpdatedCollection.update(postNewData, oldData);
+        }
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewIndicate(this, factory.getViewName(), postNewData, oldData);}
+        updateChildren(postNewData, oldData);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewIndicate();}
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewProcessIRStream();}
+    }
+
+    public final Iterator<EventBean> iterator()
+    {
+        return new SlotIterator();
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor) {
+        viewDataVisitor.visitPrimary(new AbstractCollection<EventBean>() {
+            public Iterator<EventBean> iterator() {
+                return KeepAllOffHeapView.this.iterator();
+            }
+
+            public int size() {
+                return store.getNumRows();
+            }
+        }, true, factory.getViewName(), null);
+    }
+
+    private EventBean add(EventBean theEvent) {
+        int slot = store.add((Object[]) theEvent.getUnderlying());
+        ObjectArrayOffHeapEventBean flyweight = new ObjectArrayOffHeapEventBean(theEvent.getEventType(), store, slot);
+        if (slot >= events.length) {
+            ObjectArrayOffHeapEventBean[] grown = new ObjectArrayOffHeapEventBean[Math.max(events.length * 2, slot + 1)];
+            System.arraycopy(events, 0, grown, 0, events.length);
+            events = grown;
+        }
+        events[slot] = flyweight;
+        if (slot > maxSlot) {
+            maxSlot = slot;
+        }
+        return flyweight;
+    }
+
+    private void remove(EventBean theEvent) {
+        if (!(theEvent instanceof ObjectArrayOffHeapEventBean)) {
+            return;
+        }
+        ObjectArrayOffHeapEventBean flyweight = (ObjectArrayOffHeapEventBean) theEvent;
+        int slot = flyweight.getSlot();
+        if (slot > maxSlot || events[slot] != flyweight) {
+            return;
+        }
+        events[slot] = null;
+        flyweight.detach();
+    }
+
+    private class SlotIterator implements Iterator<EventBean>
+    {
+        private int next = advance(0);
+
+        public boolean hasNext() {
+            return next <= maxSlot;
+        }
+
+        public EventBean next() {
+            if (next > maxSlot) {
+                throw new NoSuchElementException();
+            }
+            EventBean result = events[next];
+            next = advance(next + 1);
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private int advance(int from) {
+            while (from <= maxSlot && events[from] == null) {
+                from++;
+            }
+            return from;
+        }
+    }
+}
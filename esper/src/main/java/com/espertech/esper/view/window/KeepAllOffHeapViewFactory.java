@@ -0,0 +1,80 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.window;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.ViewUpdatedCollection;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapStore;
+import com.espertech.esper.view.*;
+
+import java.util.List;
+
+/**
+ * Factory for {@link com.espertech.esper.view.window.KeepAllOffHeapView}.
+ */
+public class KeepAllOffHeapViewFactory implements DataWindowViewFactory, DataWindowViewWithPrevious
+{
+    private EventType eventType;
+
+    public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
+    {
+        List<Object> viewParameters = ViewFactorySupport.validateAndEvaluate(getViewName(), viewFactoryContext.getStatementContext(), expressionParameters);
+        if (viewParameters.size() != 0)
+        {
+            String errorMessage = getViewName() + " view requires an empty parameter list";
+            throw new ViewParameterException(errorMessage);
+        }
+    }
+
+    public void attach(EventType parentEventType, StatementContext statementContext, ViewFactory optionalParentFactory, List<ViewFactory> parentViewFactories) throws ViewParameterException
+    {
+        if (!(parentEventType instanceof ObjectArrayEventType)) {
+            throw new ViewParameterException(getViewName() + " view requires an object-array event type");
+        }
+        String message = ObjectArrayOffHeapStore.checkSupported((ObjectArrayEventType) parentEventType);
+        if (message != null) {
+            throw new ViewParameterException(getViewName() + " view cannot store the event type: " + message);
+        }
+        this.eventType = parentEventType;
+    }
+
+    public Object makePreviousGetter() {
+        return new RandomAccessByIndexGetter();
+    }
+
+    public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
+    {
+        ViewUpdatedCollection randomAccess = agentInstanceViewFactoryContext.getStatementContext().getViewServicePreviousFactory().getOptPreviousExprRandomAccess(agentInstanceViewFactoryContext);
+        return new KeepAllOffHeapView(agentInstanceViewFactoryContext, this, randomAccess);
+    }
+
+    public EventType getEventType()
+    {
+        return eventType;
+    }
+
+    public boolean canReuse(View view)
+    {
+        if (!(view instanceof KeepAllOffHeapView))
+        {
+            return false;
+        }
+
+        KeepAllOffHeapView myView = (KeepAllOffHeapView) view;
+        return myView.isEmpty();
+    }
+
+    public String getViewName() {
+        return "Keep-All-Off-Heap";
+    }
+}
@@ -10,7 +10,7 @@ package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.TimeWindow;
+import com.espertech.esper.collection.RingBufferTimeWindow;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
@@ -22,7 +22,6 @@ import com.espertech.esper.schedule.ScheduleHandleCallback;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -40,7 +39,7 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
 {
     private final TimeWindowViewFactory timeWindowViewFactory;
     private final ExprTimePeriodEvalDeltaConst timeDeltaComputation;
-    protected final TimeWindow timeWindow;
+    protected final RingBufferTimeWindow timeWindow;
     private final ViewUpdatedCollection viewUpdatedCollection;
     protected final AgentInstanceViewFactoryChainContext agentInstanceContext;
     private final long scheduleSlot;
@@ -61,7 +60,7 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
         this.timeDeltaComputation = timeDeltaComputation;
         this.viewUpdatedCollection = viewUpdatedCollection;
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
-        this.timeWindow = new TimeWindow(agentInstanceContext.isRemoveStream());
+        this.timeWindow = new RingBufferTimeWindow(agentInstanceContext.isRemoveStream());
 
         ScheduleHandleCallback callback = new ScheduleHandleCallback() {
             public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext)
@@ -160,14 +159,13 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
 
         // Remove from the timeWindow any events that have an older or timestamp then the given timestamp
         // The window extends from X to (X - millisecondsBeforeExpiry + 1)
-        ArrayDeque<EventBean> expired = timeWindow.expireEvents(expireBeforeTimestamp);
+        EventBean[] oldEvents = timeWindow.expireEvents(expireBeforeTimestamp);
 
         // If there are child views, fireStatementStopped update method
         if (this.hasViews())
         {
-            if ((expired != null) && (!expired.isEmpty()))
+            if (oldEvents != null)
             {
-                EventBean[] oldEvents = expired.toArray(new EventBean[expired.size()]);
                 if (viewUpdatedCollection != null)
                 {
                     viewUpdatedCollection.update(null, oldEvents);
@@ -187,7 +185,7 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
         {
             return;
         }
-        Long oldestTimestamp = timeWindow.getOldestTimestamp();
+        long oldestTimestamp = timeWindow.getOldestTimestamp();
         long currentTimestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
         long scheduleMillisec = timeDeltaComputation.deltaMillisecondsAdd(oldestTimestamp) + oldestTimestamp - currentTimestamp;
         scheduleCallback(scheduleMillisec);
@@ -65,6 +65,18 @@ public class TestConfigurationParser extends TestCase
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolFireAndForget());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetNumThreads());
+        assertEquals(10000, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetMinRows());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolOutputLimit());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getEngineDefaults().getThreading().getThreadPoolOutputLimitNumThreads());
+        assertEquals(10000, config.getEngineDefaults().getThreading().getThreadPoolOutputLimitMinGroups());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolContextPartition());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getEngineDefaults().getThreading().getThreadPoolContextPartitionNumThreads());
+        assertNull(config.getEngineDefaults().getThreading().getThreadPoolContextPartitionCapacity());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolQueue.BLOCKINGQUEUE, config.getEngineDefaults().getThreading().getThreadPoolQueue());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, config.getEngineDefaults().getThreading().getThreadPoolRingBufferWaitStrategy());
+        assertEquals(64, config.getEngineDefaults().getThreading().getThreadPoolRingBufferBatchSize());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
@@ -96,6 +108,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
@@ -106,12 +119,22 @@ public class TestConfigurationParser extends TestCase
         assertTrue(config.getEngineDefaults().getExpression().isUdfCache());
         assertTrue(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertFalse(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertFalse(config.getEngineDefaults().getExpression().isCodeGeneration());
         assertNull(config.getEngineDefaults().getExpression().getMathContext());
         assertEquals(TimeZone.getDefault(), config.getEngineDefaults().getExpression().getTimeZone());
         assertNull(config.getEngineDefaults().getExceptionHandling().getHandlerFactories());
         assertEquals(ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy.WARN, config.getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy());
         assertNull(config.getEngineDefaults().getConditionHandling().getHandlerFactories());
         assertEquals("js", config.getEngineDefaults().getScripts().getDefaultDialect());
+        assertFalse(config.getEngineDefaults().getJournal().isEnabled());
+        assertNull(config.getEngineDefaults().getJournal().getDirectory());
+        assertEquals(64 * 1024 * 1024, config.getEngineDefaults().getJournal().getSegmentSizeBytes());
+        assertEquals(1024, config.getEngineDefaults().getJournal().getSyncEvents());
+        assertEquals(100, config.getEngineDefaults().getJournal().getSyncIntervalMsec());
+        assertFalse(config.getEngineDefaults().getCompileCache().isEnabled());
+        assertNull(config.getEngineDefaults().getCompileCache().getDirectory());
+        assertEquals(10000, config.getEngineDefaults().getCompileCache().getMaxEntries());
+        assertEquals(0, config.getEngineDefaults().getCompileCache().getDeployThreads());
 
         ConfigurationEventTypeXMLDOM domType = new ConfigurationEventTypeXMLDOM();
         assertFalse(domType.isXPathPropertyExpr());
@@ -261,6 +284,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(60.5, expCache.getMaxAgeSeconds());
         assertEquals(120.1, expCache.getPurgeIntervalSeconds());
         assertEquals(ConfigurationCacheReferenceType.HARD, expCache.getCacheReferenceType());
+        assertEquals(0.0, expCache.getRefreshAheadSeconds());
         assertEquals(ConfigurationDBRef.ColumnChangeCaseEnum.UPPERCASE, configDBRef.getColumnChangeCase());
         assertEquals(ConfigurationDBRef.MetadataOriginEnum.METADATA, configDBRef.getMetadataRetrievalEnum());
         assertEquals(1, configDBRef.getSqlTypesMapping().size());
@@ -397,6 +421,18 @@ public class TestConfigurationParser extends TestCase
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolFireAndForget());
+        assertEquals(5, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetNumThreads());
+        assertEquals(2500, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetMinRows());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolOutputLimit());
+        assertEquals(3, config.getEngineDefaults().getThreading().getThreadPoolOutputLimitNumThreads());
+        assertEquals(500, config.getEngineDefaults().getThreading().getThreadPoolOutputLimitMinGroups());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolContextPartition());
+        assertEquals(6, config.getEngineDefaults().getThreading().getThreadPoolContextPartitionNumThreads());
+        assertEquals(3000, (int) config.getEngineDefaults().getThreading().getThreadPoolContextPartitionCapacity());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolQueue.RINGBUFFER, config.getEngineDefaults().getThreading().getThreadPoolQueue());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD, config.getEngineDefaults().getThreading().getThreadPoolRingBufferWaitStrategy());
+        assertEquals(32, config.getEngineDefaults().getThreading().getThreadPoolRingBufferBatchSize());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -427,6 +463,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
@@ -460,6 +497,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(config.getEngineDefaults().getExpression().isUdfCache());
         assertFalse(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertTrue(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertTrue(config.getEngineDefaults().getExpression().isCodeGeneration());
         assertEquals(2, config.getEngineDefaults().getExpression().getMathContext().getPrecision());
         assertEquals(RoundingMode.CEILING, config.getEngineDefaults().getExpression().getMathContext().getRoundingMode());
         assertEquals(TimeZone.getTimeZone("GMT-4:00"), config.getEngineDefaults().getExpression().getTimeZone());
@@ -471,6 +509,15 @@ public class TestConfigurationParser extends TestCase
         assertEquals("my.company.cep.LoggingConditionHandlerFactory", config.getEngineDefaults().getConditionHandling().getHandlerFactories().get(0));
         assertEquals("my.company.cep.AlertConditionHandlerFactory", config.getEngineDefaults().getConditionHandling().getHandlerFactories().get(1));
         assertEquals("abc", config.getEngineDefaults().getScripts().getDefaultDialect());
+        assertTrue(config.getEngineDefaults().getJournal().isEnabled());
+        assertEquals("/var/esper/journal", config.getEngineDefaults().getJournal().getDirectory());
+        assertEquals(1048576, config.getEngineDefaults().getJournal().getSegmentSizeBytes());
+        assertEquals(100, config.getEngineDefaults().getJournal().getSyncEvents());
+        assertEquals(50, config.getEngineDefaults().getJournal().getSyncIntervalMsec());
+        assertTrue(config.getEngineDefaults().getCompileCache().isEnabled());
+        assertEquals("/var/esper/compiled", config.getEngineDefaults().getCompileCache().getDirectory());
+        assertEquals(500, config.getEngineDefaults().getCompileCache().getMaxEntries());
+        assertEquals(4, config.getEngineDefaults().getCompileCache().getDeployThreads());
 
         // variables
         assertEquals(3, config.getVariables().size());
@@ -492,6 +539,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(91.0, expCache.getMaxAgeSeconds());
         assertEquals(92.2, expCache.getPurgeIntervalSeconds());
         assertEquals(ConfigurationCacheReferenceType.WEAK, expCache.getCacheReferenceType());
+        assertEquals(30.0, expCache.getRefreshAheadSeconds());
 
         methodRef = config.getMethodInvocationReferences().get("def");
         lruCache = (ConfigurationLRUCache) methodRef.getDataCacheDesc();
@@ -0,0 +1,102 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestLongKeyHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        LongKeyHashMap<String> map = new LongKeyHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(-1, "b"));
+        assertNull(map.put(Long.MIN_VALUE, "c"));
+        assertEquals("a", map.put(1, "d"));
+        assertEquals(3, map.size());
+        assertEquals("d", map.get(1));
+        assertEquals("b", map.get(-1));
+        assertEquals("c", map.get(Long.MIN_VALUE));
+
+        assertEquals("b", map.remove(-1));
+        assertNull(map.remove(-1));
+        assertNull(map.get(-1));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+
+        try {
+            map.put(1, null);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testCompareToHashMap()
+    {
+        Random random = new Random(1234);
+        LongKeyHashMap<Long> map = new LongKeyHashMap<Long>();
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+
+        for (int i = 0; i < 100000; i++) {
+            // keys that are multiples of a power of two and a narrow range exercise collisions and probe sequences
+            long key = (i % 2 == 0) ? random.nextInt(5000) : ((long) random.nextInt(500)) << 20;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                Long value = random.nextLong();
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            if (i % 1000 == 0) {
+                assertEquals(expected.size(), map.size());
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        List<Long> values = new ArrayList<Long>();
+        for (Iterator<Long> it = map.valueIterator(); it.hasNext();) {
+            values.add(it.next());
+        }
+        List<Long> expectedValues = new ArrayList<Long>(expected.values());
+        Collections.sort(values);
+        Collections.sort(expectedValues);
+        assertEquals(expectedValues, values);
+    }
+
+    public void testIteratorEmpty()
+    {
+        LongKeyHashMap<String> map = new LongKeyHashMap<String>();
+        Iterator<String> it = map.valueIterator();
+        assertFalse(it.hasNext());
+        try {
+            it.next();
+            fail();
+        }
+        catch (NoSuchElementException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestRingBufferTimeWindow extends TestCase
+{
+    private final RingBufferTimeWindow window = new RingBufferTimeWindow(false);
+    private final RingBufferTimeWindow windowRemovable = new RingBufferTimeWindow(true);
+    private final EventBean[] beans = new EventBean[6];
+
+    public void setUp()
+    {
+        for (int i = 0; i < beans.length; i++)
+        {
+            beans[i] = createBean();
+        }
+    }
+
+    public void testAdd()
+    {
+        assertTrue(window.isEmpty());
+
+        window.add(19, beans[0]);
+        assertEquals(19L, window.getOldestTimestamp());
+        assertFalse(window.isEmpty());
+        window.add(19, beans[1]);
+        window.add(20, beans[2]);
+        window.add(20, beans[3]);
+        window.add(21, beans[4]);
+        window.add(22, beans[5]);
+        assertEquals(19L, window.getOldestTimestamp());
+        assertEquals(6, window.size());
+        EPAssertionUtil.assertEqualsExactOrder(beans, window.iterator());
+
+        assertNull(window.expireEvents(19));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[0], beans[1]}, window.expireEvents(20));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[2], beans[3]}, window.expireEvents(21));
+        assertFalse(window.isEmpty());
+        assertEquals(21L, window.getOldestTimestamp());
+
+        window.adjust(10);
+        assertEquals(31L, window.getOldestTimestamp());
+        assertNull(window.expireEvents(31));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[4], beans[5]}, window.expireEvents(40));
+        assertTrue(window.isEmpty());
+        assertNull(window.expireEvents(50));
+        assertFalse(window.iterator().hasNext());
+
+        try
+        {
+            window.remove(beans[0]);
+            fail();
+        }
+        catch (UnsupportedOperationException ex)
+        {
+            // expected
+        }
+    }
+
+    public void testAddRemove()
+    {
+        windowRemovable.add(19, beans[0]);
+        windowRemovable.add(19, beans[1]);
+        windowRemovable.add(20, beans[2]);
+        windowRemovable.add(20, beans[3]);
+        assertNull(windowRemovable.getReverseIndex());
+
+        windowRemovable.remove(beans[0]);
+        assertEquals(3, windowRemovable.getReverseIndex().size());
+        assertEquals(19L, windowRemovable.getOldestTimestamp());
+        windowRemovable.add(21, beans[4]);
+        windowRemovable.add(22, beans[5]);
+        windowRemovable.remove(beans[4]);
+        windowRemovable.remove(beans[3]);
+        windowRemovable.remove(beans[3]);
+        assertEquals(3, windowRemovable.size());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[1], beans[2], beans[5]}, windowRemovable.iterator());
+
+        assertNull(windowRemovable.expireEvents(19));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[1]}, windowRemovable.expireEvents(20));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {beans[2]}, windowRemovable.expireEvents(21));
+        assertEquals(22L, windowRemovable.getOldestTimestamp());
+
+        windowRemovable.remove(beans[5]);
+        assertTrue(windowRemovable.isEmpty());
+        assertNull(windowRemovable.expireEvents(23));
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+    }
+
+    public void testGrowWrapped()
+    {
+        RingBufferTimeWindow ring = new RingBufferTimeWindow(true);
+        EventBean[] events = new EventBean[100];
+        for (int i = 0; i < events.length; i++)
+        {
+            events[i] = createBean();
+        }
+
+        // move the head into the ring before growing
+        for (int i = 0; i < 10; i++)
+        {
+            ring.add(i, events[i]);
+        }
+        assertEquals(10, ring.expireEvents(10).length);
+        for (int i = 10; i < 100; i++)
+        {
+            ring.add(i, events[i]);
+            if (i % 3 == 0)
+            {
+                ring.remove(events[i]);
+            }
+        }
+
+        EventBean[] expired = ring.expireEvents(50);
+        int count = 0;
+        for (int i = 10; i < 50; i++)
+        {
+            if (i % 3 != 0)
+            {
+                assertSame(events[i], expired[count++]);
+            }
+        }
+        assertEquals(count, expired.length);
+        assertEquals(50L, ring.getOldestTimestamp());
+
+        EventBean[] rest = ring.expireEvents(Long.MAX_VALUE);
+        assertEquals(100 - 50 - 17, rest.length);
+        assertTrue(ring.isEmpty());
+    }
+
+    private EventBean createBean()
+    {
+        return SupportEventBeanFactory.createObject(new SupportBean());
+    }
+}
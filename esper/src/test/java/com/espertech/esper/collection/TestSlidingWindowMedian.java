@@ -0,0 +1,97 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+public class TestSlidingWindowMedian extends TestCase
+{
+    public void testMedian()
+    {
+        SlidingWindowMedian window = new SlidingWindowMedian();
+        assertNull(window.getMedian());
+
+        window.add(10);
+        assertEquals(10d, window.getMedian());
+        window.add(20);
+        assertEquals(15d, window.getMedian());
+        window.add(10);
+        assertEquals(10d, window.getMedian());
+        window.add(30);
+        assertEquals(15d, window.getMedian());
+
+        assertTrue(window.removeOldest(10));
+        assertEquals(20d, window.getMedian());
+        assertTrue(window.removeOldest(20));
+        assertEquals(20d, window.getMedian());
+        assertTrue(window.removeOldest(10));
+        assertEquals(30d, window.getMedian());
+        assertTrue(window.removeOldest(30));
+        assertNull(window.getMedian());
+        assertEquals(0, window.size());
+    }
+
+    public void testRemoveNotOldest()
+    {
+        SlidingWindowMedian window = new SlidingWindowMedian();
+        assertFalse(window.removeOldest(1));
+        window.add(1);
+        window.add(2);
+        assertFalse(window.removeOldest(2));
+        assertEquals(2, window.size());
+        assertEquals(1.5d, window.getMedian());
+        assertEquals(1d, window.toArray()[0]);
+        assertEquals(2d, window.toArray()[1]);
+    }
+
+    public void testRandomAgainstSortedVector()
+    {
+        Random random = new Random(1);
+        SlidingWindowMedian window = new SlidingWindowMedian();
+        SortedDoubleVector reference = new SortedDoubleVector();
+        ArrayDeque<Double> values = new ArrayDeque<Double>();
+        for (int i = 0; i < 20000; i++) {
+            int limit = i < 10000 ? 500 : 20;
+            if (values.size() > 0 && (values.size() > limit || random.nextInt(3) == 0)) {
+                double value = values.removeFirst();
+                assertTrue(window.removeOldest(value));
+                reference.remove(value);
+            }
+            else {
+                double value = random.nextInt(100);
+                values.addLast(value);
+                window.add(value);
+                reference.add(value);
+            }
+            assertEquals(median(reference), window.getMedian());
+            assertEquals(values.size(), window.size());
+        }
+        window.clear();
+        assertNull(window.getMedian());
+        assertEquals(0, window.size());
+    }
+
+    private static Double median(SortedDoubleVector vector)
+    {
+        if (vector.size() == 0) {
+            return null;
+        }
+        int middle = vector.size() >> 1;
+        if (vector.size() % 2 == 0) {
+            return (vector.getValue(middle - 1) + vector.getValue(middle)) / 2;
+        }
+        return vector.getValue(middle);
+    }
+}
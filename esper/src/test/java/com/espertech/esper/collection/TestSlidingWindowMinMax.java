@@ -0,0 +1,99 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+public class TestSlidingWindowMinMax extends TestCase
+{
+    public void testMax()
+    {
+        SlidingWindowMinMax window = new SlidingWindowMinMax(true);
+        assertNull(window.getValue());
+
+        window.add(5);
+        window.add(3);
+        window.add(4);
+        assertEquals(5, window.getValue());
+        assertEquals(3, window.size());
+
+        assertTrue(window.removeOldest(5));
+        assertEquals(4, window.getValue());
+        window.add(1);
+        assertTrue(window.removeOldest(3));
+        assertEquals(4, window.getValue());
+        assertTrue(window.removeOldest(4));
+        assertEquals(1, window.getValue());
+        assertTrue(window.removeOldest(1));
+        assertNull(window.getValue());
+        assertEquals(0, window.size());
+    }
+
+    public void testMin()
+    {
+        SlidingWindowMinMax window = new SlidingWindowMinMax(false);
+        window.add("b");
+        window.add("a");
+        window.add("a");
+        window.add("c");
+        assertEquals("a", window.getValue());
+        assertTrue(window.removeOldest("b"));
+        assertTrue(window.removeOldest("a"));
+        assertEquals("a", window.getValue());
+        assertTrue(window.removeOldest("a"));
+        assertEquals("c", window.getValue());
+    }
+
+    public void testRemoveNotOldest()
+    {
+        SlidingWindowMinMax window = new SlidingWindowMinMax(true);
+        assertFalse(window.removeOldest(1));
+        window.add(1);
+        window.add(2);
+        assertFalse(window.removeOldest(2));
+        assertEquals(2, window.size());
+        assertEquals(2, window.getValue());
+        assertEquals(2, window.toArray().length);
+        assertEquals(1, window.toArray()[0]);
+    }
+
+    public void testRandomAgainstSortedSet()
+    {
+        Random random = new Random(1);
+        for (boolean isMax : new boolean[] {true, false}) {
+            SlidingWindowMinMax window = new SlidingWindowMinMax(isMax);
+            SortedRefCountedSet<Object> reference = new SortedRefCountedSet<Object>();
+            ArrayDeque<Integer> values = new ArrayDeque<Integer>();
+            for (int i = 0; i < 5000; i++) {
+                if (values.size() > 0 && (values.size() > 100 || random.nextInt(3) == 0)) {
+                    Integer value = values.removeFirst();
+                    assertTrue(window.removeOldest(value));
+                    reference.remove(value);
+                }
+                else {
+                    Integer value = random.nextInt(50);
+                    values.addLast(value);
+                    window.add(value);
+                    reference.add(value);
+                }
+                assertEquals(isMax ? reference.maxValue() : reference.minValue(), window.getValue());
+                assertEquals(values.size(), window.size());
+            }
+            window.clear();
+            assertNull(window.getValue());
+            assertEquals(0, window.size());
+        }
+    }
+}
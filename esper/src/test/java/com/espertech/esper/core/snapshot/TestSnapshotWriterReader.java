@@ -0,0 +1,99 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.snapshot;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.epl.agg.aggregator.AggregatorCount;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class TestSnapshotWriterReader extends TestCase
+{
+    public void testObjectFields() throws IOException
+    {
+        MyState state = new MyState();
+        state.count = 5;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SnapshotWriter(new DataOutputStream(bytes)).writeObject(state);
+
+        // the final field holding a value that cannot be captured keeps the value of the instance restored into
+        MyState restored = new MyState();
+        makeReader(bytes).readObjectInto(restored);
+        assertEquals(5, restored.count);
+        assertNotSame(state.config, restored.config);
+
+        AggregatorCount count = new AggregatorCount();
+        count.enter(1);
+        bytes = new ByteArrayOutputStream();
+        new SnapshotWriter(new DataOutputStream(bytes)).writeValue(count);
+        assertEquals(1L, ((AggregatorCount) makeReader(bytes).readValue()).getValue());
+    }
+
+    public void testUnsupportedValue() throws IOException
+    {
+        MyState state = new MyState();
+        state.pending = new Object();
+        try {
+            new SnapshotWriter(new DataOutputStream(new ByteArrayOutputStream())).writeObject(state);
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Snapshot cannot capture a value of class 'java.lang.Object' held by field 'pending' of class '" + MyState.class.getName() + "'", ex.getMessage());
+        }
+    }
+
+    public void testReadRestrictedClasses() throws IOException
+    {
+        // objects are only restored field-by-field for engine-internal classes
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SnapshotWriter(new DataOutputStream(bytes)).writeObject(new MyState());
+        try {
+            makeReader(bytes).readValue();
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Snapshot references class '" + MyState.class.getName() + "' that is not captured field-by-field", ex.getMessage());
+        }
+
+        bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(SnapshotSupport.TAG_COLLECTION);
+        byte[] className = "java.util.Vector".getBytes("UTF-8");
+        out.writeInt(className.length);
+        out.write(className);
+        out.writeInt(0);
+        try {
+            makeReader(bytes).readValue();
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Snapshot references collection class 'java.util.Vector' that is not supported", ex.getMessage());
+        }
+    }
+
+    private static SnapshotReader makeReader(ByteArrayOutputStream bytes)
+    {
+        return new SnapshotReader(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), null);
+    }
+
+    private static class MyState
+    {
+        private final Object config = new Object();
+        private int count;
+        private Object pending;
+    }
+}
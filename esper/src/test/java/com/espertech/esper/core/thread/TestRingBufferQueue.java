@@ -0,0 +1,174 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestRingBufferQueue extends TestCase
+{
+    public void testCapacityAndOrder()
+    {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(5, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK);
+        assertEquals(8, queue.getCapacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        for (int i = 0; i < 8; i++)
+        {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(8));
+        assertEquals(8, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals(0, (int) queue.peek());
+
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(3, queue.drainTo(drained, 3));
+        assertEquals("[0, 1, 2]", drained.toString());
+        assertEquals("[3, 4, 5, 6, 7]", queue.toString());
+
+        // wrap around the ring
+        for (int i = 8; i < 11; i++)
+        {
+            assertTrue(queue.offer(i));
+        }
+        Object[] batch = new Object[6];
+        assertEquals(6, queue.drainTo(batch));
+        assertEquals(3, batch[0]);
+        assertEquals(8, batch[5]);
+        assertEquals(9, (int) queue.poll());
+        assertEquals(10, (int) queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    public void testTimeout() throws Exception
+    {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(1, ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals(2, queue.getCapacity());
+        assertTrue(queue.offer(1, 10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        assertEquals(1, (int) queue.take());
+        assertEquals(2, (int) queue.take());
+    }
+
+    public void testMultiProducerMultiConsumer() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.WaitStrategy strategy : ConfigurationEngineDefaults.Threading.WaitStrategy.values())
+        {
+            tryMultiProducerMultiConsumer(strategy);
+        }
+    }
+
+    public void testExecutor() throws Exception
+    {
+        RingBufferQueue<Runnable> queue = new RingBufferQueue<Runnable>(16, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK);
+        RingBufferExecutor executor = new RingBufferExecutor(queue, 2, 4, new EngineThreadFactory("test", "RingBuffer", new ThreadGroup("test"), Thread.NORM_PRIORITY));
+        executor.start();
+
+        final int numUnits = 1000;
+        final CountDownLatch latch = new CountDownLatch(numUnits);
+        for (int i = 0; i < numUnits; i++)
+        {
+            queue.put(new Runnable()
+            {
+                public void run()
+                {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        executor.shutdown(10, TimeUnit.SECONDS);
+    }
+
+    private void tryMultiProducerMultiConsumer(ConfigurationEngineDefaults.Threading.WaitStrategy strategy) throws Exception
+    {
+        final RingBufferQueue<Long> queue = new RingBufferQueue<Long>(64, strategy);
+        final int numProducers = 3;
+        final int numConsumers = 3;
+        final int numPerProducer = 5000;
+        final AtomicLong sum = new AtomicLong();
+        final AtomicInteger count = new AtomicInteger();
+
+        Thread[] threads = new Thread[numProducers + numConsumers];
+        for (int i = 0; i < numProducers; i++)
+        {
+            threads[i] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for (long value = 1; value <= numPerProducer; value++)
+                        {
+                            queue.put(value);
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < numConsumers; i++)
+        {
+            threads[numProducers + i] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        while (count.get() < numProducers * numPerProducer)
+                        {
+                            Long value = queue.poll(10, TimeUnit.MILLISECONDS);
+                            if (value != null)
+                            {
+                                sum.addAndGet(value);
+                                count.incrementAndGet();
+                            }
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join(30000);
+        }
+
+        assertEquals(numProducers * numPerProducer, count.get());
+        assertEquals(numProducers * ((long) numPerProducer * (numPerProducer + 1) / 2), sum.get());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.core.support.SupportStatementContextFactory;
+import com.espertech.esper.epl.agg.service.*;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+import com.espertech.esper.supportunit.epl.SupportAggregatorFactory;
+import com.espertech.esper.supportunit.epl.SupportExprNode;
+import junit.framework.TestCase;
+
+public class TestAggregationServiceGroupByPrimitiveImpl extends TestCase
+{
+    private AggSvcGroupByNoAccessPrimitiveImpl service;
+    private MultiKeyUntyped groupOneKey;
+    private MultiKeyUntyped groupTwoKey;
+
+    public void setUp()
+    {
+        AggregationMethodFactory prototypes[] = new AggregationMethodFactory[3];
+        for (int i = 0; i < prototypes.length; i++)
+        {
+            prototypes[i] = new SupportAggregatorFactory();
+        }
+        ExprEvaluatorPrimitive primitive = new SupportPrimitiveEvaluator(2.5d);
+        ExprEvaluator evaluators[] = new ExprEvaluator[] { new SupportExprNode(5).getExprEvaluator(), primitive, new SupportExprNode(null, Integer.class).getExprEvaluator() };
+        AggregationPrimitiveColumn columns[] = new AggregationPrimitiveColumn[] {
+                new AggregationPrimitiveColumnSumLong(0, 0, true),
+                new AggregationPrimitiveColumnAvg(0, 2, AggregationPrimitiveColumn.InputKind.DOUBLE),
+                new AggregationPrimitiveColumnCount(1, 3, false)
+        };
+
+        service = new AggSvcGroupByNoAccessPrimitiveImpl(evaluators, prototypes, columns, new ExprEvaluatorPrimitive[] {null, primitive, null}, 1, 4);
+
+        groupOneKey = new MultiKeyUntyped(new Object[] {"x", "y1"});
+        groupTwoKey = new MultiKeyUntyped(new Object[] {"x", "y2"});
+    }
+
+    public void testGetValue()
+    {
+        ExprEvaluatorContext exprEvaluatorContext = SupportStatementContextFactory.makeEvaluatorContext();
+        service.setCurrentAccess(groupOneKey, -1, null);
+        assertNull(service.getValue(0, -1, null, true, null));
+        assertNull(service.getValue(1, -1, null, true, null));
+        assertEquals(0L, service.getValue(2, -1, null, true, null));
+
+        service.applyEnter(new EventBean[1], groupOneKey, exprEvaluatorContext);
+        service.applyEnter(new EventBean[1], groupOneKey, exprEvaluatorContext);
+        service.applyEnter(new EventBean[1], groupTwoKey, exprEvaluatorContext);
+
+        service.setCurrentAccess(groupOneKey, -1, null);
+        assertEquals(10, service.getValue(0, -1, null, true, null));
+        assertEquals(2.5d, service.getValue(1, -1, null, true, null));
+        assertEquals(2L, service.getValue(2, -1, null, true, null));
+        service.setCurrentAccess(groupTwoKey, -1, null);
+        assertEquals(5, service.getValue(0, -1, null, true, null));
+        assertEquals(1L, service.getValue(2, -1, null, true, null));
+
+        service.applyLeave(new EventBean[1], groupOneKey, exprEvaluatorContext);
+        service.setCurrentAccess(groupOneKey, -1, null);
+        assertEquals(5, service.getValue(0, -1, null, true, null));
+        assertEquals(2.5d, service.getValue(1, -1, null, true, null));
+        assertEquals(1L, service.getValue(2, -1, null, true, null));
+
+        service.applyLeave(new EventBean[1], groupTwoKey, exprEvaluatorContext);
+        service.setCurrentAccess(groupTwoKey, -1, null);
+        assertNull(service.getValue(0, -1, null, true, null));
+        assertNull(service.getValue(1, -1, null, true, null));
+        assertEquals(0L, service.getValue(2, -1, null, true, null));
+
+        assertEquals(2, service.getGroupKeys(exprEvaluatorContext).size());
+        service.clearResults(exprEvaluatorContext);
+        assertTrue(service.getGroupKeys(exprEvaluatorContext).isEmpty());
+    }
+
+    private static class SupportPrimitiveEvaluator implements ExprEvaluatorPrimitive
+    {
+        private final double value;
+
+        private SupportPrimitiveEvaluator(double value) {
+            this.value = value;
+        }
+
+        public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            throw new UnsupportedOperationException("Unexpected boxed evaluation");
+        }
+
+        public Class getType() {
+            return Double.class;
+        }
+
+        public boolean evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, double[] result) {
+            result[0] = value;
+            return true;
+        }
+
+        public boolean evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, long[] result) {
+            throw new UnsupportedOperationException("Unexpected long evaluation");
+        }
+    }
+}
@@ -29,4 +29,19 @@ public class TestAvgAggregator extends TestCase
         assertEquals(175d, agg.getValue());
     }
 
+    public void testMerge()
+    {
+        AggregatorAvg agg = new AggregatorAvg();
+        AggregatorAvg other = new AggregatorAvg();
+        agg.merge(other);
+        assertNull(agg.getValue());
+        agg.enter(100);
+        other.enter(200);
+        other.enter(300);
+        agg.merge(other);
+        assertEquals(200d, agg.getValue());
+        agg.leave(100);
+        assertEquals(250d, agg.getValue());
+    }
+
 }
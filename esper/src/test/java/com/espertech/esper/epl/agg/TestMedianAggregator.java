@@ -12,6 +12,7 @@
 package com.espertech.esper.epl.agg;
 
 import com.espertech.esper.epl.agg.aggregator.AggregatorMedian;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMedianSliding;
 import junit.framework.TestCase;
 
 public class TestMedianAggregator extends TestCase
@@ -34,6 +35,27 @@ public class TestMedianAggregator extends TestCase
         median.leave(20);
         assertEquals(null, median.getValue());
     }
-}
 
+    public void testAggregatorSliding()
+    {
+        AggregatorMedian median = new AggregatorMedianSliding();
+        assertEquals(null, median.getValue());
+        median.enter(10);
+        median.enter(null);
+        median.enter(20);
+        median.enter(10);
+        assertEquals(10D, median.getValue());
+        median.leave(10);
+        median.leave(null);
+        assertEquals(15D, median.getValue());
 
+        // values leaving out of order fall back to the sorted vector
+        median.enter(40);
+        median.leave(40);
+        assertEquals(15D, median.getValue());
+        median.leave(20);
+        assertEquals(10D, median.getValue());
+        median.leave(10);
+        assertEquals(null, median.getValue());
+    }
+}
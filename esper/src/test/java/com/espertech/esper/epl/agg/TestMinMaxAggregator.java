@@ -12,6 +12,8 @@
 package com.espertech.esper.epl.agg;
 
 import com.espertech.esper.epl.agg.aggregator.AggregatorMinMax;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMinMaxEver;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMinMaxSliding;
 import com.espertech.esper.type.MinMaxTypeEnum;
 import junit.framework.TestCase;
 
@@ -52,4 +54,48 @@ public class TestMinMaxAggregator extends TestCase
         agg.leave(10);
         assertEquals(null, agg.getValue());
     }
+
+    public void testAggregatorEverMerge()
+    {
+        for (MinMaxTypeEnum type : MinMaxTypeEnum.values()) {
+            AggregatorMinMaxEver agg = new AggregatorMinMaxEver(type);
+            AggregatorMinMaxEver other = new AggregatorMinMaxEver(type);
+            agg.merge(other);
+            assertEquals(null, agg.getValue());
+            other.enter(20);
+            agg.merge(other);
+            assertEquals(20, agg.getValue());
+            other.clear();
+            other.enter(10);
+            other.enter(30);
+            agg.merge(other);
+            assertEquals(type == MinMaxTypeEnum.MAX ? 30 : 10, agg.getValue());
+        }
+    }
+
+    public void testAggregatorSliding()
+    {
+        AggregatorMinMax agg = new AggregatorMinMaxSliding(MinMaxTypeEnum.MAX);
+        assertEquals(null, agg.getValue());
+        agg.enter(10);
+        agg.enter(null);
+        agg.enter(20);
+        agg.enter(10);
+        assertEquals(20, agg.getValue());
+        agg.leave(10);
+        agg.leave(null);
+        assertEquals(20, agg.getValue());
+        agg.leave(20);
+        assertEquals(10, agg.getValue());
+
+        // values leaving out of order fall back to the sorted set
+        agg.enter(30);
+        agg.enter(5);
+        agg.leave(30);
+        assertEquals(10, agg.getValue());
+        agg.leave(10);
+        assertEquals(5, agg.getValue());
+        agg.leave(5);
+        assertEquals(null, agg.getValue());
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestHyperLogLogState extends TestCase {
+
+    public void testEmptyAndSmall() {
+        HyperLogLogState state = new HyperLogLogState(14);
+        assertEquals(0, state.estimate());
+
+        for (int i = 0; i < 3; i++) {
+            state.add("a");
+            state.add("b");
+            state.add(10);
+            state.add(10L);
+        }
+        assertEquals(3, state.estimate());
+        assertTrue(state.isSparse());
+
+        state.clear();
+        assertEquals(0, state.estimate());
+    }
+
+    public void testAccuracy() {
+        for (int precision : new int[] {10, 14}) {
+            double standardError = 1.04 / Math.sqrt(1 << precision);
+            for (int cardinality : new int[] {100, 1000, 10000, 200000}) {
+                HyperLogLogState state = new HyperLogLogState(precision);
+                for (int i = 0; i < cardinality; i++) {
+                    state.add("user" + i);
+                    state.add("user" + (i / 2));
+                }
+                double error = Math.abs(state.estimate() - cardinality) / (double) cardinality;
+                assertTrue("precision " + precision + " cardinality " + cardinality + " estimate " + state.estimate(), error < 4 * standardError);
+            }
+        }
+    }
+
+    public void testSparseToDense() {
+        HyperLogLogState state = new HyperLogLogState(8);
+        for (int i = 0; i < 30; i++) {
+            state.add((long) i);
+        }
+        assertTrue(state.isSparse());
+        long sparseEstimate = state.estimate();
+        assertEquals(30, sparseEstimate);
+        for (int i = 0; i < 100000; i++) {
+            state.add((long) i);
+        }
+        assertFalse(state.isSparse());
+        assertTrue(Math.abs(state.estimate() - 100000) < 100000 * 4 * 1.04 / 16);
+    }
+
+    public void testMerge() {
+        Random random = new Random(1);
+        HyperLogLogState one = new HyperLogLogState(12);
+        HyperLogLogState two = new HyperLogLogState(12);
+        HyperLogLogState all = new HyperLogLogState(12);
+        for (int i = 0; i < 50000; i++) {
+            long value = random.nextInt(30000);
+            (i % 2 == 0 ? one : two).add(value);
+            all.add(value);
+        }
+
+        // dense into dense
+        HyperLogLogState merged = new HyperLogLogState(12);
+        merged.merge(one);
+        merged.merge(two);
+        assertEquals(all.estimate(), merged.estimate());
+
+        // sparse into sparse, and sparse into dense
+        HyperLogLogState small = new HyperLogLogState(12);
+        small.add("x");
+        small.add("y");
+        HyperLogLogState other = new HyperLogLogState(12);
+        other.add("y");
+        other.add("z");
+        other.merge(small);
+        assertEquals(3, other.estimate());
+        long before = one.estimate();
+        one.merge(small);
+        assertTrue(one.estimate() >= before);
+
+        try {
+            one.merge(new HyperLogLogState(13));
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testInvalidPrecision() {
+        try {
+            new HyperLogLogState(3);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Precision must be between 4 and 18 but received 3", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestTDigestState extends TestCase {
+
+    public void testEmptyAndSmall() {
+        TDigestState state = new TDigestState(100);
+        assertNull(state.quantile(0.5));
+
+        state.add(5);
+        assertEquals(5d, state.quantile(0.5));
+        assertEquals(5d, state.quantile(0));
+        assertEquals(5d, state.quantile(1));
+
+        state.add(1);
+        state.add(9);
+        assertEquals(1d, state.quantile(0));
+        assertEquals(9d, state.quantile(1));
+        assertEquals(5d, state.quantile(0.5));
+        assertEquals(3, state.size());
+
+        state.clear();
+        assertNull(state.quantile(0.5));
+    }
+
+    public void testAccuracy() {
+        Random random = new Random(1);
+        int size = 100000;
+        double[] values = new double[size];
+        TDigestState state = new TDigestState(100);
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextGaussian() * 100;
+            state.add(values[i]);
+        }
+        Arrays.sort(values);
+        assertTrue(state.getCentroidCount() < 300);
+        for (double quantile : new double[] {0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999}) {
+            double estimate = state.quantile(quantile);
+            double rank = rank(values, estimate) / (double) size;
+            assertEquals("quantile " + quantile, quantile, rank, Math.max(0.001, quantile * (1 - quantile) * 0.02));
+        }
+    }
+
+    public void testMerge() {
+        Random random = new Random(1);
+        TDigestState one = new TDigestState(100);
+        TDigestState two = new TDigestState(100);
+        double[] values = new double[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble();
+            (i % 2 == 0 ? one : two).add(values[i]);
+        }
+        one.merge(two);
+        assertEquals(values.length, one.size());
+        Arrays.sort(values);
+        assertEquals(values[0], one.quantile(0));
+        assertEquals(values[values.length - 1], one.quantile(1));
+        for (double quantile : new double[] {0.01, 0.5, 0.99}) {
+            assertEquals(quantile, rank(values, one.quantile(quantile)) / (double) values.length, 0.01);
+        }
+    }
+
+    private static int rank(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.collection.Pair;
+import junit.framework.TestCase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestConnectionCacheImpl extends TestCase
+{
+    private List<String> log;
+    private ConnectionCacheImpl cache;
+
+    public void setUp()
+    {
+        log = new ArrayList<String>();
+        final int[] count = new int[1];
+        DatabaseConnectionFactory factory = new DatabaseConnectionFactory() {
+            public Connection getConnection() throws DatabaseConfigException {
+                return (Connection) makeProxy(Connection.class, "C" + (count[0]++));
+            }
+        };
+        cache = new ConnectionCacheImpl(factory, "select 1");
+    }
+
+    public void testReuse()
+    {
+        Pair<Connection, PreparedStatement> first = cache.getConnection();
+        cache.doneWith(first);
+        assertEquals(1, cache.getNumIdle());
+        assertSame(first, cache.getConnection());
+        assertEquals(0, cache.getNumIdle());
+        cache.doneWith(first);
+
+        // concurrent use obtains a separate pair
+        Pair<Connection, PreparedStatement> one = cache.getConnection();
+        Pair<Connection, PreparedStatement> two = cache.getConnection();
+        assertSame(first, one);
+        assertNotSame(one, two);
+        assertNotSame(one.getFirst(), two.getFirst());
+        cache.doneWith(two);
+        cache.doneWith(one);
+        assertEquals(2, cache.getNumIdle());
+        assertTrue(log.isEmpty());
+
+        cache.destroy();
+        assertEquals(0, cache.getNumIdle());
+        assertEquals("[PreparedStatement:C1, Connection:C1, PreparedStatement:C0, Connection:C0]", log.toString());
+    }
+
+    public void testDoneAfterDestroy()
+    {
+        Pair<Connection, PreparedStatement> pair = cache.getConnection();
+        cache.destroy();
+        assertTrue(log.isEmpty());
+
+        cache.doneWith(pair);
+        assertEquals(0, cache.getNumIdle());
+        assertEquals("[PreparedStatement:C0, Connection:C0]", log.toString());
+    }
+
+    private Object makeProxy(final Class clazz, final String name)
+    {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {clazz}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("prepareStatement")) {
+                    return makeProxy(PreparedStatement.class, name);
+                }
+                if (method.getName().equals("close")) {
+                    log.add(clazz.getSimpleName() + ":" + name);
+                    return null;
+                }
+                if (method.getName().equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                return null;
+            }
+        });
+    }
+}
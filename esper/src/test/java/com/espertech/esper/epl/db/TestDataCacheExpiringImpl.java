@@ -19,6 +19,9 @@ import com.espertech.esper.schedule.SchedulingServiceImpl;
 import com.espertech.esper.timer.TimeSourceServiceImpl;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TestDataCacheExpiringImpl extends TestCase
 {
     private SupportSchedulingServiceImpl scheduler;
@@ -68,6 +71,34 @@ public class TestDataCacheExpiringImpl extends TestCase
         assertSame(lists[4], cache.getCached(make("e"))[0]);
     }
 
+    public void testRefreshAhead()
+    {
+        scheduler = new SupportSchedulingServiceImpl();
+        cache = new DataCacheExpiringImpl(10, 20, ConfigurationCacheReferenceType.HARD, scheduler, 1, null, 4);   // age 10 sec, purge 20 sec, refresh 4 sec ahead
+        final List<Object> refreshed = new ArrayList<Object>();
+        cache.setRefreshStrategy(new DataCacheRefreshStrategy() {
+            public EventTable[] refresh(Object[] lookupKeys) {
+                refreshed.add(lookupKeys[0]);
+                return new EventTable[] {lists[5]};
+            }
+        });
+        assertEquals(4000, cache.getRefreshAheadMSec());
+
+        scheduler.setTime(1000);
+        cache.put(make("a"), new EventTable[] {lists[0]});
+        cache.put(make("b"), new EventTable[] {lists[1]});
+        assertEquals(4000L, scheduler.getAdded().keySet().iterator().next().longValue());
+        assertSame(lists[0], cache.getCached(make("a"))[0]);
+
+        // only the entry looked up since loading is reloaded, once it is within 4 seconds of expiry
+        scheduler.setTime(7000);
+        cache.scheduledTrigger(null);
+        assertEquals("[a]", refreshed.toString());
+        scheduler.setTime(12000);
+        assertSame(lists[5], cache.getCached(make("a"))[0]);
+        assertNull(cache.getCached(make("b")));
+    }
+
     public void testGet()
     {
         scheduler = new SupportSchedulingServiceImpl();
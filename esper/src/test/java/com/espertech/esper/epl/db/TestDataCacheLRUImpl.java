@@ -57,6 +57,72 @@ public class TestDataCacheLRUImpl extends TestCase
         assertNull(cache.getCached(make("b")));
     }
 
+    public void testSegmented() throws Exception
+    {
+        assertEquals(1, cache.getNumSegments());
+
+        final DataCacheLRUImpl large = new DataCacheLRUImpl(10000);
+        assertEquals(16, large.getNumSegments());
+        assertEquals(10000, large.getCacheSize());
+
+        Thread[] threads = new Thread[4];
+        final boolean[] failed = new boolean[1];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int offset = t * 1000;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        large.put(new Object[] {offset + i}, new EventTable[] {lists[i % lists.length]});
+                        EventTable[] found = large.getCached(new Object[] {offset + i});
+                        if (found == null || found[0] != lists[i % lists.length]) {
+                            failed[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertFalse(failed[0]);
+        for (int i = 0; i < 4000; i++)
+        {
+            assertSame(lists[(i % 1000) % lists.length], large.getCached(new Object[] {i})[0]);
+        }
+
+        // evicts once a segment is full
+        for (int i = 4000; i < 40000; i++)
+        {
+            large.put(new Object[] {i}, new EventTable[] {lists[0]});
+        }
+        int count = 0;
+        for (int i = 0; i < 40000; i++)
+        {
+            if (large.getCached(new Object[] {i}) != null) {
+                count++;
+            }
+        }
+        assertTrue(count <= 10000 + 16);
+        assertTrue(count > 5000);
+    }
+
+    public void testNullKey()
+    {
+        DataCacheLRUImpl large = new DataCacheLRUImpl(10000);
+        for (DataCacheLRUImpl lru : new DataCacheLRUImpl[] {cache, large})
+        {
+            assertNull(lru.getCached(new Object[] {null}));
+            lru.put(new Object[] {null}, new EventTable[] {lists[0]});
+            assertSame(lists[0], lru.getCached(new Object[] {null})[0]);
+            lru.put(make("a"), new EventTable[] {lists[1]});
+            assertSame(lists[0], lru.getCached(new Object[] {null})[0]);
+            assertSame(lists[1], lru.getCached(make("a"))[0]);
+        }
+    }
+
     private Object[] make(String key)
     {
         return new Object[] {key};
@@ -0,0 +1,128 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.expression;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.codegen.CodegenExprCompiler;
+import com.espertech.esper.epl.expression.codegen.CodegenExprEvaluatorBase;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.ops.ExprAndNodeImpl;
+import com.espertech.esper.epl.expression.ops.ExprLikeNode;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.epl.expression.ops.ExprNotNode;
+import com.espertech.esper.epl.expression.ops.ExprRelationalOpNodeImpl;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.epl.SupportExprNodeFactory;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import junit.framework.TestCase;
+
+public class TestCodegenExprCompiler extends TestCase
+{
+    public void testCompileRelationalAnd() throws Exception
+    {
+        // intPrimitive > 5 and not (intBoxed * intPrimitive < 100)
+        ExprRelationalOpNodeImpl greater = new ExprRelationalOpNodeImpl(RelationalOpEnum.GT);
+        greater.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        greater.addChildNode(new ExprConstantNodeImpl(5));
+        ExprMathNode multiply = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        multiply.addChildNode(new ExprIdentNodeImpl("intBoxed", "s0"));
+        multiply.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        ExprRelationalOpNodeImpl less = new ExprRelationalOpNodeImpl(RelationalOpEnum.LT);
+        less.addChildNode(multiply);
+        less.addChildNode(new ExprConstantNodeImpl(100));
+        ExprNotNode not = new ExprNotNode();
+        not.addChildNode(less);
+        ExprAndNodeImpl and = new ExprAndNodeImpl();
+        and.addChildNode(greater);
+        and.addChildNode(not);
+        SupportExprNodeFactory.validate3Stream(and);
+
+        ExprEvaluator compiled = CodegenExprCompiler.compile(and, "s0");
+        assertTrue(compiled instanceof CodegenExprEvaluatorBase);
+        assertSame(and.getExprEvaluator(), ((CodegenExprEvaluatorBase) compiled).getInterpreted());
+        assertEquals(Boolean.class, compiled.getType());
+
+        assertEvaluate(and, compiled, 6, 20, true);
+        assertEvaluate(and, compiled, 6, 2, false);
+        assertEvaluate(and, compiled, 4, 100, false);
+        assertEvaluate(and, compiled, 6, null, null);
+        assertEvaluate(and, compiled, 4, null, false);
+    }
+
+    public void testCompileMath() throws Exception
+    {
+        ExprMathNode divide = new ExprMathNode(MathArithTypeEnum.DIVIDE, false, false);
+        divide.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        divide.addChildNode(new ExprIdentNodeImpl("intBoxed", "s0"));
+        SupportExprNodeFactory.validate3Stream(divide);
+
+        ExprEvaluator compiled = CodegenExprCompiler.compile(divide, "s0");
+        assertTrue(compiled instanceof CodegenExprEvaluatorBase);
+        assertEquals(Double.class, compiled.getType());
+
+        assertEvaluate(divide, compiled, 10, 4, 2.5d);
+        assertEvaluate(divide, compiled, 10, 0, Double.POSITIVE_INFINITY);
+        assertEvaluate(divide, compiled, 10, null, null);
+    }
+
+    public void testCompilePrimitive() throws Exception
+    {
+        ExprMathNode multiply = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        multiply.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        multiply.addChildNode(new ExprIdentNodeImpl("intBoxed", "s0"));
+        SupportExprNodeFactory.validate3Stream(multiply);
+
+        ExprEvaluator compiled = CodegenExprCompiler.compile(multiply, "s0");
+        assertTrue(compiled instanceof ExprEvaluatorPrimitive);
+        ExprEvaluatorPrimitive primitive = (ExprEvaluatorPrimitive) compiled;
+
+        long[] longResult = new long[1];
+        double[] doubleResult = new double[1];
+        assertTrue(primitive.evaluateLong(makeEvents(10, 4), true, null, longResult));
+        assertEquals(40L, longResult[0]);
+        assertTrue(primitive.evaluateDouble(makeEvents(10, 4), true, null, doubleResult));
+        assertEquals(40d, doubleResult[0]);
+        assertFalse(primitive.evaluateLong(makeEvents(10, null), true, null, longResult));
+        assertFalse(primitive.evaluateDouble(makeEvents(10, null), true, null, doubleResult));
+    }
+
+    public void testNotCompiled() throws Exception
+    {
+        ExprLikeNode like = new ExprLikeNode(false);
+        like.addChildNode(new ExprIdentNodeImpl("theString", "s0"));
+        like.addChildNode(new ExprConstantNodeImpl("E%"));
+        SupportExprNodeFactory.validate3Stream(like);
+
+        assertSame(like.getExprEvaluator(), CodegenExprCompiler.compile(like, "s0"));
+    }
+
+    private void assertEvaluate(ExprNode node, ExprEvaluator compiled, int intPrimitive, Integer intBoxed, Object expected)
+    {
+        EventBean[] events = makeEvents(intPrimitive, intBoxed);
+        assertEquals(expected, node.getExprEvaluator().evaluate(events, true, null));
+        assertEquals(expected, compiled.evaluate(events, true, null));
+    }
+
+    private EventBean[] makeEvents(int intPrimitive, Integer intBoxed)
+    {
+        SupportBean bean = new SupportBean();
+        bean.setIntPrimitive(intPrimitive);
+        bean.setIntBoxed(intBoxed);
+        return new EventBean[] {SupportEventBeanFactory.createObject(bean)};
+    }
+}
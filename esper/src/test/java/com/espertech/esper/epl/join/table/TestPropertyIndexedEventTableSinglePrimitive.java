@@ -0,0 +1,141 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.Set;
+
+public class TestPropertyIndexedEventTableSinglePrimitive extends TestCase
+{
+    private EventType eventType;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testNonUnique()
+    {
+        PropertyIndexedEventTableSingleFactory factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "intPrimitive", false, null);
+        PropertyIndexedEventTableSinglePrimitive index = (PropertyIndexedEventTableSinglePrimitive) factory.makeEventTables(null)[0];
+        assertTrue(index instanceof PropertyIndexedEventTableSinglePrimitiveUnadorned);
+        assertEquals(PropertyIndexedEventTableSingle.class, index.getProviderClass());
+
+        EventBean[] events = new EventBean[] {makeBean(1), makeBean(2), makeBean(1), makeBean(3), makeBean(1)};
+        index.add(events);
+        index.add(new EventBean[] {events[0]});
+        assertEquals(3, index.getNumKeys());
+
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[0], events[2], events[4]}, index.lookup(1).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[1]}, index.lookup(2).toArray());
+        assertNull(index.lookup(4));
+        assertNull(index.lookup(1L));
+        assertNull(index.lookup(null));
+        EPAssertionUtil.assertEqualsAnyOrder(events, EPAssertionUtil.iteratorToArray(index.iterator()));
+
+        index.remove(new EventBean[] {events[0], events[4], events[1], makeBean(3)});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[2]}, index.lookup(1).toArray());
+        assertNull(index.lookup(2));
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {events[2], events[3]}, EPAssertionUtil.iteratorToArray(index.iterator()));
+
+        index.remove(new EventBean[] {events[2], events[3]});
+        assertTrue(index.isEmpty());
+        assertFalse(index.iterator().hasNext());
+    }
+
+    public void testNullAndDouble()
+    {
+        PropertyIndexedEventTableSingleFactory factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "longBoxed", false, null);
+        PropertyIndexedEventTableSinglePrimitive index = (PropertyIndexedEventTableSinglePrimitive) factory.makeEventTables(null)[0];
+        EventBean eventNull = makeBeanLongBoxed(null);
+        EventBean eventOne = makeBeanLongBoxed(1L);
+        index.add(new EventBean[] {eventNull, eventOne});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {eventNull}, index.lookup(null).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {eventOne}, index.lookup(1L).toArray());
+        assertNull(index.lookup(1));
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {eventNull, eventOne}, EPAssertionUtil.iteratorToArray(index.iterator()));
+        index.remove(new EventBean[] {eventNull});
+        assertNull(index.lookup(null));
+        assertEquals(1, index.getNumKeys());
+
+        factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "doublePrimitive", false, null);
+        index = (PropertyIndexedEventTableSinglePrimitive) factory.makeEventTables(null)[0];
+        EventBean eventZero = makeBeanDouble(0d);
+        EventBean eventNegZero = makeBeanDouble(-0d);
+        EventBean eventNaN = makeBeanDouble(Double.NaN);
+        index.add(new EventBean[] {eventZero, eventNegZero, eventNaN});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {eventZero}, index.lookup(0d).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {eventNegZero}, index.lookup(-0d).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {eventNaN}, index.lookup(Double.NaN).toArray());
+    }
+
+    public void testUnique()
+    {
+        PropertyIndexedEventTableSingleFactory factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "intPrimitive", true, "idx");
+        PropertyIndexedEventTableSinglePrimitive index = (PropertyIndexedEventTableSinglePrimitive) factory.makeEventTables(null)[0];
+        assertTrue(index instanceof PropertyIndexedEventTableSinglePrimitiveUnique);
+        assertEquals(PropertyIndexedEventTableSingleUnique.class, index.getProviderClass());
+
+        EventBean[] events = new EventBean[] {makeBean(1), makeBean(2)};
+        index.add(events);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[1]}, index.lookup(2).toArray());
+        assertEquals(2, (int) index.getNumberOfEvents());
+
+        try {
+            index.add(new EventBean[] {makeBean(1)});
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Unique index violation, index 'idx' is a unique index and key '1' already exists", ex.getMessage());
+        }
+
+        EventBean replacement = makeBean(1);
+        index.addRemove(new EventBean[] {replacement}, new EventBean[] {events[0]});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {replacement}, index.lookup(1).toArray());
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {replacement, events[1]}, ((EventTableAsSet) index).allValues().toArray());
+    }
+
+    public void testNonNumeric()
+    {
+        PropertyIndexedEventTableSingleFactory factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "theString", false, null);
+        assertTrue(factory.makeEventTables(null)[0] instanceof PropertyIndexedEventTableSingleUnadorned);
+    }
+
+    private EventBean makeBean(int intPrimitive)
+    {
+        SupportBean bean = new SupportBean();
+        bean.setIntPrimitive(intPrimitive);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+
+    private EventBean makeBeanLongBoxed(Long longBoxed)
+    {
+        SupportBean bean = new SupportBean();
+        bean.setLongBoxed(longBoxed);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+
+    private EventBean makeBeanDouble(double doublePrimitive)
+    {
+        SupportBean bean = new SupportBean();
+        bean.setDoublePrimitive(doublePrimitive);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.metric;
+
+import junit.framework.TestCase;
+
+public class TestLatencyHistogram extends TestCase
+{
+    public void testBuckets()
+    {
+        for (int i = 0; i < 16; i++)
+        {
+            assertEquals(i, LatencyHistogram.getBucketIndex(i));
+            assertEquals(i, LatencyHistogram.getBucketHighestValue(i));
+        }
+        assertEquals(16, LatencyHistogram.getBucketIndex(16));
+        assertEquals(16, LatencyHistogram.getBucketIndex(17));
+        assertEquals(17, LatencyHistogram.getBucketIndex(18));
+        assertEquals(17, LatencyHistogram.getBucketHighestValue(16));
+        assertEquals(0, LatencyHistogram.getBucketIndex(-1));
+        assertEquals(LatencyHistogram.NUM_BUCKETS - 1, LatencyHistogram.getBucketIndex(Long.MAX_VALUE));
+
+        // each value falls into a bucket of at most 1/8 of its value in width
+        long previousHighest = -1;
+        for (int i = 0; i < LatencyHistogram.NUM_BUCKETS; i++)
+        {
+            long highest = LatencyHistogram.getBucketHighestValue(i);
+            assertEquals(i, LatencyHistogram.getBucketIndex(highest));
+            assertEquals(i, LatencyHistogram.getBucketIndex(previousHighest + 1));
+            assertTrue(highest - previousHighest <= Math.max(1, highest / 8));
+            previousHighest = highest;
+        }
+    }
+
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+        assertEquals(0, histogram.snapshot().getMaxValue());
+
+        for (int i = 1; i <= 1000; i++)
+        {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getTotalCount());
+        assertWithin(500000, snapshot.getValueAtPercentile(50));
+        assertWithin(990000, snapshot.getValueAtPercentile(99));
+        assertWithin(1000000, snapshot.getValueAtPercentile(100));
+        assertWithin(1000000, snapshot.getMaxValue());
+        assertWithin(1000, snapshot.getValueAtPercentile(0));
+    }
+
+    public void testInterval()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5000000);
+        histogram.record(10);
+        LatencyHistogramSnapshot interval = histogram.snapshotInterval();
+        assertEquals(2, interval.getTotalCount());
+        assertWithin(5000000, interval.getMaxValue());
+
+        histogram.record(20);
+        interval = histogram.snapshotInterval();
+        assertEquals(1, interval.getTotalCount());
+        assertWithin(20, interval.getMaxValue());
+
+        assertEquals(0, histogram.snapshotInterval().getTotalCount());
+        assertEquals(3, histogram.snapshot().getTotalCount());
+    }
+
+    public void testMergeThreads() throws Exception
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final long value = (i + 1) * 100;
+            threads[i] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    for (int j = 0; j < 10000; j++)
+                    {
+                        histogram.record(value);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        LatencyHistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(40000, snapshot.getTotalCount());
+        assertWithin(100, snapshot.getValueAtPercentile(25));
+        assertWithin(400, snapshot.getMaxValue());
+    }
+
+    public void testRetireThreads() throws Exception
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++)
+        {
+            Thread thread = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    histogram.record(50);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        histogram.record(50);
+
+        // the bucket arrays of terminated threads are folded, only the current thread keeps its own
+        assertEquals(101, histogram.snapshot().getTotalCount());
+        assertEquals(1, histogram.getNumRecorders());
+        histogram.record(50);
+        assertEquals(102, histogram.snapshot().getTotalCount());
+        assertEquals(102, histogram.snapshotInterval().getTotalCount());
+    }
+
+    private void assertWithin(long expected, long actual)
+    {
+        assertTrue("expected " + expected + " actual " + actual, actual >= expected && actual <= expected + expected / 8);
+    }
+}
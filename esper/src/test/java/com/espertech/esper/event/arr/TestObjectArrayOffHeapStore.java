@@ -0,0 +1,125 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.event.arr;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestObjectArrayOffHeapStore extends TestCase
+{
+    private ObjectArrayEventType eventType;
+    private ObjectArrayOffHeapStore store;
+
+    public void setUp()
+    {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("p0", String.class);
+        typeRep.put("p1", int.class);
+        typeRep.put("p2", Long.class);
+        typeRep.put("p3", double.class);
+        typeRep.put("p4", Boolean.class);
+        typeRep.put("p5", char.class);
+        typeRep.put("p6", Short.class);
+        typeRep.put("p7", Byte.class);
+        typeRep.put("p8", Float.class);
+        typeRep.put("p9", String.class);
+        eventType = new ObjectArrayEventType(null, "", 1, SupportEventAdapterService.getService(), typeRep, null, null, null);
+        store = new ObjectArrayOffHeapStore(eventType);
+    }
+
+    public void testAddReadRemove()
+    {
+        Object[] rowOne = new Object[] {"E1", 10, 100L, 1.5d, true, 'x', (short) 3, (byte) 4, 2.5f, "A"};
+        Object[] rowTwo = new Object[] {null, 20, null, 2.5d, null, 'y', null, null, null, "A"};
+        int slotOne = store.add(rowOne);
+        int slotTwo = store.add(rowTwo);
+
+        assertTrue(Arrays.equals(rowOne, store.read(slotOne)));
+        assertTrue(Arrays.equals(rowTwo, store.read(slotTwo)));
+        assertEquals(100L, store.read(slotOne, 2));
+        assertNull(store.read(slotTwo, 2));
+        assertEquals(2, store.getNumRows());
+        assertEquals(2, store.getNumDictionaryStrings());
+
+        store.remove(slotOne);
+        assertEquals(1, store.getNumRows());
+        assertEquals(1, store.getNumDictionaryStrings());
+        assertEquals("A", store.read(slotTwo, 9));
+
+        // slot of removed row is reused
+        int slotThree = store.add(new Object[] {"E3", 30, 300L, 3.5d, false, 'z', (short) 1, (byte) 1, 1f, "B"});
+        assertEquals(slotOne, slotThree);
+        assertEquals("E3", store.read(slotThree, 0));
+        assertEquals(3, store.getNumDictionaryStrings());
+    }
+
+    public void testManyRows()
+    {
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, store.add(new Object[] {"E" + (i % 10), i, (long) i, (double) i, i % 2 == 0, 'c', (short) i, (byte) i, (float) i, null}));
+        }
+        assertEquals(count, store.getNumRows());
+        assertEquals(10, store.getNumDictionaryStrings());
+        assertTrue(store.getOffHeapBytes() > 0);
+        for (int i = 0; i < count; i += 997) {
+            assertEquals("E" + (i % 10), store.read(i, 0));
+            assertEquals(i, store.read(i, 1));
+            assertEquals((long) i, store.read(i, 2));
+        }
+    }
+
+    public void testFlyweight()
+    {
+        Object[] values = new Object[] {"E1", 10, 100L, 1.5d, true, 'x', (short) 3, (byte) 4, 2.5f, "A"};
+        ObjectArrayOffHeapEventBean theEvent = new ObjectArrayOffHeapEventBean(eventType, store, store.add(values));
+        assertTrue(theEvent.isAttached());
+        assertEquals("E1", theEvent.get("p0"));
+        assertEquals(10, theEvent.get("p1"));
+        assertTrue(Arrays.equals(values, (Object[]) theEvent.getUnderlying()));
+
+        theEvent.detach();
+        assertFalse(theEvent.isAttached());
+        assertEquals(0, store.getNumRows());
+        store.add(new Object[] {"E2", 20, 200L, 2.5d, false, 'y', (short) 1, (byte) 1, 1f, "B"});
+        assertEquals("E1", theEvent.get("p0"));
+        assertTrue(Arrays.equals(values, theEvent.getProperties()));
+
+        try {
+            theEvent.setPropertyValues(values);
+            fail();
+        }
+        catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    public void testUnsupported()
+    {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("p0", String.class);
+        typeRep.put("p1", SupportBean.class);
+        ObjectArrayEventType type = new ObjectArrayEventType(null, "", 1, SupportEventAdapterService.getService(), typeRep, null, null, null);
+        assertEquals("Property 'p1' of type '" + SupportBean.class.getName() + "' is not supported for off-heap storage, supported are primitive, boxed and string property types", ObjectArrayOffHeapStore.checkSupported(type));
+        try {
+            new ObjectArrayOffHeapStore(type);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.supportunit.filter.SupportFilterHandle;
+import com.espertech.esper.supportunit.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestFilterServiceCopyOnWrite extends TestCase
+{
+    private EventType eventType;
+    private FilterServiceCopyOnWrite filterService;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        filterService = new FilterServiceCopyOnWrite(false);
+    }
+
+    public void testAddEvaluateRemove()
+    {
+        SupportFilterHandle handleEquals = new SupportFilterHandle();
+        SupportFilterHandle handleRange = new SupportFilterHandle();
+        SupportFilterHandle handleEqualsRange = new SupportFilterHandle();
+        SupportFilterHandle handleNone = new SupportFilterHandle();
+
+        FilterServiceEntry entryEquals = filterService.add(makeValueSet("theString", FilterOperator.EQUAL, "E1"), handleEquals);
+        FilterServiceEntry entryRange = filterService.add(makeValueSet("intPrimitive", FilterOperator.RANGE_CLOSED, 1, 10), handleRange);
+        FilterServiceEntry entryEqualsRange = filterService.add(makeValueSet("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.RANGE_CLOSED, 5, 6), handleEqualsRange);
+        FilterServiceEntry entryNone = filterService.add(makeValueSet(), handleNone);
+
+        assertMatches(makeEvent("E1", 5), handleEquals, handleRange, handleEqualsRange, handleNone);
+        assertMatches(makeEvent("E1", 7), handleEquals, handleRange, handleNone);
+        assertMatches(makeEvent("E2", 5), handleRange, handleNone);
+
+        filterService.remove(handleEquals, entryEquals);
+        assertMatches(makeEvent("E1", 5), handleRange, handleEqualsRange, handleNone);
+
+        filterService.remove(handleEqualsRange, entryEqualsRange);
+        filterService.remove(handleNone, entryNone);
+        assertMatches(makeEvent("E1", 5), handleRange);
+
+        filterService.remove(handleRange, entryRange);
+        assertMatches(makeEvent("E1", 5));
+        assertEquals(0, filterService.getFilterCountApprox());
+    }
+
+    public void testEvaluateDuringChanges() throws Exception
+    {
+        final SupportFilterHandle handleStable = new SupportFilterHandle();
+        filterService.add(makeValueSet("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.EQUAL, 1), handleStable);
+        final EventBean theEvent = makeEvent("E1", 1);
+        final AtomicBoolean done = new AtomicBoolean();
+
+        // evaluating threads must always find the filter that is not changing
+        Callable<Boolean> reader = new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                while (!done.get()) {
+                    matches.clear();
+                    filterService.evaluate(theEvent, matches);
+                    if (!matches.contains(handleStable)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(3);
+        Future<Boolean> readerOne = threadPool.submit(reader);
+        Future<Boolean> readerTwo = threadPool.submit(reader);
+
+        // changes convert the stable filter's index to a node and back, and add and remove sibling indexes
+        FilterValueSet[] changes = new FilterValueSet[] {
+                makeValueSet("theString", FilterOperator.EQUAL, "E1"),
+                makeValueSet("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.EQUAL, 2),
+                makeValueSet("intPrimitive", FilterOperator.RANGE_CLOSED, 0, 2),
+                makeValueSet("theString", FilterOperator.EQUAL, "E2", "intPrimitive", FilterOperator.EQUAL, 1),
+        };
+        for (int i = 0; i < 2000; i++) {
+            List<FilterServiceEntry> entries = new ArrayList<FilterServiceEntry>();
+            List<SupportFilterHandle> handles = new ArrayList<SupportFilterHandle>();
+            for (FilterValueSet change : changes) {
+                SupportFilterHandle handle = new SupportFilterHandle();
+                handles.add(handle);
+                entries.add(filterService.add(change, handle));
+            }
+            for (int j = 0; j < handles.size(); j++) {
+                filterService.remove(handles.get(j), entries.get(j));
+            }
+        }
+        done.set(true);
+
+        assertTrue(readerOne.get(10, TimeUnit.SECONDS));
+        assertTrue(readerTwo.get(10, TimeUnit.SECONDS));
+        threadPool.shutdown();
+        threadPool.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertMatches(theEvent, handleStable);
+    }
+
+    public void testProvider()
+    {
+        FilterService service = FilterServiceProvider.newService(ConfigurationEngineDefaults.FilterServiceProfile.COPYONWRITE, false);
+        assertTrue(service instanceof FilterServiceCopyOnWrite);
+    }
+
+    private void assertMatches(EventBean theEvent, FilterHandle... expected)
+    {
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(theEvent, matches);
+        assertEquals(expected.length, matches.size());
+        for (FilterHandle handle : expected) {
+            assertTrue(matches.contains(handle));
+        }
+    }
+
+    private FilterValueSet makeValueSet(Object... params)
+    {
+        return SupportFilterSpecBuilder.build(eventType, params).getValueSet(null, null, null);
+    }
+
+    private EventBean makeEvent(String theString, int intPrimitive)
+    {
+        return SupportEventBeanFactory.createObject(new SupportBean(theString, intPrimitive));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestMatchedEventMapImpl extends TestCase
+{
+    private MatchedEventMapMeta meta;
+    private EventBean[] events;
+
+    public void setUp()
+    {
+        meta = new MatchedEventMapMeta(new String[] {"a", "b", "c"}, false);
+        events = new EventBean[3];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, i));
+        }
+    }
+
+    public void testShallowCopyWriteIsolated()
+    {
+        MatchedEventMapImpl original = new MatchedEventMapImpl(meta);
+        original.add(0, events[0]);
+
+        MatchedEventMapImpl copy = original.shallowCopy();
+        assertSame(original.getMatchingEvents(), copy.getMatchingEvents());
+
+        copy.add(1, events[1]);
+        assertNull(original.getMatchingEvent(1));
+        assertSame(events[0], copy.getMatchingEvent(0));
+        assertSame(events[1], copy.getMatchingEvent(1));
+
+        original.add(2, events[2]);
+        assertNull(copy.getMatchingEvent(2));
+        assertSame(events[2], original.getMatchingEvent(2));
+        assertSame(events[0], original.getMatchingEvent(0));
+    }
+
+    public void testMerge()
+    {
+        MatchedEventMapImpl original = new MatchedEventMapImpl(meta);
+        original.add(0, events[0]);
+        MatchedEventMapImpl copy = original.shallowCopy();
+
+        // merging a map sharing the same array leaves the array shared
+        original.merge(copy);
+        assertSame(original.getMatchingEvents(), copy.getMatchingEvents());
+
+        MatchedEventMapImpl other = new MatchedEventMapImpl(meta);
+        other.add(1, events[1]);
+        copy.merge(other);
+        assertSame(events[0], copy.getMatchingEvent(0));
+        assertSame(events[1], copy.getMatchingEvent(1));
+        assertNull(original.getMatchingEvent(1));
+    }
+
+    public void testCopyOfEmpty()
+    {
+        MatchedEventMapImpl empty = new MatchedEventMapImpl(new MatchedEventMapMeta(new String[0], false));
+        assertSame(empty, empty.shallowCopy());
+    }
+}
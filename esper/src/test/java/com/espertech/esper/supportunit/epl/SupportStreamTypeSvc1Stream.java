@@ -65,6 +65,11 @@ public class SupportStreamTypeSvc1Stream implements StreamTypeService
         return new boolean[10]; 
     }
 
+    public boolean[] getFifoDataWindow()
+    {
+        return new boolean[10];
+    }
+
     public int getStreamNumForStreamName(String streamWildcard)
     {
         return impl.getStreamNumForStreamName(streamWildcard);
@@ -0,0 +1,121 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.util;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.bean.SupportEnum;
+import com.espertech.esper.type.MathArithTypeEnum;
+import junit.framework.TestCase;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.*;
+
+public class TestStructuralObjectCopier extends TestCase
+{
+    public void testCopyEnum() throws Exception
+    {
+        SupportEnum enumOne = SupportEnum.ENUM_VALUE_2;
+        assertSame(enumOne, StructuralObjectCopier.copy(enumOne));
+    }
+
+    public void testCopyExpression() throws Exception
+    {
+        ExprMathNode math = new ExprMathNode(MathArithTypeEnum.ADD, false, false);
+        math.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        math.addChildNode(new ExprConstantNodeImpl(10));
+
+        ExprMathNode copy = (ExprMathNode) StructuralObjectCopier.copy(math);
+        assertNotSame(math, copy);
+        assertNotSame(math.getChildNodes()[0], copy.getChildNodes()[0]);
+        assertTrue(math.equalsNode(copy));
+        assertEquals("s0.intPrimitive+10", ExprNodeUtility.toExpressionStringMinPrecedenceSafe(copy));
+        assertEquals(ExprNodeUtility.toExpressionStringMinPrecedenceSafe(math), ExprNodeUtility.toExpressionStringMinPrecedenceSafe((ExprMathNode) SerializableObjectCopier.copy(math)));
+    }
+
+    public void testCopyGraph() throws Exception
+    {
+        MyNode shared = new MyNode("shared", null);
+        MyNode first = new MyNode("first", shared);
+        first.cached = "cached";
+        first.values = new int[] {1, 2};
+        first.items = new ArrayList<Object>(Arrays.asList(shared, "text"));
+        first.map = new LinkedHashMap<String, Object>();
+        first.map.put("a", shared);
+        first.map.put("b", first);
+
+        MyNode copy = (MyNode) StructuralObjectCopier.copy(first);
+        assertEquals("first", copy.name);
+        assertNull(copy.cached);
+        assertTrue(Arrays.equals(new int[] {1, 2}, copy.values));
+        assertNotSame(first.values, copy.values);
+        assertNotSame(shared, copy.next);
+        assertSame(copy.next, copy.items.get(0));
+        assertSame(copy.next, copy.map.get("a"));
+        assertSame(copy, copy.map.get("b"));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(copy.map.keySet()));
+    }
+
+    public void testCopyConfiguration() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.addEventType(SupportBean.class);
+        config.addVariable("myvar", Integer.class, 10);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getExecution().setThreadingProfile(ConfigurationEngineDefaults.ThreadingProfile.LARGE);
+
+        Configuration copy = (Configuration) StructuralObjectCopier.copy(config);
+        assertNotSame(config.getEventTypeNames(), copy.getEventTypeNames());
+        assertEquals(config.getEventTypeNames(), copy.getEventTypeNames());
+        assertEquals(10, copy.getVariables().get("myvar").getInitializationValue());
+        assertTrue(copy.getEngineDefaults().getThreading().isThreadPoolInbound());
+        assertSame(ConfigurationEngineDefaults.ThreadingProfile.LARGE, copy.getEngineDefaults().getExecution().getThreadingProfile());
+
+        copy.getEngineDefaults().getThreading().setThreadPoolInbound(false);
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolInbound());
+    }
+
+    public void testNotSerializable() throws Exception
+    {
+        MyNode node = new MyNode("node", null);
+        node.items = new ArrayList<Object>(Collections.singletonList(new Object()));
+        try {
+            StructuralObjectCopier.copy(node);
+            fail();
+        }
+        catch (NotSerializableException ex) {
+            assertEquals("java.lang.Object", ex.getMessage());
+        }
+    }
+
+    private static class MyNode implements Serializable
+    {
+        private static final long serialVersionUID = 4372619460212581097L;
+        private final String name;
+        private final MyNode next;
+        private transient String cached;
+        private int[] values;
+        private List<Object> items;
+        private Map<String, Object> map;
+
+        private MyNode(String name, MyNode next) {
+            this.name = name;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.representation.stax;
+
+import com.espertech.esper.util.MetaDefItem;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration object for enabling the engine to process events represented as XML documents that are read
+ * using a streaming parser.
+ * <p>
+ * Minimally required is the root element name. Event properties are made known to the engine as paths relative to the root
+ * element, for example "request/symbol" for the text of an element or "request/@id" for the value of an attribute.
+ * The property type is the type provided when adding the property, else the type of the element or attribute
+ * in the XML schema, else String.
+ * <p>
+ * When a schema is provided and no properties are added, the properties are the attributes and simple elements of the
+ * root element as declared by the schema.
+ */
+public class ConfigurationEventTypeStax implements MetaDefItem, Serializable
+{
+    private static final long serialVersionUID = 6243987165390870471L;
+
+    private String rootElementName;
+    private String rootElementNamespace;
+    private String schemaResource;
+    private String schemaText;
+    private boolean eventSenderValidatesRoot;
+    private Map<String, PropertyDesc> properties;
+
+    /**
+     * Ctor.
+     */
+    public ConfigurationEventTypeStax()
+    {
+        properties = new LinkedHashMap<String, PropertyDesc>();
+        eventSenderValidatesRoot = true;
+    }
+
+    /**
+     * Returns the root element name.
+     * @return root element name
+     */
+    public String getRootElementName()
+    {
+        return rootElementName;
+    }
+
+    /**
+     * Sets the root element name.
+     * @param rootElementName is the name of the root element
+     */
+    public void setRootElementName(String rootElementName)
+    {
+        this.rootElementName = rootElementName;
+    }
+
+    /**
+     * Returns the root element namespace, used to find the root element in the schema.
+     * @return root element namespace
+     */
+    public String getRootElementNamespace()
+    {
+        return rootElementNamespace;
+    }
+
+    /**
+     * Sets the root element namespace, used to find the root element in the schema.
+     * @param rootElementNamespace namespace for the root element
+     */
+    public void setRootElementNamespace(String rootElementNamespace)
+    {
+        this.rootElementNamespace = rootElementNamespace;
+    }
+
+    /**
+     * Returns the schema resource.
+     * @return schema resource
+     */
+    public String getSchemaResource()
+    {
+        return schemaResource;
+    }
+
+    /**
+     * Sets the schema resource, a URL or classpath resource name of the XSD schema that provides property types.
+     * @param schemaResource schema resource
+     */
+    public void setSchemaResource(String schemaResource)
+    {
+        this.schemaResource = schemaResource;
+    }
+
+    /**
+     * Returns the schema text.
+     * @return schema text
+     */
+    public String getSchemaText()
+    {
+        return schemaText;
+    }
+
+    /**
+     * Sets the schema text, for use when the schema is not available as a resource.
+     * @param schemaText schema text
+     */
+    public void setSchemaText(String schemaText)
+    {
+        this.schemaText = schemaText;
+    }
+
+    /**
+     * Returns indicator whether the event sender checks the root element name, default true.
+     * @return indicator
+     */
+    public boolean isEventSenderValidatesRoot()
+    {
+        return eventSenderValidatesRoot;
+    }
+
+    /**
+     * Sets indicator whether the event sender checks the root element name.
+     * @param eventSenderValidatesRoot indicator
+     */
+    public void setEventSenderValidatesRoot(boolean eventSenderValidatesRoot)
+    {
+        this.eventSenderValidatesRoot = eventSenderValidatesRoot;
+    }
+
+    /**
+     * Adds an event property, with a type provided by the schema or String when there is no schema.
+     * @param name is the event property name
+     * @param path is the path relative to the root element
+     */
+    public void addProperty(String name, String path)
+    {
+        properties.put(name, new PropertyDesc(name, path, null));
+    }
+
+    /**
+     * Adds an event property of the given type. Array types collect the values of all occurrences of the element or attribute.
+     * @param name is the event property name
+     * @param path is the path relative to the root element
+     * @param type is the property type
+     */
+    public void addProperty(String name, String path, Class type)
+    {
+        properties.put(name, new PropertyDesc(name, path, type));
+    }
+
+    /**
+     * Returns the event properties.
+     * @return map of property name and descriptor
+     */
+    public Map<String, PropertyDesc> getProperties()
+    {
+        return properties;
+    }
+
+    /**
+     * Descriptor for an event property.
+     */
+    public static class PropertyDesc implements Serializable
+    {
+        private static final long serialVersionUID = -1820347564218372201L;
+
+        private final String name;
+        private final String path;
+        private final Class optionalType;
+
+        /**
+         * Ctor.
+         * @param name is the event property name
+         * @param path is the path relative to the root element
+         * @param optionalType is the property type, or null when not provided
+         */
+        public PropertyDesc(String name, String path, Class optionalType)
+        {
+            this.name = name;
+            this.path = path;
+            this.optionalType = optionalType;
+        }
+
+        /**
+         * Returns the event property name.
+         * @return name
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Returns the path relative to the root element.
+         * @return path
+         */
+        public String getPath()
+        {
+            return path;
+        }
+
+        /**
+         * Returns the property type, or null when not provided.
+         * @return type
+         */
+        public Class getOptionalType()
+        {
+            return optionalType;
+        }
+    }
+}
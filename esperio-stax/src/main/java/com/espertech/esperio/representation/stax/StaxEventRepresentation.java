@@ -0,0 +1,70 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.representation.stax;
+
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventTypeMetadata;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.plugin.*;
+
+import javax.xml.stream.XMLInputFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plug-in event representation for XML documents that are read using a streaming (StAX) parser.
+ * <p>
+ * The event sender reads each document once, without building a document tree, and only reads the elements and attributes
+ * that the configured properties refer to. Events are object-array events, and the getters of
+ * the event type are array index lookups. Types are configured by {@link ConfigurationEventTypeStax}.
+ */
+public class StaxEventRepresentation implements PlugInEventRepresentation
+{
+    private EventAdapterService eventAdapterService;
+    private XMLInputFactory inputFactory;
+
+    public void init(PlugInEventRepresentationContext eventRepresentationContext)
+    {
+        eventAdapterService = eventRepresentationContext.getEventAdapterService();
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public boolean acceptsType(PlugInEventTypeHandlerContext acceptTypeContext)
+    {
+        return acceptTypeContext.getTypeInitializer() instanceof ConfigurationEventTypeStax;
+    }
+
+    public PlugInEventTypeHandler getTypeHandler(PlugInEventTypeHandlerContext eventTypeContext)
+    {
+        ConfigurationEventTypeStax config = (ConfigurationEventTypeStax) eventTypeContext.getTypeInitializer();
+        StaxFieldReader fieldReader = new StaxFieldReader(config);
+
+        Map<String, Object> propertyTypes = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < fieldReader.getPropertyNames().length; i++)
+        {
+            propertyTypes.put(fieldReader.getPropertyNames()[i], fieldReader.getPropertyTypes()[i]);
+        }
+        String eventTypeName = eventTypeContext.getEventTypeName();
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.OBJECTARR, eventTypeName, true, true, true, false, false);
+        ObjectArrayEventType eventType = new ObjectArrayEventType(metadata, eventTypeName, eventTypeContext.getEventTypeId(), eventAdapterService, propertyTypes, null, null, null);
+        return new StaxEventTypeHandler(eventType, fieldReader, inputFactory, eventAdapterService);
+    }
+
+    public boolean acceptsEventBeanResolution(PlugInEventBeanReflectorContext context)
+    {
+        return false;
+    }
+
+    public PlugInEventBeanFactory getEventBeanFactory(PlugInEventBeanReflectorContext uri)
+    {
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.representation.stax;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventSender;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+
+/**
+ * Event sender that reads XML documents using a streaming parser and sends an object-array event holding the property values.
+ * <p>
+ * Accepts documents as byte array, String, InputStream or as a XMLStreamReader positioned before or at the root element.
+ * See {@link StaxEventRepresentation} for more details.
+ */
+public class StaxEventSender implements EventSender
+{
+    private final ObjectArrayEventType eventType;
+    private final StaxFieldReader fieldReader;
+    private final XMLInputFactory inputFactory;
+    private final EventAdapterService eventAdapterService;
+    private final EPRuntimeEventSender runtimeEventSender;
+
+    /**
+     * Ctor.
+     * @param eventType the event type
+     * @param fieldReader reads property values
+     * @param inputFactory for creating stream readers
+     * @param eventAdapterService for event bean creation
+     * @param runtimeEventSender the sender to send events into
+     */
+    public StaxEventSender(ObjectArrayEventType eventType, StaxFieldReader fieldReader, XMLInputFactory inputFactory, EventAdapterService eventAdapterService, EPRuntimeEventSender runtimeEventSender)
+    {
+        this.eventType = eventType;
+        this.fieldReader = fieldReader;
+        this.inputFactory = inputFactory;
+        this.eventAdapterService = eventAdapterService;
+        this.runtimeEventSender = runtimeEventSender;
+    }
+
+    public void sendEvent(Object theEvent) throws EPException
+    {
+        processEvent(theEvent, false);
+    }
+
+    public void route(Object theEvent) throws EPException
+    {
+        processEvent(theEvent, true);
+    }
+
+    private void processEvent(Object document, boolean isRoute)
+    {
+        Object[] values;
+        XMLStreamReader reader = null;
+        try
+        {
+            if (document instanceof XMLStreamReader)
+            {
+                values = fieldReader.read((XMLStreamReader) document);
+            }
+            else
+            {
+                if (document instanceof byte[])
+                {
+                    reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream((byte[]) document));
+                }
+                else if (document instanceof String)
+                {
+                    reader = inputFactory.createXMLStreamReader(new StringReader((String) document));
+                }
+                else if (document instanceof InputStream)
+                {
+                    reader = inputFactory.createXMLStreamReader((InputStream) document);
+                }
+                else
+                {
+                    throw new EPException("Unexpected event object type '" + (document == null ? null : document.getClass().getName()) + "' encountered, please supply a byte array, String, InputStream or XMLStreamReader");
+                }
+                values = fieldReader.read(reader);
+            }
+        }
+        catch (XMLStreamException ex)
+        {
+            throw new EPException("Failed to read XML document: " + ex.getMessage(), ex);
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch (XMLStreamException ex)
+                {
+                    // the document was read
+                }
+            }
+        }
+
+        EventBean theEvent = eventAdapterService.adapterForTypedObjectArray(values, eventType);
+        if (isRoute)
+        {
+            runtimeEventSender.routeEventBean(theEvent);
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEvent(theEvent);
+        }
+    }
+}
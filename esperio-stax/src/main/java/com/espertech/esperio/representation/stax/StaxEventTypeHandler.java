@@ -0,0 +1,56 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.representation.stax;
+
+import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.plugin.PlugInEventTypeHandler;
+
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * Handles a given streaming XML event type.
+ * <p>
+ * See {@link StaxEventRepresentation} for more details.
+ */
+public class StaxEventTypeHandler implements PlugInEventTypeHandler
+{
+    private final ObjectArrayEventType eventType;
+    private final StaxFieldReader fieldReader;
+    private final XMLInputFactory inputFactory;
+    private final EventAdapterService eventAdapterService;
+
+    /**
+     * Ctor.
+     * @param eventType the event type
+     * @param fieldReader reads property values
+     * @param inputFactory for creating stream readers
+     * @param eventAdapterService for event bean creation
+     */
+    public StaxEventTypeHandler(ObjectArrayEventType eventType, StaxFieldReader fieldReader, XMLInputFactory inputFactory, EventAdapterService eventAdapterService)
+    {
+        this.eventType = eventType;
+        this.fieldReader = fieldReader;
+        this.inputFactory = inputFactory;
+        this.eventAdapterService = eventAdapterService;
+    }
+
+    public EventType getType()
+    {
+        return eventType;
+    }
+
+    public EventSender getSender(EPRuntimeEventSender runtimeEventSender)
+    {
+        return new StaxEventSender(eventType, fieldReader, inputFactory, eventAdapterService, runtimeEventSender);
+    }
+}
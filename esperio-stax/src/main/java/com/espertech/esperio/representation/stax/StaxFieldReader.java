@@ -0,0 +1,430 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.representation.stax;
+
+import com.espertech.esper.client.ConfigurationException;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.event.xml.*;
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.util.SimpleTypeParser;
+import com.espertech.esper.util.SimpleTypeParserFactory;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Reads the event property values from an XML document using a streaming parser, into an array that holds a value
+ * for each property.
+ * <p>
+ * Property paths are compiled into a tree of element names. Elements that no property path refers to are skipped,
+ * and reading stops once each property has a value unless a property collects values of repeated elements.
+ * Element and attribute names are matched by local name.
+ */
+public class StaxFieldReader
+{
+    private static final StringBuilder NO_TEXT = new StringBuilder();
+
+    private final String rootElementName;
+    private final boolean validateRoot;
+    private final String[] propertyNames;
+    private final Class[] propertyTypes;
+    private final SimpleTypeParser[] parsers;
+    private final Class[] arrayComponentTypes;
+    private final boolean hasArrays;
+    private final PathNode root = new PathNode();
+
+    /**
+     * Ctor.
+     * @param config type configuration
+     * @throws ConfigurationException if the configuration is invalid
+     */
+    public StaxFieldReader(ConfigurationEventTypeStax config) throws ConfigurationException
+    {
+        if (config.getRootElementName() == null)
+        {
+            throw new ConfigurationException("Required root element name has not been supplied");
+        }
+        this.rootElementName = config.getRootElementName();
+        this.validateRoot = config.isEventSenderValidatesRoot();
+
+        SchemaElementComplex schemaRoot = null;
+        if (config.getSchemaResource() != null || config.getSchemaText() != null)
+        {
+            SchemaModel schemaModel;
+            try
+            {
+                schemaModel = XSDSchemaMapper.loadAndMap(config.getSchemaResource(), config.getSchemaText());
+            }
+            catch (EPException ex)
+            {
+                throw new ConfigurationException("Failed to read schema: " + ex.getMessage(), ex);
+            }
+            schemaRoot = SchemaUtil.findRootElement(schemaModel, config.getRootElementNamespace(), rootElementName);
+        }
+
+        Collection<ConfigurationEventTypeStax.PropertyDesc> properties = config.getProperties().values();
+        if (properties.isEmpty() && schemaRoot != null)
+        {
+            properties = getSchemaProperties(schemaRoot);
+        }
+        if (properties.isEmpty())
+        {
+            throw new ConfigurationException("No properties have been supplied and no schema provides properties for root element '" + rootElementName + "'");
+        }
+
+        int size = properties.size();
+        propertyNames = new String[size];
+        propertyTypes = new Class[size];
+        parsers = new SimpleTypeParser[size];
+        arrayComponentTypes = new Class[size];
+        boolean arrays = false;
+        int index = 0;
+        for (ConfigurationEventTypeStax.PropertyDesc property : properties)
+        {
+            String[] steps = property.getPath().split("/");
+            Class type = property.getOptionalType();
+            if (type == null)
+            {
+                type = schemaRoot == null ? String.class : getSchemaType(schemaRoot, steps, property);
+            }
+            propertyNames[index] = property.getName();
+            propertyTypes[index] = type;
+            Class valueType = type;
+            if (type.isArray())
+            {
+                arrayComponentTypes[index] = type.getComponentType();
+                valueType = type.getComponentType();
+                arrays = true;
+            }
+            parsers[index] = SimpleTypeParserFactory.getParser(JavaClassHelper.getBoxedType(valueType));
+            addPath(steps, index, property);
+            index++;
+        }
+        hasArrays = arrays;
+    }
+
+    /**
+     * Returns the event property names.
+     * @return names
+     */
+    public String[] getPropertyNames()
+    {
+        return propertyNames;
+    }
+
+    /**
+     * Returns the event property types.
+     * @return types
+     */
+    public Class[] getPropertyTypes()
+    {
+        return propertyTypes;
+    }
+
+    /**
+     * Reads the property values of a document.
+     * @param reader reader positioned before or at the root element
+     * @return property values
+     * @throws XMLStreamException if the document cannot be read
+     * @throws EPException if the root element name does not match or a value cannot be parsed
+     */
+    public Object[] read(XMLStreamReader reader) throws XMLStreamException
+    {
+        int event = reader.getEventType();
+        while (event != XMLStreamConstants.START_ELEMENT)
+        {
+            if (!reader.hasNext())
+            {
+                throw new EPException("XML document does not have a root element");
+            }
+            event = reader.next();
+        }
+        if (validateRoot && !rootElementName.equals(reader.getLocalName()))
+        {
+            throw new EPException("Unexpected root element name '" + reader.getLocalName() + "' encountered, expected a root element name of '" + rootElementName + "'");
+        }
+
+        ReadState state = new ReadState(propertyNames.length);
+        readAttributes(reader, root, state);
+
+        // frames hold the node and the text of each element along the current path
+        ArrayDeque<PathNode> nodes = new ArrayDeque<PathNode>();
+        ArrayDeque<StringBuilder> texts = new ArrayDeque<StringBuilder>();
+        PathNode current = root;
+        StringBuilder text = null;
+        int skipDepth = 0;
+        while (reader.hasNext() && (hasArrays || state.remaining > 0))
+        {
+            event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                if (skipDepth > 0)
+                {
+                    skipDepth++;
+                    continue;
+                }
+                PathNode child = current.children == null ? null : current.children.get(reader.getLocalName());
+                if (child == null)
+                {
+                    skipDepth = 1;
+                    continue;
+                }
+                readAttributes(reader, child, state);
+                nodes.push(current);
+                texts.push(text == null ? NO_TEXT : text);
+                current = child;
+                text = child.textIndex == -1 ? null : new StringBuilder();
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT)
+            {
+                if (skipDepth > 0)
+                {
+                    skipDepth--;
+                    continue;
+                }
+                if (nodes.isEmpty())
+                {
+                    break;
+                }
+                if (text != null)
+                {
+                    setValue(current.textIndex, text.toString(), state);
+                }
+                current = nodes.pop();
+                text = texts.pop();
+                if (text == NO_TEXT)
+                {
+                    text = null;
+                }
+            }
+            else if (text != null && skipDepth == 0 &&
+                    (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE))
+            {
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+        }
+
+        Object[] values = state.values;
+        if (hasArrays)
+        {
+            for (int i = 0; i < values.length; i++)
+            {
+                Class componentType = arrayComponentTypes[i];
+                if (componentType == null)
+                {
+                    continue;
+                }
+                List<Object> items = state.arrays[i];
+                int count = items == null ? 0 : items.size();
+                Object array = Array.newInstance(componentType, count);
+                for (int j = 0; j < count; j++)
+                {
+                    Array.set(array, j, items.get(j));
+                }
+                values[i] = array;
+            }
+        }
+        return values;
+    }
+
+    private void readAttributes(XMLStreamReader reader, PathNode node, ReadState state)
+    {
+        if (node.attributes == null)
+        {
+            return;
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+        {
+            Integer index = node.attributes.get(reader.getAttributeLocalName(i));
+            if (index != null)
+            {
+                setValue(index, reader.getAttributeValue(i), state);
+            }
+        }
+    }
+
+    private void setValue(int index, String text, ReadState state)
+    {
+        boolean isArray = arrayComponentTypes[index] != null;
+        if (!isArray && state.values[index] != null)
+        {
+            return;
+        }
+
+        Object value;
+        if (propertyTypes[index] == String.class)
+        {
+            value = text;
+        }
+        else
+        {
+            String trimmed = text.trim();
+            if (trimmed.length() == 0)
+            {
+                return;
+            }
+            try
+            {
+                value = parsers[index].parse(trimmed);
+            }
+            catch (RuntimeException ex)
+            {
+                throw new EPException("Failed to parse value '" + trimmed + "' of property '" + propertyNames[index] + "': " + ex.getMessage(), ex);
+            }
+        }
+
+        if (isArray)
+        {
+            if (state.arrays[index] == null)
+            {
+                state.arrays[index] = new ArrayList<Object>(4);
+            }
+            state.arrays[index].add(value);
+        }
+        else
+        {
+            state.values[index] = value;
+            state.remaining--;
+        }
+    }
+
+    private void addPath(String[] steps, int index, ConfigurationEventTypeStax.PropertyDesc property)
+    {
+        PathNode node = root;
+        for (int i = 0; i < steps.length; i++)
+        {
+            String step = steps[i];
+            if (step.length() == 0)
+            {
+                throw new ConfigurationException("Invalid path '" + property.getPath() + "' for property '" + property.getName() + "'");
+            }
+            boolean last = i == steps.length - 1;
+            if (step.startsWith("@"))
+            {
+                if (!last)
+                {
+                    throw new ConfigurationException("Invalid path '" + property.getPath() + "' for property '" + property.getName() + "', an attribute must be the last step");
+                }
+                if (node.attributes == null)
+                {
+                    node.attributes = new HashMap<String, Integer>();
+                }
+                node.attributes.put(step.substring(1), index);
+                return;
+            }
+            if (node.children == null)
+            {
+                node.children = new HashMap<String, PathNode>();
+            }
+            PathNode child = node.children.get(step);
+            if (child == null)
+            {
+                child = new PathNode();
+                node.children.put(step, child);
+            }
+            node = child;
+        }
+        if (node.textIndex != -1)
+        {
+            throw new ConfigurationException("Property '" + property.getName() + "' has the same path as property '" + propertyNames[node.textIndex] + "'");
+        }
+        node.textIndex = index;
+    }
+
+    private static Collection<ConfigurationEventTypeStax.PropertyDesc> getSchemaProperties(SchemaElementComplex schemaRoot)
+    {
+        List<ConfigurationEventTypeStax.PropertyDesc> properties = new ArrayList<ConfigurationEventTypeStax.PropertyDesc>();
+        for (SchemaItemAttribute attribute : schemaRoot.getAttributes())
+        {
+            properties.add(new ConfigurationEventTypeStax.PropertyDesc(attribute.getName(), "@" + attribute.getName(), SchemaUtil.toReturnType(attribute)));
+        }
+        for (SchemaElementSimple simple : schemaRoot.getSimpleElements())
+        {
+            properties.add(new ConfigurationEventTypeStax.PropertyDesc(simple.getName(), simple.getName(), SchemaUtil.toReturnType(simple)));
+        }
+        return properties;
+    }
+
+    private static Class getSchemaType(SchemaElementComplex schemaRoot, String[] steps, ConfigurationEventTypeStax.PropertyDesc property)
+    {
+        SchemaElementComplex current = schemaRoot;
+        for (int i = 0; i < steps.length; i++)
+        {
+            String step = steps[i];
+            boolean last = i == steps.length - 1;
+            if (last && step.startsWith("@"))
+            {
+                for (SchemaItemAttribute attribute : current.getAttributes())
+                {
+                    if (attribute.getName().equals(step.substring(1)))
+                    {
+                        return SchemaUtil.toReturnType(attribute);
+                    }
+                }
+                break;
+            }
+            if (last)
+            {
+                for (SchemaElementSimple simple : current.getSimpleElements())
+                {
+                    if (simple.getName().equals(step))
+                    {
+                        return SchemaUtil.toReturnType(simple);
+                    }
+                }
+            }
+            SchemaElementComplex child = null;
+            for (SchemaElementComplex complex : current.getChildren())
+            {
+                if (complex.getName().equals(step))
+                {
+                    child = complex;
+                }
+            }
+            if (child == null)
+            {
+                break;
+            }
+            if (last)
+            {
+                if (child.getOptionalSimpleType() == null)
+                {
+                    throw new ConfigurationException("Path '" + property.getPath() + "' for property '" + property.getName() + "' refers to a complex element without simple content");
+                }
+                return SchemaUtil.toReturnType(child);
+            }
+            current = child;
+        }
+        throw new ConfigurationException("Path '" + property.getPath() + "' for property '" + property.getName() + "' could not be found in the schema");
+    }
+
+    private static class PathNode
+    {
+        private Map<String, PathNode> children;
+        private Map<String, Integer> attributes;
+        private int textIndex = -1;
+    }
+
+    private static class ReadState
+    {
+        private final Object[] values;
+        private final List<Object>[] arrays;
+        private int remaining;
+
+        private ReadState(int size)
+        {
+            this.values = new Object[size];
+            this.arrays = new List[size];
+            this.remaining = size;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esperio.representation.stax;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import junit.framework.TestCase;
+
+import javax.xml.stream.XMLInputFactory;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+public class TestStax extends TestCase
+{
+    private static final String STAX_URI = "types://xml/stax/Document";
+
+    private static final String XML =
+        "<order id=\"O1\" priority=\"2\">\n" +
+        "  <customer><name>Acme</name><unused><deep>x</deep></unused></customer>\n" +
+        "  <price>10.5</price>\n" +
+        "  <comment><![CDATA[a & b]]></comment>\n" +
+        "  <item sku=\"S1\">1</item>\n" +
+        "  <item sku=\"S2\">2</item>\n" +
+        "</order>";
+
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">\n" +
+        "  <xs:element name=\"order\">\n" +
+        "    <xs:complexType>\n" +
+        "      <xs:sequence>\n" +
+        "        <xs:element name=\"price\" type=\"xs:double\"/>\n" +
+        "        <xs:element name=\"qty\" type=\"xs:int\"/>\n" +
+        "        <xs:element name=\"tag\" type=\"xs:string\" minOccurs=\"0\" maxOccurs=\"unbounded\"/>\n" +
+        "        <xs:element name=\"customer\">\n" +
+        "          <xs:complexType>\n" +
+        "            <xs:sequence><xs:element name=\"name\" type=\"xs:string\"/></xs:sequence>\n" +
+        "            <xs:attribute name=\"rank\" type=\"xs:long\"/>\n" +
+        "          </xs:complexType>\n" +
+        "        </xs:element>\n" +
+        "      </xs:sequence>\n" +
+        "      <xs:attribute name=\"id\" type=\"xs:string\"/>\n" +
+        "    </xs:complexType>\n" +
+        "  </xs:element>\n" +
+        "</xs:schema>";
+
+    public void testProperties() throws Exception
+    {
+        ConfigurationEventTypeStax type = new ConfigurationEventTypeStax();
+        type.setRootElementName("order");
+        type.addProperty("orderId", "@id");
+        type.addProperty("priority", "@priority", int.class);
+        type.addProperty("customerName", "customer/name");
+        type.addProperty("price", "price", double.class);
+        type.addProperty("comment", "comment");
+        type.addProperty("skus", "item/@sku", String[].class);
+        type.addProperty("quantities", "item", Integer[].class);
+        type.addProperty("missing", "customer/none");
+        Configuration configuration = getConfiguration();
+        configuration.addPlugInEventType("OrderEvent", new URI[] {new URI(STAX_URI)}, type);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider("TestStaxProperties", configuration);
+        epService.initialize();
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from OrderEvent(price > 10)").addListener(listener);
+
+        EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType("OrderEvent");
+        assertEquals(int.class, eventType.getPropertyType("priority"));
+        assertEquals(String[].class, eventType.getPropertyType("skus"));
+
+        EventSender sender = epService.getEPRuntime().getEventSender("OrderEvent");
+        sender.sendEvent(XML.getBytes("UTF-8"));
+        EventBean theEvent = listener.assertOneGetNewAndReset();
+        EPAssertionUtil.assertProps(theEvent, "orderId,priority,customerName,price,comment,missing".split(","),
+                new Object[] {"O1", 2, "Acme", 10.5, "a & b", null});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {"S1", "S2"}, (Object[]) theEvent.get("skus"));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {1, 2}, (Object[]) theEvent.get("quantities"));
+
+        sender.sendEvent(XML.replace("10.5", "9"));
+        assertFalse(listener.isInvoked());
+
+        sender.sendEvent(new ByteArrayInputStream(XML.replace("10.5", "11").getBytes("UTF-8")));
+        assertEquals(11d, listener.assertOneGetNewAndReset().get("price"));
+
+        sender.sendEvent(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader("<order><price>12</price></order>")));
+        theEvent = listener.assertOneGetNewAndReset();
+        assertEquals(12d, theEvent.get("price"));
+        assertEquals(0, ((Object[]) theEvent.get("skus")).length);
+        assertNull(theEvent.get("orderId"));
+
+        epService.destroy();
+    }
+
+    public void testSchema() throws Exception
+    {
+        ConfigurationEventTypeStax type = new ConfigurationEventTypeStax();
+        type.setRootElementName("order");
+        type.setSchemaText(SCHEMA);
+        Configuration configuration = getConfiguration();
+        configuration.addPlugInEventType("OrderEvent", new URI[] {new URI(STAX_URI)}, type);
+
+        ConfigurationEventTypeStax typeNested = new ConfigurationEventTypeStax();
+        typeNested.setRootElementName("order");
+        typeNested.setSchemaText(SCHEMA);
+        typeNested.addProperty("customerRank", "customer/@rank");
+        typeNested.addProperty("customerName", "customer/name");
+        typeNested.addProperty("qty", "qty");
+        configuration.addPlugInEventType("OrderCustomerEvent", new URI[] {new URI(STAX_URI)}, typeNested);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider("TestStaxSchema", configuration);
+        epService.initialize();
+
+        EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType("OrderEvent");
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {"id", "price", "qty", "tag"}, eventType.getPropertyNames());
+        assertEquals(Double.class, eventType.getPropertyType("price"));
+        assertEquals(Integer.class, eventType.getPropertyType("qty"));
+        assertEquals(String[].class, eventType.getPropertyType("tag"));
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select id, price * qty as total, tag from OrderEvent").addListener(listener);
+        SupportUpdateListener listenerNested = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from OrderCustomerEvent").addListener(listenerNested);
+
+        String xml = "<order id=\"O1\"><price>2.5</price><qty>4</qty><tag>a</tag><tag>b</tag><customer rank=\"7\"><name>Acme</name></customer></order>";
+        epService.getEPRuntime().getEventSender("OrderEvent").sendEvent(xml);
+        EventBean theEvent = listener.assertOneGetNewAndReset();
+        assertEquals("O1", theEvent.get("id"));
+        assertEquals(10d, theEvent.get("total"));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {"a", "b"}, (Object[]) theEvent.get("tag"));
+
+        epService.getEPRuntime().getEventSender("OrderCustomerEvent").sendEvent(xml);
+        EPAssertionUtil.assertProps(listenerNested.assertOneGetNewAndReset(), "customerRank,customerName,qty".split(","), new Object[] {7L, "Acme", 4});
+
+        // reading stops once all values are read, the remainder of the document is not parsed
+        epService.getEPRuntime().getEventSender("OrderCustomerEvent").sendEvent("<order><qty>5</qty><customer rank=\"1\"><name>N</name></customer><unclosed>");
+        EPAssertionUtil.assertProps(listenerNested.assertOneGetNewAndReset(), "customerRank,customerName,qty".split(","), new Object[] {1L, "N", 5});
+
+        epService.destroy();
+    }
+
+    public void testInvalid() throws Exception
+    {
+        ConfigurationEventTypeStax type = new ConfigurationEventTypeStax();
+        type.setRootElementName("order");
+        type.addProperty("price", "price", double.class);
+        Configuration configuration = getConfiguration();
+        configuration.addPlugInEventType("OrderEvent", new URI[] {new URI(STAX_URI)}, type);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider("TestStaxInvalid", configuration);
+        epService.initialize();
+        EventSender sender = epService.getEPRuntime().getEventSender("OrderEvent");
+
+        tryInvalidSend(sender, "<other><price>1</price></other>", "Unexpected root element name 'other' encountered, expected a root element name of 'order'");
+        tryInvalidSend(sender, "<order><price>abc</price></order>", "Failed to parse value 'abc' of property 'price': ");
+        tryInvalidSend(sender, "<order><price>1</pr></order>", "Failed to read XML document: ");
+        tryInvalidSend(sender, 10, "Unexpected event object type 'java.lang.Integer' encountered, please supply a byte array, String, InputStream or XMLStreamReader");
+        epService.destroy();
+
+        ConfigurationEventTypeStax typeNotInSchema = new ConfigurationEventTypeStax();
+        typeNotInSchema.setRootElementName("order");
+        typeNotInSchema.setSchemaText(SCHEMA);
+        typeNotInSchema.addProperty("value", "customer/value");
+        tryInvalidConfig(typeNotInSchema, "Path 'customer/value' for property 'value' could not be found in the schema");
+
+        ConfigurationEventTypeStax typeComplex = new ConfigurationEventTypeStax();
+        typeComplex.setRootElementName("order");
+        typeComplex.setSchemaText(SCHEMA);
+        typeComplex.addProperty("customer", "customer");
+        tryInvalidConfig(typeComplex, "Path 'customer' for property 'customer' refers to a complex element without simple content");
+
+        ConfigurationEventTypeStax typeInvalidPath = new ConfigurationEventTypeStax();
+        typeInvalidPath.setRootElementName("order");
+        typeInvalidPath.addProperty("value", "@a/b");
+        tryInvalidConfig(typeInvalidPath, "Invalid path '@a/b' for property 'value', an attribute must be the last step");
+    }
+
+    private void tryInvalidSend(EventSender sender, Object document, String message)
+    {
+        try
+        {
+            sender.sendEvent(document);
+            fail();
+        }
+        catch (EPException ex)
+        {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith(message));
+        }
+    }
+
+    private void tryInvalidConfig(ConfigurationEventTypeStax type, String message) throws Exception
+    {
+        Configuration configuration = getConfiguration();
+        configuration.addPlugInEventType("OrderEvent", new URI[] {new URI(STAX_URI)}, type);
+        try
+        {
+            EPServiceProviderManager.getProvider("TestStaxInvalidConfig", configuration).initialize();
+            fail();
+        }
+        catch (ConfigurationException ex)
+        {
+            assertTrue(ex.getMessage(), ex.getMessage().contains(message));
+        }
+    }
+
+    private Configuration getConfiguration() throws URISyntaxException
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+
+        // register new representation of events
+        config.addPlugInEventRepresentation(new URI(STAX_URI), StaxEventRepresentation.class.getName(), null);
+
+        return config;
+    }
+}